@@ -0,0 +1,105 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.constants.LogConstants;
+import com.example.bankcards.dto.CacheStatsResponse;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.helper.LogHelper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read and clear access to the application's Caffeine caches for administrators.
+ *
+ * <p>Covers the caches registered in the Spring {@link CacheManager} and the caches held by
+ * {@link NegativeLookupCache}. Metrics for the same caches are published through Micrometer
+ * ({@code cache.gets}, {@code cache.evictions}, {@code cache.size}, ...).
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CacheInspectionService {
+
+    private final CacheManager cacheManager;
+    private final NegativeLookupCache negativeLookupCache;
+
+    public List<CacheStatsResponse> getAllCacheStats(int topKeys) {
+        return nativeCaches().entrySet().stream()
+                .map(entry -> toResponse(entry.getKey(), entry.getValue(), topKeys))
+                .toList();
+    }
+
+    public CacheStatsResponse getCacheStats(String name, int topKeys) {
+        return toResponse(name, findNativeCache(name), topKeys);
+    }
+
+    public void clearCache(String name) {
+        LogHelper.logOperationStart(log, LogConstants.CACHE_CLEAR, "cache", name);
+
+        Cache<?, ?> cache = findNativeCache(name);
+        long size = cache.estimatedSize();
+        cache.invalidateAll();
+
+        LogHelper.logOperationSuccess(log, LogConstants.CACHE_CLEAR,
+                "cache", name,
+                "entriesCleared", size);
+    }
+
+    private Cache<?, ?> findNativeCache(String name) {
+        Cache<?, ?> cache = nativeCaches().get(name);
+        if (cache == null) {
+            throw new ResourceNotFoundException("Cache not found: " + name);
+        }
+        return cache;
+    }
+
+    private Map<String, Cache<?, ?>> nativeCaches() {
+        Map<String, Cache<?, ?>> caches = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name) instanceof CaffeineCache caffeineCache) {
+                caches.put(name, caffeineCache.getNativeCache());
+            }
+        }
+        caches.putAll(negativeLookupCache.caches());
+        return caches;
+    }
+
+    private static CacheStatsResponse toResponse(String name, Cache<?, ?> cache, int topKeys) {
+        CacheStats stats = cache.stats();
+        return new CacheStatsResponse(
+                name,
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount(),
+                stats.averageLoadPenalty() / (double) TimeUnit.MILLISECONDS.toNanos(1),
+                hottestKeys(cache, topKeys)
+        );
+    }
+
+    private static <K> List<String> hottestKeys(Cache<K, ?> cache, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        return cache.policy().eviction()
+                .map(eviction -> hottest(eviction, limit))
+                .orElse(List.of());
+    }
+
+    private static <K> List<String> hottest(Policy.Eviction<K, ?> eviction, int limit) {
+        return eviction.hottest(limit).keySet().stream()
+                .map(String::valueOf)
+                .toList();
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.constants.LogConstants;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.helper.LogHelper;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.projection.CardOwnerView;
+import com.example.bankcards.security.CustomUserDetailsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Preloads the {@code users}, {@code userCards} and {@code cards} caches for the most recently
+ * active users before the instance starts accepting traffic.
+ *
+ * <p>Runs as an {@link ApplicationRunner}: Spring Boot publishes
+ * {@code ReadinessState.ACCEPTING_TRAFFIC} only after all runners return, so the readiness probe
+ * flips once warm-up finishes or its time budget runs out. Disabled by default.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CacheWarmUp implements ApplicationRunner {
+
+    private final TransferRepository transferRepository;
+    private final CardRepository cardRepository;
+    private final CustomUserDetailsService userDetailsService;
+
+    @Value("${cache.warmup.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cache.warmup.recent-transfers:1000}")
+    private int recentTransfers;
+
+    @Value("${cache.warmup.max-users:200}")
+    private int maxUsers;
+
+    @Value("${cache.warmup.parallelism:4}")
+    private int parallelism;
+
+    @Value("${cache.warmup.time-budget-ms:10000}")
+    private long timeBudgetMs;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        warmUp();
+    }
+
+    /**
+     * Warms the caches and returns the number of users whose entries were fully loaded.
+     */
+    public int warmUp() {
+        long startedAt = System.nanoTime();
+        LogHelper.logOperationStart(log, LogConstants.CACHE_WARMUP,
+                "recentTransfers", recentTransfers,
+                "maxUsers", maxUsers,
+                "timeBudgetMs", timeBudgetMs);
+
+        List<CardOwnerView> users = findRecentlyActiveUsers();
+        if (users.isEmpty()) {
+            LogHelper.logOperationSuccess(log, LogConstants.CACHE_WARMUP, "usersWarmed", 0);
+            return 0;
+        }
+
+        AtomicInteger warmed = new AtomicInteger();
+        List<Callable<Void>> tasks = users.stream()
+                .<Callable<Void>>map(user -> () -> {
+                    if (warmUser(user)) {
+                        warmed.incrementAndGet();
+                    }
+                    return null;
+                })
+                .toList();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        boolean timedOut = false;
+        try {
+            List<Future<Void>> futures = executor.invokeAll(tasks, timeBudgetMs, TimeUnit.MILLISECONDS);
+            timedOut = futures.stream().anyMatch(Future::isCancelled);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            timedOut = true;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        LogHelper.logOperationSuccess(log, LogConstants.CACHE_WARMUP,
+                "usersWarmed", warmed.get(),
+                "usersSelected", users.size(),
+                "timedOut", timedOut,
+                "elapsedMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        return warmed.get();
+    }
+
+    /**
+     * Owners of the cards in the latest transfers, most recently active first.
+     */
+    private List<CardOwnerView> findRecentlyActiveUsers() {
+        List<Transfer> transfers = transferRepository.findLatest(PageRequest.of(0, recentTransfers));
+        Set<Long> cardIds = new LinkedHashSet<>();
+        for (Transfer transfer : transfers) {
+            cardIds.add(transfer.getFromCardId());
+            cardIds.add(transfer.getToCardId());
+        }
+        if (cardIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, CardOwnerView> ownerByCard = new LinkedHashMap<>();
+        for (CardOwnerView owner : cardRepository.findOwnersByCardIds(cardIds)) {
+            ownerByCard.put(owner.cardId(), owner);
+        }
+        // Владельцы берутся в порядке свежести карт, а не в порядке ответа БД, иначе лимит отрежет самых активных
+        Set<Long> seen = new LinkedHashSet<>();
+        List<CardOwnerView> users = new ArrayList<>();
+        for (Long cardId : cardIds) {
+            CardOwnerView owner = ownerByCard.get(cardId);
+            if (owner != null && seen.add(owner.ownerId())) {
+                users.add(owner);
+                if (users.size() == maxUsers) {
+                    break;
+                }
+            }
+        }
+        return users;
+    }
+
+    private boolean warmUser(CardOwnerView user) {
+        try {
+            userDetailsService.loadUserByUsername(user.username());
+            for (Card card : cardRepository.findByUserId(user.ownerId())) {
+                cardRepository.findByIdAndUserId(card.getId(), user.ownerId());
+            }
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("{} Failed to warm caches for userId={}: {}",
+                    LogConstants.CACHE_WARMUP, user.ownerId(), e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.bankcards.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-lived cache of lookups that are known to miss.
+ *
+ * <p>Spring's {@code @Cacheable} does not help with ids and usernames that do not exist,
+ * so every probe for an unknown card or user reaches the database. This component remembers
+ * such misses for a short TTL and lets callers reject repeated probes without a query.
+ *
+ * <p>Entries are evicted when the corresponding card or user is created. Because ids are
+ * generated by the database, eviction is repeated after the surrounding transaction commits
+ * so a concurrent probe cannot re-mark a freshly created row as missing.
+ */
+@Component
+@Slf4j
+public class NegativeLookupCache implements MeterBinder {
+
+    public static final String MISSING_CARDS = "missingCards";
+    public static final String MISSING_USERNAMES = "missingUsernames";
+
+    /**
+     * Rough per-entry footprint of a bounded Caffeine cache node holding a boxed key and
+     * {@link Boolean#TRUE}: node with expiry and access-order links, map table slot and key object.
+     */
+    private static final long ESTIMATED_ENTRY_BYTES = 96;
+
+    private final Cache<Long, Boolean> missingCards;
+    private final Cache<String, Boolean> missingUsernames;
+
+    public NegativeLookupCache(
+            @Value("${cache.negative.ttl-seconds:30}") long ttlSeconds,
+            @Value("${cache.negative.maximum-size:10000}") long maximumSize) {
+        this.missingCards = newCache(ttlSeconds, maximumSize);
+        this.missingUsernames = newCache(ttlSeconds, maximumSize);
+        log.info("Negative lookup cache initialized - ttlSeconds={}, maximumSize={}", ttlSeconds, maximumSize);
+    }
+
+    public boolean isCardMissing(Long cardId) {
+        return cardId != null && missingCards.getIfPresent(cardId) != null;
+    }
+
+    public void markCardMissing(Long cardId) {
+        if (cardId != null) {
+            missingCards.put(cardId, Boolean.TRUE);
+        }
+    }
+
+    public void evictCard(Long cardId) {
+        if (cardId != null) {
+            evictNowAndAfterCommit(() -> missingCards.invalidate(cardId));
+        }
+    }
+
+    public boolean isUsernameMissing(String username) {
+        return username != null && missingUsernames.getIfPresent(username) != null;
+    }
+
+    public void markUsernameMissing(String username) {
+        if (username != null) {
+            missingUsernames.put(username, Boolean.TRUE);
+        }
+    }
+
+    public void evictUsername(String username) {
+        if (username != null) {
+            evictNowAndAfterCommit(() -> missingUsernames.invalidate(username));
+        }
+    }
+
+    /**
+     * Returns hit/miss counters and an estimated memory footprint for each negative cache.
+     *
+     * <p>A hit is a database query avoided. Unlike a Bloom filter this cache has no false
+     * positives by construction; the only way to wrongly reject an existing key is a row created
+     * on another instance within the TTL, which {@code staleWindowSeconds} bounds.
+     */
+    public List<Stats> stats() {
+        return List.of(
+                toStats(MISSING_CARDS, missingCards),
+                toStats(MISSING_USERNAMES, missingUsernames)
+        );
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, missingCards, MISSING_CARDS);
+        CaffeineCacheMetrics.monitor(registry, missingUsernames, MISSING_USERNAMES);
+    }
+
+    Map<String, Cache<?, ?>> caches() {
+        Map<String, Cache<?, ?>> caches = new LinkedHashMap<>();
+        caches.put(MISSING_CARDS, missingCards);
+        caches.put(MISSING_USERNAMES, missingUsernames);
+        return caches;
+    }
+
+    private static <K> Cache<K, Boolean> newCache(long ttlSeconds, long maximumSize) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    private static void evictNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private static Stats toStats(String name, Cache<?, Boolean> cache) {
+        CacheStats stats = cache.stats();
+        long entries = cache.estimatedSize();
+        long staleWindowSeconds = cache.policy().expireAfterWrite()
+                .map(expiration -> expiration.getExpiresAfter(TimeUnit.SECONDS))
+                .orElse(0L);
+        return new Stats(
+                name,
+                entries,
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                entries * ESTIMATED_ENTRY_BYTES,
+                staleWindowSeconds
+        );
+    }
+
+    public record Stats(
+            String name,
+            long entries,
+            long hits,
+            long misses,
+            double hitRate,
+            long estimatedMemoryBytes,
+            long staleWindowSeconds
+    ) {}
+}
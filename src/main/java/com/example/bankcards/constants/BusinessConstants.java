@@ -9,6 +9,8 @@ public final class BusinessConstants {
     }
 
     public static final BigDecimal INITIAL_CARD_BALANCE = BigDecimal.ZERO;
+    public static final String DEFAULT_CURRENCY = "RUB";
+    public static final String CURRENCY_PATTERN = "^[A-Z]{3}$";
 
     public static final String MIN_TRANSFER_AMOUNT_STRING = "0.01";
     public static final String MAX_TRANSFER_AMOUNT_STRING = "1000000.00";
@@ -19,5 +21,9 @@ public final class BusinessConstants {
     public static final int MAX_DESCRIPTION_LENGTH = 500;
     public static final int MAX_FULL_NAME_LENGTH = 100;
 
+    public static final int MAX_STATS_RANGE_DAYS = 366;
+    public static final int MAX_SCHEDULE_AHEAD_DAYS = 366;
+    public static final int MAX_BALANCE_SLOTS = 64;
+
     public static final String CARD_NUMBER_PATTERN = "^[0-9]{16}$";
 }
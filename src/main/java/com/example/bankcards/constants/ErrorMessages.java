@@ -18,6 +18,20 @@ public final class ErrorMessages {
     public static final String UNAUTHORIZED_VIEW_TRANSFER = "You don't have permission to view this transfer";
     public static final String UNAUTHORIZED_VIEW_TRANSFER_HISTORY = "You can only view transfer history for your own cards";
     public static final String UNAUTHORIZED_VIEW_USER_HISTORY = "You can only view your own transfer history";
+    public static final String TRANSFER_REQUEST_NOT_FOUND = "Transfer request not found";
+    public static final String TRANSFER_QUEUE_FULL = "Transfer queue is full, please retry later";
+    public static final String TRANSACTION_LIMIT_EXCEEDED = "Transfer amount exceeds the card's per-transaction limit";
+    public static final String DAILY_LIMIT_EXCEEDED = "Transfer would exceed the card's daily spending limit";
+    public static final String FX_RATE_UNAVAILABLE = "No exchange rate between the currencies of the cards";
+    public static final String CURRENCY_NOT_SUPPORTED = "Currency is not supported";
+    public static final String TRANSFER_REQUEST_WITHDRAWN = "Transfer request was cancelled before execution";
+    public static final String SCHEDULED_TRANSFER_NOT_FOUND = "Scheduled transfer not found";
+    public static final String SCHEDULED_TRANSFER_NOT_CANCELLABLE = "Scheduled transfer has already been executed or cancelled";
+    public static final String SCHEDULED_TRANSFER_TOO_FAR = "Scheduled transfers can be at most " + BusinessConstants.MAX_SCHEDULE_AHEAD_DAYS + " days ahead";
+    public static final String RECURRING_TRANSFER_NOT_FOUND = "Recurring transfer not found";
+    public static final String RECURRING_TRANSFER_NOT_CANCELLABLE = "Recurring transfer has already finished or been cancelled";
+    public static final String RECURRING_TRANSFER_END_BEFORE_START = "End time must be after the first execution time";
+    public static final String ASYNC_TRANSFERS_DISABLED = "Asynchronous transfers are disabled";
 
     public static final String CARD_NOT_FOUND = "Card not found";
     public static final String USER_NOT_FOUND = "User not found";
@@ -26,6 +40,13 @@ public final class ErrorMessages {
     public static final String UNAUTHORIZED_CREATE_CARD = "You don't have permission to create card for this user";
     public static final String UNAUTHORIZED_VIEW_CARDS = "You don't have permission to view these cards";
     public static final String UNAUTHORIZED_CARD_ACTION = "You don't have permission to perform this action on this card";
+    public static final String STATS_RANGE_INVALID = "Start date must not be after end date";
+    public static final String STATS_RANGE_TOO_LONG = "Statistics range must not exceed " + BusinessConstants.MAX_STATS_RANGE_DAYS + " days";
+    public static final String UNSUPPORTED_EXPORT_FORMAT = "Unsupported export format, use csv or ndjson";
+    public static final String EXPORT_LIMIT_REACHED = "Too many exports in progress, please retry later";
+    public static final String SEARCH_AMOUNT_RANGE_INVALID = "Minimum amount must not be greater than maximum amount";
+    public static final String SEARCH_DATE_RANGE_INVALID = "Search start must be before search end";
+    public static final String INVALID_SEARCH_CURSOR = "Invalid search cursor";
 
     public static final String INVALID_CREDENTIALS = "Invalid username or password";
     public static final String USERNAME_EXISTS = "Username already exists";
@@ -34,4 +55,5 @@ public final class ErrorMessages {
 
     public static final String INVALID_TOKEN = "Invalid or expired token";
     public static final String ACCESS_DENIED = "Access denied";
+    public static final String RATE_LIMIT_EXCEEDED = "Too many requests, please retry later";
 }
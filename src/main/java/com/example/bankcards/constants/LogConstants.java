@@ -9,14 +9,28 @@ public final class LogConstants {
     public static final String TRANSFER_CREATE = "[TRANSFER_CREATE]";
     public static final String TRANSFER_GET = "[TRANSFER_GET]";
     public static final String TRANSFER_HISTORY = "[TRANSFER_HISTORY]";
+    public static final String TRANSFER_EXPORT = "[TRANSFER_EXPORT]";
+    public static final String TRANSFER_SEARCH = "[TRANSFER_SEARCH]";
+    public static final String TRANSFER_FAILURES = "[TRANSFER_FAILURES]";
     public static final String TRANSFER_USER_HISTORY = "[TRANSFER_USER_HISTORY]";
+    public static final String TRANSFER_ASYNC_SUBMIT = "[TRANSFER_ASYNC_SUBMIT]";
+    public static final String TRANSFER_ASYNC_BATCH = "[TRANSFER_ASYNC_BATCH]";
+    public static final String TRANSFER_SCHEDULE = "[TRANSFER_SCHEDULE]";
+    public static final String TRANSFER_SCHEDULE_CANCEL = "[TRANSFER_SCHEDULE_CANCEL]";
+    public static final String TRANSFER_RECURRING = "[TRANSFER_RECURRING]";
+    public static final String TRANSFER_RECURRING_CANCEL = "[TRANSFER_RECURRING_CANCEL]";
+    public static final String TRANSFER_STREAM = "[TRANSFER_STREAM]";
 
     public static final String CARD_CREATE = "[CARD_CREATE]";
     public static final String CARD_GET = "[CARD_GET]";
+    public static final String CARD_BALANCE = "[CARD_BALANCE]";
     public static final String CARD_GET_ALL = "[CARD_GET_ALL]";
     public static final String CARD_BLOCK = "[CARD_BLOCK]";
     public static final String CARD_ACTIVATE = "[CARD_ACTIVATE]";
     public static final String CARD_DELETE = "[CARD_DELETE]";
+    public static final String CARD_STATS = "[CARD_STATS]";
+    public static final String CARD_LIMITS = "[CARD_LIMITS]";
+    public static final String CARD_BALANCE_SLOTS = "[CARD_BALANCE_SLOTS]";
 
     public static final String AUTH_LOGIN = "[AUTH_LOGIN]";
     public static final String AUTH_REGISTER = "[AUTH_REGISTER]";
@@ -25,4 +39,16 @@ public final class LogConstants {
     public static final String USER_GET = "[USER_GET]";
     public static final String USER_UPDATE = "[USER_UPDATE]";
     public static final String USER_DELETE = "[USER_DELETE]";
+
+    public static final String CACHE_WARMUP = "[CACHE_WARMUP]";
+    public static final String CACHE_CLEAR = "[CACHE_CLEAR]";
+
+    public static final String LEDGER_SNAPSHOT = "[LEDGER_SNAPSHOT]";
+    public static final String LEDGER_RECONCILE = "[LEDGER_RECONCILE]";
+    public static final String OUTBOX_RELAY = "[OUTBOX_RELAY]";
+    public static final String SPENDING_LIMITS = "[SPENDING_LIMITS]";
+    public static final String SCHEDULED_DISPATCH = "[SCHEDULED_DISPATCH]";
+    public static final String RECURRING_MATERIALIZE = "[RECURRING_MATERIALIZE]";
+    public static final String STATEMENT_GENERATE = "[STATEMENT_GENERATE]";
+    public static final String FX_RATES = "[FX_RATES]";
 }
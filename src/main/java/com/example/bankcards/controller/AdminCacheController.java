@@ -0,0 +1,57 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.cache.CacheInspectionService;
+import com.example.bankcards.dto.CacheStatsResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/caches")
+@RequiredArgsConstructor
+@Slf4j
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Admin caches", description = "Cache inspection API (Admin only)")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminCacheController {
+
+    private final CacheInspectionService cacheInspectionService;
+
+    @GetMapping
+    @Operation(summary = "Get cache statistics", description = "Get size, hit ratio, evictions and hottest keys of every cache (admin only)")
+    public ResponseEntity<List<CacheStatsResponse>> getCaches(
+            @RequestParam(defaultValue = "10") int topKeys) {
+        log.info("Admin fetching cache statistics");
+        return ResponseEntity.ok(cacheInspectionService.getAllCacheStats(topKeys));
+    }
+
+    @GetMapping("/{cacheName}")
+    @Operation(summary = "Get cache by name", description = "Get statistics of a single cache (admin only)")
+    public ResponseEntity<CacheStatsResponse> getCache(
+            @PathVariable String cacheName,
+            @RequestParam(defaultValue = "10") int topKeys) {
+        log.info("Admin fetching statistics for cache: {}", cacheName);
+        return ResponseEntity.ok(cacheInspectionService.getCacheStats(cacheName, topKeys));
+    }
+
+    @DeleteMapping("/{cacheName}")
+    @Operation(summary = "Clear cache", description = "Remove all entries from a single cache (admin only)")
+    public ResponseEntity<Void> clearCache(@PathVariable String cacheName) {
+        log.info("Admin clearing cache: {}", cacheName);
+        cacheInspectionService.clearCache(cacheName);
+        log.info("Cache {} cleared successfully", cacheName);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,8 +1,17 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.CardBalanceResponse;
+import com.example.bankcards.dto.CardBalanceSlotsRequest;
+import com.example.bankcards.dto.CardBalanceSlotsResponse;
+import com.example.bankcards.dto.CardLimitsRequest;
+import com.example.bankcards.dto.CardLimitsResponse;
 import com.example.bankcards.dto.CardRequest;
 import com.example.bankcards.dto.CardResponse;
+import com.example.bankcards.dto.CardStatsResponse;
+import com.example.bankcards.limit.SpendingLimitService;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.CardStatsService;
+import com.example.bankcards.service.LedgerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,6 +21,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -26,6 +36,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/api/cards")
 @RequiredArgsConstructor
@@ -35,6 +47,9 @@ import org.springframework.web.bind.annotation.RestController;
 public class CardController {
 
     private final CardService cardService;
+    private final CardStatsService cardStatsService;
+    private final SpendingLimitService spendingLimitService;
+    private final LedgerService ledgerService;
 
     @PostMapping
     @Operation(summary = "Create card", description = "Create a new bank card")
@@ -69,6 +84,62 @@ public class CardController {
         return ResponseEntity.ok(cardService.getCardById(cardId, authentication));
     }
 
+    @GetMapping("/{cardId}/balance")
+    @Operation(summary = "Get card balance",
+            description = "Get the current balance and its version; the version grows with every transfer on the card")
+    public ResponseEntity<CardBalanceResponse> getCardBalance(
+            @PathVariable Long cardId,
+            Authentication authentication) {
+        log.info("Fetching balance for card ID: {}", cardId);
+        return ResponseEntity.ok(cardService.getCardBalance(cardId, authentication));
+    }
+
+    @GetMapping("/{cardId}/stats")
+    @Operation(summary = "Get card statistics",
+            description = "Get amounts sent and received per day for a date range (defaults to the current month)")
+    public ResponseEntity<CardStatsResponse> getCardStats(
+            @PathVariable Long cardId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication authentication) {
+        log.info("Fetching statistics for card ID: {} from {} to {}", cardId, from, to);
+        return ResponseEntity.ok(cardStatsService.getCardStats(cardId, from, to, authentication));
+    }
+
+    @GetMapping("/{cardId}/limits")
+    @Operation(summary = "Get card limits",
+            description = "Get daily and per-transaction limits and the amount sent in the last 24 hours")
+    public ResponseEntity<CardLimitsResponse> getCardLimits(
+            @PathVariable Long cardId,
+            Authentication authentication) {
+        log.info("Fetching limits for card ID: {}", cardId);
+        return ResponseEntity.ok(spendingLimitService.getLimits(cardId, authentication));
+    }
+
+    @PutMapping("/{cardId}/limits")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Update card limits",
+            description = "Set daily and per-transaction limits; null removes a limit (admin only)")
+    public ResponseEntity<CardLimitsResponse> updateCardLimits(
+            @PathVariable Long cardId,
+            @Valid @RequestBody CardLimitsRequest request,
+            Authentication authentication) {
+        log.info("Updating limits for card ID: {} by admin: {}", cardId, authentication.getName());
+        return ResponseEntity.ok(spendingLimitService.updateLimits(cardId, request));
+    }
+
+    @PutMapping("/{cardId}/balance-slots")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Update card balance slots",
+            description = "Spread credits to a heavily credited card over several slots; 1 turns striping off (admin only)")
+    public ResponseEntity<CardBalanceSlotsResponse> updateBalanceSlots(
+            @PathVariable Long cardId,
+            @Valid @RequestBody CardBalanceSlotsRequest request,
+            Authentication authentication) {
+        log.info("Updating balance slots for card ID: {} by admin: {}", cardId, authentication.getName());
+        return ResponseEntity.ok(ledgerService.updateBalanceSlots(cardId, request.slots()));
+    }
+
     @PutMapping("/{cardId}/block")
     @Operation(summary = "Block card", description = "Block a card (user can request to block their own card)")
     public ResponseEntity<Void> blockCard(
@@ -0,0 +1,77 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.RecurringTransferRequest;
+import com.example.bankcards.dto.RecurringTransferResponse;
+import com.example.bankcards.schedule.RecurringTransferService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/transfers/recurring")
+@RequiredArgsConstructor
+@Slf4j
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Recurring transfers", description = "Standing order API")
+public class RecurringTransferController {
+
+    private final RecurringTransferService recurringTransferService;
+
+    @PostMapping
+    @Operation(summary = "Create recurring transfer", description = "Create a weekly or monthly transfer between user's own cards")
+    public ResponseEntity<RecurringTransferResponse> createRecurringTransfer(
+            @Valid @RequestBody RecurringTransferRequest request,
+            Authentication authentication) {
+        log.info("Creating {} transfer from card {} to card {} for amount: {} starting {}",
+                request.frequency(), request.fromCardId(), request.toCardId(), request.amount(), request.firstRunAt());
+        RecurringTransferResponse response = recurringTransferService.create(request, authentication);
+        log.info("Recurring transfer created with ID: {}", response.id());
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping
+    @Operation(summary = "Get recurring transfers", description = "Get the current user's recurring transfers")
+    public ResponseEntity<Page<RecurringTransferResponse>> getRecurringTransfers(
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+            Authentication authentication) {
+        log.info("Fetching recurring transfers for user: {}", authentication.getName());
+        return ResponseEntity.ok(recurringTransferService.getRecurringTransfers(pageable, authentication));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get recurring transfer", description = "Get a recurring transfer and its next execution time")
+    public ResponseEntity<RecurringTransferResponse> getRecurringTransfer(
+            @PathVariable Long id,
+            Authentication authentication) {
+        log.info("Fetching recurring transfer with ID: {}", id);
+        return ResponseEntity.ok(recurringTransferService.getRecurringTransfer(id, authentication));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Cancel recurring transfer", description = "Stop a recurring transfer and cancel its pending occurrences")
+    public ResponseEntity<Void> cancelRecurringTransfer(
+            @PathVariable Long id,
+            Authentication authentication) {
+        log.info("Cancelling recurring transfer with ID: {}", id);
+        recurringTransferService.cancel(id, authentication);
+        log.info("Recurring transfer {} cancelled successfully", id);
+        return ResponseEntity.noContent().build();
+    }
+}
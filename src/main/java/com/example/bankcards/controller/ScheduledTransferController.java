@@ -0,0 +1,77 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.ScheduledTransferRequest;
+import com.example.bankcards.dto.ScheduledTransferResponse;
+import com.example.bankcards.schedule.ScheduledTransferService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/transfers/scheduled")
+@RequiredArgsConstructor
+@Slf4j
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Scheduled transfers", description = "Future-dated transfer API")
+public class ScheduledTransferController {
+
+    private final ScheduledTransferService scheduledTransferService;
+
+    @PostMapping
+    @Operation(summary = "Schedule transfer", description = "Schedule a transfer between user's own cards for a future time")
+    public ResponseEntity<ScheduledTransferResponse> scheduleTransfer(
+            @Valid @RequestBody ScheduledTransferRequest request,
+            Authentication authentication) {
+        log.info("Scheduling transfer from card {} to card {} for amount: {} at {}",
+                request.fromCardId(), request.toCardId(), request.amount(), request.executeAt());
+        ScheduledTransferResponse response = scheduledTransferService.schedule(request, authentication);
+        log.info("Transfer scheduled with ID: {}", response.id());
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping
+    @Operation(summary = "Get scheduled transfers", description = "Get the current user's scheduled transfers")
+    public ResponseEntity<Page<ScheduledTransferResponse>> getScheduledTransfers(
+            @PageableDefault(size = 20, sort = "executeAt", direction = Sort.Direction.ASC) Pageable pageable,
+            Authentication authentication) {
+        log.info("Fetching scheduled transfers for user: {}", authentication.getName());
+        return ResponseEntity.ok(scheduledTransferService.getScheduledTransfers(pageable, authentication));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get scheduled transfer", description = "Get a scheduled transfer and its execution outcome")
+    public ResponseEntity<ScheduledTransferResponse> getScheduledTransfer(
+            @PathVariable Long id,
+            Authentication authentication) {
+        log.info("Fetching scheduled transfer with ID: {}", id);
+        return ResponseEntity.ok(scheduledTransferService.getScheduledTransfer(id, authentication));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Cancel scheduled transfer", description = "Cancel a scheduled transfer that has not been executed yet")
+    public ResponseEntity<Void> cancelScheduledTransfer(
+            @PathVariable Long id,
+            Authentication authentication) {
+        log.info("Cancelling scheduled transfer with ID: {}", id);
+        scheduledTransferService.cancel(id, authentication);
+        log.info("Scheduled transfer {} cancelled successfully", id);
+        return ResponseEntity.noContent().build();
+    }
+}
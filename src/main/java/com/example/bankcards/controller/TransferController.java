@@ -1,8 +1,15 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.AsyncTransferResponse;
 import com.example.bankcards.dto.TransferRequest;
 import com.example.bankcards.dto.TransferResponse;
+import com.example.bankcards.dto.TransferSearchRequest;
+import com.example.bankcards.dto.TransferSearchResponse;
+import com.example.bankcards.service.AsyncTransferService;
+import com.example.bankcards.service.TransferExportService;
+import com.example.bankcards.service.TransferSearchService;
 import com.example.bankcards.service.TransferService;
+import com.example.bankcards.stream.TransferStreamHub;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,15 +19,21 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/transfers")
@@ -31,6 +44,10 @@ import org.springframework.web.bind.annotation.RestController;
 public class TransferController {
 
     private final TransferService transferService;
+    private final AsyncTransferService asyncTransferService;
+    private final TransferExportService transferExportService;
+    private final TransferSearchService transferSearchService;
+    private final TransferStreamHub transferStreamHub;
 
     @PostMapping
     @Operation(summary = "Transfer money", description = "Transfer money between user's own cards")
@@ -44,6 +61,30 @@ public class TransferController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping(headers = "Prefer=respond-async")
+    @Operation(summary = "Submit transfer asynchronously",
+            description = "Queue a transfer between user's own cards and return immediately (requires Prefer: respond-async)")
+    public ResponseEntity<AsyncTransferResponse> submitTransfer(
+            @Valid @RequestBody TransferRequest request,
+            Authentication authentication) {
+        log.info("Async transfer request from card {} to card {} for amount: {}",
+                request.fromCardId(), request.toCardId(), request.amount());
+        AsyncTransferResponse response = asyncTransferService.submit(request, authentication);
+        log.info("Transfer queued with request ID: {}", response.requestId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/api/transfers/requests/" + response.requestId())
+                .body(response);
+    }
+
+    @GetMapping("/requests/{requestId}")
+    @Operation(summary = "Get async transfer status", description = "Get the status of a transfer submitted asynchronously")
+    public ResponseEntity<AsyncTransferResponse> getTransferRequestStatus(
+            @PathVariable String requestId,
+            Authentication authentication) {
+        log.info("Fetching status of transfer request: {}", requestId);
+        return ResponseEntity.ok(asyncTransferService.getStatus(requestId, authentication));
+    }
+
     @GetMapping("/card/{cardId}")
     @Operation(summary = "Get card transfer history", description = "Get transfer history for a specific card")
     public ResponseEntity<Page<TransferResponse>> getCardTransferHistory(
@@ -56,6 +97,35 @@ public class TransferController {
         return ResponseEntity.ok(transfers);
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Search transfers",
+            description = "Filter a card's or user's transfers by amount, date range, status and description, newest first, paged by cursor")
+    public ResponseEntity<TransferSearchResponse> searchTransfers(
+            @Valid @ModelAttribute TransferSearchRequest request,
+            Authentication authentication) {
+        log.info("Searching transfers - cardId: {}, userId: {}", request.cardId(), request.userId());
+        TransferSearchResponse response = transferSearchService.search(request, authentication);
+        log.info("Found {} transfers, more available: {}", response.content().size(), response.nextCursor() != null);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/card/{cardId}/export")
+    @Operation(summary = "Export card transfer history",
+            description = "Download the complete transfer history of a card as CSV or NDJSON in one streamed response")
+    public ResponseEntity<StreamingResponseBody> exportCardTransferHistory(
+            @PathVariable Long cardId,
+            @RequestParam(defaultValue = "csv") String format,
+            Authentication authentication) {
+        TransferExportService.Format exportFormat = TransferExportService.Format.parse(format);
+        log.info("Exporting transfer history for card ID: {} as {}", cardId, exportFormat);
+        StreamingResponseBody body = transferExportService.export(cardId, exportFormat, authentication);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"card-" + cardId + "-transfers." + exportFormat.extension() + "\"")
+                .body(body);
+    }
+
     @GetMapping("/user/{userId}")
     @Operation(summary = "Get user transfer history", description = "Get all transfer history for a user")
     public ResponseEntity<Page<TransferResponse>> getUserTransferHistory(
@@ -68,6 +138,16 @@ public class TransferController {
         return ResponseEntity.ok(transfers);
     }
 
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream user transfers",
+            description = "Receive the user's new transfers as Server-Sent Events instead of polling the history")
+    public SseEmitter streamUserTransfers(
+            @PathVariable Long userId,
+            Authentication authentication) {
+        log.info("Opening transfer stream for user ID: {}", userId);
+        return transferStreamHub.subscribe(userId, authentication);
+    }
+
     @GetMapping("/{transferId}")
     @Operation(summary = "Get transfer by ID", description = "Get detailed information about a specific transfer")
     public ResponseEntity<TransferResponse> getTransferById(
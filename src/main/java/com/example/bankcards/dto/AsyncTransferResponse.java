@@ -0,0 +1,8 @@
+package com.example.bankcards.dto;
+
+public record AsyncTransferResponse(
+        String requestId,
+        String status,
+        Long transferId,
+        String message
+) {}
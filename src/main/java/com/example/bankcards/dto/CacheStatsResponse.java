@@ -0,0 +1,14 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+public record CacheStatsResponse(
+        String name,
+        long size,
+        long hitCount,
+        long missCount,
+        double hitRatio,
+        long evictionCount,
+        double averageLoadPenaltyMs,
+        List<String> topKeys
+) {}
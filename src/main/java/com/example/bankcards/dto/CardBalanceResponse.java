@@ -0,0 +1,15 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.money.Money;
+
+/**
+ * Balance of a card. {@code version} is the id of the latest ledger entry on the card, 0 before
+ * the first one: it only grows, so a balance with a version at least that of a transfer already
+ * includes that transfer.
+ */
+public record CardBalanceResponse(
+        Long cardId,
+        Money balance,
+        String currency,
+        Long version
+) {}
@@ -0,0 +1,14 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.constants.BusinessConstants;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record CardBalanceSlotsRequest(
+        @NotNull(message = "Number of balance slots is required")
+        @Min(value = 1, message = "Number of balance slots must be at least 1")
+        @Max(value = BusinessConstants.MAX_BALANCE_SLOTS,
+                message = "Number of balance slots must be at most " + BusinessConstants.MAX_BALANCE_SLOTS)
+        Integer slots
+) {}
@@ -0,0 +1,6 @@
+package com.example.bankcards.dto;
+
+public record CardBalanceSlotsResponse(
+        Long cardId,
+        int slots
+) {}
@@ -0,0 +1,13 @@
+package com.example.bankcards.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+
+import java.math.BigDecimal;
+
+public record CardLimitsRequest(
+        @DecimalMin(value = "0.00", message = "Daily limit must not be negative")
+        BigDecimal dailyLimit,
+
+        @DecimalMin(value = "0.00", message = "Transaction limit must not be negative")
+        BigDecimal transactionLimit
+) {}
@@ -0,0 +1,10 @@
+package com.example.bankcards.dto;
+
+import java.math.BigDecimal;
+
+public record CardLimitsResponse(
+        Long cardId,
+        BigDecimal dailyLimit,
+        BigDecimal transactionLimit,
+        BigDecimal spentLast24h
+) {}
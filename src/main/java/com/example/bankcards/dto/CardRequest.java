@@ -1,5 +1,6 @@
 package com.example.bankcards.dto;
 
+import com.example.bankcards.constants.BusinessConstants;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
@@ -16,5 +17,8 @@ public record CardRequest(
         LocalDate expiryDate,
 
         @NotNull(message = "User ID is required")
-        Long userId
+        Long userId,
+
+        @Pattern(regexp = BusinessConstants.CURRENCY_PATTERN, message = "Currency must be a three-letter ISO 4217 code")
+        String currency
 ) {}
@@ -1,6 +1,7 @@
 package com.example.bankcards.dto;
 
-import java.math.BigDecimal;
+import com.example.bankcards.money.Money;
+
 import java.time.LocalDate;
 
 public record CardResponse(
@@ -9,5 +10,6 @@ public record CardResponse(
         String ownerFullName,
         LocalDate expiryDate,
         String status,
-        BigDecimal balance
+        Money balance,
+        String currency
 ) {}
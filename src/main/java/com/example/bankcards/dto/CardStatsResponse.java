@@ -0,0 +1,25 @@
+package com.example.bankcards.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public record CardStatsResponse(
+        Long cardId,
+        LocalDate from,
+        LocalDate to,
+        BigDecimal totalSent,
+        BigDecimal totalReceived,
+        long sentCount,
+        long receivedCount,
+        List<DailyTotal> days
+) {
+
+    public record DailyTotal(
+            LocalDate date,
+            BigDecimal sent,
+            BigDecimal received,
+            long sentCount,
+            long receivedCount
+    ) {}
+}
@@ -0,0 +1,19 @@
+package com.example.bankcards.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record RecurringTransferResponse(
+        Long id,
+        Long fromCardId,
+        Long toCardId,
+        BigDecimal amount,
+        String description,
+        String frequency,
+        LocalDateTime firstRunAt,
+        LocalDateTime endAt,
+        LocalDateTime nextRunAt,
+        LocalDateTime lastRunAt,
+        String status,
+        LocalDateTime createdAt
+) {}
@@ -0,0 +1,19 @@
+package com.example.bankcards.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record ScheduledTransferResponse(
+        Long id,
+        Long ruleId,
+        Long fromCardId,
+        Long toCardId,
+        BigDecimal amount,
+        String description,
+        LocalDateTime executeAt,
+        String status,
+        Long transferId,
+        String failureReason,
+        LocalDateTime executedAt,
+        LocalDateTime createdAt
+) {}
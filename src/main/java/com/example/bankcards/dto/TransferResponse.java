@@ -3,6 +3,12 @@ package com.example.bankcards.dto;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+/**
+ * A transfer. {@code fromCardBalance} and {@code toCardBalance} are the balances of both cards
+ * right after it and are only filled in the response to the transfer itself; elsewhere they
+ * are {@code null}. A card credited through balance slots may have other credits in flight that
+ * its balance here does not include yet; {@code GET /api/cards/{id}/balance} reads them all.
+ */
 public record TransferResponse(
         Long id,
         Long fromCardId,
@@ -10,5 +16,10 @@ public record TransferResponse(
         BigDecimal amount,
         String status,
         LocalDateTime createdAt,
-        String description
+        String description,
+        String failureReason,
+        BigDecimal fxRate,
+        BigDecimal creditedAmount,
+        CardBalanceResponse fromCardBalance,
+        CardBalanceResponse toCardBalance
 ) {}
@@ -0,0 +1,44 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.Transfer;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Transfer search filters. Without {@code cardId} and {@code userId} the current user's cards
+ * are searched; {@code from} is inclusive and {@code to} exclusive.
+ */
+public record TransferSearchRequest(
+        Long cardId,
+
+        Long userId,
+
+        @DecimalMin(value = "0.00", message = "Minimum amount must not be negative")
+        BigDecimal minAmount,
+
+        @DecimalMin(value = "0.00", message = "Maximum amount must not be negative")
+        BigDecimal maxAmount,
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        LocalDateTime from,
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        LocalDateTime to,
+
+        Transfer.TransferStatus status,
+
+        @Size(min = 3, max = 100, message = "Description filter must be between 3 and 100 characters")
+        String description,
+
+        String cursor,
+
+        @Min(value = 1, message = "Page size must be at least 1")
+        @Max(value = 100, message = "Page size must not exceed 100")
+        Integer size
+) {}
@@ -0,0 +1,12 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+/**
+ * One page of search results, newest first. Pass {@code nextCursor} back as {@code cursor} to
+ * get the following page; it is {@code null} on the last page.
+ */
+public record TransferSearchResponse(
+        List<TransferResponse> content,
+        String nextCursor
+) {}
@@ -0,0 +1,62 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A card whose ledger entries for the transfers in {@code (fromTransferId, toTransferId]} do not
+ * add up to what those transfers moved: {@code expectedDelta} is the net of the successful
+ * transfers, {@code postedDelta} the net of the entries posted for them.
+ */
+@Entity
+@Table(name = "balance_mismatches", indexes = {
+        @Index(name = "idx_balance_mismatches_card_id", columnList = "card_id"),
+        @Index(name = "idx_balance_mismatches_transfer_range", columnList = "from_transfer_id, to_transfer_id")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+public class BalanceMismatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @Column(name = "card_id", nullable = false, updatable = false)
+    private Long cardId;
+
+    @Column(name = "from_transfer_id", nullable = false, updatable = false)
+    private Long fromTransferId;
+
+    @Column(name = "to_transfer_id", nullable = false, updatable = false)
+    private Long toTransferId;
+
+    @Column(name = "expected_delta", nullable = false, precision = 15, scale = 2, updatable = false)
+    private BigDecimal expectedDelta;
+
+    @Column(name = "posted_delta", nullable = false, precision = 15, scale = 2, updatable = false)
+    private BigDecimal postedDelta;
+
+    @Column(name = "detected_at", nullable = false, updatable = false)
+    private LocalDateTime detectedAt;
+}
@@ -1,6 +1,10 @@
 package com.example.bankcards.entity;
 
+import com.example.bankcards.constants.BusinessConstants;
+import com.example.bankcards.money.Money;
+import com.example.bankcards.money.MoneyConverter;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -8,6 +12,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -18,13 +23,16 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Formula;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "cards")
+@Table(name = "cards", indexes = {
+        @Index(name = "idx_cards_user_id", columnList = "user_id")
+})
 @Getter
 @Setter
 @Builder
@@ -49,9 +57,58 @@ public class Card {
     @Column(nullable = false, length = 20)
     private CardStatus status;
 
-    @Column(nullable = false, precision = 15, scale = 2)
+    /**
+     * Balance the card was opened with, before any ledger entry. Transfers never change it.
+     */
+    @Column(name = "balance", nullable = false, precision = 15, scale = 2)
     @Builder.Default
-    private BigDecimal balance = BigDecimal.ZERO;
+    private BigDecimal openingBalance = BigDecimal.ZERO;
+
+    /**
+     * Current balance: the latest balance snapshot (or the opening balance when there is none)
+     * plus the ledger entries posted after it. Read-only, computed by the database on load.
+     */
+    @Convert(converter = MoneyConverter.class)
+    @Formula("""
+            (COALESCE((SELECT s.balance FROM card_balance_snapshots s
+                       WHERE s.card_id = id
+                         AND s.last_entry_id = (SELECT MAX(s2.last_entry_id) FROM card_balance_snapshots s2
+                                                WHERE s2.card_id = id)), balance)
+             + COALESCE((SELECT SUM(e.amount) FROM ledger_entries e
+                         WHERE e.card_id = id
+                           AND e.id > COALESCE((SELECT MAX(s3.last_entry_id) FROM card_balance_snapshots s3
+                                                WHERE s3.card_id = id), 0)), 0))
+            """)
+    @Builder.Default
+    private Money balance = Money.ZERO;
+
+    /**
+     * ISO 4217 code of the currency the balance and the limits of the card are kept in.
+     */
+    @Column(nullable = false, length = 3)
+    @Builder.Default
+    private String currency = BusinessConstants.DEFAULT_CURRENCY;
+
+    /**
+     * Maximum total amount sent from the card within any rolling 24 hours; {@code null} means no limit.
+     */
+    @Column(name = "daily_limit", precision = 15, scale = 2)
+    private BigDecimal dailyLimit;
+
+    /**
+     * Maximum amount of a single transfer from the card; {@code null} means no limit.
+     */
+    @Column(name = "transaction_limit", precision = 15, scale = 2)
+    private BigDecimal transactionLimit;
+
+    /**
+     * Number of slots credits to the card are spread over. With one slot (the default) postings
+     * lock the card row; with more, a credit locks one {@link CardBalanceSlot} and leaves the
+     * card row to debits, so a card receiving many concurrent credits does not serialize on it.
+     */
+    @Column(name = "balance_slots", nullable = false)
+    @Builder.Default
+    private int balanceSlots = 1;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
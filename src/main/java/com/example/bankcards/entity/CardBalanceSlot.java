@@ -0,0 +1,50 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+/**
+ * One lock slot of a card with striped balance. Credits to such a card lock a single slot row
+ * instead of the card row, so they only serialize with credits that picked the same slot.
+ */
+@Entity
+@Table(name = "card_balance_slots")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+public class CardBalanceSlot {
+
+    @EmbeddedId
+    @EqualsAndHashCode.Include
+    private Key id;
+
+    @Embeddable
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    public static class Key implements Serializable {
+
+        @Column(name = "card_id", nullable = false)
+        private Long cardId;
+
+        @Column(name = "slot", nullable = false)
+        private int slot;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Amounts a card sent and received on one day, maintained in the transfer transaction. Cards
+ * with striped balance keep one more row per day and balance slot, numbered from 1, for the
+ * credits through that slot; slot 0 holds everything written under the card row lock.
+ */
+@Entity
+@Table(name = "card_daily_totals")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+public class CardDailyTotal {
+
+    @EmbeddedId
+    @EqualsAndHashCode.Include
+    private Key id;
+
+    @Column(name = "sent_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal sentAmount;
+
+    @Column(name = "received_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal receivedAmount;
+
+    @Column(name = "sent_count", nullable = false)
+    private long sentCount;
+
+    @Column(name = "received_count", nullable = false)
+    private long receivedCount;
+
+    @Embeddable
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    public static class Key implements Serializable {
+
+        @Column(name = "card_id", nullable = false)
+        private Long cardId;
+
+        @Column(name = "stat_date", nullable = false)
+        private LocalDate statDate;
+
+        @Column(name = "slot", nullable = false)
+        private int slot;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Exchange rate of one currency: the price of one unit of it in the base currency
+ * ({@link com.example.bankcards.constants.BusinessConstants#DEFAULT_CURRENCY}).
+ */
+@Entity
+@Table(name = "fx_rates")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+public class FxRate {
+
+    @Id
+    @Column(length = 3)
+    @EqualsAndHashCode.Include
+    private String currency;
+
+    @Column(name = "rate_to_base", nullable = false, precision = 19, scale = 8)
+    private BigDecimal rateToBase;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
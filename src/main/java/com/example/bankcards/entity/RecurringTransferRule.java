@@ -0,0 +1,109 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Standing order between a user's own cards. Occurrence {@code n} falls on {@code firstRunAt}
+ * plus {@code n} periods, so monthly rules starting on the 31st keep returning to the end of the
+ * month instead of drifting. {@code nextRunAt} is occurrence number {@code nextOccurrence}; due
+ * occurrences are turned into {@link ScheduledTransfer} rows by the materializer.
+ */
+@Entity
+@Table(name = "recurring_transfer_rules")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+public class RecurringTransferRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "from_card_id", nullable = false)
+    private Long fromCardId;
+
+    @Column(name = "to_card_id", nullable = false)
+    private Long toCardId;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @Column(length = 500)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Frequency frequency;
+
+    @Column(name = "first_run_at", nullable = false)
+    private LocalDateTime firstRunAt;
+
+    @Column(name = "end_at")
+    private LocalDateTime endAt;
+
+    @Column(name = "next_run_at", nullable = false)
+    private LocalDateTime nextRunAt;
+
+    @Column(name = "next_occurrence", nullable = false)
+    private int nextOccurrence;
+
+    @Column(name = "last_run_at")
+    private LocalDateTime lastRunAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private Status status = Status.ACTIVE;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum Frequency {
+        WEEKLY,
+        MONTHLY;
+
+        /**
+         * @return time of occurrence number {@code index} of a rule starting at {@code first}
+         */
+        public LocalDateTime occurrence(LocalDateTime first, long index) {
+            return switch (this) {
+                case WEEKLY -> first.plusWeeks(index);
+                case MONTHLY -> first.plusMonths(index);
+            };
+        }
+    }
+
+    public enum Status {
+        ACTIVE,
+        COMPLETED,
+        CANCELLED
+    }
+}
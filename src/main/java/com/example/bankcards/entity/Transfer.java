@@ -1,5 +1,6 @@
 package com.example.bankcards.entity;
 
+import com.example.bankcards.constants.ErrorMessages;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -7,7 +8,9 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -18,9 +21,18 @@ import lombok.ToString;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Entity
-@Table(name = "transfers")
+@Table(name = "transfers", indexes = {
+        @Index(name = "idx_transfers_from_card_created", columnList = "from_card_id, created_at"),
+        @Index(name = "idx_transfers_to_card_created", columnList = "to_card_id, created_at")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_transfers_request_id", columnNames = "request_id")
+})
 @Getter
 @Setter
 @Builder
@@ -41,9 +53,26 @@ public class Transfer {
     @Column(name = "to_card_id", nullable = false)
     private Long toCardId;
 
+    /**
+     * Amount debited from the source card, in its currency.
+     */
     @Column(nullable = false, precision = 15, scale = 2)
     private BigDecimal amount;
 
+    /**
+     * Rate the amount was converted at when the cards have different currencies: one unit of
+     * the source currency in the destination currency. {@code null} for a same-currency transfer.
+     */
+    @Column(name = "fx_rate", precision = 19, scale = 8)
+    private BigDecimal fxRate;
+
+    /**
+     * Amount credited to the destination card, in its currency; {@code null} when it equals
+     * {@link #amount}.
+     */
+    @Column(name = "credited_amount", precision = 15, scale = 2)
+    private BigDecimal creditedAmount;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     @Builder.Default
@@ -55,8 +84,79 @@ public class Transfer {
     @Column(length = 500)
     private String description;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "failure_reason", length = 40)
+    private FailureReason failureReason;
+
+    /**
+     * Id of the asynchronous request that created the transfer, so that a request replayed from
+     * the journal is not applied twice. {@code null} for transfers made synchronously.
+     */
+    @Column(name = "request_id", length = 64)
+    private String requestId;
+
+    /**
+     * Amount the destination card receives: {@link #creditedAmount} for a cross-currency
+     * transfer, {@link #amount} otherwise.
+     */
+    public BigDecimal destinationAmount() {
+        return creditedAmount != null ? creditedAmount : amount;
+    }
+
     public enum TransferStatus {
         SUCCESS,
         FAILED
     }
+
+    /**
+     * Why a transfer was declined. The transfer checks return it as their result; each reason
+     * carries the error message returned to the client, so an exception that still declines a
+     * transfer can be classified by its message.
+     */
+    public enum FailureReason {
+        SAME_CARD(ErrorMessages.TRANSFER_SAME_CARD),
+        SOURCE_CARD_NOT_FOUND(ErrorMessages.SOURCE_CARD_NOT_FOUND),
+        DESTINATION_CARD_NOT_FOUND(ErrorMessages.DESTINATION_CARD_NOT_FOUND),
+        NOT_SOURCE_CARD_OWNER(ErrorMessages.UNAUTHORIZED_TRANSFER_FROM),
+        NOT_DESTINATION_CARD_OWNER(ErrorMessages.UNAUTHORIZED_TRANSFER_TO),
+        SOURCE_CARD_NOT_ACTIVE(ErrorMessages.SOURCE_CARD_NOT_ACTIVE),
+        DESTINATION_CARD_NOT_ACTIVE(ErrorMessages.DESTINATION_CARD_NOT_ACTIVE),
+        INSUFFICIENT_BALANCE(ErrorMessages.INSUFFICIENT_BALANCE),
+        TRANSACTION_LIMIT_EXCEEDED(ErrorMessages.TRANSACTION_LIMIT_EXCEEDED),
+        DAILY_LIMIT_EXCEEDED(ErrorMessages.DAILY_LIMIT_EXCEEDED),
+        FX_RATE_UNAVAILABLE(ErrorMessages.FX_RATE_UNAVAILABLE),
+        OTHER(null);
+
+        private static final Map<String, FailureReason> BY_MESSAGE = Arrays.stream(values())
+                .filter(reason -> reason.message != null)
+                .collect(Collectors.toUnmodifiableMap(reason -> reason.message, Function.identity()));
+
+        private final String message;
+
+        FailureReason(String message) {
+            this.message = message;
+        }
+
+        public String message() {
+            return message;
+        }
+
+        /**
+         * Whether the transfer was declined only after the caller was found to own the source
+         * card. Earlier rejections cannot be attributed to a card of the caller.
+         */
+        public boolean afterSourceOwnerCheck() {
+            return switch (this) {
+                case SAME_CARD, SOURCE_CARD_NOT_FOUND, DESTINATION_CARD_NOT_FOUND, NOT_SOURCE_CARD_OWNER, OTHER -> false;
+                default -> true;
+            };
+        }
+
+        /**
+         * @return the reason whose message is {@code message}, or {@link #OTHER}
+         */
+        public static FailureReason fromMessage(String message) {
+            return message == null ? OTHER : BY_MESSAGE.getOrDefault(message, OTHER);
+        }
+    }
 }
@@ -12,4 +12,11 @@ public class BadRequestException extends RuntimeException {
     public BadRequestException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    /**
+     * @param writableStackTrace {@code false} для ожидаемых отказов, где стек вызовов не нужен
+     */
+    public BadRequestException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
@@ -12,4 +12,11 @@ public class InsufficientBalanceException extends RuntimeException {
     public InsufficientBalanceException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    /**
+     * @param writableStackTrace {@code false} для ожидаемых отказов, где стек вызовов не нужен
+     */
+    public InsufficientBalanceException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
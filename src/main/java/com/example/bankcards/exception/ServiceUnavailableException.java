@@ -0,0 +1,15 @@
+package com.example.bankcards.exception;
+
+/**
+ * Исключение, выбрасываемое когда сервис временно не может принять запрос (например, очередь переполнена)
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.bankcards.exception;
+
+/**
+ * Исключение, выбрасываемое когда превышен лимит одновременных запросов к ресурсу (например, выгрузок истории)
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
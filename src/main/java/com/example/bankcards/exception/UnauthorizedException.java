@@ -12,4 +12,11 @@ public class UnauthorizedException extends RuntimeException {
     public UnauthorizedException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    /**
+     * @param writableStackTrace {@code false} для ожидаемых отказов, где стек вызовов не нужен
+     */
+    public UnauthorizedException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
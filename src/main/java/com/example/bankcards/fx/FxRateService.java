@@ -0,0 +1,131 @@
+package com.example.bankcards.fx;
+
+import com.example.bankcards.constants.BusinessConstants;
+import com.example.bankcards.constants.ErrorMessages;
+import com.example.bankcards.constants.LogConstants;
+import com.example.bankcards.entity.FxRate;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.repository.FxRateRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exchange rates for transfers between cards of different currencies.
+ *
+ * <p>Rates live in the {@code fx_rates} table as the price of each currency in the base currency
+ * ({@link BusinessConstants#DEFAULT_CURRENCY}). They are loaded at startup and every
+ * {@code fx.refresh.interval-ms} into a new {@link FxRateSnapshot}, which replaces the previous one
+ * with a single volatile write. A transfer reads the current snapshot once and converts with it,
+ * so it never waits for a refresh and never sees rates from two different loads. If a load fails
+ * the previous snapshot stays in use.
+ */
+@Service
+@Slf4j
+public class FxRateService implements ApplicationRunner {
+
+    private final FxRateRepository fxRateRepository;
+    private final boolean refreshEnabled;
+    private final Timer refreshTimer;
+
+    private volatile FxRateSnapshot snapshot;
+
+    public FxRateService(FxRateRepository fxRateRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${fx.refresh.enabled:true}") boolean refreshEnabled) {
+        this.fxRateRepository = fxRateRepository;
+        this.refreshEnabled = refreshEnabled;
+        this.snapshot = FxRateSnapshot.of(BusinessConstants.DEFAULT_CURRENCY, Map.of(), LocalDateTime.now());
+        this.refreshTimer = Timer.builder("fx.rates.refresh")
+                .description("Duration of loading the exchange rates")
+                .register(meterRegistry);
+        Gauge.builder("fx.rates.currencies", this, service -> service.snapshot.currencies().size())
+                .description("Currencies in the current exchange rate snapshot")
+                .register(meterRegistry);
+        Gauge.builder("fx.rates.age.seconds", this,
+                        service -> Duration.between(service.snapshot.loadedAt(), LocalDateTime.now()).toSeconds())
+                .description("Seconds since the current exchange rate snapshot was loaded")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        refreshQuietly();
+    }
+
+    @Scheduled(fixedDelayString = "${fx.refresh.interval-ms:60000}",
+            initialDelayString = "${fx.refresh.interval-ms:60000}")
+    public void scheduledRefresh() {
+        if (refreshEnabled) {
+            refreshQuietly();
+        }
+    }
+
+    /**
+     * Loads the rates table into a new snapshot and makes it current.
+     *
+     * @return the new snapshot
+     */
+    public FxRateSnapshot refresh() {
+        long start = System.nanoTime();
+        Map<String, BigDecimal> ratesToBase = new HashMap<>();
+        for (FxRate rate : fxRateRepository.findAll()) {
+            ratesToBase.put(rate.getCurrency(), rate.getRateToBase());
+        }
+        FxRateSnapshot loaded = FxRateSnapshot.of(BusinessConstants.DEFAULT_CURRENCY, ratesToBase, LocalDateTime.now());
+        snapshot = loaded;
+
+        long durationNanos = System.nanoTime() - start;
+        refreshTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+        log.debug("{} Loaded rates for {} currencies in {} ms",
+                LogConstants.FX_RATES, loaded.currencies().size(), TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        return loaded;
+    }
+
+    public FxRateSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Rate for a transfer from a card in {@code fromCurrency} to a card in {@code toCurrency}.
+     *
+     * @return the rate from the current snapshot, or {@code null} if the currencies are the same
+     * @throws BadRequestException if the snapshot has no rate between the two currencies
+     */
+    public FxRateSnapshot.Rate quote(String fromCurrency, String toCurrency) {
+        if (fromCurrency.equals(toCurrency)) {
+            return null;
+        }
+        FxRateSnapshot.Rate rate = snapshot.rate(fromCurrency, toCurrency);
+        if (rate == null) {
+            throw new BadRequestException(ErrorMessages.FX_RATE_UNAVAILABLE);
+        }
+        return rate;
+    }
+
+    public boolean supports(String currency) {
+        return snapshot.supports(currency);
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("{} Loading exchange rates failed, keeping rates loaded at {}: {}",
+                    LogConstants.FX_RATES, snapshot.loadedAt(), e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.bankcards.fx;
+
+import com.example.bankcards.money.Money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable set of exchange rates loaded at one point in time.
+ *
+ * <p>Rates are stored as the price of each currency in a base currency; every cross rate is
+ * divided out once when the snapshot is built, so converting an amount is a lookup and one
+ * multiplication on minor units.
+ */
+public final class FxRateSnapshot {
+
+    /**
+     * Decimal places of a cross rate, as in {@code transfers.fx_rate}.
+     */
+    public static final int RATE_SCALE = 8;
+
+    private static final long RATE_ONE = 100_000_000L;
+    private static final long HALF = RATE_ONE / 2;
+
+    private final Map<String, Map<String, Rate>> rates;
+    private final LocalDateTime loadedAt;
+
+    private FxRateSnapshot(Map<String, Map<String, Rate>> rates, LocalDateTime loadedAt) {
+        this.rates = rates;
+        this.loadedAt = loadedAt;
+    }
+
+    /**
+     * Builds the cross rates of all currencies in {@code ratesToBase}. The base currency is always
+     * included at 1; rates that are not positive, or cross rates that round to zero, are left out.
+     *
+     * @param ratesToBase price of one unit of each currency in {@code baseCurrency}
+     */
+    public static FxRateSnapshot of(String baseCurrency, Map<String, BigDecimal> ratesToBase, LocalDateTime loadedAt) {
+        Map<String, BigDecimal> prices = new HashMap<>();
+        ratesToBase.forEach((currency, price) -> {
+            if (price != null && price.signum() > 0) {
+                prices.put(currency, price);
+            }
+        });
+        prices.put(baseCurrency, BigDecimal.ONE);
+
+        Map<String, Map<String, Rate>> rates = new HashMap<>();
+        prices.forEach((from, fromPrice) -> {
+            Map<String, Rate> row = new HashMap<>();
+            prices.forEach((to, toPrice) -> {
+                if (!from.equals(to)) {
+                    BigDecimal value = fromPrice.divide(toPrice, RATE_SCALE, RoundingMode.HALF_UP);
+                    if (value.signum() > 0) {
+                        row.put(to, new Rate(value, value.unscaledValue().longValueExact()));
+                    }
+                }
+            });
+            rates.put(from, Map.copyOf(row));
+        });
+        return new FxRateSnapshot(Map.copyOf(rates), loadedAt);
+    }
+
+    /**
+     * @return the rate from {@code fromCurrency} to {@code toCurrency}, or {@code null} if either is
+     * unknown or they are the same currency
+     */
+    public Rate rate(String fromCurrency, String toCurrency) {
+        Map<String, Rate> row = rates.get(fromCurrency);
+        return row != null ? row.get(toCurrency) : null;
+    }
+
+    public boolean supports(String currency) {
+        return rates.containsKey(currency);
+    }
+
+    public Set<String> currencies() {
+        return rates.keySet();
+    }
+
+    public LocalDateTime loadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * One unit of the source currency in the target currency.
+     *
+     * @param value  the rate with {@link #RATE_SCALE} decimals, as recorded on the transfer
+     * @param scaled the same rate in units of 10<sup>-8</sup>
+     */
+    public record Rate(BigDecimal value, long scaled) {
+
+        /**
+         * Converts an amount, rounding half up to minor units. Amounts whose product with the rate
+         * does not fit into a {@code long} are converted through {@link BigDecimal}.
+         */
+        public Money convert(Money amount) {
+            long minorUnits = amount.minorUnits();
+            long product = minorUnits * scaled;
+            if (Math.multiplyHigh(minorUnits, scaled) != (product >> 63)
+                    || product > Long.MAX_VALUE - HALF || product < -(Long.MAX_VALUE - HALF)) {
+                return Money.of(amount.toBigDecimal().multiply(value));
+            }
+            return Money.ofMinor(product >= 0 ? (product + HALF) / RATE_ONE : -((HALF - product) / RATE_ONE));
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.ResourceNotFoundException;
 import com.example.bankcards.exception.UnauthorizedException;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -22,6 +23,17 @@ public class SecurityHelper {
                 .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.CURRENT_USER_NOT_FOUND));
     }
 
+    /**
+     * Id of the current user, taken from the principal when it carries one and looked up by
+     * username otherwise.
+     */
+    public Long getCurrentUserId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal.getId();
+        }
+        return getCurrentUser(authentication).getId();
+    }
+
     public void validateCardOwnership(Card card, User user) {
         if (!card.getUser().getId().equals(user.getId())) {
             throw new UnauthorizedException(ErrorMessages.UNAUTHORIZED_CARD_ACTION);
@@ -0,0 +1,136 @@
+package com.example.bankcards.limit;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free sum of amounts (in minor units) over a sliding time window.
+ *
+ * <p>The window is split into {@code bucketCount} time buckets kept in a ring. Every slot packs
+ * the bucket's absolute period number and its amount into one {@code long}, so a writer rolls a
+ * stale bucket over and adds to it with a single CAS and never loses concurrent updates. Each
+ * ring is repeated over several stripes, picked at random per update, to spread CAS contention;
+ * reads sum all stripes and releases drain whichever stripes hold the amount. The window covers
+ * between {@code window - bucket} and {@code window}, i.e. the oldest bucket expires as a whole.
+ */
+public class SlidingWindowCounter {
+
+    private static final int PERIOD_BITS = 20;
+    private static final int AMOUNT_BITS = Long.SIZE - PERIOD_BITS;
+    private static final long AMOUNT_MASK = (1L << AMOUNT_BITS) - 1;
+    private static final long PERIOD_MASK = (1L << PERIOD_BITS) - 1;
+
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final int stripeMask;
+    private final AtomicLongArray slots;
+
+    /**
+     * @param windowMillis length of the window
+     * @param bucketCount  number of buckets the window is split into
+     * @param stripes      number of independent rings, rounded up to a power of two
+     */
+    public SlidingWindowCounter(long windowMillis, int bucketCount, int stripes) {
+        this.bucketCount = bucketCount;
+        this.bucketMillis = windowMillis / bucketCount;
+        int stripeCount = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripeMask = stripeCount - 1;
+        this.slots = new AtomicLongArray((stripeMask + 1) * bucketCount);
+    }
+
+    /**
+     * Adds an amount to the bucket of {@code atMillis}. Amounts for buckets that have already been
+     * reused by a later period are dropped, since they have left the window.
+     */
+    public void add(long amount, long atMillis) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Amount must not be negative: " + amount);
+        }
+        long period = atMillis / bucketMillis;
+        int index = stripe() * bucketCount + (int) (period % bucketCount);
+        long tag = period & PERIOD_MASK;
+        while (true) {
+            long current = slots.get(index);
+            long base;
+            if (current == 0 || periodDistance(tag, periodOf(current)) > 0) {
+                base = 0;
+            } else if (periodOf(current) == tag) {
+                base = amountOf(current);
+            } else {
+                return;
+            }
+            if (slots.compareAndSet(index, current, pack(tag, base + amount))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Takes back an amount previously added at {@code atMillis}, from whichever stripes hold it.
+     * Nothing is released once the bucket has left the window.
+     */
+    public void release(long amount, long atMillis) {
+        long period = atMillis / bucketMillis;
+        int offset = (int) (period % bucketCount);
+        long tag = period & PERIOD_MASK;
+        long remaining = amount;
+        for (int stripe = 0; stripe <= stripeMask && remaining > 0; stripe++) {
+            int index = stripe * bucketCount + offset;
+            while (remaining > 0) {
+                long current = slots.get(index);
+                if (current == 0 || periodOf(current) != tag || amountOf(current) == 0) {
+                    break;
+                }
+                long taken = Math.min(remaining, amountOf(current));
+                if (slots.compareAndSet(index, current, pack(tag, amountOf(current) - taken))) {
+                    remaining -= taken;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the amount added within the window ending at {@code nowMillis}
+     */
+    public long sum(long nowMillis) {
+        long period = nowMillis / bucketMillis;
+        long total = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            long slot = slots.get(i);
+            long age = periodDistance(period & PERIOD_MASK, periodOf(slot));
+            if (slot != 0 && age >= 0 && age < bucketCount) {
+                total += amountOf(slot);
+            }
+        }
+        return total;
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, 0);
+        }
+    }
+
+    private int stripe() {
+        return stripeMask == 0 ? 0 : ThreadLocalRandom.current().nextInt() & stripeMask;
+    }
+
+    /**
+     * Signed distance between two wrapped period numbers.
+     */
+    private static long periodDistance(long later, long earlier) {
+        return ((later - earlier) << AMOUNT_BITS) >> AMOUNT_BITS;
+    }
+
+    private static long pack(long period, long amount) {
+        return (period << AMOUNT_BITS) | (amount & AMOUNT_MASK);
+    }
+
+    private static long periodOf(long slot) {
+        return slot >>> AMOUNT_BITS;
+    }
+
+    private static long amountOf(long slot) {
+        return slot & AMOUNT_MASK;
+    }
+}
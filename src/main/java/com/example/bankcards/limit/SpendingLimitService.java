@@ -0,0 +1,337 @@
+package com.example.bankcards.limit;
+
+import com.example.bankcards.constants.ErrorMessages;
+import com.example.bankcards.constants.LogConstants;
+import com.example.bankcards.dto.CardLimitsRequest;
+import com.example.bankcards.dto.CardLimitsResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.helper.LogHelper;
+import com.example.bankcards.money.Money;
+import com.example.bankcards.helper.SecurityHelper;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Enforces per-card spending limits without summing transfer history on every transfer.
+ *
+ * <p>Amounts sent from cards with a daily limit are tracked in memory by one
+ * {@link SlidingWindowCounter} per card over a rolling 24 hours. The counters are seeded from the
+ * database at startup, lazily for cards seen for the first time, and rebuilt every
+ * {@code limits.reconcile.interval-ms} to pick up transfers made by other instances. Once the
+ * in-memory total plus the new amount reaches {@code limits.db-check-threshold} of the limit the
+ * decision is taken from the database instead, where the locked source card makes the sum exact.
+ * Below the threshold the counter does not see what other instances sent since the last rebuild,
+ * so with several instances a card can go over its limit by that much; a threshold of {@code 0}
+ * takes every decision for a card with a daily limit from the database.
+ *
+ * <p>An accepted amount is reserved in the counter immediately and released again if the
+ * surrounding transaction does not commit. A rebuild carries over reservations whose transaction
+ * is still open or committed while the transfers were being read.
+ */
+@Service
+@Slf4j
+public class SpendingLimitService implements ApplicationRunner {
+
+    private static final long WINDOW_MILLIS = TimeUnit.HOURS.toMillis(24);
+
+    private final TransferRepository transferRepository;
+    private final CardRepository cardRepository;
+    private final SecurityHelper securityHelper;
+    private final int bucketCount;
+    private final int stripes;
+    private final double dbCheckThreshold;
+    private final boolean seedOnStartup;
+    private final boolean reconcileEnabled;
+
+    private final Map<Long, SlidingWindowCounter> counters = new ConcurrentHashMap<>();
+    // Резервы, чья транзакция ещё не завершилась
+    private final Set<Reservation> inFlight = ConcurrentHashMap.newKeySet();
+    // Резервы, закоммиченные во время пересборки; null, пока пересборка не идёт
+    private volatile Queue<Reservation> committedDuringRebuild;
+    // Подмена счётчиков при пересборке не должна разойтись с резервом или его откатом
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final Counter dbChecks;
+    private final Counter rejections;
+
+    public SpendingLimitService(TransferRepository transferRepository,
+                                CardRepository cardRepository,
+                                SecurityHelper securityHelper,
+                                MeterRegistry meterRegistry,
+                                @Value("${limits.window-buckets:96}") int bucketCount,
+                                @Value("${limits.stripes:4}") int stripes,
+                                @Value("${limits.db-check-threshold:0.8}") double dbCheckThreshold,
+                                @Value("${limits.seed-on-startup:true}") boolean seedOnStartup,
+                                @Value("${limits.reconcile.enabled:true}") boolean reconcileEnabled) {
+        this.transferRepository = transferRepository;
+        this.cardRepository = cardRepository;
+        this.securityHelper = securityHelper;
+        this.bucketCount = Math.max(1, bucketCount);
+        this.stripes = Math.max(1, stripes);
+        this.dbCheckThreshold = Math.min(1.0, Math.max(0.0, dbCheckThreshold));
+        this.seedOnStartup = seedOnStartup;
+        this.reconcileEnabled = reconcileEnabled;
+        this.dbChecks = Counter.builder("limits.db.checks").register(meterRegistry);
+        this.rejections = Counter.builder("limits.rejected").register(meterRegistry);
+        Gauge.builder("limits.tracked.cards", counters, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (seedOnStartup) {
+            reconcile();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${limits.reconcile.interval-ms:300000}",
+            initialDelayString = "${limits.reconcile.interval-ms:300000}")
+    public void scheduledReconcile() {
+        if (reconcileEnabled) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Checks a transfer of {@code amount} from {@code card} against the card's limits and reserves
+     * it in the daily counter. Must be called with the source card locked.
+     *
+     * @return the limit that would be exceeded, or {@code null} if the amount was reserved
+     */
+    public Transfer.FailureReason tryReserve(Card card, Money amount) {
+        if (card.getTransactionLimit() != null && amount.minorUnits() > toCents(card.getTransactionLimit())) {
+            rejections.increment();
+            return Transfer.FailureReason.TRANSACTION_LIMIT_EXCEEDED;
+        }
+        if (card.getDailyLimit() == null) {
+            return null;
+        }
+
+        long amountCents = amount.minorUnits();
+        long limitCents = toCents(card.getDailyLimit());
+        long now = System.currentTimeMillis();
+        SlidingWindowCounter counter = counterFor(card.getId());
+
+        long projected = counter.sum(now) + amountCents;
+        if (projected >= limitCents * dbCheckThreshold) {
+            dbChecks.increment();
+            projected = toCents(transferRepository.sumSentSince(card.getId(), windowStart())) + amountCents;
+        }
+        if (projected > limitCents) {
+            rejections.increment();
+            return Transfer.FailureReason.DAILY_LIMIT_EXCEEDED;
+        }
+
+        Reservation reservation = new Reservation(card.getId(), amountCents, now);
+        swapLock.readLock().lock();
+        try {
+            counters.getOrDefault(card.getId(), counter).add(amountCents, now);
+            track(reservation);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+        return null;
+    }
+
+    /**
+     * Rebuilds the counters of all cards with a daily limit from the transfers of the last 24 hours.
+     * Reservations not yet visible in the database are added to the rebuilt counters; counters of
+     * cards without transfers in the window are left as they are.
+     *
+     * @return number of cards whose counters were rebuilt
+     */
+    @Transactional(readOnly = true)
+    public synchronized int reconcile() {
+        long start = System.nanoTime();
+        committedDuringRebuild = new ConcurrentLinkedQueue<>();
+        List<Transfer> transfers;
+        Map<Long, SlidingWindowCounter> rebuilt = new HashMap<>();
+        try {
+            transfers = transferRepository.findSentSinceFromLimitedCards(windowStart());
+            for (Transfer transfer : transfers) {
+                rebuilt.computeIfAbsent(transfer.getFromCardId(), id -> newCounter()).add(
+                        toCents(transfer.getAmount()), toMillis(transfer.getCreatedAt()));
+            }
+
+            swapLock.writeLock().lock();
+            try {
+                // Закоммиченные после начала чтения могут попасть и в выборку — лучше учесть дважды, чем потерять
+                for (Reservation reservation : inFlight) {
+                    carryOver(rebuilt, reservation);
+                }
+                for (Reservation reservation : committedDuringRebuild) {
+                    carryOver(rebuilt, reservation);
+                }
+                counters.putAll(rebuilt);
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        } finally {
+            committedDuringRebuild = null;
+        }
+
+        log.info("{} Rebuilt spending counters - cards={}, transfers={}, durationMs={}",
+                LogConstants.SPENDING_LIMITS, rebuilt.size(), transfers.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return rebuilt.size();
+    }
+
+    @Transactional(readOnly = true)
+    public CardLimitsResponse getLimits(Long cardId, Authentication authentication) {
+        Card card = cardRepository.findById(cardId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.CARD_NOT_FOUND));
+        securityHelper.validateUserAccess(authentication, card.getUser().getId());
+        return toResponse(card);
+    }
+
+    @Caching(evict = {
+            @CacheEvict(value = "cards", key = "#cardId"),
+            @CacheEvict(value = "userCards", allEntries = true)
+    })
+    @Transactional
+    public CardLimitsResponse updateLimits(Long cardId, CardLimitsRequest request) {
+        LogHelper.logOperationStart(log, LogConstants.CARD_LIMITS,
+                "cardId", cardId,
+                "dailyLimit", request.dailyLimit(),
+                "transactionLimit", request.transactionLimit());
+
+        Card card = cardRepository.findById(cardId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.CARD_NOT_FOUND));
+        card.setDailyLimit(request.dailyLimit());
+        card.setTransactionLimit(request.transactionLimit());
+        card.setUpdatedAt(LocalDateTime.now());
+        cardRepository.save(card);
+
+        LogHelper.logOperationSuccess(log, LogConstants.CARD_LIMITS,
+                "cardId", cardId);
+        return toResponse(card);
+    }
+
+    private CardLimitsResponse toResponse(Card card) {
+        return new CardLimitsResponse(
+                card.getId(),
+                card.getDailyLimit(),
+                card.getTransactionLimit(),
+                transferRepository.sumSentSince(card.getId(), windowStart()));
+    }
+
+    private SlidingWindowCounter counterFor(Long cardId) {
+        SlidingWindowCounter counter = counters.get(cardId);
+        if (counter != null) {
+            return counter;
+        }
+        SlidingWindowCounter seeded = newCounter();
+        for (Transfer transfer : transferRepository.findSentSince(cardId, windowStart())) {
+            seeded.add(toCents(transfer.getAmount()), toMillis(transfer.getCreatedAt()));
+        }
+        SlidingWindowCounter existing = counters.putIfAbsent(cardId, seeded);
+        return existing != null ? existing : seeded;
+    }
+
+    private SlidingWindowCounter newCounter() {
+        return new SlidingWindowCounter(WINDOW_MILLIS, bucketCount, stripes);
+    }
+
+    /**
+     * Keeps the reservation until its transaction completes and releases it from the card's
+     * current counter on rollback. Called under the read lock.
+     */
+    private void track(Reservation reservation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordCommitted(reservation);
+            return;
+        }
+        inFlight.add(reservation);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                swapLock.readLock().lock();
+                try {
+                    inFlight.remove(reservation);
+                    if (status == STATUS_COMMITTED) {
+                        recordCommitted(reservation);
+                        return;
+                    }
+                    SlidingWindowCounter counter = counters.get(reservation.cardId);
+                    if (counter != null) {
+                        counter.release(reservation.amountCents, reservation.reservedAt);
+                    }
+                } finally {
+                    swapLock.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    private void recordCommitted(Reservation reservation) {
+        Queue<Reservation> committed = committedDuringRebuild;
+        if (committed != null) {
+            committed.add(reservation);
+        }
+    }
+
+    private static void carryOver(Map<Long, SlidingWindowCounter> rebuilt, Reservation reservation) {
+        SlidingWindowCounter counter = rebuilt.get(reservation.cardId);
+        if (counter != null) {
+            counter.add(reservation.amountCents, reservation.reservedAt);
+        }
+    }
+
+    private static LocalDateTime windowStart() {
+        return LocalDateTime.now().minusHours(24);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * One accepted amount. Compared by identity so that equal amounts reserved in the same
+     * millisecond stay separate.
+     */
+    private static final class Reservation {
+        private final Long cardId;
+        private final long amountCents;
+        private final long reservedAt;
+
+        private Reservation(Long cardId, long amountCents, long reservedAt) {
+            this.cardId = cardId;
+            this.amountCents = amountCents;
+            this.reservedAt = reservedAt;
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.bankcards.mapper;
 
 import com.example.bankcards.constants.BusinessConstants;
+import com.example.bankcards.dto.CardBalanceResponse;
 import com.example.bankcards.dto.CardRequest;
 import com.example.bankcards.dto.CardResponse;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.money.Money;
+import com.example.bankcards.repository.projection.CardBalanceView;
+import com.example.bankcards.repository.projection.CardView;
 import com.example.bankcards.util.CardEncryptionUtil;
 import com.example.bankcards.util.CardMaskingUtil;
 import lombok.RequiredArgsConstructor;
@@ -18,6 +22,7 @@ import java.time.LocalDateTime;
  * <p>This component handles the conversion between:
  * <ul>
  *   <li>Card entity to CardResponse DTO (with card number masking)</li>
+ *   <li>Card balance to CardBalanceResponse DTO</li>
  *   <li>CardRequest DTO to Card entity (with card number encryption)</li>
  * </ul>
  */
@@ -48,15 +53,72 @@ public class CardMapper {
                 card.getUser().getFullName(),
                 card.getExpiryDate(),
                 card.getStatus().name(),
-                card.getBalance()
+                card.getBalance(),
+                card.getCurrency()
         );
     }
 
+    /**
+     * Converts a read-only card projection to a CardResponse DTO.
+     *
+     * <p>The card number is decrypted and then masked, as for the entity.
+     *
+     * @param view the projected card row
+     * @return the card response DTO with masked card number
+     */
+    public CardResponse toResponse(CardView view) {
+        if (view == null) {
+            return null;
+        }
+
+        String decryptedNumber = cardEncryptionUtil.decrypt(view.cardNumber());
+
+        return new CardResponse(
+                view.id(),
+                CardMaskingUtil.maskCardNumber(decryptedNumber),
+                view.ownerFullName(),
+                view.expiryDate(),
+                view.status().name(),
+                view.balance(),
+                view.currency()
+        );
+    }
+
+    /**
+     * Converts a projected card balance to a CardBalanceResponse DTO.
+     *
+     * @param view the projected balance row
+     * @return the card balance response DTO
+     */
+    public CardBalanceResponse toBalanceResponse(CardBalanceView view) {
+        if (view == null) {
+            return null;
+        }
+
+        return new CardBalanceResponse(view.cardId(), view.balance(), view.currency(), view.version());
+    }
+
+    /**
+     * Converts the in-memory balance of a card locked for a posting to a CardBalanceResponse DTO.
+     *
+     * @param card the card, with the balance after the posting
+     * @param version the id of the ledger entry the posting appended to the card
+     * @return the card balance response DTO
+     */
+    public CardBalanceResponse toBalanceResponse(Card card, Long version) {
+        if (card == null) {
+            return null;
+        }
+
+        return new CardBalanceResponse(card.getId(), card.getBalance(), card.getCurrency(), version);
+    }
+
     /**
      * Converts a CardRequest DTO to a Card entity.
      *
      * <p>The card number is encrypted before storing in the entity.
-     * The card is created with ACTIVE status and zero initial balance.
+     * The card is created with ACTIVE status and zero initial balance, in the requested currency
+     * or the default one.
      *
      * @param request the card request DTO
      * @param user the user who owns this card
@@ -71,7 +133,9 @@ public class CardMapper {
                 .cardNumber(cardEncryptionUtil.encrypt(request.cardNumber()))
                 .expiryDate(request.expiryDate())
                 .status(Card.CardStatus.ACTIVE)
-                .balance(BusinessConstants.INITIAL_CARD_BALANCE)
+                .openingBalance(BusinessConstants.INITIAL_CARD_BALANCE)
+                .balance(Money.of(BusinessConstants.INITIAL_CARD_BALANCE))
+                .currency(request.currency() != null ? request.currency() : BusinessConstants.DEFAULT_CURRENCY)
                 .user(user)
                 .createdAt(LocalDateTime.now())
                 .build();
@@ -0,0 +1,70 @@
+package com.example.bankcards.mapper;
+
+import com.example.bankcards.dto.RecurringTransferRequest;
+import com.example.bankcards.dto.RecurringTransferResponse;
+import com.example.bankcards.entity.RecurringTransferRule;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mapper for converting between RecurringTransferRule entity and DTOs.
+ */
+@Component
+public class RecurringTransferMapper {
+
+    /**
+     * Converts a RecurringTransferRule entity to a RecurringTransferResponse DTO.
+     *
+     * @param rule the recurring transfer rule entity to convert
+     * @return the recurring transfer response DTO
+     */
+    public RecurringTransferResponse toResponse(RecurringTransferRule rule) {
+        if (rule == null) {
+            return null;
+        }
+
+        return new RecurringTransferResponse(
+                rule.getId(),
+                rule.getFromCardId(),
+                rule.getToCardId(),
+                rule.getAmount(),
+                rule.getDescription(),
+                rule.getFrequency().name(),
+                rule.getFirstRunAt(),
+                rule.getEndAt(),
+                rule.getStatus() == RecurringTransferRule.Status.ACTIVE ? rule.getNextRunAt() : null,
+                rule.getLastRunAt(),
+                rule.getStatus().name(),
+                rule.getCreatedAt()
+        );
+    }
+
+    /**
+     * Converts a RecurringTransferRequest DTO to an active RecurringTransferRule entity.
+     *
+     * @param request the recurring transfer request DTO
+     * @param userId  the user the transfers are executed on behalf of
+     * @return the rule entity with its first occurrence as the next run and current timestamp
+     */
+    public RecurringTransferRule toEntity(RecurringTransferRequest request, Long userId) {
+        if (request == null) {
+            return null;
+        }
+
+        return RecurringTransferRule.builder()
+                .userId(userId)
+                .fromCardId(request.fromCardId())
+                .toCardId(request.toCardId())
+                .amount(request.amount())
+                .description(request.description())
+                .frequency(request.frequency())
+                .firstRunAt(request.firstRunAt())
+                .endAt(request.endAt())
+                .nextRunAt(request.firstRunAt())
+                .nextOccurrence(0)
+                .status(RecurringTransferRule.Status.ACTIVE)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.bankcards.mapper;
+
+import com.example.bankcards.dto.ScheduledTransferRequest;
+import com.example.bankcards.dto.ScheduledTransferResponse;
+import com.example.bankcards.entity.ScheduledTransfer;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mapper for converting between ScheduledTransfer entity and DTOs.
+ */
+@Component
+public class ScheduledTransferMapper {
+
+    /**
+     * Converts a ScheduledTransfer entity to a ScheduledTransferResponse DTO.
+     *
+     * @param scheduled the scheduled transfer entity to convert
+     * @return the scheduled transfer response DTO
+     */
+    public ScheduledTransferResponse toResponse(ScheduledTransfer scheduled) {
+        if (scheduled == null) {
+            return null;
+        }
+
+        return new ScheduledTransferResponse(
+                scheduled.getId(),
+                scheduled.getRuleId(),
+                scheduled.getFromCardId(),
+                scheduled.getToCardId(),
+                scheduled.getAmount(),
+                scheduled.getDescription(),
+                scheduled.getExecuteAt(),
+                scheduled.getStatus().name(),
+                scheduled.getTransferId(),
+                scheduled.getFailureReason(),
+                scheduled.getExecutedAt(),
+                scheduled.getCreatedAt()
+        );
+    }
+
+    /**
+     * Converts a ScheduledTransferRequest DTO to a pending ScheduledTransfer entity.
+     *
+     * @param request the scheduled transfer request DTO
+     * @param userId  the user the transfer is executed on behalf of
+     * @return the scheduled transfer entity with status PENDING and current timestamp
+     */
+    public ScheduledTransfer toEntity(ScheduledTransferRequest request, Long userId) {
+        if (request == null) {
+            return null;
+        }
+
+        return ScheduledTransfer.builder()
+                .userId(userId)
+                .fromCardId(request.fromCardId())
+                .toCardId(request.toCardId())
+                .amount(request.amount())
+                .description(request.description())
+                .executeAt(request.executeAt())
+                .status(ScheduledTransfer.Status.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.bankcards.mapper;
 
+import com.example.bankcards.dto.CardBalanceResponse;
 import com.example.bankcards.dto.TransferRequest;
 import com.example.bankcards.dto.TransferResponse;
 import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.fx.FxRateSnapshot;
+import com.example.bankcards.repository.projection.TransferView;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
@@ -26,6 +29,19 @@ public class TransferMapper {
      * @return the transfer response DTO
      */
     public TransferResponse toResponse(Transfer transfer) {
+        return toResponse(transfer, null, null);
+    }
+
+    /**
+     * Converts a just posted Transfer entity to a TransferResponse DTO with the resulting balances.
+     *
+     * @param transfer the transfer entity to convert
+     * @param fromCardBalance the balance of the source card after the transfer
+     * @param toCardBalance the balance of the destination card after the transfer
+     * @return the transfer response DTO
+     */
+    public TransferResponse toResponse(Transfer transfer, CardBalanceResponse fromCardBalance,
+                                       CardBalanceResponse toCardBalance) {
         if (transfer == null) {
             return null;
         }
@@ -37,7 +53,39 @@ public class TransferMapper {
                 transfer.getAmount(),
                 transfer.getStatus().name(),
                 transfer.getCreatedAt(),
-                transfer.getDescription()
+                transfer.getDescription(),
+                transfer.getFailureReason() != null ? transfer.getFailureReason().name() : null,
+                transfer.getFxRate(),
+                transfer.getCreditedAmount(),
+                fromCardBalance,
+                toCardBalance
+        );
+    }
+
+    /**
+     * Converts a read-only transfer projection to a TransferResponse DTO.
+     *
+     * @param view the projected transfer row
+     * @return the transfer response DTO
+     */
+    public TransferResponse toResponse(TransferView view) {
+        if (view == null) {
+            return null;
+        }
+
+        return new TransferResponse(
+                view.id(),
+                view.fromCardId(),
+                view.toCardId(),
+                view.amount(),
+                view.status().name(),
+                view.createdAt(),
+                view.description(),
+                view.failureReason() != null ? view.failureReason().name() : null,
+                view.fxRate(),
+                view.creditedAmount(),
+                null,
+                null
         );
     }
 
@@ -55,10 +103,26 @@ public class TransferMapper {
         return Transfer.builder()
                 .fromCardId(request.fromCardId())
                 .toCardId(request.toCardId())
-                .amount(request.amount())
+                .amount(request.amount().toBigDecimal())
                 .description(request.description())
                 .status(Transfer.TransferStatus.SUCCESS)
                 .createdAt(LocalDateTime.now())
                 .build();
     }
+
+    /**
+     * Converts a TransferRequest DTO to a Transfer entity between cards of different currencies.
+     *
+     * @param request the transfer request DTO, with the amount in the source card currency
+     * @param rate the rate to the destination card currency, or {@code null} for the same currency
+     * @return the transfer entity with the rate and the credited amount recorded
+     */
+    public Transfer toEntity(TransferRequest request, FxRateSnapshot.Rate rate) {
+        Transfer transfer = toEntity(request);
+        if (transfer != null && rate != null) {
+            transfer.setFxRate(rate.value());
+            transfer.setCreditedAmount(rate.convert(request.amount()).toBigDecimal());
+        }
+        return transfer;
+    }
 }
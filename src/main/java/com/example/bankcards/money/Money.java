@@ -0,0 +1,143 @@
+package com.example.bankcards.money;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money as a whole number of minor units (kopecks, cents).
+ *
+ * <p>Every amount column is {@code NUMERIC(15,2)}, so two decimal places always fit into a
+ * {@code long} and balance checks and updates are plain integer arithmetic with no allocation
+ * beyond the result. Arithmetic fails with {@link ArithmeticException} on overflow instead of
+ * wrapping. In the database the value is mapped by {@link MoneyConverter}; in JSON it is written
+ * and read as a plain number with two decimals, as {@link BigDecimal} amounts were.
+ */
+@JsonSerialize(using = MoneyJson.Serializer.class)
+@JsonDeserialize(using = MoneyJson.Deserializer.class)
+public record Money(long minorUnits) implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private static final long MINOR_PER_MAJOR = 100;
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * Converts a decimal amount, rounding half up to two decimals as amounts are stored.
+     *
+     * @throws ArithmeticException if the amount does not fit into a {@code long} of minor units
+     */
+    public static Money of(BigDecimal amount) {
+        return ofMinor(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Parses a plain decimal such as {@code 100}, {@code -0.5} or {@code 1000.25} without going
+     * through {@link BigDecimal}; anything else (more decimals, exponents) goes through
+     * {@link BigDecimal} as well, but is never rounded: an amount the client sent is taken as is
+     * or not at all.
+     *
+     * @throws NumberFormatException if the text is not a number
+     * @throws ArithmeticException if the amount has non-zero digits below the minor unit or does
+     *         not fit into a {@code long} of minor units
+     */
+    public static Money parse(CharSequence text) {
+        int length = text.length();
+        int index = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            index = 1;
+        }
+        long major = 0;
+        int digits = 0;
+        for (; index < length && isDigit(text.charAt(index)); index++, digits++) {
+            if (digits == 16) {
+                return exact(new BigDecimal(text.toString()));
+            }
+            major = major * 10 + (text.charAt(index) - '0');
+        }
+        long minor = 0;
+        int decimals = 0;
+        if (index < length && text.charAt(index) == '.') {
+            for (index++; index < length && isDigit(text.charAt(index)); index++, decimals++) {
+                if (decimals == SCALE) {
+                    return exact(new BigDecimal(text.toString()));
+                }
+                minor = minor * 10 + (text.charAt(index) - '0');
+            }
+        }
+        if (index != length) {
+            return exact(new BigDecimal(text.toString()));
+        }
+        if (digits == 0 && decimals == 0) {
+            throw new NumberFormatException("Not an amount: \"" + text + "\"");
+        }
+        if (decimals == 1) {
+            minor *= 10;
+        }
+        long units = major * MINOR_PER_MAJOR + minor;
+        return ofMinor(negative ? -units : units);
+    }
+
+    private static Money exact(BigDecimal amount) {
+        return ofMinor(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return minorUnits > other.minorUnits;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    /**
+     * The amount with exactly two decimals, e.g. {@code 1000.00} or {@code -0.05}.
+     */
+    @Override
+    public String toString() {
+        long major = Math.abs(minorUnits / MINOR_PER_MAJOR);
+        long minor = Math.abs(minorUnits % MINOR_PER_MAJOR);
+        StringBuilder text = new StringBuilder(24);
+        if (minorUnits < 0) {
+            text.append('-');
+        }
+        text.append(major).append('.');
+        if (minor < 10) {
+            text.append('0');
+        }
+        return text.append(minor).toString();
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.bankcards.money;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.constraints.DecimalMax;
+
+/**
+ * Lets {@link DecimalMax} guard {@link Money} fields the way it guards {@link java.math.BigDecimal}
+ * ones. Registered through {@code META-INF/services/jakarta.validation.ConstraintValidator}.
+ */
+public class MoneyDecimalMaxValidator implements ConstraintValidator<DecimalMax, Money> {
+
+    private Money max;
+    private boolean inclusive;
+
+    @Override
+    public void initialize(DecimalMax constraint) {
+        this.max = Money.parse(constraint.value());
+        this.inclusive = constraint.inclusive();
+    }
+
+    @Override
+    public boolean isValid(Money value, ConstraintValidatorContext context) {
+        if (value == null) {
+            return true;
+        }
+        int comparison = value.compareTo(max);
+        return inclusive ? comparison <= 0 : comparison < 0;
+    }
+}
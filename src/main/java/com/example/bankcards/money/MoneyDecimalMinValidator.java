@@ -0,0 +1,30 @@
+package com.example.bankcards.money;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.constraints.DecimalMin;
+
+/**
+ * Lets {@link DecimalMin} guard {@link Money} fields the way it guards {@link java.math.BigDecimal}
+ * ones. Registered through {@code META-INF/services/jakarta.validation.ConstraintValidator}.
+ */
+public class MoneyDecimalMinValidator implements ConstraintValidator<DecimalMin, Money> {
+
+    private Money min;
+    private boolean inclusive;
+
+    @Override
+    public void initialize(DecimalMin constraint) {
+        this.min = Money.parse(constraint.value());
+        this.inclusive = constraint.inclusive();
+    }
+
+    @Override
+    public boolean isValid(Money value, ConstraintValidatorContext context) {
+        if (value == null) {
+            return true;
+        }
+        int comparison = value.compareTo(min);
+        return inclusive ? comparison >= 0 : comparison > 0;
+    }
+}
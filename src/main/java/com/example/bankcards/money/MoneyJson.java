@@ -0,0 +1,50 @@
+package com.example.bankcards.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+/**
+ * JSON form of {@link Money}: a bare number with two decimals, e.g. {@code "balance": 1000.00},
+ * so clients see the same payload as with {@link java.math.BigDecimal} amounts.
+ */
+final class MoneyJson {
+
+    private MoneyJson() {
+    }
+
+    static final class Serializer extends JsonSerializer<Money> {
+
+        @Override
+        public void serialize(Money money, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeNumber(money.toString());
+        }
+    }
+
+    /**
+     * Accepts numbers and numeric strings; the text of the token is parsed directly, without an
+     * intermediate {@link java.math.BigDecimal} or {@code double}.
+     */
+    static final class Deserializer extends JsonDeserializer<Money> {
+
+        @Override
+        public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                    && token != JsonToken.VALUE_STRING) {
+                return (Money) context.handleUnexpectedToken(Money.class, parser);
+            }
+            try {
+                return Money.parse(parser.getText().trim());
+            } catch (NumberFormatException | ArithmeticException e) {
+                return (Money) context.handleWeirdStringValue(Money.class, parser.getText(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.bankcards.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox payload of {@code CARD_BLOCKED} and {@code CARD_ACTIVATED} events.
+ */
+public record CardStatusChangedEvent(
+        Long cardId,
+        Long userId,
+        String status,
+        LocalDateTime changedAt
+) {}
@@ -0,0 +1,57 @@
+package com.example.bankcards.outbox;
+
+import com.example.bankcards.entity.OutboxEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends every event as one JSON line to a local file, for environments without a broker.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.publisher", havingValue = "file", matchIfMissing = true)
+public class FileOutboxPublisher implements OutboxPublisher {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileOutboxPublisher(ObjectMapper objectMapper,
+                               @Value("${outbox.file.path:./data/outbox-events.ndjson}") String path) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(path);
+    }
+
+    @Override
+    public synchronized void publish(OutboxEvent event) {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Files.writeString(path, toJson(event) + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to publish outbox event " + event.getId(), e);
+        }
+    }
+
+    private String toJson(OutboxEvent event) throws JsonProcessingException {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", event.getId());
+        node.put("eventType", event.getEventType().name());
+        node.put("aggregateType", event.getAggregateType().name());
+        node.put("aggregateId", event.getAggregateId());
+        node.put("createdAt", event.getCreatedAt().toString());
+        node.set("payload", objectMapper.readTree(event.getPayload()));
+        return objectMapper.writeValueAsString(node);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.bankcards.outbox;
+
+import com.example.bankcards.entity.OutboxEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Keeps published events in memory. Intended for tests and local runs.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.publisher", havingValue = "memory")
+public class InMemoryOutboxPublisher implements OutboxPublisher {
+
+    private final ConcurrentLinkedQueue<OutboxEvent> published = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void publish(OutboxEvent event) {
+        published.add(event);
+    }
+
+    public List<OutboxEvent> getPublished() {
+        return new ArrayList<>(published);
+    }
+
+    public void clear() {
+        published.clear();
+    }
+}
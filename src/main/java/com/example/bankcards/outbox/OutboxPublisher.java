@@ -0,0 +1,16 @@
+package com.example.bankcards.outbox;
+
+import com.example.bankcards.entity.OutboxEvent;
+
+/**
+ * Delivers outbox events to a downstream system. Delivery is at-least-once: an event whose
+ * publication succeeded may be handed over again if the relay fails before recording it, so
+ * consumers should deduplicate by {@link OutboxEvent#getId()}.
+ */
+public interface OutboxPublisher {
+
+    /**
+     * @throws RuntimeException if the event could not be delivered; the relay retries it later
+     */
+    void publish(OutboxEvent event);
+}
@@ -0,0 +1,172 @@
+package com.example.bankcards.outbox;
+
+import com.example.bankcards.constants.LogConstants;
+import com.example.bankcards.entity.OutboxEvent;
+import com.example.bankcards.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves outbox events to the configured {@link OutboxPublisher}.
+ *
+ * <p>Each batch is claimed with {@code FOR UPDATE SKIP LOCKED} and published while the row locks
+ * are held; the rows are marked published in the same transaction. Several instances can relay
+ * at once, each claiming a disjoint batch. A failed event stops its batch so the remaining events
+ * keep their order; it is retried on the next run until {@code max-attempts} is reached. Events
+ * that reached it are no longer relayed and are counted apart from the pending ones, so they do
+ * not hold up the lag gauge.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retentionHours;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer deliveryLag;
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong dead = new AtomicLong();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxPublisher publisher,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${outbox.relay.max-attempts:10}") int maxAttempts,
+                       @Value("${outbox.relay.retention-hours:24}") long retentionHours) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.publisher = publisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retentionHours = retentionHours;
+
+        this.publishedCounter = Counter.builder("outbox.relay.published").register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.relay.failed").register(meterRegistry);
+        this.deliveryLag = Timer.builder("outbox.relay.delivery.lag")
+                .description("Time from event creation to publication")
+                .register(meterRegistry);
+        Gauge.builder("outbox.relay.lag.seconds", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest unpublished event")
+                .register(meterRegistry);
+        Gauge.builder("outbox.relay.pending", pending, AtomicLong::get)
+                .register(meterRegistry);
+        Gauge.builder("outbox.relay.dead", dead, AtomicLong::get)
+                .description("Unpublished events that used up their attempts")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:1000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            relayPending();
+        } catch (RuntimeException e) {
+            log.error("{} Relay run failed: {}", LogConstants.OUTBOX_RELAY, e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${outbox.relay.cleanup-cron:0 0 * * * *}")
+    public void purgePublished() {
+        if (!enabled) {
+            return;
+        }
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours)));
+        log.info("{} Purged {} published events older than {}h", LogConstants.OUTBOX_RELAY, deleted, retentionHours);
+    }
+
+    /**
+     * Relays full batches until the outbox is drained or a batch stops early.
+     *
+     * @return number of events published
+     */
+    public int relayPending() {
+        int total = 0;
+        BatchResult result;
+        do {
+            result = relayBatch();
+            total += result.published();
+        } while (result.claimed() == batchSize && result.published() == result.claimed());
+        updateLag();
+        return total;
+    }
+
+    /**
+     * Claims and publishes one batch in a single transaction.
+     */
+    public BatchResult relayBatch() {
+        BatchResult result = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxEventRepository.claimBatch(batchSize, maxAttempts);
+            int published = 0;
+            for (OutboxEvent event : events) {
+                try {
+                    publisher.publish(event);
+                } catch (RuntimeException e) {
+                    event.setAttempts(event.getAttempts() + 1);
+                    event.setLastError(truncate(e.getMessage()));
+                    failedCounter.increment();
+                    log.warn("{} Failed to publish event {} (attempt {}): {}",
+                            LogConstants.OUTBOX_RELAY, event.getId(), event.getAttempts(), e.getMessage());
+                    break;
+                }
+                LocalDateTime now = LocalDateTime.now();
+                event.setPublishedAt(now);
+                event.setAttempts(event.getAttempts() + 1);
+                event.setLastError(null);
+                deliveryLag.record(Duration.between(event.getCreatedAt(), now));
+                published++;
+            }
+            return new BatchResult(events.size(), published);
+        });
+        publishedCounter.increment(result.published());
+        if (result.claimed() > 0) {
+            log.debug("{} Relayed batch - claimed={}, published={}",
+                    LogConstants.OUTBOX_RELAY, result.claimed(), result.published());
+        }
+        return result;
+    }
+
+    private void updateLag() {
+        LocalDateTime oldest = outboxEventRepository.findOldestPendingCreatedAt(maxAttempts);
+        lagSeconds.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toSeconds()));
+        pending.set(outboxEventRepository.countByPublishedAtIsNullAndAttemptsLessThan(maxAttempts));
+        dead.set(outboxEventRepository.countByPublishedAtIsNullAndAttemptsGreaterThanEqual(maxAttempts));
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    public record BatchResult(int claimed, int published) {}
+}
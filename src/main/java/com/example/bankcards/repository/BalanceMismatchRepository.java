@@ -0,0 +1,14 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.BalanceMismatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BalanceMismatchRepository extends JpaRepository<BalanceMismatch, Long> {
+
+    List<BalanceMismatch> findByCardIdInOrderByCardId(Collection<Long> cardIds);
+}
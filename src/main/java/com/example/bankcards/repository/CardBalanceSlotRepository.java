@@ -0,0 +1,32 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardBalanceSlot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CardBalanceSlotRepository extends JpaRepository<CardBalanceSlot, CardBalanceSlot.Key> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CardBalanceSlot s WHERE s.id.cardId = :cardId AND s.id.slot = :slot")
+    Optional<CardBalanceSlot> findForUpdate(@Param("cardId") Long cardId, @Param("slot") int slot);
+
+    /**
+     * Locks every slot of a card in slot order, waiting for credits in flight to commit.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CardBalanceSlot s WHERE s.id.cardId = :cardId ORDER BY s.id.slot")
+    List<CardBalanceSlot> lockAll(@Param("cardId") Long cardId);
+
+    @Modifying
+    @Query("DELETE FROM CardBalanceSlot s WHERE s.id.cardId = :cardId AND s.id.slot >= :slots")
+    int deleteFromSlot(@Param("cardId") Long cardId, @Param("slots") int slots);
+}
@@ -0,0 +1,13 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardBalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CardBalanceSnapshotRepository extends JpaRepository<CardBalanceSnapshot, Long> {
+
+    Optional<CardBalanceSnapshot> findFirstByCardIdOrderByLastEntryIdDesc(Long cardId);
+}
@@ -0,0 +1,52 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardDailyTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface CardDailyTotalRepository extends JpaRepository<CardDailyTotal, CardDailyTotal.Key> {
+
+    /**
+     * Adds one transfer to the daily totals of both cards in a single statement. The sent side
+     * always goes to slot 0 under the row lock of the source card; the received side goes to slot
+     * 0 under the row lock of the destination card, or to {@code toSlot} (from 1) under the lock of
+     * the balance slot it stands for. Every key is therefore only written under one lock, so
+     * concurrent upserts of the same key cannot race. Each side is counted in the currency of its
+     * card, so the two amounts differ for a cross-currency transfer.
+     */
+    @Modifying
+    @Query(value = "MERGE INTO card_daily_totals t " +
+            "USING (VALUES " +
+            "(CAST(:fromCardId AS BIGINT), CAST(:statDate AS DATE), 0, CAST(:sentAmount AS DECIMAL(15,2)), CAST(0 AS DECIMAL(15,2)), 1, 0), " +
+            "(CAST(:toCardId AS BIGINT), CAST(:statDate AS DATE), CAST(:toSlot AS INT), CAST(0 AS DECIMAL(15,2)), CAST(:receivedAmount AS DECIMAL(15,2)), 0, 1)" +
+            ") AS s (card_id, stat_date, slot, sent_amount, received_amount, sent_count, received_count) " +
+            "ON t.card_id = s.card_id AND t.stat_date = s.stat_date AND t.slot = s.slot " +
+            "WHEN MATCHED THEN UPDATE SET " +
+            "sent_amount = t.sent_amount + s.sent_amount, " +
+            "received_amount = t.received_amount + s.received_amount, " +
+            "sent_count = t.sent_count + s.sent_count, " +
+            "received_count = t.received_count + s.received_count " +
+            "WHEN NOT MATCHED THEN INSERT (card_id, stat_date, slot, sent_amount, received_amount, sent_count, received_count) " +
+            "VALUES (s.card_id, s.stat_date, s.slot, s.sent_amount, s.received_amount, s.sent_count, s.received_count)",
+            nativeQuery = true)
+    int addTransfer(@Param("fromCardId") Long fromCardId,
+                    @Param("toCardId") Long toCardId,
+                    @Param("toSlot") int toSlot,
+                    @Param("statDate") LocalDate statDate,
+                    @Param("sentAmount") BigDecimal sentAmount,
+                    @Param("receivedAmount") BigDecimal receivedAmount);
+
+    @Query("SELECT t FROM CardDailyTotal t WHERE t.id.cardId = :cardId " +
+            "AND t.id.statDate BETWEEN :from AND :to ORDER BY t.id.statDate, t.id.slot")
+    List<CardDailyTotal> findByCardIdAndDateRange(@Param("cardId") Long cardId,
+                                                  @Param("from") LocalDate from,
+                                                  @Param("to") LocalDate to);
+}
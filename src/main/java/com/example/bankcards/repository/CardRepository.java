@@ -2,41 +2,96 @@ package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.Card.CardStatus;
+import com.example.bankcards.repository.projection.CardBalanceView;
+import com.example.bankcards.repository.projection.CardOwnerView;
+import com.example.bankcards.repository.projection.CardView;
+import com.example.bankcards.repository.projection.TransferCardView;
+import jakarta.persistence.LockModeType;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CardRepository extends JpaRepository<Card, Long> {
 
-    @EntityGraph(attributePaths = {"user"})
-    @Query("SELECT c FROM Card c WHERE c.user.id = :userId")
-    Page<Card> findByUserId(@Param("userId") Long userId, Pageable pageable);
+    @Query(value = "SELECT new com.example.bankcards.repository.projection.CardView(" +
+            "c.id, c.cardNumber, u.fullName, c.expiryDate, c.status, c.balance, c.currency) " +
+            "FROM Card c JOIN c.user u WHERE u.id = :userId",
+            countQuery = "SELECT COUNT(c) FROM Card c WHERE c.user.id = :userId")
+    Page<CardView> findViewsByUserId(@Param("userId") Long userId, Pageable pageable);
 
     @EntityGraph(attributePaths = {"user"})
     @Cacheable(value = "userCards", key = "#userId")
     @Query("SELECT c FROM Card c WHERE c.user.id = :userId")
     List<Card> findByUserId(@Param("userId") Long userId);
 
-    @EntityGraph(attributePaths = {"user"})
-    @Query("SELECT c FROM Card c WHERE c.user.id = :userId AND c.status = :status")
-    Page<Card> findByUserIdAndStatus(@Param("userId") Long userId, @Param("status") CardStatus status, Pageable pageable);
+    /**
+     * Ids of the user's cards, read from {@code idx_cards_user_id} without loading the cards.
+     */
+    @Query("SELECT c.id FROM Card c WHERE c.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    @Query(value = "SELECT new com.example.bankcards.repository.projection.CardView(" +
+            "c.id, c.cardNumber, u.fullName, c.expiryDate, c.status, c.balance, c.currency) " +
+            "FROM Card c JOIN c.user u WHERE u.id = :userId AND c.status = :status",
+            countQuery = "SELECT COUNT(c) FROM Card c WHERE c.user.id = :userId AND c.status = :status")
+    Page<CardView> findViewsByUserIdAndStatus(@Param("userId") Long userId, @Param("status") CardStatus status,
+                                              Pageable pageable);
 
     @EntityGraph(attributePaths = {"user"})
     Optional<Card> findByCardNumber(String cardNumber);
 
+    /**
+     * Both cards of a transfer as {@link TransferCardView}s in a single query, without locking them;
+     * a missing card is simply absent from the result.
+     */
+    @Query("SELECT new com.example.bankcards.repository.projection.TransferCardView(" +
+            "c.id, c.user.id, c.status, c.balance, c.currency) " +
+            "FROM Card c WHERE c.id IN (:fromCardId, :toCardId)")
+    List<TransferCardView> findTransferCards(@Param("fromCardId") Long fromCardId, @Param("toCardId") Long toCardId);
+
+    /**
+     * Balance and version of a card in a single query. Never cached: a client reading its balance
+     * right after a transfer must see that transfer. The version is a lookup on
+     * {@code idx_ledger_entries_card_id (card_id, id)}.
+     */
+    @Query("SELECT new com.example.bankcards.repository.projection.CardBalanceView(" +
+            "c.id, c.user.id, c.balance, c.currency, " +
+            "(SELECT COALESCE(MAX(e.id), 0L) FROM LedgerEntry e WHERE e.cardId = c.id)) " +
+            "FROM Card c WHERE c.id = :cardId")
+    Optional<CardBalanceView> findBalanceView(@Param("cardId") Long cardId);
+
     @EntityGraph(attributePaths = {"user"})
     @Cacheable(value = "cards", key = "#cardId")
     @Query("SELECT c FROM Card c WHERE c.user.id = :userId AND c.id = :cardId")
     Optional<Card> findByIdAndUserId(@Param("cardId") Long cardId, @Param("userId") Long userId);
 
     boolean existsByCardNumber(String cardNumber);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Card c WHERE c.id = :cardId")
+    Optional<Card> findByIdForUpdate(@Param("cardId") Long cardId);
+
+    /**
+     * @return the card's number of balance slots, or {@code null} if the card does not exist
+     */
+    @Query("SELECT c.balanceSlots FROM Card c WHERE c.id = :cardId")
+    Integer findBalanceSlots(@Param("cardId") Long cardId);
+
+    /**
+     * Owner of each of the given cards, one row per card and in no particular order.
+     */
+    @Query("SELECT new com.example.bankcards.repository.projection.CardOwnerView(c.id, u.id, u.username) " +
+            "FROM Card c JOIN c.user u WHERE c.id IN :cardIds")
+    List<CardOwnerView> findOwnersByCardIds(@Param("cardIds") Collection<Long> cardIds);
 }
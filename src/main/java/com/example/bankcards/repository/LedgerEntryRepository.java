@@ -0,0 +1,38 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    List<LedgerEntry> findByTransferId(Long transferId);
+
+    @Query("SELECT MAX(e.id) FROM LedgerEntry e WHERE e.cardId = :cardId")
+    Long findLastEntryId(@Param("cardId") Long cardId);
+
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM LedgerEntry e " +
+            "WHERE e.cardId = :cardId AND e.id > :afterEntryId AND e.id <= :upToEntryId")
+    BigDecimal sumAmounts(@Param("cardId") Long cardId,
+                          @Param("afterEntryId") Long afterEntryId,
+                          @Param("upToEntryId") Long upToEntryId);
+
+    /**
+     * Cards with at least {@code minEntries} ledger entries posted after their latest snapshot.
+     * Each card counts only the entries above its own high-water mark, a range on
+     * {@code idx_ledger_entries_card_id (card_id, id)}, so the ledger is never scanned as a whole.
+     */
+    @Query(value = "SELECT p.card_id FROM (" +
+            "SELECT c.id AS card_id, (SELECT COUNT(*) FROM ledger_entries e WHERE e.card_id = c.id " +
+            "AND e.id > COALESCE((SELECT MAX(s.last_entry_id) FROM card_balance_snapshots s WHERE s.card_id = c.id), 0)) " +
+            "AS pending FROM cards c) p " +
+            "WHERE p.pending >= :minEntries " +
+            "ORDER BY p.pending DESC LIMIT :limit", nativeQuery = true)
+    List<Long> findCardIdsNeedingSnapshot(@Param("minEntries") long minEntries, @Param("limit") int limit);
+}
@@ -0,0 +1,38 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest unpublished events. Rows already locked by another relay are skipped
+     * rather than waited on, so concurrent relays claim disjoint batches.
+     */
+    @Query(value = "SELECT * FROM outbox WHERE published_at IS NULL AND attempts < :maxAttempts " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> claimBatch(@Param("limit") int limit, @Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Creation time of the oldest event the relay will still try to publish; events that used up
+     * their attempts are left out.
+     */
+    @Query("SELECT MIN(o.createdAt) FROM OutboxEvent o WHERE o.publishedAt IS NULL AND o.attempts < :maxAttempts")
+    LocalDateTime findOldestPendingCreatedAt(@Param("maxAttempts") int maxAttempts);
+
+    long countByPublishedAtIsNullAndAttemptsLessThan(int maxAttempts);
+
+    long countByPublishedAtIsNullAndAttemptsGreaterThanEqual(int maxAttempts);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent o WHERE o.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
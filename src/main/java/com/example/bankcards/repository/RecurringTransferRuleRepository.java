@@ -0,0 +1,37 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.RecurringTransferRule;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RecurringTransferRuleRepository extends JpaRepository<RecurringTransferRule, Long> {
+
+    /**
+     * Locks active rules whose next occurrence is before {@code horizon}. Rows locked by another
+     * materializer thread or instance are skipped, so concurrent runs take disjoint chunks.
+     */
+    @Query(value = "SELECT * FROM recurring_transfer_rules WHERE status = 'ACTIVE' AND next_run_at <= :horizon " +
+            "ORDER BY next_run_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<RecurringTransferRule> claimDue(@Param("horizon") LocalDateTime horizon, @Param("limit") int limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE RecurringTransferRule r SET r.status = 'CANCELLED', r.updatedAt = :now " +
+            "WHERE r.id = :id AND r.status = 'ACTIVE'")
+    int cancel(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    long countByStatus(RecurringTransferRule.Status status);
+
+    Optional<RecurringTransferRule> findByIdAndUserId(Long id, Long userId);
+
+    Page<RecurringTransferRule> findByUserId(Long userId, Pageable pageable);
+}
@@ -0,0 +1,104 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.ScheduledTransfer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ScheduledTransferRepository extends JpaRepository<ScheduledTransfer, Long> {
+
+    /**
+     * Locks pending transfers due before {@code horizon}, earliest first. Rows locked by another
+     * dispatcher are skipped, so concurrent dispatchers claim disjoint sets.
+     */
+    @Query(value = "SELECT * FROM scheduled_transfers WHERE status = 'PENDING' AND execute_at <= :horizon " +
+            "ORDER BY execute_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ScheduledTransfer> claimDue(@Param("horizon") LocalDateTime horizon, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE ScheduledTransfer s SET s.status = 'CLAIMED', s.claimedBy = :node, s.claimedAt = :now " +
+            "WHERE s.id IN :ids")
+    int markClaimed(@Param("ids") List<Long> ids, @Param("node") String node, @Param("now") LocalDateTime now);
+
+    /**
+     * Hands transfers claimed by a dispatcher that stopped before executing them back to the pool.
+     */
+    @Modifying
+    @Query("UPDATE ScheduledTransfer s SET s.status = 'PENDING', s.claimedBy = NULL, s.claimedAt = NULL " +
+            "WHERE s.status = 'CLAIMED' AND s.claimedAt < :cutoff")
+    int releaseStaleClaims(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("UPDATE ScheduledTransfer s SET s.status = 'PENDING', s.claimedBy = NULL, s.claimedAt = NULL " +
+            "WHERE s.status = 'CLAIMED' AND s.claimedBy = :node")
+    int releaseClaims(@Param("node") String node);
+
+    /**
+     * Hands transfers that could not be executed because of a database error back to the pool,
+     * so that a later poll claims them again.
+     */
+    @Modifying
+    @Query("UPDATE ScheduledTransfer s SET s.status = 'PENDING', s.claimedBy = NULL, s.claimedAt = NULL " +
+            "WHERE s.id IN :ids AND s.status = 'CLAIMED' AND s.claimedBy = :node")
+    int releaseClaims(@Param("ids") List<Long> ids, @Param("node") String node);
+
+    /**
+     * Locks a claimed transfer for execution if {@code node} still holds the claim, so that a
+     * concurrent cancellation waits for the execution to commit.
+     *
+     * @return {@code 0} if the transfer was cancelled or re-claimed elsewhere in the meantime
+     */
+    @Modifying
+    @Query("UPDATE ScheduledTransfer s SET s.claimedAt = s.claimedAt " +
+            "WHERE s.id = :id AND s.status = 'CLAIMED' AND s.claimedBy = :node")
+    int lockClaim(@Param("id") Long id, @Param("node") String node);
+
+    /**
+     * Moves a claimed transfer to its final state if {@code node} still holds the claim.
+     */
+    @Modifying
+    @Query("UPDATE ScheduledTransfer s SET s.status = :status, s.transferId = :transferId, " +
+            "s.failureReason = :failureReason, s.executedAt = :now " +
+            "WHERE s.id = :id AND s.status = 'CLAIMED' AND s.claimedBy = :node")
+    int complete(@Param("id") Long id,
+                 @Param("node") String node,
+                 @Param("status") ScheduledTransfer.Status status,
+                 @Param("transferId") Long transferId,
+                 @Param("failureReason") String failureReason,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ScheduledTransfer s SET s.status = 'CANCELLED' " +
+            "WHERE s.id = :id AND s.status IN ('PENDING', 'CLAIMED')")
+    int cancel(@Param("id") Long id);
+
+    Optional<ScheduledTransfer> findByIdAndUserId(Long id, Long userId);
+
+    Page<ScheduledTransfer> findByUserId(Long userId, Pageable pageable);
+
+    /**
+     * Creates a pending transfer for the current occurrence ({@code next_run_at}) of each rule in
+     * one set-based statement.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO scheduled_transfers (rule_id, user_id, from_card_id, to_card_id, amount, " +
+            "description, execute_at, status, created_at) " +
+            "SELECT r.id, r.user_id, r.from_card_id, r.to_card_id, r.amount, r.description, r.next_run_at, " +
+            "'PENDING', :now FROM recurring_transfer_rules r WHERE r.id IN (:ruleIds)", nativeQuery = true)
+    int insertOccurrences(@Param("ruleIds") List<Long> ruleIds, @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ScheduledTransfer s SET s.status = 'CANCELLED' WHERE s.ruleId = :ruleId AND s.status = 'PENDING'")
+    int cancelPendingOccurrences(@Param("ruleId") Long ruleId);
+
+    long countByRuleId(Long ruleId);
+}
@@ -1,19 +1,81 @@
 package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.repository.projection.TransferView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface TransferRepository extends JpaRepository<Transfer, Long> {
+public interface TransferRepository extends JpaRepository<Transfer, Long>, JpaSpecificationExecutor<Transfer> {
 
     @Query("SELECT t FROM Transfer t WHERE t.fromCardId = :cardId OR t.toCardId = :cardId")
     Page<Transfer> findByCardId(@Param("cardId") Long cardId, Pageable pageable);
 
-    @Query("SELECT t FROM Transfer t WHERE t.fromCardId IN :cardIds OR t.toCardId IN :cardIds")
-    Page<Transfer> findByCardIds(@Param("cardIds") Iterable<Long> cardIds, Pageable pageable);
+    @Query(value = "SELECT new com.example.bankcards.repository.projection.TransferView(" +
+            "t.id, t.fromCardId, t.toCardId, t.amount, t.status, t.createdAt, t.description, t.failureReason, " +
+            "t.fxRate, t.creditedAmount) " +
+            "FROM Transfer t WHERE (t.fromCardId = :cardId OR t.toCardId = :cardId) AND t.status = 'SUCCESS'",
+            countQuery = "SELECT COUNT(t) FROM Transfer t " +
+                    "WHERE (t.fromCardId = :cardId OR t.toCardId = :cardId) AND t.status = 'SUCCESS'")
+    Page<TransferView> findViewsByCardId(@Param("cardId") Long cardId, Pageable pageable);
+
+    /**
+     * The completed transfer if the user owns its source or destination card, in one query over the
+     * primary keys of transfers and cards.
+     */
+    @Query("SELECT new com.example.bankcards.repository.projection.TransferView(" +
+            "t.id, t.fromCardId, t.toCardId, t.amount, t.status, t.createdAt, t.description, t.failureReason, " +
+            "t.fxRate, t.creditedAmount) " +
+            "FROM Transfer t WHERE t.id = :transferId AND t.status = 'SUCCESS' AND EXISTS (" +
+            "SELECT c.id FROM Card c WHERE c.id IN (t.fromCardId, t.toCardId) AND c.user.id = :userId)")
+    Optional<TransferView> findViewByIdForUser(@Param("transferId") Long transferId, @Param("userId") Long userId);
+
+    /**
+     * Transfers from or to any card of the user. Checks ownership with a semi-join on
+     * {@code idx_cards_user_id} instead of passing the card ids, so the query does not grow with the
+     * number of cards, and each transfer is matched at most once without a {@code DISTINCT} over the
+     * page or the count. Declined attempts recorded by {@code FailedTransferRecorder} are not part of
+     * the history.
+     */
+    @Query(value = "SELECT new com.example.bankcards.repository.projection.TransferView(" +
+            "t.id, t.fromCardId, t.toCardId, t.amount, t.status, t.createdAt, t.description, t.failureReason, " +
+            "t.fxRate, t.creditedAmount) " +
+            "FROM Transfer t WHERE t.status = 'SUCCESS' AND EXISTS (" +
+            "SELECT c.id FROM Card c WHERE c.id IN (t.fromCardId, t.toCardId) AND c.user.id = :userId)",
+            countQuery = "SELECT COUNT(t) FROM Transfer t WHERE t.status = 'SUCCESS' AND EXISTS (" +
+                    "SELECT c.id FROM Card c WHERE c.id IN (t.fromCardId, t.toCardId) AND c.user.id = :userId)")
+    Page<TransferView> findViewsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT t FROM Transfer t ORDER BY t.id DESC")
+    List<Transfer> findLatest(Pageable pageable);
+
+    /**
+     * Transfers already created by any of the given asynchronous requests.
+     */
+    List<Transfer> findByRequestIdIn(Collection<String> requestIds);
+
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transfer t " +
+            "WHERE t.fromCardId = :cardId AND t.status = 'SUCCESS' AND t.createdAt >= :since")
+    BigDecimal sumSentSince(@Param("cardId") Long cardId, @Param("since") LocalDateTime since);
+
+    @Query("SELECT t FROM Transfer t WHERE t.fromCardId = :cardId AND t.status = 'SUCCESS' AND t.createdAt >= :since")
+    List<Transfer> findSentSince(@Param("cardId") Long cardId, @Param("since") LocalDateTime since);
+
+    /**
+     * Successful transfers sent since {@code since} from cards that have a daily limit.
+     */
+    @Query("SELECT t FROM Transfer t WHERE t.status = 'SUCCESS' AND t.createdAt >= :since " +
+            "AND t.fromCardId IN (SELECT c.id FROM Card c WHERE c.dailyLimit IS NOT NULL)")
+    List<Transfer> findSentSinceFromLimitedCards(@Param("since") LocalDateTime since);
 }
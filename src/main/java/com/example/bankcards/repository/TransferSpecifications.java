@@ -0,0 +1,107 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Filters for transfer search. Every method returns {@code null} for a missing value, so the
+ * results can be combined with {@link Specification#allOf} directly.
+ *
+ * <p>Searches are always scoped by {@link #sentFrom} or {@link #receivedBy}, which the
+ * {@code (from_card_id, created_at)} and {@code (to_card_id, created_at)} indexes serve; the
+ * remaining filters narrow that range.
+ */
+public final class TransferSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private TransferSpecifications() {
+    }
+
+    public static Specification<Transfer> sentFrom(Collection<Long> cardIds) {
+        return (root, query, cb) -> root.get("fromCardId").in(cardIds);
+    }
+
+    /**
+     * Transfers into the cards that were not sent from one of them; those are already covered by
+     * {@link #sentFrom} with the same cards.
+     */
+    public static Specification<Transfer> receivedBy(Collection<Long> cardIds) {
+        return (root, query, cb) -> cb.and(
+                root.get("toCardId").in(cardIds),
+                cb.not(root.get("fromCardId").in(cardIds)));
+    }
+
+    /**
+     * Completed transfers, and declined attempts sent from a card of {@code ownerId}. An attempt is
+     * only recorded once its sender was found to own the source card, so it is shown to that owner
+     * and never to the owner of the destination.
+     */
+    public static Specification<Transfer> visibleTo(Long ownerId) {
+        return (root, query, cb) -> {
+            Subquery<Long> ownerCards = query.subquery(Long.class);
+            Root<Card> card = ownerCards.from(Card.class);
+            ownerCards.select(card.get("id")).where(cb.equal(card.get("user").get("id"), ownerId));
+            return cb.or(
+                    cb.equal(root.get("status"), Transfer.TransferStatus.SUCCESS),
+                    root.get("fromCardId").in(ownerCards));
+        };
+    }
+
+    public static Specification<Transfer> amountAtLeast(BigDecimal min) {
+        return min == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), min);
+    }
+
+    public static Specification<Transfer> amountAtMost(BigDecimal max) {
+        return max == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), max);
+    }
+
+    public static Specification<Transfer> createdFrom(LocalDateTime from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    public static Specification<Transfer> createdBefore(LocalDateTime to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThan(root.get("createdAt"), to);
+    }
+
+    public static Specification<Transfer> hasStatus(Transfer.TransferStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    /**
+     * Case-insensitive substring match, in the {@code LOWER(description)} form the trigram index
+     * is built on.
+     */
+    public static Specification<Transfer> descriptionContains(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String pattern = "%" + escapeLike(text.trim().toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("description")), pattern, LIKE_ESCAPE);
+    }
+
+    /**
+     * Keyset condition for results ordered by {@code createdAt DESC, id DESC}: everything after
+     * the row identified by {@code createdAt} and {@code id}.
+     */
+    public static Specification<Transfer> after(LocalDateTime createdAt, Long id) {
+        if (createdAt == null || id == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id)));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
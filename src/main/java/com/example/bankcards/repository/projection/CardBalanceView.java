@@ -0,0 +1,15 @@
+package com.example.bankcards.repository.projection;
+
+import com.example.bankcards.money.Money;
+
+/**
+ * Balance of a card with the id of its latest ledger entry as the version, read in one query
+ * without the card number, the owner row or the limits.
+ */
+public record CardBalanceView(
+        Long cardId,
+        Long ownerId,
+        Money balance,
+        String currency,
+        Long version
+) {}
@@ -0,0 +1,10 @@
+package com.example.bankcards.repository.projection;
+
+/**
+ * Owner of a card, enough to load the owner's cached entries by username and id.
+ */
+public record CardOwnerView(
+        Long cardId,
+        Long ownerId,
+        String username
+) {}
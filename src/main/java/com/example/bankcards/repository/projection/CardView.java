@@ -0,0 +1,21 @@
+package com.example.bankcards.repository.projection;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.money.Money;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only row of a card with exactly the columns of {@link com.example.bankcards.dto.CardResponse}:
+ * the owner's full name is joined in instead of loading the whole {@code User}. The card number is
+ * still encrypted.
+ */
+public record CardView(
+        Long id,
+        String cardNumber,
+        String ownerFullName,
+        LocalDate expiryDate,
+        Card.CardStatus status,
+        Money balance,
+        String currency
+) {}
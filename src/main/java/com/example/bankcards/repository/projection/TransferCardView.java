@@ -0,0 +1,23 @@
+package com.example.bankcards.repository.projection;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.money.Money;
+
+/**
+ * What a transfer is checked against on each of its cards: owner, status, balance and currency.
+ * Read for both cards in one query before any of them is locked; {@link #of(Card)} gives the same
+ * view of a locked card.
+ */
+public record TransferCardView(
+        Long id,
+        Long ownerId,
+        Card.CardStatus status,
+        Money balance,
+        String currency
+) {
+
+    public static TransferCardView of(Card card) {
+        return new TransferCardView(card.getId(), card.getUser().getId(), card.getStatus(), card.getBalance(),
+                card.getCurrency());
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.bankcards.repository.projection;
+
+import com.example.bankcards.entity.Transfer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row of a transfer with exactly the columns of
+ * {@link com.example.bankcards.dto.TransferResponse}. Built by a JPQL constructor expression, so
+ * Hibernate neither manages nor snapshots it.
+ */
+public record TransferView(
+        Long id,
+        Long fromCardId,
+        Long toCardId,
+        BigDecimal amount,
+        Transfer.TransferStatus status,
+        LocalDateTime createdAt,
+        String description,
+        Transfer.FailureReason failureReason,
+        BigDecimal fxRate,
+        BigDecimal creditedAmount
+) {}
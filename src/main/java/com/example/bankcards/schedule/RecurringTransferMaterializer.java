@@ -0,0 +1,211 @@
+package com.example.bankcards.schedule;
+
+import com.example.bankcards.constants.LogConstants;
+import com.example.bankcards.entity.RecurringTransferRule;
+import com.example.bankcards.repository.RecurringTransferRuleRepository;
+import com.example.bankcards.repository.ScheduledTransferRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Turns due occurrences of recurring transfer rules into scheduled transfers.
+ *
+ * <p>Each run expands every active rule whose next occurrence is within {@code lookahead-ms}.
+ * Worker threads claim chunks of {@code chunk-size} rules with {@code FOR UPDATE SKIP LOCKED};
+ * per chunk one {@code INSERT ... SELECT} creates the occurrences and one JDBC batch moves the
+ * rules to their next occurrence, all in one transaction, so an occurrence is created exactly once
+ * even with several instances. Execution is left to {@link ScheduledTransferDispatcher}.
+ *
+ * <p>Occurrences missed while no instance was running collapse into a single catch-up transfer.
+ */
+@Component
+@Slf4j
+public class RecurringTransferMaterializer {
+
+    private static final String ADVANCE_SQL = "UPDATE recurring_transfer_rules " +
+            "SET next_run_at = ?, next_occurrence = ?, last_run_at = ?, status = ?, updated_at = ? WHERE id = ?";
+
+    private final RecurringTransferRuleRepository ruleRepository;
+    private final ScheduledTransferRepository scheduledTransferRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long lookaheadMs;
+    private final int chunkSize;
+    private final int threads;
+    private final ExecutorService workers;
+    private final Counter materializedCounter;
+    private final Timer runTimer;
+
+    public RecurringTransferMaterializer(RecurringTransferRuleRepository ruleRepository,
+                                         ScheduledTransferRepository scheduledTransferRepository,
+                                         JdbcTemplate jdbcTemplate,
+                                         PlatformTransactionManager transactionManager,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${transfer.recurring.enabled:true}") boolean enabled,
+                                         @Value("${transfer.recurring.lookahead-ms:300000}") long lookaheadMs,
+                                         @Value("${transfer.recurring.chunk-size:1000}") int chunkSize,
+                                         @Value("${transfer.recurring.threads:4}") int threads) {
+        this.ruleRepository = ruleRepository;
+        this.scheduledTransferRepository = scheduledTransferRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.lookaheadMs = lookaheadMs;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.threads = Math.max(1, threads);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.threads, runnable -> {
+            Thread thread = new Thread(runnable, "recurring-materializer-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.materializedCounter = Counter.builder("transfer.recurring.materialized").register(meterRegistry);
+        this.runTimer = Timer.builder("transfer.recurring.run")
+                .description("Duration of one materializer run over all due rules")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${transfer.recurring.interval-ms:60000}",
+            initialDelayString = "${transfer.recurring.interval-ms:60000}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            materialize();
+        } catch (RuntimeException e) {
+            log.error("{} Materializer run failed: {}", LogConstants.RECURRING_MATERIALIZE, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Materializes all occurrences due within the lookahead window.
+     *
+     * @return what the run did and how fast
+     */
+    public Run materialize() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.plus(Duration.ofMillis(lookaheadMs));
+
+        List<Future<int[]>> results = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            results.add(workers.submit(() -> drain(now, horizon)));
+        }
+        int rules = 0;
+        int chunks = 0;
+        for (Future<int[]> result : results) {
+            try {
+                int[] drained = result.get();
+                rules += drained[0];
+                chunks += drained[1];
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while materializing recurring transfers", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Materializing recurring transfers failed", e.getCause());
+            }
+        }
+
+        long durationNanos = System.nanoTime() - start;
+        runTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+        materializedCounter.increment(rules);
+        Run run = new Run(rules, chunks, TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        if (rules > 0) {
+            log.info("{} Materialized {} occurrences in {} chunks - durationMs={}, rulesPerSecond={}",
+                    LogConstants.RECURRING_MATERIALIZE, run.rules(), run.chunks(), run.durationMs(),
+                    Math.round(run.rulesPerSecond()));
+        }
+        return run;
+    }
+
+    private int[] drain(LocalDateTime now, LocalDateTime horizon) {
+        int rules = 0;
+        int chunks = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            Integer materialized = transactionTemplate.execute(status -> materializeChunk(now, horizon));
+            if (materialized == null || materialized == 0) {
+                break;
+            }
+            rules += materialized;
+            chunks++;
+        }
+        return new int[] {rules, chunks};
+    }
+
+    private int materializeChunk(LocalDateTime now, LocalDateTime horizon) {
+        List<RecurringTransferRule> rules = ruleRepository.claimDue(horizon, chunkSize);
+        if (rules.isEmpty()) {
+            return 0;
+        }
+        scheduledTransferRepository.insertOccurrences(rules.stream().map(RecurringTransferRule::getId).toList(), now);
+
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(ADVANCE_SQL, rules, rules.size(), (ps, rule) -> {
+            Next next = next(rule, now);
+            ps.setTimestamp(1, Timestamp.valueOf(next.runAt()));
+            ps.setInt(2, next.occurrence());
+            ps.setTimestamp(3, Timestamp.valueOf(rule.getNextRunAt()));
+            ps.setString(4, next.status().name());
+            ps.setTimestamp(5, updatedAt);
+            ps.setLong(6, rule.getId());
+        });
+        return rules.size();
+    }
+
+    /**
+     * First occurrence of {@code rule} after the one being materialized that is not already in the
+     * past, and the status the rule has once it is scheduled.
+     */
+    static Next next(RecurringTransferRule rule, LocalDateTime now) {
+        int occurrence = rule.getNextOccurrence() + 1;
+        LocalDateTime runAt = rule.getFrequency().occurrence(rule.getFirstRunAt(), occurrence);
+        while (!runAt.isAfter(now)) {
+            occurrence++;
+            runAt = rule.getFrequency().occurrence(rule.getFirstRunAt(), occurrence);
+        }
+        RecurringTransferRule.Status status = rule.getEndAt() != null && runAt.isAfter(rule.getEndAt())
+                ? RecurringTransferRule.Status.COMPLETED
+                : RecurringTransferRule.Status.ACTIVE;
+        return new Next(runAt, occurrence, status);
+    }
+
+    record Next(LocalDateTime runAt, int occurrence, RecurringTransferRule.Status status) {}
+
+    /**
+     * Outcome of one materializer run.
+     */
+    public record Run(int rules, int chunks, long durationMs) {
+
+        public double rulesPerSecond() {
+            return durationMs == 0 ? rules * 1000.0 : rules * 1000.0 / durationMs;
+        }
+    }
+}
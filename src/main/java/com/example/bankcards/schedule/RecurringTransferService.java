@@ -0,0 +1,122 @@
+package com.example.bankcards.schedule;
+
+import com.example.bankcards.constants.BusinessConstants;
+import com.example.bankcards.constants.ErrorMessages;
+import com.example.bankcards.constants.LogConstants;
+import com.example.bankcards.dto.RecurringTransferRequest;
+import com.example.bankcards.dto.RecurringTransferResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.RecurringTransferRule;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.exception.UnauthorizedException;
+import com.example.bankcards.helper.LogHelper;
+import com.example.bankcards.helper.SecurityHelper;
+import com.example.bankcards.mapper.RecurringTransferMapper;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.RecurringTransferRuleRepository;
+import com.example.bankcards.repository.ScheduledTransferRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Creates, lists and cancels standing orders. Occurrences are created by
+ * {@link RecurringTransferMaterializer} and executed like any other scheduled transfer.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@Transactional
+public class RecurringTransferService {
+
+    private final RecurringTransferRuleRepository ruleRepository;
+    private final ScheduledTransferRepository scheduledTransferRepository;
+    private final CardRepository cardRepository;
+    private final SecurityHelper securityHelper;
+    private final RecurringTransferMapper recurringTransferMapper;
+
+    public RecurringTransferResponse create(RecurringTransferRequest request, Authentication authentication) {
+        LogHelper.logOperationStart(log, LogConstants.TRANSFER_RECURRING,
+                "fromCardId", request.fromCardId(),
+                "toCardId", request.toCardId(),
+                "amount", request.amount(),
+                "frequency", request.frequency(),
+                "firstRunAt", request.firstRunAt());
+
+        if (request.firstRunAt().isAfter(LocalDateTime.now().plusDays(BusinessConstants.MAX_SCHEDULE_AHEAD_DAYS))) {
+            throw new BadRequestException(ErrorMessages.SCHEDULED_TRANSFER_TOO_FAR);
+        }
+        if (request.endAt() != null && !request.endAt().isAfter(request.firstRunAt())) {
+            throw new BadRequestException(ErrorMessages.RECURRING_TRANSFER_END_BEFORE_START);
+        }
+        if (request.fromCardId().equals(request.toCardId())) {
+            throw new BadRequestException(ErrorMessages.TRANSFER_SAME_CARD);
+        }
+
+        User currentUser = securityHelper.getCurrentUser(authentication);
+        validateOwnCard(request.fromCardId(), currentUser, ErrorMessages.UNAUTHORIZED_TRANSFER_FROM);
+        validateOwnCard(request.toCardId(), currentUser, ErrorMessages.UNAUTHORIZED_TRANSFER_TO);
+
+        RecurringTransferRule rule = recurringTransferMapper.toEntity(request, currentUser.getId());
+        ruleRepository.save(rule);
+
+        LogHelper.logOperationSuccess(log, LogConstants.TRANSFER_RECURRING,
+                "ruleId", rule.getId(),
+                "userId", currentUser.getId());
+
+        return recurringTransferMapper.toResponse(rule);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<RecurringTransferResponse> getRecurringTransfers(Pageable pageable, Authentication authentication) {
+        User currentUser = securityHelper.getCurrentUser(authentication);
+        return ruleRepository.findByUserId(currentUser.getId(), pageable)
+                .map(recurringTransferMapper::toResponse);
+    }
+
+    @Transactional(readOnly = true)
+    public RecurringTransferResponse getRecurringTransfer(Long id, Authentication authentication) {
+        User currentUser = securityHelper.getCurrentUser(authentication);
+        return ruleRepository.findByIdAndUserId(id, currentUser.getId())
+                .map(recurringTransferMapper::toResponse)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.RECURRING_TRANSFER_NOT_FOUND));
+    }
+
+    /**
+     * Stops a rule and cancels its occurrences that have not been picked up by a dispatcher yet.
+     * If the materializer holds the rule, this waits for it, so its occurrence is cancelled too.
+     */
+    public void cancel(Long id, Authentication authentication) {
+        LogHelper.logOperationStart(log, LogConstants.TRANSFER_RECURRING_CANCEL,
+                "ruleId", id);
+
+        User currentUser = securityHelper.getCurrentUser(authentication);
+        ruleRepository.findByIdAndUserId(id, currentUser.getId())
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.RECURRING_TRANSFER_NOT_FOUND));
+        if (ruleRepository.cancel(id, LocalDateTime.now()) == 0) {
+            throw new BadRequestException(ErrorMessages.RECURRING_TRANSFER_NOT_CANCELLABLE);
+        }
+        int cancelledOccurrences = scheduledTransferRepository.cancelPendingOccurrences(id);
+
+        LogHelper.logOperationSuccess(log, LogConstants.TRANSFER_RECURRING_CANCEL,
+                "ruleId", id,
+                "cancelledOccurrences", cancelledOccurrences,
+                "userId", currentUser.getId());
+    }
+
+    private void validateOwnCard(Long cardId, User user, String errorMessage) {
+        Card card = cardRepository.findById(cardId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.CARD_NOT_FOUND));
+        if (!card.getUser().getId().equals(user.getId())) {
+            throw new UnauthorizedException(errorMessage);
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package com.example.bankcards.schedule;
+
+import com.example.bankcards.constants.LogConstants;
+import com.example.bankcards.dto.AsyncTransferResponse;
+import com.example.bankcards.entity.ScheduledTransfer;
+import com.example.bankcards.repository.ScheduledTransferRepository;
+import com.example.bankcards.service.AsyncTransferService;
+import com.example.bankcards.service.AsyncTransferWriter;
+import com.example.bankcards.service.QueuedTransfer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes scheduled transfers on time.
+ *
+ * <p>Every {@code poll-interval-ms} the dispatcher claims pending transfers due within
+ * {@code lookahead-ms} with {@code FOR UPDATE SKIP LOCKED}, so several instances share the work
+ * without double execution, and parks them in a {@link TimingWheel}. A ticker thread advances the
+ * wheel every {@code tick-ms} and hands due transfers to per-lane executors (lane chosen by source
+ * card, so one card's transfers run in order), which apply them in batches through
+ * {@link AsyncTransferWriter}. The scheduled row is finalized in the same transaction as the
+ * transfer; a cancellation that races with execution waits for it and then fails.
+ *
+ * <p>Claims held by an instance that died are returned to the pool after {@code claim-timeout-ms}.
+ * Transfers the writer could not apply because of a database error are returned right away and
+ * executed again after a later poll; only rejected transfers are marked {@code FAILED}.
+ */
+@Component
+@Slf4j
+public class ScheduledTransferDispatcher {
+
+    /**
+     * Batches are cut from transfers sorted by source card, so a burst of occurrences (a monthly
+     * standing-order date, say) locks each source card row in as few transactions as possible.
+     */
+    private static final Comparator<DueTransfer> BY_SOURCE_CARD =
+            Comparator.comparing(DueTransfer::fromCardId).thenComparingLong(DueTransfer::dueMillis);
+
+    private final ScheduledTransferRepository scheduledTransferRepository;
+    private final AsyncTransferWriter writer;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long lookaheadMs;
+    private final int claimBatchSize;
+    private final int maxInFlight;
+    private final int executeBatchSize;
+    private final long claimTimeoutMs;
+    private final long tickMs;
+    private final int wheelSize;
+    private final int laneCount;
+    private final String nodeId = "dispatcher-" + UUID.randomUUID();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final List<ExecutorService> lanes = new ArrayList<>();
+    private TimingWheel<DueTransfer> wheel;
+    private Thread ticker;
+    private Timer dispatchLag;
+    private Counter completedCounter;
+    private Counter failedCounter;
+    private volatile boolean running;
+
+    public ScheduledTransferDispatcher(ScheduledTransferRepository scheduledTransferRepository,
+                                       AsyncTransferWriter writer,
+                                       PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${transfer.scheduled.enabled:true}") boolean enabled,
+                                       @Value("${transfer.scheduled.lookahead-ms:60000}") long lookaheadMs,
+                                       @Value("${transfer.scheduled.claim-batch-size:500}") int claimBatchSize,
+                                       @Value("${transfer.scheduled.max-in-flight:200000}") int maxInFlight,
+                                       @Value("${transfer.scheduled.execute-batch-size:50}") int executeBatchSize,
+                                       @Value("${transfer.scheduled.claim-timeout-ms:600000}") long claimTimeoutMs,
+                                       @Value("${transfer.scheduled.tick-ms:100}") long tickMs,
+                                       @Value("${transfer.scheduled.wheel-size:512}") int wheelSize,
+                                       @Value("${transfer.scheduled.lanes:4}") int laneCount) {
+        this.scheduledTransferRepository = scheduledTransferRepository;
+        this.writer = writer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.lookaheadMs = lookaheadMs;
+        this.claimBatchSize = Math.max(1, claimBatchSize);
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.executeBatchSize = Math.max(1, executeBatchSize);
+        this.claimTimeoutMs = Math.max(lookaheadMs * 2, claimTimeoutMs);
+        this.tickMs = Math.max(1, tickMs);
+        this.wheelSize = Math.max(2, wheelSize);
+        this.laneCount = Math.max(1, laneCount);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        dispatchLag = Timer.builder("transfer.scheduled.dispatch.lag")
+                .description("Time from the scheduled execution time to the transfer being applied")
+                .register(meterRegistry);
+        completedCounter = Counter.builder("transfer.scheduled.completed").register(meterRegistry);
+        failedCounter = Counter.builder("transfer.scheduled.failed").register(meterRegistry);
+        Gauge.builder("transfer.scheduled.in.flight", inFlight, AtomicInteger::get).register(meterRegistry);
+
+        wheel = new TimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+        for (int lane = 0; lane < laneCount; lane++) {
+            String name = "scheduled-transfer-lane-" + lane;
+            lanes.add(Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            }));
+        }
+        running = true;
+        ticker = new Thread(this::tick, "scheduled-transfer-wheel");
+        ticker.setDaemon(true);
+        ticker.start();
+        log.info("Scheduled transfer dispatcher {} started - lookaheadMs={}, tickMs={}, lanes={}",
+                nodeId, lookaheadMs, tickMs, laneCount);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            ticker.join(TimeUnit.SECONDS.toMillis(5));
+            for (ExecutorService lane : lanes) {
+                lane.shutdown();
+            }
+            for (ExecutorService lane : lanes) {
+                lane.awaitTermination(10, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Integer released = transactionTemplate.execute(status -> scheduledTransferRepository.releaseClaims(nodeId));
+        log.info("{} Dispatcher {} stopped, released {} claims", LogConstants.SCHEDULED_DISPATCH, nodeId, released);
+    }
+
+    @Scheduled(fixedDelayString = "${transfer.scheduled.poll-interval-ms:1000}",
+            initialDelayString = "${transfer.scheduled.poll-interval-ms:1000}")
+    public void poll() {
+        if (!running) {
+            return;
+        }
+        try {
+            claimDue();
+        } catch (RuntimeException e) {
+            log.error("{} Claiming due transfers failed: {}", LogConstants.SCHEDULED_DISPATCH, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Claims transfers due within the lookahead window and parks them in the wheel.
+     *
+     * @return number of transfers claimed
+     */
+    public int claimDue() {
+        transactionTemplate.execute(status -> scheduledTransferRepository.releaseStaleClaims(
+                LocalDateTime.now().minus(Duration.ofMillis(claimTimeoutMs))));
+
+        int total = 0;
+        while (true) {
+            int limit = Math.min(claimBatchSize, maxInFlight - inFlight.get());
+            if (limit <= 0) {
+                break;
+            }
+            List<DueTransfer> claimed = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<ScheduledTransfer> rows = scheduledTransferRepository.claimDue(
+                        now.plus(Duration.ofMillis(lookaheadMs)), limit);
+                if (rows.isEmpty()) {
+                    return List.<DueTransfer>of();
+                }
+                scheduledTransferRepository.markClaimed(rows.stream().map(ScheduledTransfer::getId).toList(), nodeId, now);
+                return rows.stream().map(DueTransfer::of).toList();
+            });
+            park(claimed);
+            total += claimed.size();
+            if (claimed.size() < limit) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.debug("{} Claimed {} due transfers, in flight {}", LogConstants.SCHEDULED_DISPATCH, total, inFlight.get());
+        }
+        return total;
+    }
+
+    /**
+     * Number of claimed transfers not yet executed.
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private void park(List<DueTransfer> claimed) {
+        if (claimed.isEmpty()) {
+            return;
+        }
+        inFlight.addAndGet(claimed.size());
+        List<DueTransfer> overdue = new ArrayList<>();
+        synchronized (wheel) {
+            for (DueTransfer transfer : claimed) {
+                if (!wheel.add(transfer, transfer.dueMillis())) {
+                    overdue.add(transfer);
+                }
+            }
+        }
+        dispatch(overdue);
+    }
+
+    private void tick() {
+        while (running) {
+            try {
+                Thread.sleep(tickMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            List<DueTransfer> due;
+            synchronized (wheel) {
+                due = wheel.advance(System.currentTimeMillis());
+            }
+            dispatch(due);
+        }
+    }
+
+    private void dispatch(List<DueTransfer> due) {
+        if (due.isEmpty()) {
+            return;
+        }
+        List<List<DueTransfer>> byLane = new ArrayList<>(laneCount);
+        for (int lane = 0; lane < laneCount; lane++) {
+            byLane.add(new ArrayList<>());
+        }
+        for (DueTransfer transfer : due) {
+            byLane.get(Math.floorMod(Long.hashCode(transfer.fromCardId()), laneCount)).add(transfer);
+        }
+        for (int lane = 0; lane < laneCount; lane++) {
+            List<DueTransfer> laneTransfers = byLane.get(lane);
+            laneTransfers.sort(BY_SOURCE_CARD);
+            for (int from = 0; from < laneTransfers.size(); from += executeBatchSize) {
+                List<DueTransfer> batch = laneTransfers.subList(from, Math.min(from + executeBatchSize, laneTransfers.size()));
+                lanes.get(lane).execute(() -> execute(batch));
+            }
+        }
+    }
+
+    private void execute(List<DueTransfer> batch) {
+        try {
+            List<QueuedTransfer> queued = batch.stream().map(DueTransfer::toQueued).toList();
+            List<AsyncTransferResponse> results = writer.applyBatch(queued, new ClaimListener());
+
+            long now = System.currentTimeMillis();
+            List<AsyncTransferResponse> failed = new ArrayList<>();
+            List<Long> retry = new ArrayList<>();
+            for (int i = 0; i < results.size(); i++) {
+                if (AsyncTransferService.STATUS_PENDING.equals(results.get(i).status())) {
+                    retry.add(batch.get(i).id());
+                    continue;
+                }
+                dispatchLag.record(Math.max(0, now - batch.get(i).dueMillis()), TimeUnit.MILLISECONDS);
+                if (AsyncTransferService.STATUS_COMPLETED.equals(results.get(i).status())) {
+                    completedCounter.increment();
+                } else {
+                    failed.add(results.get(i));
+                    failedCounter.increment();
+                }
+            }
+            if (!failed.isEmpty()) {
+                recordFailures(failed);
+            }
+            if (!retry.isEmpty()) {
+                release(retry);
+            }
+        } catch (RuntimeException e) {
+            log.error("{} Executing batch of {} failed: {}", LogConstants.SCHEDULED_DISPATCH, batch.size(), e.getMessage(), e);
+            release(batch.stream().map(DueTransfer::id).toList());
+        } finally {
+            inFlight.addAndGet(-batch.size());
+        }
+    }
+
+    /**
+     * Records failures whose own transaction was rolled back. Rows already finalized inside the
+     * batch transaction, or cancelled, are left untouched by the conditional update.
+     */
+    private void recordFailures(List<AsyncTransferResponse> failed) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (AsyncTransferResponse result : failed) {
+                scheduledTransferRepository.complete(Long.valueOf(result.requestId()), nodeId,
+                        ScheduledTransfer.Status.FAILED, null, result.message(), now);
+            }
+        });
+    }
+
+    /**
+     * Returns claims of transfers that were neither applied nor rejected. If the database is still
+     * unavailable the claims stay and are released after {@code claim-timeout-ms} instead.
+     */
+    private void release(List<Long> ids) {
+        try {
+            Integer released = transactionTemplate.execute(status -> scheduledTransferRepository.releaseClaims(ids, nodeId));
+            log.warn("{} Released {} transfers for retry after a database error", LogConstants.SCHEDULED_DISPATCH, released);
+        } catch (RuntimeException e) {
+            log.error("{} Releasing {} claims failed: {}", LogConstants.SCHEDULED_DISPATCH, ids.size(), e.getMessage());
+        }
+    }
+
+    private class ClaimListener implements AsyncTransferWriter.ItemListener {
+
+        @Override
+        public boolean beforeApply(QueuedTransfer item) {
+            return scheduledTransferRepository.lockClaim(Long.valueOf(item.requestId()), nodeId) == 1;
+        }
+
+        @Override
+        public void afterApply(QueuedTransfer item, AsyncTransferResponse result) {
+            boolean completed = AsyncTransferService.STATUS_COMPLETED.equals(result.status());
+            scheduledTransferRepository.complete(
+                    Long.valueOf(item.requestId()),
+                    nodeId,
+                    completed ? ScheduledTransfer.Status.COMPLETED : ScheduledTransfer.Status.FAILED,
+                    result.transferId(),
+                    completed ? null : result.message(),
+                    LocalDateTime.now());
+        }
+    }
+
+    private record DueTransfer(Long id, Long userId, Long fromCardId, Long toCardId,
+                               BigDecimal amount, String description, long dueMillis) {
+
+        static DueTransfer of(ScheduledTransfer scheduled) {
+            return new DueTransfer(
+                    scheduled.getId(),
+                    scheduled.getUserId(),
+                    scheduled.getFromCardId(),
+                    scheduled.getToCardId(),
+                    scheduled.getAmount(),
+                    scheduled.getDescription(),
+                    scheduled.getExecuteAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+
+        QueuedTransfer toQueued() {
+            return new QueuedTransfer(String.valueOf(id), userId, fromCardId, toCardId, amount, description);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.bankcards.schedule;
+
+import com.example.bankcards.constants.BusinessConstants;
+import com.example.bankcards.constants.ErrorMessages;
+import com.example.bankcards.constants.LogConstants;
+import com.example.bankcards.dto.ScheduledTransferRequest;
+import com.example.bankcards.dto.ScheduledTransferResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.ScheduledTransfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.exception.UnauthorizedException;
+import com.example.bankcards.helper.LogHelper;
+import com.example.bankcards.helper.SecurityHelper;
+import com.example.bankcards.mapper.ScheduledTransferMapper;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.ScheduledTransferRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Creates, lists and cancels future-dated transfers. Execution is done by
+ * {@link ScheduledTransferDispatcher}; card status and balance are validated only then.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@Transactional
+public class ScheduledTransferService {
+
+    private final ScheduledTransferRepository scheduledTransferRepository;
+    private final CardRepository cardRepository;
+    private final SecurityHelper securityHelper;
+    private final ScheduledTransferMapper scheduledTransferMapper;
+
+    public ScheduledTransferResponse schedule(ScheduledTransferRequest request, Authentication authentication) {
+        LogHelper.logOperationStart(log, LogConstants.TRANSFER_SCHEDULE,
+                "fromCardId", request.fromCardId(),
+                "toCardId", request.toCardId(),
+                "amount", request.amount(),
+                "executeAt", request.executeAt());
+
+        if (request.executeAt().isAfter(LocalDateTime.now().plusDays(BusinessConstants.MAX_SCHEDULE_AHEAD_DAYS))) {
+            throw new BadRequestException(ErrorMessages.SCHEDULED_TRANSFER_TOO_FAR);
+        }
+        if (request.fromCardId().equals(request.toCardId())) {
+            throw new BadRequestException(ErrorMessages.TRANSFER_SAME_CARD);
+        }
+
+        User currentUser = securityHelper.getCurrentUser(authentication);
+        validateOwnCard(request.fromCardId(), currentUser, ErrorMessages.UNAUTHORIZED_TRANSFER_FROM);
+        validateOwnCard(request.toCardId(), currentUser, ErrorMessages.UNAUTHORIZED_TRANSFER_TO);
+
+        ScheduledTransfer scheduled = scheduledTransferMapper.toEntity(request, currentUser.getId());
+        scheduledTransferRepository.save(scheduled);
+
+        LogHelper.logOperationSuccess(log, LogConstants.TRANSFER_SCHEDULE,
+                "scheduledTransferId", scheduled.getId(),
+                "userId", currentUser.getId());
+
+        return scheduledTransferMapper.toResponse(scheduled);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ScheduledTransferResponse> getScheduledTransfers(Pageable pageable, Authentication authentication) {
+        User currentUser = securityHelper.getCurrentUser(authentication);
+        return scheduledTransferRepository.findByUserId(currentUser.getId(), pageable)
+                .map(scheduledTransferMapper::toResponse);
+    }
+
+    @Transactional(readOnly = true)
+    public ScheduledTransferResponse getScheduledTransfer(Long id, Authentication authentication) {
+        User currentUser = securityHelper.getCurrentUser(authentication);
+        return scheduledTransferRepository.findByIdAndUserId(id, currentUser.getId())
+                .map(scheduledTransferMapper::toResponse)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.SCHEDULED_TRANSFER_NOT_FOUND));
+    }
+
+    /**
+     * Cancels a transfer that has not been executed yet. If a dispatcher is executing it right
+     * now, this waits for that execution and then reports the transfer as not cancellable.
+     */
+    public void cancel(Long id, Authentication authentication) {
+        LogHelper.logOperationStart(log, LogConstants.TRANSFER_SCHEDULE_CANCEL,
+                "scheduledTransferId", id);
+
+        User currentUser = securityHelper.getCurrentUser(authentication);
+        scheduledTransferRepository.findByIdAndUserId(id, currentUser.getId())
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.SCHEDULED_TRANSFER_NOT_FOUND));
+        if (scheduledTransferRepository.cancel(id) == 0) {
+            throw new BadRequestException(ErrorMessages.SCHEDULED_TRANSFER_NOT_CANCELLABLE);
+        }
+
+        LogHelper.logOperationSuccess(log, LogConstants.TRANSFER_SCHEDULE_CANCEL,
+                "scheduledTransferId", id,
+                "userId", currentUser.getId());
+    }
+
+    private void validateOwnCard(Long cardId, User user, String errorMessage) {
+        Card card = cardRepository.findById(cardId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.CARD_NOT_FOUND));
+        if (!card.getUser().getId().equals(user.getId())) {
+            throw new UnauthorizedException(errorMessage);
+        }
+    }
+}
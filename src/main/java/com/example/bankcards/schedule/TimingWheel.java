@@ -0,0 +1,126 @@
+package com.example.bankcards.schedule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: O(1) insertion and expiry of items due at arbitrary future times.
+ *
+ * <p>Level 0 has {@code wheelSize} buckets of {@code tickMillis}; every further level has buckets
+ * {@code wheelSize} times wider and is added on demand. An item goes to the lowest level whose
+ * range covers its due time. When time crosses the start of a higher-level bucket, that bucket is
+ * cascaded into the lower levels. Items fire on the first {@link #advance} at or after the end of
+ * their level-0 tick, i.e. up to one tick late. Not thread-safe; callers synchronize.
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<List<Entry<T>>[]> levels = new ArrayList<>();
+    private final List<Long> levelTicks = new ArrayList<>();
+    private long nextTick;
+    private int size;
+
+    /**
+     * @param startMillis items due before this time are reported as expired by {@link #add}
+     */
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.nextTick = startMillis / tickMillis;
+        addLevel();
+    }
+
+    /**
+     * Inserts an item due at {@code dueMillis}.
+     *
+     * @return {@code false} if the item is already due and was not inserted
+     */
+    public boolean add(T item, long dueMillis) {
+        long tick = dueMillis / tickMillis;
+        if (tick < nextTick) {
+            return false;
+        }
+        insert(new Entry<>(item, dueMillis));
+        size++;
+        return true;
+    }
+
+    /**
+     * Moves time forward to {@code nowMillis} and removes every item whose tick has ended.
+     */
+    public List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        long nowTick = nowMillis / tickMillis;
+        while (nextTick < nowTick) {
+            List<Entry<T>> bucket = bucket(0, nextTick);
+            for (Entry<T> entry : bucket) {
+                expired.add(entry.item());
+            }
+            size -= bucket.size();
+            bucket.clear();
+            nextTick++;
+            cascade();
+        }
+        return expired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Re-inserts the higher-level buckets that start at the new current tick, top level first.
+     */
+    private void cascade() {
+        long nowMillis = nextTick * tickMillis;
+        for (int level = levels.size() - 1; level >= 1; level--) {
+            long levelTick = levelTicks.get(level);
+            if (nowMillis % levelTick != 0) {
+                continue;
+            }
+            List<Entry<T>> bucket = bucket(level, nowMillis / levelTick);
+            if (bucket.isEmpty()) {
+                continue;
+            }
+            List<Entry<T>> moved = new ArrayList<>(bucket);
+            bucket.clear();
+            for (Entry<T> entry : moved) {
+                insert(entry);
+            }
+        }
+    }
+
+    private void insert(Entry<T> entry) {
+        long nowMillis = nextTick * tickMillis;
+        int level = 0;
+        while (true) {
+            if (level == levels.size()) {
+                addLevel();
+            }
+            long levelTick = levelTicks.get(level);
+            if (entry.dueMillis() / levelTick < nowMillis / levelTick + wheelSize) {
+                bucket(level, entry.dueMillis() / levelTick).add(entry);
+                return;
+            }
+            level++;
+        }
+    }
+
+    private List<Entry<T>> bucket(int level, long tick) {
+        return levels.get(level)[(int) Math.floorMod(tick, (long) wheelSize)];
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addLevel() {
+        long levelTick = levelTicks.isEmpty() ? tickMillis : Math.multiplyExact(levelTicks.get(levelTicks.size() - 1), wheelSize);
+        List<Entry<T>>[] buckets = new List[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        levels.add(buckets);
+        levelTicks.add(levelTick);
+    }
+
+    private record Entry<T>(T item, long dueMillis) {}
+}
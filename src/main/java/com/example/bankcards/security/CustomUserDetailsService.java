@@ -1,5 +1,6 @@
 package com.example.bankcards.security;
 
+import com.example.bankcards.cache.NegativeLookupCache;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -17,19 +18,24 @@ import java.util.stream.Collectors;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final NegativeLookupCache negativeLookupCache;
 
     @Override
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        if (negativeLookupCache.isUsernameMissing(username)) {
+            throw new UsernameNotFoundException("User not found: " + username);
+        }
+
         User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+                .orElseThrow(() -> {
+                    negativeLookupCache.markUsernameMissing(username);
+                    return new UsernameNotFoundException("User not found: " + username);
+                });
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .authorities(user.getRoles().stream()
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getPassword(),
+                user.getRoles().stream()
                         .map(role -> new SimpleGrantedAuthority(role.getName().name()))
-                        .collect(Collectors.toList()))
-                .build();
+                        .collect(Collectors.toList()));
     }
 }
@@ -0,0 +1,117 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.constants.ErrorMessages;
+import com.example.bankcards.dto.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles API requests with token buckets: per client IP on {@code /api/auth/**} and per
+ * authenticated user everywhere else. Runs after {@link JwtAuthenticationFilter} so the user is
+ * known, and answers {@code 429 Too Many Requests} with {@code Retry-After} when a bucket is empty.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String AUTH_PATH_PREFIX = "/api/auth/";
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final RateLimiter authLimiter;
+    private final RateLimiter userLimiter;
+    private final Counter authRejections;
+    private final Counter userRejections;
+
+    public RateLimitFilter(ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${rate-limit.enabled:true}") boolean enabled,
+                           @Value("${rate-limit.auth.capacity:10}") long authCapacity,
+                           @Value("${rate-limit.auth.refill-per-second:0.2}") double authRefillPerSecond,
+                           @Value("${rate-limit.user.capacity:50}") long userCapacity,
+                           @Value("${rate-limit.user.refill-per-second:10}") double userRefillPerSecond,
+                           @Value("${rate-limit.max-clients:100000}") long maxClients,
+                           @Value("${rate-limit.idle-expiry-seconds:600}") long idleExpirySeconds) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        Duration idleExpiry = Duration.ofSeconds(idleExpirySeconds);
+        this.authLimiter = new RateLimiter(authCapacity, authRefillPerSecond, maxClients, idleExpiry);
+        this.userLimiter = new RateLimiter(userCapacity, userRefillPerSecond, maxClients, idleExpiry);
+        this.authRejections = Counter.builder("rate-limit.rejected").tag("policy", "auth").register(meterRegistry);
+        this.userRejections = Counter.builder("rate-limit.rejected").tag("policy", "user").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        long waitNanos;
+        if (request.getRequestURI().startsWith(AUTH_PATH_PREFIX)) {
+            waitNanos = authLimiter.tryAcquire(request.getRemoteAddr());
+            if (waitNanos > 0) {
+                authRejections.increment();
+                log.warn("Rate limit exceeded on {} for address {}", request.getRequestURI(), request.getRemoteAddr());
+            }
+        } else {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null || !authentication.isAuthenticated()
+                    || authentication instanceof AnonymousAuthenticationToken) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            waitNanos = userLimiter.tryAcquire(authentication.getName());
+            if (waitNanos > 0) {
+                userRejections.increment();
+                log.warn("Rate limit exceeded on {} for user {}", request.getRequestURI(), authentication.getName());
+            }
+        }
+
+        if (waitNanos > 0) {
+            reject(request, response, waitNanos);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(),
+                ErrorMessages.RATE_LIMIT_EXCEEDED,
+                request.getRequestURI(),
+                null
+        );
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
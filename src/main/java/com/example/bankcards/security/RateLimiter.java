@@ -0,0 +1,47 @@
+package com.example.bankcards.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket rate limiter keyed by client (user name or IP address).
+ *
+ * <p>Buckets live in a bounded Caffeine cache and expire after {@code idleExpiry} without
+ * requests, but never before they could have refilled completely, so dropping one loses nothing.
+ */
+public class RateLimiter {
+
+    private final Cache<String, TokenBucket> buckets;
+    private final LongSupplier clock;
+    private final Function<String, TokenBucket> bucketFactory;
+
+    public RateLimiter(long capacity, double refillPerSecond, long maxClients, Duration idleExpiry) {
+        this(capacity, refillPerSecond, maxClients, idleExpiry, System::nanoTime);
+    }
+
+    RateLimiter(long capacity, double refillPerSecond, long maxClients, Duration idleExpiry, LongSupplier clock) {
+        long refillIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond));
+        this.clock = clock;
+        this.bucketFactory = key -> new TokenBucket(capacity, refillIntervalNanos, clock.getAsLong());
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Math.max(idleExpiry.toNanos(), capacity * refillIntervalNanos), TimeUnit.NANOSECONDS)
+                .build();
+    }
+
+    /**
+     * @return {@code 0} if the request is allowed, otherwise the nanoseconds until it would be
+     */
+    public long tryAcquire(String key) {
+        return buckets.get(key, bucketFactory).tryConsume(clock.getAsLong());
+    }
+
+    public long trackedClients() {
+        return buckets.estimatedSize();
+    }
+}
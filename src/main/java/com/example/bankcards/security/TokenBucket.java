@@ -0,0 +1,43 @@
+package com.example.bankcards.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket holding up to {@code capacity} tokens and refilling one token every
+ * {@code refillIntervalNanos}.
+ *
+ * <p>Implemented as a generic cell rate algorithm: the only state is the time at which the bucket
+ * will be full again, so refilling and taking a token are a single CAS on one {@code long} and
+ * no background refill is needed.
+ */
+public class TokenBucket {
+
+    private final long refillIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(long capacity, long refillIntervalNanos, long nowNanos) {
+        this.refillIntervalNanos = refillIntervalNanos;
+        this.burstNanos = capacity * refillIntervalNanos;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return {@code 0} if a token was taken, otherwise the nanoseconds until one becomes available
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + refillIntervalNanos;
+            long debt = next - nowNanos;
+            if (debt > burstNanos) {
+                return debt - burstNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.constants.ErrorMessages;
+import com.example.bankcards.constants.LogConstants;
+import com.example.bankcards.dto.AsyncTransferResponse;
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.exception.ServiceUnavailableException;
+import com.example.bankcards.helper.LogHelper;
+import com.example.bankcards.helper.SecurityHelper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts transfers for asynchronous execution and applies them through per-shard single writers.
+ *
+ * <p>Transfers are sharded by source card id, so every debit of a card is applied by the same
+ * writer thread in submission order. Each writer drains up to {@code batch-size} queued transfers
+ * and commits them in one transaction via {@link AsyncTransferWriter}. Accepted transfers are
+ * journaled to a local file first and replayed on restart if they never completed.
+ *
+ * <p>Transfers the writer could not apply because of a database error stay pending: the writer
+ * retries them every {@code retry-delay-ms}, before anything queued after them, up to
+ * {@code max-attempts} times. Transfers still not applied after that are left in the journal
+ * without a {@code D} line and replayed on the next start.
+ */
+@Service
+@Slf4j
+public class AsyncTransferService {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private static final long POLL_TIMEOUT_MS = 200;
+
+    private final AsyncTransferWriter writer;
+    private final SecurityHelper securityHelper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int shardCount;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final String journalPath;
+    private final boolean journalFsync;
+    private final int maxAttempts;
+    private final long retryDelayMs;
+
+    private final Cache<String, TrackedTransfer> statuses;
+    private final List<BlockingQueue<QueuedTransfer>> queues = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private TransferJournal journal;
+    private Counter completedCounter;
+    private Counter failedCounter;
+    private DistributionSummary batchSizeSummary;
+    private volatile boolean running;
+
+    public AsyncTransferService(AsyncTransferWriter writer,
+                                SecurityHelper securityHelper,
+                                MeterRegistry meterRegistry,
+                                @Value("${transfer.async.enabled:false}") boolean enabled,
+                                @Value("${transfer.async.shards:8}") int shardCount,
+                                @Value("${transfer.async.queue-capacity:10000}") int queueCapacity,
+                                @Value("${transfer.async.batch-size:50}") int batchSize,
+                                @Value("${transfer.async.journal-path:}") String journalPath,
+                                @Value("${transfer.async.journal-fsync:true}") boolean journalFsync,
+                                @Value("${transfer.async.status-ttl-minutes:60}") long statusTtlMinutes,
+                                @Value("${transfer.async.max-attempts:5}") int maxAttempts,
+                                @Value("${transfer.async.retry-delay-ms:1000}") long retryDelayMs) {
+        this.writer = writer;
+        this.securityHelper = securityHelper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.shardCount = Math.max(1, shardCount);
+        this.queueCapacity = queueCapacity;
+        this.batchSize = Math.max(1, batchSize);
+        this.journalPath = journalPath;
+        this.journalFsync = journalFsync;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelayMs = Math.max(0, retryDelayMs);
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(Math.max(queueCapacity * (long) this.shardCount, 10_000))
+                .expireAfterWrite(statusTtlMinutes, TimeUnit.MINUTES)
+                .build();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        completedCounter = Counter.builder("transfer.async.completed").register(meterRegistry);
+        failedCounter = Counter.builder("transfer.async.failed").register(meterRegistry);
+        batchSizeSummary = DistributionSummary.builder("transfer.async.batch.size").register(meterRegistry);
+
+        for (int shard = 0; shard < shardCount; shard++) {
+            BlockingQueue<QueuedTransfer> queue = new ArrayBlockingQueue<>(queueCapacity);
+            queues.add(queue);
+            Gauge.builder("transfer.async.queue.depth", queue, BlockingQueue::size)
+                    .tag("shard", String.valueOf(shard))
+                    .register(meterRegistry);
+        }
+
+        if (journalPath != null && !journalPath.isBlank()) {
+            journal = new TransferJournal(Path.of(journalPath), journalFsync);
+            List<QueuedTransfer> pending = journal.recover();
+            for (QueuedTransfer transfer : pending) {
+                if (queueFor(transfer.fromCardId()).offer(transfer)) {
+                    statuses.put(transfer.requestId(), new TrackedTransfer(transfer.userId(), pending(transfer.requestId())));
+                } else {
+                    log.warn("{} Shard queue full during recovery, transfer {} stays in the journal",
+                            LogConstants.TRANSFER_ASYNC_SUBMIT, transfer.requestId());
+                }
+            }
+            log.info("{} Recovered {} pending transfers from journal {}",
+                    LogConstants.TRANSFER_ASYNC_SUBMIT, pending.size(), journalPath);
+        }
+
+        running = true;
+        for (int shard = 0; shard < shardCount; shard++) {
+            BlockingQueue<QueuedTransfer> queue = queues.get(shard);
+            Thread worker = new Thread(() -> drain(queue), "transfer-writer-" + shard);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Async transfers enabled - shards={}, queueCapacity={}, batchSize={}",
+                shardCount, queueCapacity, batchSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers.clear();
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public AsyncTransferResponse submit(TransferRequest request, Authentication authentication) {
+        if (!enabled) {
+            throw new BadRequestException(ErrorMessages.ASYNC_TRANSFERS_DISABLED);
+        }
+        LogHelper.logOperationStart(log, LogConstants.TRANSFER_ASYNC_SUBMIT,
+                "fromCardId", request.fromCardId(),
+                "toCardId", request.toCardId(),
+                "amount", request.amount());
+
+        User currentUser = securityHelper.getCurrentUser(authentication);
+        QueuedTransfer transfer = new QueuedTransfer(
+                UUID.randomUUID().toString(),
+                currentUser.getId(),
+                request.fromCardId(),
+                request.toCardId(),
+                request.amount().toBigDecimal(),
+                request.description()
+        );
+        AsyncTransferResponse response = pending(transfer.requestId());
+
+        statuses.put(transfer.requestId(), new TrackedTransfer(currentUser.getId(), response));
+        if (journal != null) {
+            journal.appendEnqueued(transfer);
+        }
+        if (!queueFor(transfer.fromCardId()).offer(transfer)) {
+            statuses.invalidate(transfer.requestId());
+            if (journal != null) {
+                journal.appendDone(List.of(transfer.requestId()));
+            }
+            throw new ServiceUnavailableException(ErrorMessages.TRANSFER_QUEUE_FULL);
+        }
+
+        LogHelper.logOperationSuccess(log, LogConstants.TRANSFER_ASYNC_SUBMIT,
+                "requestId", transfer.requestId(),
+                "userId", currentUser.getId());
+        return response;
+    }
+
+    public AsyncTransferResponse getStatus(String requestId, Authentication authentication) {
+        TrackedTransfer tracked = statuses.getIfPresent(requestId);
+        if (tracked == null || !tracked.userId().equals(securityHelper.getCurrentUser(authentication).getId())) {
+            throw new ResourceNotFoundException(ErrorMessages.TRANSFER_REQUEST_NOT_FOUND);
+        }
+        return tracked.response();
+    }
+
+    /**
+     * Total number of transfers waiting in all shard queues.
+     */
+    public int queueDepth() {
+        return queues.stream().mapToInt(BlockingQueue::size).sum();
+    }
+
+    private BlockingQueue<QueuedTransfer> queueFor(Long fromCardId) {
+        return queues.get(Math.floorMod(Long.hashCode(fromCardId), shardCount));
+    }
+
+    private void drain(BlockingQueue<QueuedTransfer> queue) {
+        List<QueuedTransfer> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                QueuedTransfer first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                applyWithRetries(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("{} Writer failed to apply batch of {}: {}",
+                        LogConstants.TRANSFER_ASYNC_BATCH, batch.size(), e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Applies the batch, then the transfers left pending by a database error again until they are
+     * applied or run out of attempts. The shard waits meanwhile, so later transfers of the same
+     * card are not applied ahead of them.
+     */
+    private void applyWithRetries(List<QueuedTransfer> batch) throws InterruptedException {
+        List<QueuedTransfer> pending = applyBatch(batch);
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            if (attempt == maxAttempts) {
+                log.error("{} {} transfers still not applied after {} attempts, left in the journal",
+                        LogConstants.TRANSFER_ASYNC_BATCH, pending.size(), maxAttempts);
+                return;
+            }
+            Thread.sleep(retryDelayMs);
+            pending = applyBatch(pending);
+        }
+    }
+
+    /**
+     * @return transfers that were neither applied nor rejected and have to be tried again
+     */
+    private List<QueuedTransfer> applyBatch(List<QueuedTransfer> batch) {
+        List<AsyncTransferResponse> results;
+        try {
+            results = writer.applyBatch(batch);
+        } catch (RuntimeException e) {
+            log.warn("{} Writer failed to apply batch of {}, will retry: {}",
+                    LogConstants.TRANSFER_ASYNC_BATCH, batch.size(), e.getMessage());
+            return batch;
+        }
+        List<String> done = new ArrayList<>(results.size());
+        List<QueuedTransfer> pending = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            AsyncTransferResponse result = results.get(i);
+            if (STATUS_PENDING.equals(result.status())) {
+                pending.add(batch.get(i));
+                continue;
+            }
+            statuses.put(result.requestId(), new TrackedTransfer(batch.get(i).userId(), result));
+            done.add(result.requestId());
+            if (STATUS_COMPLETED.equals(result.status())) {
+                completedCounter.increment();
+            } else {
+                failedCounter.increment();
+            }
+        }
+        if (journal != null && !done.isEmpty()) {
+            journal.appendDone(done);
+        }
+        batchSizeSummary.record(batch.size());
+        log.debug("{} Applied batch - size={}, pending={}, remaining={}",
+                LogConstants.TRANSFER_ASYNC_BATCH, batch.size(), pending.size(), queueDepth());
+        return pending;
+    }
+
+    private static AsyncTransferResponse pending(String requestId) {
+        return new AsyncTransferResponse(requestId, STATUS_PENDING, null, null);
+    }
+
+    private record TrackedTransfer(Long userId, AsyncTransferResponse response) {}
+}
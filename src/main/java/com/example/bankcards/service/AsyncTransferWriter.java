@@ -0,0 +1,239 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.constants.ErrorMessages;
+import com.example.bankcards.dto.AsyncTransferResponse;
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.dto.TransferResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.OutboxEvent;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.fx.FxRateService;
+import com.example.bankcards.fx.FxRateSnapshot;
+import com.example.bankcards.mapper.TransferMapper;
+import com.example.bankcards.money.Money;
+import com.example.bankcards.outbox.OutboxService;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.stream.TransferStreamHub;
+import com.example.bankcards.validator.TransferValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies queued transfers to the database, several per transaction.
+ *
+ * <p>Business rejections (validation, missing cards) are recorded per item and do not affect
+ * the rest of the batch. If the batch transaction itself fails, it is rolled back and every
+ * item is retried in its own transaction so one bad row cannot fail its neighbours. An item whose
+ * own transaction fails as well was not rejected but hit a database error, such as an outage or a
+ * lock timeout; it is reported as {@code PENDING} so the caller can apply it again later.
+ *
+ * <p>Callers that keep their own state per item pass an {@link ItemListener}, which runs in the
+ * batch transaction so that state commits or rolls back together with the transfer.
+ *
+ * <p>Rejected items are handed to {@link FailedTransferRecorder} only once their batch has
+ * committed, so an item retried on its own after a batch rollback is recorded once.
+ *
+ * <p>Each transfer keeps the request id of its item under a unique constraint. An item whose
+ * request id already has a transfer, such as one replayed from the journal after a crash between
+ * commit and its {@code D} line, is reported as completed without being applied again. The card
+ * rows of a batch with several items are locked up front in ascending id order.
+ */
+@Component
+@Slf4j
+public class AsyncTransferWriter {
+
+    private final TransferRepository transferRepository;
+    private final TransferValidator transferValidator;
+    private final TransferMapper transferMapper;
+    private final LedgerService ledgerService;
+    private final OutboxService outboxService;
+    private final TransferStreamHub transferStreamHub;
+    private final CacheManager cacheManager;
+    private final FailedTransferRecorder failedTransferRecorder;
+    private final FxRateService fxRateService;
+    private final TransactionTemplate transactionTemplate;
+
+    public AsyncTransferWriter(TransferRepository transferRepository,
+                               TransferValidator transferValidator,
+                               TransferMapper transferMapper,
+                               LedgerService ledgerService,
+                               OutboxService outboxService,
+                               TransferStreamHub transferStreamHub,
+                               CacheManager cacheManager,
+                               FailedTransferRecorder failedTransferRecorder,
+                               FxRateService fxRateService,
+                               PlatformTransactionManager transactionManager) {
+        this.transferRepository = transferRepository;
+        this.transferValidator = transferValidator;
+        this.transferMapper = transferMapper;
+        this.ledgerService = ledgerService;
+        this.outboxService = outboxService;
+        this.transferStreamHub = transferStreamHub;
+        this.cacheManager = cacheManager;
+        this.failedTransferRecorder = failedTransferRecorder;
+        this.fxRateService = fxRateService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public List<AsyncTransferResponse> applyBatch(List<QueuedTransfer> batch) {
+        return applyBatch(batch, ItemListener.NONE);
+    }
+
+    public List<AsyncTransferResponse> applyBatch(List<QueuedTransfer> batch, ItemListener listener) {
+        List<AsyncTransferResponse> results;
+        List<Rejection> rejections = new ArrayList<>();
+        try {
+            results = transactionTemplate.execute(status -> {
+                Map<String, Long> existing = existingTransfers(batch);
+                boolean cardsLocked = batch.size() > 1;
+                if (cardsLocked) {
+                    ledgerService.lockCards(cardIds(batch));
+                }
+                List<AsyncTransferResponse> applied = new ArrayList<>(batch.size());
+                for (QueuedTransfer item : batch) {
+                    Long transferId = existing.get(item.requestId());
+                    AsyncTransferResponse result;
+                    if (!listener.beforeApply(item)) {
+                        result = failed(item, ErrorMessages.TRANSFER_REQUEST_WITHDRAWN);
+                    } else if (transferId != null) {
+                        result = completed(item, transferId);
+                    } else {
+                        result = apply(item, rejections, cardsLocked);
+                    }
+                    listener.afterApply(item, result);
+                    applied.add(result);
+                }
+                return applied;
+            });
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                log.warn("Async transfer {} could not be applied, leaving it pending: {}",
+                        batch.get(0).requestId(), e.getMessage());
+                return List.of(pending(batch.get(0)));
+            }
+            log.warn("Async transfer batch of {} failed, retrying items individually: {}", batch.size(), e.getMessage());
+            results = new ArrayList<>(batch.size());
+            for (QueuedTransfer item : batch) {
+                results.addAll(applyBatch(List.of(item), listener));
+            }
+            return results;
+        }
+        evictCardCaches(batch);
+        for (Rejection rejection : rejections) {
+            QueuedTransfer item = rejection.item();
+            failedTransferRecorder.record(item.fromCardId(), item.toCardId(), item.amount(), item.description(),
+                    rejection.reason());
+        }
+        return results;
+    }
+
+    /**
+     * Per-item callbacks invoked inside the batch transaction. They are not invoked for an item
+     * whose own single-item transaction failed; the caller sees a {@code FAILED} result instead.
+     */
+    public interface ItemListener {
+
+        ItemListener NONE = new ItemListener() {};
+
+        /**
+         * @return {@code false} to skip the item; it is then reported as failed
+         */
+        default boolean beforeApply(QueuedTransfer item) {
+            return true;
+        }
+
+        default void afterApply(QueuedTransfer item, AsyncTransferResponse result) {
+        }
+    }
+
+    private AsyncTransferResponse apply(QueuedTransfer item, List<Rejection> rejections, boolean cardsLocked) {
+        Money amount = Money.of(item.amount());
+        Transfer.FailureReason reason = transferValidator.checkRequest(item.fromCardId(), item.toCardId());
+        LedgerService.PostingCards cards = null;
+        if (reason == null) {
+            try {
+                cards = ledgerService.lockForPosting(item.fromCardId(), item.toCardId(), cardsLocked);
+                reason = transferValidator.checkLocked(cards.fromCard(), cards.toCard(), item.userId(), amount);
+            } catch (ResourceNotFoundException e) {
+                reason = Transfer.FailureReason.fromMessage(e.getMessage());
+            }
+        }
+        if (reason != null) {
+            rejections.add(new Rejection(item, reason));
+            return failed(item, reason.message());
+        }
+        Card fromCard = cards.fromCard();
+        Card toCard = cards.toCard();
+        FxRateSnapshot.Rate rate = fxRateService.quote(fromCard.getCurrency(), toCard.getCurrency());
+
+        Transfer transfer = transferMapper.toEntity(new TransferRequest(
+                item.fromCardId(), item.toCardId(), amount, item.description()), rate);
+        transfer.setRequestId(item.requestId());
+        transferRepository.save(transfer);
+        ledgerService.post(transfer, cards);
+        TransferResponse response = transferMapper.toResponse(transfer);
+        outboxService.record(OutboxEvent.EventType.TRANSFER_COMPLETED, transfer.getId(), response);
+        transferStreamHub.publishAfterCommit(
+                List.of(fromCard.getUser().getId(), toCard.getUser().getId()), response);
+
+        return completed(item, transfer.getId());
+    }
+
+    private Map<String, Long> existingTransfers(List<QueuedTransfer> batch) {
+        List<String> requestIds = batch.stream().map(QueuedTransfer::requestId).toList();
+        Map<String, Long> existing = new HashMap<>();
+        for (Transfer transfer : transferRepository.findByRequestIdIn(requestIds)) {
+            existing.put(transfer.getRequestId(), transfer.getId());
+        }
+        return existing;
+    }
+
+    private static Set<Long> cardIds(List<QueuedTransfer> batch) {
+        Set<Long> cardIds = new HashSet<>();
+        for (QueuedTransfer item : batch) {
+            cardIds.add(item.fromCardId());
+            cardIds.add(item.toCardId());
+        }
+        return cardIds;
+    }
+
+    private static AsyncTransferResponse completed(QueuedTransfer item, Long transferId) {
+        return new AsyncTransferResponse(item.requestId(), AsyncTransferService.STATUS_COMPLETED, transferId, null);
+    }
+
+    private static AsyncTransferResponse pending(QueuedTransfer item) {
+        return new AsyncTransferResponse(item.requestId(), AsyncTransferService.STATUS_PENDING, null, null);
+    }
+
+    private static AsyncTransferResponse failed(QueuedTransfer item, String message) {
+        return new AsyncTransferResponse(item.requestId(), AsyncTransferService.STATUS_FAILED, null, message);
+    }
+
+    private record Rejection(QueuedTransfer item, Transfer.FailureReason reason) {}
+
+    private void evictCardCaches(List<QueuedTransfer> batch) {
+        Cache cards = cacheManager.getCache("cards");
+        if (cards != null) {
+            for (QueuedTransfer item : batch) {
+                cards.evict(item.fromCardId());
+                cards.evict(item.toCardId());
+            }
+        }
+        Cache userCards = cacheManager.getCache("userCards");
+        if (userCards != null) {
+            userCards.clear();
+        }
+    }
+}
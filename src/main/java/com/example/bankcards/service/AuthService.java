@@ -1,5 +1,6 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.cache.NegativeLookupCache;
 import com.example.bankcards.constants.LogConstants;
 import com.example.bankcards.dto.AuthResponse;
 import com.example.bankcards.dto.LoginRequest;
@@ -37,6 +38,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
+    private final NegativeLookupCache negativeLookupCache;
 
     public AuthResponse login(LoginRequest request) {
         LogHelper.logOperationStart(log, LogConstants.AUTH_LOGIN, "username", request.username());
@@ -97,6 +99,7 @@ public class AuthService {
                 .build();
 
         userRepository.save(user);
+        negativeLookupCache.evictUsername(user.getUsername());
 
         LogHelper.logOperationSuccess(log, LogConstants.AUTH_REGISTER,
                 "username", request.username(),
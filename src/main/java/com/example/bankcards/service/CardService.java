@@ -1,10 +1,13 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.cache.NegativeLookupCache;
 import com.example.bankcards.constants.ErrorMessages;
 import com.example.bankcards.constants.LogConstants;
+import com.example.bankcards.dto.CardBalanceResponse;
 import com.example.bankcards.dto.CardRequest;
 import com.example.bankcards.dto.CardResponse;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.OutboxEvent;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.exception.ResourceNotFoundException;
@@ -12,8 +15,12 @@ import com.example.bankcards.exception.UnauthorizedException;
 import com.example.bankcards.helper.LogHelper;
 import com.example.bankcards.helper.SecurityHelper;
 import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.outbox.CardStatusChangedEvent;
+import com.example.bankcards.outbox.OutboxService;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.repository.projection.CardBalanceView;
+import com.example.bankcards.repository.projection.CardView;
 import com.example.bankcards.util.CardEncryptionUtil;
 import com.example.bankcards.validator.CardValidator;
 import lombok.RequiredArgsConstructor;
@@ -40,6 +47,8 @@ public class CardService {
     private final CardValidator cardValidator;
     private final SecurityHelper securityHelper;
     private final CardMapper cardMapper;
+    private final NegativeLookupCache negativeLookupCache;
+    private final OutboxService outboxService;
 
     @Caching(evict = {
             @CacheEvict(value = "userCards", key = "#request.userId()"),
@@ -57,9 +66,11 @@ public class CardService {
 
         cardValidator.validateCardNumber(request.cardNumber());
         cardValidator.validateCardNumberUnique(request.cardNumber());
+        cardValidator.validateCurrency(request.currency());
 
         Card card = cardMapper.toEntity(request, user);
         cardRepository.save(card);
+        negativeLookupCache.evictCard(card.getId());
 
         LogHelper.logOperationSuccess(log, LogConstants.CARD_CREATE,
                 "cardId", card.getId(),
@@ -84,16 +95,16 @@ public class CardService {
 
         securityHelper.validateUserAccess(authentication, userId);
 
-        Page<Card> cards;
+        Page<CardView> cards;
         if (status != null && !status.isEmpty()) {
             try {
                 Card.CardStatus cardStatus = Card.CardStatus.valueOf(status.toUpperCase());
-                cards = cardRepository.findByUserIdAndStatus(userId, cardStatus, pageable);
+                cards = cardRepository.findViewsByUserIdAndStatus(userId, cardStatus, pageable);
             } catch (IllegalArgumentException e) {
                 throw new BadRequestException("Invalid card status: " + status + ". Valid values: ACTIVE, BLOCKED, EXPIRED");
             }
         } else {
-            cards = cardRepository.findByUserId(userId, pageable);
+            cards = cardRepository.findViewsByUserId(userId, pageable);
         }
 
         LogHelper.logOperationSuccess(log, LogConstants.CARD_GET_ALL,
@@ -109,8 +120,7 @@ public class CardService {
         LogHelper.logOperationStart(log, LogConstants.CARD_GET,
                 "cardId", cardId);
 
-        Card card = cardRepository.findById(cardId)
-                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.CARD_NOT_FOUND));
+        Card card = findCard(cardId);
 
         securityHelper.validateUserAccess(authentication, card.getUser().getId());
 
@@ -121,6 +131,34 @@ public class CardService {
         return cardMapper.toResponse(card);
     }
 
+    /**
+     * Balance and version of a card from a single narrow query, for clients refreshing a balance
+     * after a transfer. Bypasses the card caches, so a transfer committed before the call is
+     * always included.
+     */
+    @Transactional(readOnly = true)
+    public CardBalanceResponse getCardBalance(Long cardId, Authentication authentication) {
+        LogHelper.logOperationStart(log, LogConstants.CARD_BALANCE,
+                "cardId", cardId);
+
+        if (negativeLookupCache.isCardMissing(cardId)) {
+            throw new ResourceNotFoundException(ErrorMessages.CARD_NOT_FOUND);
+        }
+        CardBalanceView balance = cardRepository.findBalanceView(cardId)
+                .orElseThrow(() -> {
+                    negativeLookupCache.markCardMissing(cardId);
+                    return new ResourceNotFoundException(ErrorMessages.CARD_NOT_FOUND);
+                });
+
+        securityHelper.validateUserAccess(authentication, balance.ownerId());
+
+        LogHelper.logOperationSuccess(log, LogConstants.CARD_BALANCE,
+                "cardId", cardId,
+                "version", balance.version());
+
+        return cardMapper.toBalanceResponse(balance);
+    }
+
     @Caching(evict = {
             @CacheEvict(value = "cards", key = "#cardId"),
             @CacheEvict(value = "userCards", allEntries = true)
@@ -129,14 +167,14 @@ public class CardService {
         LogHelper.logOperationStart(log, LogConstants.CARD_BLOCK,
                 "cardId", cardId);
 
-        Card card = cardRepository.findById(cardId)
-                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.CARD_NOT_FOUND));
+        Card card = findCard(cardId);
 
         securityHelper.validateUserAccess(authentication, card.getUser().getId());
 
         card.setStatus(Card.CardStatus.BLOCKED);
         card.setUpdatedAt(LocalDateTime.now());
         cardRepository.save(card);
+        recordStatusChange(card, OutboxEvent.EventType.CARD_BLOCKED);
 
         LogHelper.logOperationSuccess(log, LogConstants.CARD_BLOCK,
                 "cardId", cardId,
@@ -151,8 +189,7 @@ public class CardService {
         LogHelper.logOperationStart(log, LogConstants.CARD_ACTIVATE,
                 "cardId", cardId);
 
-        Card card = cardRepository.findById(cardId)
-                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.CARD_NOT_FOUND));
+        Card card = findCard(cardId);
 
         if (!securityHelper.isAdmin(authentication)) {
             throw new UnauthorizedException("Only admins can activate cards");
@@ -161,6 +198,7 @@ public class CardService {
         card.setStatus(Card.CardStatus.ACTIVE);
         card.setUpdatedAt(LocalDateTime.now());
         cardRepository.save(card);
+        recordStatusChange(card, OutboxEvent.EventType.CARD_ACTIVATED);
 
         LogHelper.logOperationSuccess(log, LogConstants.CARD_ACTIVATE,
                 "cardId", cardId,
@@ -175,8 +213,7 @@ public class CardService {
         LogHelper.logOperationStart(log, LogConstants.CARD_DELETE,
                 "cardId", cardId);
 
-        Card card = cardRepository.findById(cardId)
-                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.CARD_NOT_FOUND));
+        Card card = findCard(cardId);
 
         if (!securityHelper.isAdmin(authentication)) {
             throw new UnauthorizedException("Only admins can delete cards");
@@ -188,4 +225,23 @@ public class CardService {
                 "cardId", cardId,
                 "userId", card.getUser().getId());
     }
+
+    private void recordStatusChange(Card card, OutboxEvent.EventType eventType) {
+        outboxService.record(eventType, card.getId(), new CardStatusChangedEvent(
+                card.getId(),
+                card.getUser().getId(),
+                card.getStatus().name(),
+                card.getUpdatedAt()));
+    }
+
+    private Card findCard(Long cardId) {
+        if (negativeLookupCache.isCardMissing(cardId)) {
+            throw new ResourceNotFoundException(ErrorMessages.CARD_NOT_FOUND);
+        }
+        return cardRepository.findById(cardId)
+                .orElseThrow(() -> {
+                    negativeLookupCache.markCardMissing(cardId);
+                    return new ResourceNotFoundException(ErrorMessages.CARD_NOT_FOUND);
+                });
+    }
 }
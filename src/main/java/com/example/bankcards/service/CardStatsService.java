@@ -0,0 +1,125 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.cache.NegativeLookupCache;
+import com.example.bankcards.constants.BusinessConstants;
+import com.example.bankcards.constants.ErrorMessages;
+import com.example.bankcards.constants.LogConstants;
+import com.example.bankcards.dto.CardStatsResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardDailyTotal;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.helper.LogHelper;
+import com.example.bankcards.helper.SecurityHelper;
+import com.example.bankcards.repository.CardDailyTotalRepository;
+import com.example.bankcards.repository.CardRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-card sent/received statistics served from the {@code card_daily_totals} aggregate,
+ * which is updated with every posted transfer instead of scanning transfer history.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CardStatsService {
+
+    private final CardDailyTotalRepository cardDailyTotalRepository;
+    private final CardRepository cardRepository;
+    private final SecurityHelper securityHelper;
+    private final NegativeLookupCache negativeLookupCache;
+
+    /**
+     * Adds a transfer to the daily totals of its cards. Must run in the transfer transaction.
+     *
+     * @param toSlot daily totals slot of the credit, see {@link LedgerService.PostingCards#toSlot()}
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransfer(Transfer transfer, int toSlot) {
+        LocalDateTime createdAt = transfer.getCreatedAt() != null ? transfer.getCreatedAt() : LocalDateTime.now();
+        cardDailyTotalRepository.addTransfer(
+                transfer.getFromCardId(),
+                transfer.getToCardId(),
+                toSlot,
+                createdAt.toLocalDate(),
+                transfer.getAmount(),
+                transfer.destinationAmount());
+    }
+
+    @Transactional(readOnly = true)
+    public CardStatsResponse getCardStats(Long cardId, LocalDate from, LocalDate to, Authentication authentication) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.withDayOfMonth(1);
+        LogHelper.logOperationStart(log, LogConstants.CARD_STATS,
+                "cardId", cardId,
+                "from", start,
+                "to", end);
+
+        if (start.isAfter(end)) {
+            throw new BadRequestException(ErrorMessages.STATS_RANGE_INVALID);
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= BusinessConstants.MAX_STATS_RANGE_DAYS) {
+            throw new BadRequestException(ErrorMessages.STATS_RANGE_TOO_LONG);
+        }
+
+        if (negativeLookupCache.isCardMissing(cardId)) {
+            throw new ResourceNotFoundException(ErrorMessages.CARD_NOT_FOUND);
+        }
+        Card card = cardRepository.findById(cardId)
+                .orElseThrow(() -> {
+                    negativeLookupCache.markCardMissing(cardId);
+                    return new ResourceNotFoundException(ErrorMessages.CARD_NOT_FOUND);
+                });
+        securityHelper.validateUserAccess(authentication, card.getUser().getId());
+
+        List<CardDailyTotal> totals = cardDailyTotalRepository.findByCardIdAndDateRange(cardId, start, end);
+
+        BigDecimal totalSent = BigDecimal.ZERO;
+        BigDecimal totalReceived = BigDecimal.ZERO;
+        long sentCount = 0;
+        long receivedCount = 0;
+        List<CardStatsResponse.DailyTotal> days = new ArrayList<>(totals.size());
+        for (CardDailyTotal total : totals) {
+            totalSent = totalSent.add(total.getSentAmount());
+            totalReceived = totalReceived.add(total.getReceivedAmount());
+            sentCount += total.getSentCount();
+            receivedCount += total.getReceivedCount();
+            // Строки слотов одного дня идут подряд и сворачиваются в один день
+            CardStatsResponse.DailyTotal last = days.isEmpty() ? null : days.get(days.size() - 1);
+            if (last != null && last.date().equals(total.getId().getStatDate())) {
+                days.set(days.size() - 1, new CardStatsResponse.DailyTotal(
+                        last.date(),
+                        last.sent().add(total.getSentAmount()),
+                        last.received().add(total.getReceivedAmount()),
+                        last.sentCount() + total.getSentCount(),
+                        last.receivedCount() + total.getReceivedCount()));
+                continue;
+            }
+            days.add(new CardStatsResponse.DailyTotal(
+                    total.getId().getStatDate(),
+                    total.getSentAmount(),
+                    total.getReceivedAmount(),
+                    total.getSentCount(),
+                    total.getReceivedCount()));
+        }
+
+        LogHelper.logOperationSuccess(log, LogConstants.CARD_STATS,
+                "cardId", cardId,
+                "days", days.size());
+
+        return new CardStatsResponse(cardId, start, end, totalSent, totalReceived, sentCount, receivedCount, days);
+    }
+}
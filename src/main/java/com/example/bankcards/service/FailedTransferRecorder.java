@@ -0,0 +1,173 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.constants.LogConstants;
+import com.example.bankcards.entity.Transfer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records declined transfers as {@code FAILED} rows in {@code transfers} without touching the
+ * request path. Only attempts declined after the caller was found to own the source card are
+ * recorded, so nobody can write rows against cards of other customers; the customer-facing
+ * history, search and export only return {@code SUCCESS} rows.
+ *
+ * <p>{@link #record} only offers the attempt to a bounded queue and never blocks; when the queue
+ * is full the attempt is dropped and counted in {@code transfer.failures.dropped}. A single
+ * background thread drains up to {@code batch-size} attempts at a time and inserts them with one
+ * JDBC batch. Losing some of these rows under overload is acceptable, slowing down the 4xx
+ * response that caused them is not.
+ */
+@Component
+@Slf4j
+public class FailedTransferRecorder {
+
+    static final String INSERT_SQL = "INSERT INTO transfers " +
+            "(from_card_id, to_card_id, amount, status, created_at, description, failure_reason) " +
+            "VALUES (?, ?, ?, 'FAILED', ?, ?, ?)";
+
+    private static final long POLL_TIMEOUT_MS = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final BlockingQueue<FailedTransfer> queue;
+    private final Counter recordedCounter;
+    private final Counter droppedCounter;
+    private final Counter writeErrorCounter;
+    private Thread flusher;
+    private volatile boolean running;
+
+    public FailedTransferRecorder(JdbcTemplate jdbcTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${transfer.failures.enabled:true}") boolean enabled,
+                                  @Value("${transfer.failures.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${transfer.failures.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.recordedCounter = Counter.builder("transfer.failures.recorded").register(meterRegistry);
+        this.droppedCounter = Counter.builder("transfer.failures.dropped").register(meterRegistry);
+        this.writeErrorCounter = Counter.builder("transfer.failures.write.errors").register(meterRegistry);
+        Gauge.builder("transfer.failures.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::drain, "transfer-failure-recorder");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Stops the flusher and writes whatever is still queued.
+     */
+    @PreDestroy
+    public void stop() {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flusher = null;
+        List<FailedTransfer> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Queues a declined transfer.
+     *
+     * @return {@code false} if the attempt was not queued because recording is disabled, the
+     * reason precedes the source card ownership check or the queue is full
+     */
+    public boolean record(Long fromCardId, Long toCardId, BigDecimal amount, String description,
+                          Transfer.FailureReason reason) {
+        if (!enabled || !reason.afterSourceOwnerCheck()) {
+            return false;
+        }
+        FailedTransfer attempt = new FailedTransfer(
+                fromCardId, toCardId, amount, description, reason, LocalDateTime.now());
+        if (!queue.offer(attempt)) {
+            droppedCounter.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    private void drain() {
+        List<FailedTransfer> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                FailedTransfer first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<FailedTransfer> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, attempt) -> {
+                statement.setLong(1, attempt.fromCardId());
+                statement.setLong(2, attempt.toCardId());
+                statement.setBigDecimal(3, attempt.amount());
+                statement.setTimestamp(4, Timestamp.valueOf(attempt.attemptedAt()));
+                statement.setString(5, attempt.description());
+                statement.setString(6, attempt.reason().name());
+            });
+            recordedCounter.increment(batch.size());
+        } catch (DataAccessException e) {
+            writeErrorCounter.increment(batch.size());
+            log.error("{} Failed to write {} declined transfers: {}",
+                    LogConstants.TRANSFER_FAILURES, batch.size(), e.getMessage());
+        }
+    }
+
+    private record FailedTransfer(Long fromCardId,
+                                  Long toCardId,
+                                  BigDecimal amount,
+                                  String description,
+                                  Transfer.FailureReason reason,
+                                  LocalDateTime attemptedAt) {}
+}
@@ -0,0 +1,212 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.constants.LogConstants;
+import com.example.bankcards.entity.ReconciliationState;
+import com.example.bankcards.repository.ReconciliationStateRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks that the ledger, from which card balances are computed, matches the transfers.
+ *
+ * <p>Works incrementally over transfer ids: each run covers the transfers after the high-water mark
+ * stored in {@code reconciliation_state} up to the newest one older than {@code settle-ms}, so rows
+ * of transactions still in flight are left for the next run. The range is cut into chunks of
+ * {@code chunk-size} ids checked in parallel; per chunk a single query nets, per card, the
+ * successful transfers against the ledger entries posted for them (by primary key and
+ * {@code idx_ledger_entries_transfer_id}) and returns only the cards where the two differ. Those
+ * are written to {@code balance_mismatches} and counted in {@code ledger.reconcile.mismatches}.
+ *
+ * <p>The high-water mark moves only once every chunk has been checked. A chunk replaces the
+ * mismatches it recorded before, so a run that is repeated after a crash does not duplicate them.
+ */
+@Component
+@Slf4j
+public class LedgerReconciliationJob {
+
+    static final String STATE_NAME = "ledger-transfers";
+
+    private static final String CEILING_SQL = "SELECT MAX(id) FROM transfers WHERE id > ? AND created_at < ?";
+    private static final String MISMATCH_SQL = "SELECT card_id, SUM(expected), SUM(posted) FROM (" +
+            "SELECT from_card_id AS card_id, -amount AS expected, CAST(0 AS DECIMAL(15, 2)) AS posted " +
+            "FROM transfers WHERE id > ? AND id <= ? AND status = 'SUCCESS' " +
+            "UNION ALL SELECT to_card_id, COALESCE(credited_amount, amount), CAST(0 AS DECIMAL(15, 2)) " +
+            "FROM transfers WHERE id > ? AND id <= ? AND status = 'SUCCESS' " +
+            "UNION ALL SELECT card_id, CAST(0 AS DECIMAL(15, 2)), amount " +
+            "FROM ledger_entries WHERE transfer_id > ? AND transfer_id <= ?" +
+            ") deltas GROUP BY card_id HAVING SUM(expected) <> SUM(posted)";
+    private static final String CLEAR_SQL = "DELETE FROM balance_mismatches WHERE from_transfer_id >= ? AND to_transfer_id <= ?";
+    private static final String INSERT_SQL = "INSERT INTO balance_mismatches " +
+            "(card_id, from_transfer_id, to_transfer_id, expected_delta, posted_delta, detected_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final ReconciliationStateRepository stateRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long chunkSize;
+    private final long settleMs;
+    private final ExecutorService workers;
+    private final AtomicLong highWaterMark = new AtomicLong();
+    private final Counter mismatchCounter;
+    private final Timer runTimer;
+
+    public LedgerReconciliationJob(ReconciliationStateRepository stateRepository,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${ledger.reconcile.enabled:true}") boolean enabled,
+                                   @Value("${ledger.reconcile.chunk-size:50000}") long chunkSize,
+                                   @Value("${ledger.reconcile.threads:4}") int threads,
+                                   @Value("${ledger.reconcile.settle-ms:60000}") long settleMs) {
+        this.stateRepository = stateRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.settleMs = Math.max(0, settleMs);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "ledger-reconciler-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.mismatchCounter = Counter.builder("ledger.reconcile.mismatches")
+                .description("Cards whose ledger entries did not match their transfers")
+                .register(meterRegistry);
+        Gauge.builder("ledger.reconcile.high.water.mark", highWaterMark, AtomicLong::get)
+                .description("Last transfer id covered by reconciliation")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("ledger.reconcile.run")
+                .description("Duration of one reconciliation run over new transfers")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${ledger.reconcile.interval-ms:600000}",
+            initialDelayString = "${ledger.reconcile.interval-ms:600000}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.error("{} Reconciliation run failed: {}", LogConstants.LEDGER_RECONCILE, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Checks the transfers created since the previous run and advances the high-water mark.
+     *
+     * @return what the run did and how fast
+     */
+    public Run reconcile() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        long from = stateRepository.findById(STATE_NAME).map(ReconciliationState::getHighWaterMark).orElse(0L);
+        highWaterMark.set(from);
+        Long ceiling = jdbcTemplate.queryForObject(CEILING_SQL, Long.class,
+                from, Timestamp.valueOf(now.minusNanos(TimeUnit.MILLISECONDS.toNanos(settleMs))));
+        if (ceiling == null) {
+            return new Run(from, from, 0, 0, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+
+        List<Future<Integer>> results = new ArrayList<>();
+        for (long lo = from; lo < ceiling; ) {
+            // Границы кратны chunk-size: повтор после сбоя режет диапазон так же и заменяет свои расхождения
+            long hi = Math.min((Math.floorDiv(lo, chunkSize) + 1) * chunkSize, ceiling);
+            long chunkFrom = lo;
+            results.add(workers.submit(() -> transactionTemplate.execute(status -> checkChunk(chunkFrom, hi, now))));
+            lo = hi;
+        }
+        int mismatches = 0;
+        for (Future<Integer> result : results) {
+            try {
+                mismatches += result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while reconciling the ledger", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Reconciling the ledger failed", e.getCause());
+            }
+        }
+        stateRepository.save(ReconciliationState.builder()
+                .name(STATE_NAME)
+                .highWaterMark(ceiling)
+                .updatedAt(now)
+                .build());
+        highWaterMark.set(ceiling);
+
+        long durationNanos = System.nanoTime() - start;
+        runTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+        mismatchCounter.increment(mismatches);
+        Run run = new Run(from, ceiling, results.size(), mismatches, TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        if (mismatches > 0) {
+            log.warn("{} Found {} card mismatches in transfers ({}, {}]",
+                    LogConstants.LEDGER_RECONCILE, mismatches, run.fromTransferId(), run.toTransferId());
+        }
+        log.info("{} Reconciled transfers ({}, {}] in {} chunks - durationMs={}, transfersPerSecond={}",
+                LogConstants.LEDGER_RECONCILE, run.fromTransferId(), run.toTransferId(), run.chunks(),
+                run.durationMs(), Math.round(run.transfersPerSecond()));
+        return run;
+    }
+
+    private int checkChunk(long from, long to, LocalDateTime detectedAt) {
+        List<Mismatch> mismatches = jdbcTemplate.query(MISMATCH_SQL, (resultSet, rowNum) -> new Mismatch(
+                resultSet.getLong(1), resultSet.getBigDecimal(2), resultSet.getBigDecimal(3)), from, to, from, to, from, to);
+        jdbcTemplate.update(CLEAR_SQL, from, to);
+        if (mismatches.isEmpty()) {
+            return 0;
+        }
+        Timestamp timestamp = Timestamp.valueOf(detectedAt);
+        jdbcTemplate.batchUpdate(INSERT_SQL, mismatches, mismatches.size(), (ps, mismatch) -> {
+            ps.setLong(1, mismatch.cardId());
+            ps.setLong(2, from);
+            ps.setLong(3, to);
+            ps.setBigDecimal(4, mismatch.expected());
+            ps.setBigDecimal(5, mismatch.posted());
+            ps.setTimestamp(6, timestamp);
+        });
+        return mismatches.size();
+    }
+
+    private record Mismatch(long cardId, BigDecimal expected, BigDecimal posted) {}
+
+    /**
+     * Outcome of one reconciliation run over transfers {@code (fromTransferId, toTransferId]}.
+     */
+    public record Run(long fromTransferId, long toTransferId, int chunks, int mismatches, long durationMs) {
+
+        public double transfersPerSecond() {
+            long transfers = toTransferId - fromTransferId;
+            return durationMs == 0 ? transfers * 1000.0 : transfers * 1000.0 / durationMs;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.constants.ErrorMessages;
+import com.example.bankcards.constants.LogConstants;
+import com.example.bankcards.dto.CardBalanceSlotsResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardBalanceSlot;
+import com.example.bankcards.entity.CardBalanceSnapshot;
+import com.example.bankcards.entity.LedgerEntry;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.helper.LogHelper;
+import com.example.bankcards.money.Money;
+import com.example.bankcards.repository.CardBalanceSlotRepository;
+import com.example.bankcards.repository.CardBalanceSnapshotRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Double-entry ledger behind card balances.
+ *
+ * <p>A transfer is posted as a DEBIT entry on the source card and a CREDIT entry on the
+ * destination card; card rows are only locked, never updated. A card balance is its latest
+ * {@link CardBalanceSnapshot} (or its opening balance) plus the entries posted after it, so
+ * snapshots keep balance reads bounded no matter how long the card history grows.
+ *
+ * <p>A card with more than one balance slot ({@link Card#getBalanceSlots()}) is credited through
+ * a randomly chosen {@link CardBalanceSlot} row instead of its card row, so concurrent credits to
+ * it only collide when they pick the same slot. Debits still lock the card row: a debit may miss
+ * a credit that is still in flight, which can only understate the balance it checks. Snapshots
+ * lock the card and all its slots, which is the point where the striped credits are consolidated.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class LedgerService {
+
+    private final CardRepository cardRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final CardBalanceSnapshotRepository snapshotRepository;
+    private final CardStatsService cardStatsService;
+    private final CardBalanceSlotRepository balanceSlotRepository;
+
+    /**
+     * Locks both cards of a transfer in ascending id order, so concurrent postings touching the
+     * same pair of cards cannot deadlock. A striped destination is locked through one of its
+     * slots at the position of its card id. While the locks are held no other posting or snapshot
+     * can lower the balances of these cards, and the balance of each locked card row is read
+     * again after the lock is granted. Runs in the caller's transaction; a missing card
+     * does not mark it rollback-only, so batch writers can record the rejection and go on.
+     */
+    @Transactional(propagation = Propagation.MANDATORY, noRollbackFor = ResourceNotFoundException.class)
+    public PostingCards lockForPosting(Long fromCardId, Long toCardId) {
+        if (fromCardId.equals(toCardId)) {
+            Card card = lockCard(fromCardId, ErrorMessages.SOURCE_CARD_NOT_FOUND);
+            return new PostingCards(card, card);
+        }
+        if (fromCardId < toCardId) {
+            Card fromCard = lockCard(fromCardId, ErrorMessages.SOURCE_CARD_NOT_FOUND);
+            return lockDestination(fromCard, toCardId);
+        }
+        PostingCards destination = lockDestination(null, toCardId);
+        Card fromCard = lockCard(fromCardId, ErrorMessages.SOURCE_CARD_NOT_FOUND);
+        return new PostingCards(fromCard, destination.toCard(), destination.toSlot());
+    }
+
+    /**
+     * Locks the card rows of a whole batch in ascending id order before any of its postings. The
+     * locks of a batch are held until it commits, so taking them pair by pair, each pair in order,
+     * could still cross with another batch; after this call {@link #lockForPosting(Long, Long, boolean)}
+     * only re-enters locks the transaction already holds. Missing cards are skipped and rejected
+     * by the posting that refers to them.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockCards(Collection<Long> cardIds) {
+        for (Long cardId : new TreeSet<>(cardIds)) {
+            cardRepository.findByIdForUpdate(cardId);
+        }
+    }
+
+    /**
+     * Same as {@link #lockForPosting(Long, Long)}; with {@code cardsLocked} the card rows were
+     * already locked by {@link #lockCards}, and a striped destination is credited through its card
+     * row instead of taking a slot lock out of order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY, noRollbackFor = ResourceNotFoundException.class)
+    public PostingCards lockForPosting(Long fromCardId, Long toCardId, boolean cardsLocked) {
+        if (!cardsLocked) {
+            return lockForPosting(fromCardId, toCardId);
+        }
+        Card fromCard = lockCard(fromCardId, ErrorMessages.SOURCE_CARD_NOT_FOUND);
+        Card toCard = fromCardId.equals(toCardId)
+                ? fromCard
+                : lockCard(toCardId, ErrorMessages.DESTINATION_CARD_NOT_FOUND);
+        return new PostingCards(fromCard, toCard);
+    }
+
+    /**
+     * Locks the destination of a posting: one random slot of a striped card, the card row otherwise.
+     * A slot removed by a concurrent {@link #updateBalanceSlots} falls back to the card row. The
+     * daily totals of a credit through balance slot {@code n} go to totals slot {@code n + 1}:
+     * totals slot 0 is written under the card row lock, by debits and by unstriped credits.
+     */
+    private PostingCards lockDestination(Card fromCard, Long toCardId) {
+        Integer slots = cardRepository.findBalanceSlots(toCardId);
+        if (slots != null && slots > 1) {
+            int slot = ThreadLocalRandom.current().nextInt(slots);
+            if (balanceSlotRepository.findForUpdate(toCardId, slot).isPresent()) {
+                Card toCard = cardRepository.findById(toCardId)
+                        .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.DESTINATION_CARD_NOT_FOUND));
+                return new PostingCards(fromCard, toCard, slot + 1);
+            }
+        }
+        return new PostingCards(fromCard, lockCard(toCardId, ErrorMessages.DESTINATION_CARD_NOT_FOUND));
+    }
+
+    /**
+     * Appends the debit and credit entries of a saved transfer and adds it to the daily totals
+     * of both cards. Each card is posted in its own currency: the credit of a cross-currency
+     * transfer is its {@link Transfer#getCreditedAmount()}. The in-memory balances of the
+     * locked cards are moved as well, so later reads in the same persistence context agree with
+     * the ledger; {@link Card#getBalance()} is a read-only formula and is never written back.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<LedgerEntry> post(Transfer transfer, PostingCards cards) {
+        Card fromCard = cards.fromCard();
+        Card toCard = cards.toCard();
+        LocalDateTime now = transfer.getCreatedAt() != null ? transfer.getCreatedAt() : LocalDateTime.now();
+        LedgerEntry debit = LedgerEntry.builder()
+                .transferId(transfer.getId())
+                .cardId(fromCard.getId())
+                .entryType(LedgerEntry.EntryType.DEBIT)
+                .amount(transfer.getAmount().negate())
+                .createdAt(now)
+                .build();
+        LedgerEntry credit = LedgerEntry.builder()
+                .transferId(transfer.getId())
+                .cardId(toCard.getId())
+                .entryType(LedgerEntry.EntryType.CREDIT)
+                .amount(transfer.destinationAmount())
+                .createdAt(now)
+                .build();
+        List<LedgerEntry> entries = ledgerEntryRepository.saveAll(List.of(debit, credit));
+        cardStatsService.recordTransfer(transfer, cards.toSlot());
+
+        fromCard.setBalance(fromCard.getBalance().minus(Money.of(transfer.getAmount())));
+        toCard.setBalance(toCard.getBalance().plus(Money.of(transfer.destinationAmount())));
+        return entries;
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal getBalance(Long cardId) {
+        Card card = cardRepository.findById(cardId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.CARD_NOT_FOUND));
+        Optional<CardBalanceSnapshot> snapshot = snapshotRepository.findFirstByCardIdOrderByLastEntryIdDesc(cardId);
+        Long lastEntryId = ledgerEntryRepository.findLastEntryId(cardId);
+        return balanceUpTo(card, snapshot, lastEntryId);
+    }
+
+    /**
+     * Folds the entries posted since the latest snapshot of a card into a new snapshot.
+     * The card is locked while the snapshot is taken, so no posting can commit an entry
+     * below the new high-water mark afterwards.
+     *
+     * @return the new snapshot, or empty if nothing was posted since the latest one
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<CardBalanceSnapshot> snapshot(Long cardId) {
+        Card card = findForUpdate(cardId, ErrorMessages.CARD_NOT_FOUND);
+        if (card.getBalanceSlots() > 1) {
+            balanceSlotRepository.lockAll(cardId);
+        }
+        Optional<CardBalanceSnapshot> latest = snapshotRepository.findFirstByCardIdOrderByLastEntryIdDesc(cardId);
+        Long lastEntryId = ledgerEntryRepository.findLastEntryId(cardId);
+        long snapshotEntryId = latest.map(CardBalanceSnapshot::getLastEntryId).orElse(0L);
+        if (lastEntryId == null || lastEntryId <= snapshotEntryId) {
+            return Optional.empty();
+        }
+
+        CardBalanceSnapshot snapshot = CardBalanceSnapshot.builder()
+                .cardId(cardId)
+                .lastEntryId(lastEntryId)
+                .balance(balanceUpTo(card, latest, lastEntryId))
+                .createdAt(LocalDateTime.now())
+                .build();
+        return Optional.of(snapshotRepository.save(snapshot));
+    }
+
+    /**
+     * Spreads credits to a card over {@code slots} slot rows; one slot turns striping off.
+     * Waits for credits in flight through the current slots before changing them.
+     */
+    @Transactional
+    public CardBalanceSlotsResponse updateBalanceSlots(Long cardId, int slots) {
+        LogHelper.logOperationStart(log, LogConstants.CARD_BALANCE_SLOTS,
+                "cardId", cardId,
+                "slots", slots);
+
+        Card card = findForUpdate(cardId, ErrorMessages.CARD_NOT_FOUND);
+        List<CardBalanceSlot> existing = balanceSlotRepository.lockAll(cardId);
+        int target = slots > 1 ? slots : 0;
+        if (existing.size() > target) {
+            balanceSlotRepository.deleteFromSlot(cardId, target);
+        }
+        List<CardBalanceSlot> added = new ArrayList<>();
+        for (int slot = existing.size(); slot < target; slot++) {
+            added.add(new CardBalanceSlot(new CardBalanceSlot.Key(cardId, slot)));
+        }
+        balanceSlotRepository.saveAll(added);
+        card.setBalanceSlots(Math.max(1, slots));
+        card.setUpdatedAt(LocalDateTime.now());
+        cardRepository.save(card);
+
+        LogHelper.logOperationSuccess(log, LogConstants.CARD_BALANCE_SLOTS,
+                "cardId", cardId,
+                "slots", card.getBalanceSlots());
+        return new CardBalanceSlotsResponse(cardId, card.getBalanceSlots());
+    }
+
+    private BigDecimal balanceUpTo(Card card, Optional<CardBalanceSnapshot> snapshot, Long upToEntryId) {
+        BigDecimal base = snapshot.map(CardBalanceSnapshot::getBalance).orElse(card.getOpeningBalance());
+        long afterEntryId = snapshot.map(CardBalanceSnapshot::getLastEntryId).orElse(0L);
+        if (upToEntryId == null || upToEntryId <= afterEntryId) {
+            return base;
+        }
+        return base.add(ledgerEntryRepository.sumAmounts(card.getId(), afterEntryId, upToEntryId));
+    }
+
+    /**
+     * Locks a card row for a posting and reads its balance again. The {@link Card#getBalance()}
+     * formula is evaluated by the locking statement itself, and under READ COMMITTED that
+     * statement's snapshot is taken before it waits for the lock: a posting queued behind another
+     * one on the same card would check the balance from before it. The statements issued after
+     * the lock is granted see every posting committed by the previous holder.
+     */
+    private Card lockCard(Long cardId, String notFoundMessage) {
+        Card card = findForUpdate(cardId, notFoundMessage);
+        Optional<CardBalanceSnapshot> snapshot = snapshotRepository.findFirstByCardIdOrderByLastEntryIdDesc(cardId);
+        card.setBalance(Money.of(balanceUpTo(card, snapshot, Long.MAX_VALUE)));
+        return card;
+    }
+
+    private Card findForUpdate(Long cardId, String notFoundMessage) {
+        return cardRepository.findByIdForUpdate(cardId)
+                .orElseThrow(() -> new ResourceNotFoundException(notFoundMessage));
+    }
+
+    /**
+     * Locked cards of a posting; {@code toSlot} is the daily totals slot of the credit: 1 plus the
+     * balance slot the destination was locked through, 0 when its card row was locked.
+     */
+    public record PostingCards(Card fromCard, Card toCard, int toSlot) {
+
+        public PostingCards(Card fromCard, Card toCard) {
+            this(fromCard, toCard, 0);
+        }
+    }
+}
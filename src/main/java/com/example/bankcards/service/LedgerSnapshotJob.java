@@ -0,0 +1,70 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.constants.LogConstants;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Periodically snapshots the balances of cards whose ledger tail has grown past
+ * {@code ledger.snapshot.min-entries}, so that balance reads never sum long entry runs.
+ */
+@Component
+@Slf4j
+public class LedgerSnapshotJob {
+
+    private final LedgerService ledgerService;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final boolean enabled;
+    private final long minEntries;
+    private final int maxCardsPerRun;
+
+    public LedgerSnapshotJob(LedgerService ledgerService,
+                             LedgerEntryRepository ledgerEntryRepository,
+                             @Value("${ledger.snapshot.enabled:true}") boolean enabled,
+                             @Value("${ledger.snapshot.min-entries:100}") long minEntries,
+                             @Value("${ledger.snapshot.max-cards-per-run:500}") int maxCardsPerRun) {
+        this.ledgerService = ledgerService;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.enabled = enabled;
+        this.minEntries = Math.max(1, minEntries);
+        this.maxCardsPerRun = Math.max(1, maxCardsPerRun);
+    }
+
+    @Scheduled(fixedDelayString = "${ledger.snapshot.interval-ms:60000}",
+            initialDelayString = "${ledger.snapshot.interval-ms:60000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        snapshotDueCards();
+    }
+
+    /**
+     * @return number of snapshots written
+     */
+    public int snapshotDueCards() {
+        List<Long> cardIds = ledgerEntryRepository.findCardIdsNeedingSnapshot(minEntries, maxCardsPerRun);
+        if (cardIds.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        int written = 0;
+        for (Long cardId : cardIds) {
+            try {
+                if (ledgerService.snapshot(cardId).isPresent()) {
+                    written++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("{} Failed to snapshot card {}: {}", LogConstants.LEDGER_SNAPSHOT, cardId, e.getMessage());
+            }
+        }
+        log.info("{} Wrote {} balance snapshots in {} ms",
+                LogConstants.LEDGER_SNAPSHOT, written, (System.nanoTime() - start) / 1_000_000);
+        return written;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.bankcards.service;
+
+import java.math.BigDecimal;
+
+/**
+ * A transfer accepted for asynchronous execution, as held in the shard queues and the journal.
+ */
+public record QueuedTransfer(
+        String requestId,
+        Long userId,
+        Long fromCardId,
+        Long toCardId,
+        BigDecimal amount,
+        String description
+) {}
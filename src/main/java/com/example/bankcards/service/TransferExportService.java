@@ -0,0 +1,300 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.constants.ErrorMessages;
+import com.example.bankcards.constants.LogConstants;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.exception.TooManyRequestsException;
+import com.example.bankcards.helper.LogHelper;
+import com.example.bankcards.helper.SecurityHelper;
+import com.example.bankcards.repository.CardRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Streams the complete transfer history of a card as CSV or NDJSON; declined attempts are not
+ * part of it. {@code amount} is what the source card was debited and {@code creditedAmount} what the
+ * destination card received in its own currency; {@code fxRate} is empty for same-currency transfers.
+ *
+ * <p>Rows are read through a forward-only, read-only JDBC cursor with {@code transfer.export.fetch-size}
+ * and written straight to the response: no entities, no page count, and memory use independent of
+ * the number of rows. On PostgreSQL the driver only streams inside a transaction, so the query runs
+ * in a read-only one. Access is checked before the response is committed, so errors still map to
+ * regular error responses.
+ *
+ * <p>A download keeps a pooled connection and its transaction open for as long as the client reads,
+ * so at most {@code transfer.export.max-concurrent} downloads run at once; further requests are
+ * answered with {@code 429} instead of draining the pool used by transfers. CSV cells that start
+ * like a spreadsheet formula are prefixed with {@code '} so they open as text.
+ */
+@Service
+@Slf4j
+public class TransferExportService {
+
+    private static final String EXPORT_SQL = "SELECT id, from_card_id, to_card_id, amount, fx_rate, " +
+            "COALESCE(credited_amount, amount), status, created_at, description " +
+            "FROM transfers WHERE (from_card_id = ? OR to_card_id = ?) AND status = 'SUCCESS' ORDER BY id";
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    private final CardRepository cardRepository;
+    private final SecurityHelper securityHelper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JsonFactory jsonFactory;
+    private final int fetchSize;
+    private final Semaphore exportSlots;
+
+    public TransferExportService(CardRepository cardRepository,
+                                 SecurityHelper securityHelper,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 @Value("${transfer.export.fetch-size:1000}") int fetchSize,
+                                 @Value("${transfer.export.max-concurrent:4}") int maxConcurrent) {
+        this.cardRepository = cardRepository;
+        this.securityHelper = securityHelper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.jsonFactory = objectMapper.getFactory();
+        this.fetchSize = Math.max(1, fetchSize);
+        this.exportSlots = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    /**
+     * Checks that the caller may read the card's history, takes an export slot and returns a body
+     * that streams it; the slot is released once the body has been written.
+     *
+     * @throws ResourceNotFoundException if the card does not exist
+     * @throws com.example.bankcards.exception.UnauthorizedException if the card belongs to another user
+     * @throws TooManyRequestsException if {@code transfer.export.max-concurrent} exports are running
+     */
+    public StreamingResponseBody export(Long cardId, Format format, Authentication authentication) {
+        Card card = cardRepository.findById(cardId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.CARD_NOT_FOUND));
+        securityHelper.validateUserAccess(authentication, card.getUser().getId());
+        if (!exportSlots.tryAcquire()) {
+            throw new TooManyRequestsException(ErrorMessages.EXPORT_LIMIT_REACHED);
+        }
+
+        return outputStream -> {
+            try {
+                write(cardId, format, outputStream);
+            } finally {
+                exportSlots.release();
+            }
+        };
+    }
+
+    /**
+     * Writes every transfer from or to the card to {@code outputStream}, oldest first.
+     *
+     * @return number of transfers written
+     */
+    public long write(Long cardId, Format format, OutputStream outputStream) throws IOException {
+        LogHelper.logOperationStart(log, LogConstants.TRANSFER_EXPORT,
+                "cardId", cardId,
+                "format", format);
+        long start = System.nanoTime();
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), OUTPUT_BUFFER_SIZE);
+        RowWriter rows = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(jsonFactory.createGenerator(writer));
+        rows.start();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                statement.setLong(1, cardId);
+                statement.setLong(2, cardId);
+                return statement;
+            }, (RowCallbackHandler) resultSet -> {
+                try {
+                    rows.write(resultSet);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        rows.finish();
+
+        LogHelper.logOperationSuccess(log, LogConstants.TRANSFER_EXPORT,
+                "cardId", cardId,
+                "rows", rows.count(),
+                "durationMs", (System.nanoTime() - start) / 1_000_000);
+        return rows.count();
+    }
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        /**
+         * @throws BadRequestException if {@code value} is not a supported format
+         */
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(ErrorMessages.UNSUPPORTED_EXPORT_FORMAT);
+            }
+        }
+    }
+
+    private abstract static class RowWriter {
+
+        private long count;
+
+        void start() throws IOException {
+        }
+
+        final void write(ResultSet resultSet) throws SQLException, IOException {
+            writeRow(resultSet);
+            count++;
+        }
+
+        abstract void writeRow(ResultSet resultSet) throws SQLException, IOException;
+
+        abstract void finish() throws IOException;
+
+        long count() {
+            return count;
+        }
+    }
+
+    private static final class CsvRowWriter extends RowWriter {
+
+        private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        void start() throws IOException {
+            writer.write("id,fromCardId,toCardId,amount,fxRate,creditedAmount,status,createdAt,description\n");
+        }
+
+        @Override
+        void writeRow(ResultSet resultSet) throws SQLException, IOException {
+            writer.write(Long.toString(resultSet.getLong(1)));
+            writer.write(',');
+            writer.write(Long.toString(resultSet.getLong(2)));
+            writer.write(',');
+            writer.write(Long.toString(resultSet.getLong(3)));
+            writer.write(',');
+            writer.write(resultSet.getBigDecimal(4).toPlainString());
+            writer.write(',');
+            BigDecimal fxRate = resultSet.getBigDecimal(5);
+            if (fxRate != null) {
+                writer.write(fxRate.toPlainString());
+            }
+            writer.write(',');
+            writer.write(resultSet.getBigDecimal(6).toPlainString());
+            writer.write(',');
+            writer.write(resultSet.getString(7));
+            writer.write(',');
+            writer.write(resultSet.getTimestamp(8).toLocalDateTime().toString());
+            writer.write(',');
+            String description = resultSet.getString(9);
+            if (description != null) {
+                writer.write(escape(description));
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        void finish() throws IOException {
+            writer.flush();
+        }
+
+        /**
+         * Quotes values with separators and prefixes values starting with {@code = + - @}, tab or CR
+         * with {@code '}, so spreadsheets do not evaluate them as formulas.
+         */
+        private static String escape(String value) {
+            boolean formula = !value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0;
+            if (!formula && value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + (formula ? "'" : "") + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static final class NdjsonRowWriter extends RowWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(JsonGenerator generator) {
+            this.generator = generator;
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        void writeRow(ResultSet resultSet) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", resultSet.getLong(1));
+            generator.writeNumberField("fromCardId", resultSet.getLong(2));
+            generator.writeNumberField("toCardId", resultSet.getLong(3));
+            generator.writeNumberField("amount", resultSet.getBigDecimal(4));
+            generator.writeNumberField("fxRate", resultSet.getBigDecimal(5));
+            generator.writeNumberField("creditedAmount", resultSet.getBigDecimal(6));
+            generator.writeStringField("status", resultSet.getString(7));
+            generator.writeStringField("createdAt", resultSet.getTimestamp(8).toLocalDateTime().toString());
+            generator.writeStringField("description", resultSet.getString(9));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        void finish() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.bankcards.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local append-only journal of accepted asynchronous transfers.
+ *
+ * <p>Each accepted transfer is written as an {@code E} line before the client gets its 202,
+ * and a {@code D} line is appended once the writer has applied or rejected it. On startup
+ * {@link #recover()} returns the entries without a matching {@code D} line and compacts the file
+ * down to them. The {@code D} line follows the commit, so a recovered entry may already have been
+ * applied; {@link AsyncTransferWriter} recognises it by its request id.
+ */
+@Slf4j
+public class TransferJournal implements AutoCloseable {
+
+    private static final String ENQUEUED = "E";
+    private static final String DONE = "D";
+    private static final String SEPARATOR = "|";
+
+    private final Path path;
+    private final boolean fsync;
+    private FileChannel channel;
+    private BufferedWriter writer;
+
+    public TransferJournal(Path path, boolean fsync) {
+        this.path = path;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Reads the journal, compacts it to the pending entries and opens it for appending.
+     *
+     * @return transfers that were accepted but never completed, in submission order
+     */
+    public synchronized List<QueuedTransfer> recover() {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Map<String, QueuedTransfer> pending = new LinkedHashMap<>();
+            if (Files.exists(path)) {
+                for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                    readLine(line, pending);
+                }
+            }
+
+            Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.write(compacted, pending.values().stream().map(TransferJournal::format).toList(),
+                    StandardCharsets.UTF_8);
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+            return new ArrayList<>(pending.values());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to recover transfer journal " + path, e);
+        }
+    }
+
+    public synchronized void appendEnqueued(QueuedTransfer transfer) {
+        append(format(transfer));
+    }
+
+    public synchronized void appendDone(List<String> requestIds) {
+        StringBuilder lines = new StringBuilder();
+        for (String requestId : requestIds) {
+            if (!lines.isEmpty()) {
+                lines.append(System.lineSeparator());
+            }
+            lines.append(DONE).append(SEPARATOR).append(requestId);
+        }
+        append(lines.toString());
+    }
+
+    @Override
+    public synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("Failed to close transfer journal {}: {}", path, e.getMessage());
+        }
+        writer = null;
+        channel = null;
+    }
+
+    private void append(String lines) {
+        if (writer == null) {
+            throw new IllegalStateException("Transfer journal is not open");
+        }
+        try {
+            writer.write(lines);
+            writer.newLine();
+            writer.flush();
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to transfer journal " + path, e);
+        }
+    }
+
+    private static void readLine(String line, Map<String, QueuedTransfer> pending) {
+        String[] parts = line.split("\\|", -1);
+        if (parts.length == 2 && DONE.equals(parts[0])) {
+            pending.remove(parts[1]);
+        } else if (parts.length == 7 && ENQUEUED.equals(parts[0])) {
+            pending.put(parts[1], new QueuedTransfer(
+                    parts[1],
+                    Long.valueOf(parts[2]),
+                    Long.valueOf(parts[3]),
+                    Long.valueOf(parts[4]),
+                    new BigDecimal(parts[5]),
+                    decode(parts[6])
+            ));
+        } else if (!line.isBlank()) {
+            log.warn("Skipping malformed transfer journal line: {}", line);
+        }
+    }
+
+    private static String format(QueuedTransfer transfer) {
+        return String.join(SEPARATOR,
+                ENQUEUED,
+                transfer.requestId(),
+                String.valueOf(transfer.userId()),
+                String.valueOf(transfer.fromCardId()),
+                String.valueOf(transfer.toCardId()),
+                transfer.amount().toPlainString(),
+                encode(transfer.description()));
+    }
+
+    private static String encode(String value) {
+        return value == null ? "" : Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String value) {
+        return value.isEmpty() ? null : new String(Base64.getDecoder().decode(value), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.constants.ErrorMessages;
+import com.example.bankcards.constants.LogConstants;
+import com.example.bankcards.dto.TransferResponse;
+import com.example.bankcards.dto.TransferSearchRequest;
+import com.example.bankcards.dto.TransferSearchResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.helper.LogHelper;
+import com.example.bankcards.helper.SecurityHelper;
+import com.example.bankcards.mapper.TransferMapper;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.TransferSpecifications;
+import com.example.bankcards.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Filtered, keyset-paged transfer search over a card or all cards of a user.
+ *
+ * <p>Sent and received transfers are fetched by two queries, each scoped by one card column so it
+ * runs as a range scan on that column's {@code (card, created_at)} index; an {@code OR} over both
+ * columns would leave most databases with a full scan. Each query reads at most one page plus one
+ * row in {@code createdAt DESC, id DESC} order and the two are merged. There is no count query:
+ * the next page is addressed by a cursor holding the last row's {@code createdAt} and {@code id}.
+ *
+ * <p>Declined attempts are part of the sent side only: among received transfers, a {@code FAILED}
+ * row is returned only if it was sent from another card of the same owner.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TransferSearchService {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+    private static final Comparator<Transfer> NEWEST_FIRST_ORDER = Comparator
+            .comparing(Transfer::getCreatedAt).thenComparing(Transfer::getId).reversed();
+    private static final String CURSOR_SEPARATOR = "|";
+
+    private final TransferRepository transferRepository;
+    private final CardRepository cardRepository;
+    private final UserRepository userRepository;
+    private final SecurityHelper securityHelper;
+    private final TransferMapper transferMapper;
+
+    public TransferSearchResponse search(TransferSearchRequest request, Authentication authentication) {
+        LogHelper.logOperationStart(log, LogConstants.TRANSFER_SEARCH,
+                "cardId", request.cardId(),
+                "userId", request.userId(),
+                "status", request.status());
+
+        validateRanges(request);
+        Scope scope = resolveScope(request, authentication);
+        List<Long> cardIds = scope.cardIds();
+        int size = request.size() != null ? request.size() : DEFAULT_PAGE_SIZE;
+        if (cardIds.isEmpty()) {
+            return new TransferSearchResponse(List.of(), null);
+        }
+
+        Specification<Transfer> filters = filters(request);
+        List<Transfer> merged = new ArrayList<>(2 * (size + 1));
+        merged.addAll(fetch(TransferSpecifications.sentFrom(cardIds).and(filters), size + 1));
+        merged.addAll(fetch(TransferSpecifications.receivedBy(cardIds)
+                .and(TransferSpecifications.visibleTo(scope.ownerId())).and(filters), size + 1));
+        merged.sort(NEWEST_FIRST_ORDER);
+
+        List<Transfer> page = merged.subList(0, Math.min(size, merged.size()));
+        String nextCursor = merged.size() > size ? encodeCursor(page.get(page.size() - 1)) : null;
+
+        LogHelper.logOperationSuccess(log, LogConstants.TRANSFER_SEARCH,
+                "cards", cardIds.size(),
+                "transfersFound", page.size(),
+                "hasMore", nextCursor != null);
+
+        List<TransferResponse> content = page.stream().map(transferMapper::toResponse).toList();
+        return new TransferSearchResponse(content, nextCursor);
+    }
+
+    private List<Transfer> fetch(Specification<Transfer> specification, int limit) {
+        return transferRepository.findBy(specification, query -> query.sortBy(NEWEST_FIRST).limit(limit).all());
+    }
+
+    private Specification<Transfer> filters(TransferSearchRequest request) {
+        Cursor cursor = request.cursor() != null ? decodeCursor(request.cursor()) : null;
+        return Specification.allOf(
+                TransferSpecifications.amountAtLeast(request.minAmount()),
+                TransferSpecifications.amountAtMost(request.maxAmount()),
+                TransferSpecifications.createdFrom(request.from()),
+                TransferSpecifications.createdBefore(request.to()),
+                TransferSpecifications.hasStatus(request.status()),
+                TransferSpecifications.descriptionContains(request.description()),
+                cursor != null ? TransferSpecifications.after(cursor.createdAt(), cursor.id()) : null);
+    }
+
+    private Scope resolveScope(TransferSearchRequest request, Authentication authentication) {
+        if (request.cardId() != null) {
+            Card card = cardRepository.findById(request.cardId())
+                    .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.CARD_NOT_FOUND));
+            securityHelper.validateUserAccess(authentication, card.getUser().getId());
+            return new Scope(card.getUser().getId(), List.of(card.getId()));
+        }
+
+        Long userId;
+        if (request.userId() != null) {
+            userId = userRepository.findById(request.userId())
+                    .map(User::getId)
+                    .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.USER_NOT_FOUND));
+            securityHelper.validateUserAccess(authentication, userId);
+        } else {
+            userId = securityHelper.getCurrentUser(authentication).getId();
+        }
+        return new Scope(userId, cardRepository.findIdsByUserId(userId));
+    }
+
+    private static void validateRanges(TransferSearchRequest request) {
+        if (request.minAmount() != null && request.maxAmount() != null
+                && request.minAmount().compareTo(request.maxAmount()) > 0) {
+            throw new BadRequestException(ErrorMessages.SEARCH_AMOUNT_RANGE_INVALID);
+        }
+        if (request.from() != null && request.to() != null && !request.from().isBefore(request.to())) {
+            throw new BadRequestException(ErrorMessages.SEARCH_DATE_RANGE_INVALID);
+        }
+    }
+
+    private static String encodeCursor(Transfer last) {
+        String value = last.getCreatedAt() + CURSOR_SEPARATOR + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decodeCursor(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(CURSOR_SEPARATOR);
+            return new Cursor(LocalDateTime.parse(value.substring(0, separator)), Long.valueOf(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException(ErrorMessages.INVALID_SEARCH_CURSOR);
+        }
+    }
+
+    private record Cursor(LocalDateTime createdAt, Long id) {}
+
+    private record Scope(Long ownerId, List<Long> cardIds) {}
+}
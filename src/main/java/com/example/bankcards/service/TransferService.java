@@ -5,16 +5,25 @@ import com.example.bankcards.constants.LogConstants;
 import com.example.bankcards.dto.TransferRequest;
 import com.example.bankcards.dto.TransferResponse;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.LedgerEntry;
+import com.example.bankcards.entity.OutboxEvent;
 import com.example.bankcards.entity.Transfer;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.ResourceNotFoundException;
 import com.example.bankcards.exception.UnauthorizedException;
+import com.example.bankcards.fx.FxRateService;
+import com.example.bankcards.fx.FxRateSnapshot;
 import com.example.bankcards.helper.LogHelper;
 import com.example.bankcards.helper.SecurityHelper;
+import com.example.bankcards.mapper.CardMapper;
 import com.example.bankcards.mapper.TransferMapper;
+import com.example.bankcards.outbox.OutboxService;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.TransferRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.repository.projection.TransferCardView;
+import com.example.bankcards.repository.projection.TransferView;
+import com.example.bankcards.stream.TransferStreamHub;
 import com.example.bankcards.validator.TransferValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,9 +35,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -42,6 +49,12 @@ public class TransferService {
     private final TransferValidator transferValidator;
     private final SecurityHelper securityHelper;
     private final TransferMapper transferMapper;
+    private final CardMapper cardMapper;
+    private final LedgerService ledgerService;
+    private final OutboxService outboxService;
+    private final TransferStreamHub transferStreamHub;
+    private final FailedTransferRecorder failedTransferRecorder;
+    private final FxRateService fxRateService;
 
     @Caching(evict = {
             @CacheEvict(value = "cards", key = "#request.fromCardId()"),
@@ -54,38 +67,55 @@ public class TransferService {
                 "toCardId", request.toCardId(),
                 "amount", request.amount());
 
-        Card fromCard = cardRepository.findById(request.fromCardId())
-                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.SOURCE_CARD_NOT_FOUND));
+        Long currentUserId = securityHelper.getCurrentUserId(authentication);
 
-        Card toCard = cardRepository.findById(request.toCardId())
-                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.DESTINATION_CARD_NOT_FOUND));
-
-        User currentUser = securityHelper.getCurrentUser(authentication);
-
-        transferValidator.validateTransfer(fromCard, toCard, request.amount(), currentUser);
+        // Отказ по самому запросу, затем по одной выборке обеих карт — без блокировок
+        Transfer.FailureReason reason = transferValidator.checkRequest(request.fromCardId(), request.toCardId());
+        if (reason == null) {
+            reason = checkCards(request, currentUserId);
+        }
+        LedgerService.PostingCards cards = null;
+        if (reason == null) {
+            try {
+                cards = ledgerService.lockForPosting(request.fromCardId(), request.toCardId());
+                reason = transferValidator.checkLocked(cards.fromCard(), cards.toCard(), currentUserId, request.amount());
+            } catch (ResourceNotFoundException e) {
+                // Карту удалили между выборкой и блокировкой
+                reason = Transfer.FailureReason.fromMessage(e.getMessage());
+            }
+        }
+        if (reason != null) {
+            // Только постановка в очередь: запись отказа не задерживает ответ 4xx
+            failedTransferRecorder.record(request.fromCardId(), request.toCardId(), request.amount().toBigDecimal(),
+                    request.description(), reason);
+            throw TransferValidator.toException(reason);
+        }
+        Card fromCard = cards.fromCard();
+        Card toCard = cards.toCard();
+        FxRateSnapshot.Rate rate = fxRateService.quote(fromCard.getCurrency(), toCard.getCurrency());
 
-        log.debug("{} Updating balances - fromCardBalance={}, toCardBalance={}",
+        log.debug("{} Posting to ledger - fromCardBalance={}, toCardBalance={}",
                 LogConstants.TRANSFER_CREATE,
                 fromCard.getBalance(),
                 toCard.getBalance());
 
-        fromCard.setBalance(fromCard.getBalance().subtract(request.amount()));
-        fromCard.setUpdatedAt(LocalDateTime.now());
-
-        toCard.setBalance(toCard.getBalance().add(request.amount()));
-        toCard.setUpdatedAt(LocalDateTime.now());
-
-        cardRepository.save(fromCard);
-        cardRepository.save(toCard);
-
-        Transfer transfer = transferMapper.toEntity(request);
+        Transfer transfer = transferMapper.toEntity(request, rate);
         transferRepository.save(transfer);
+        List<LedgerEntry> entries = ledgerService.post(transfer, cards);
+
+        // Балансы после проводки уже посчитаны в памяти — клиенту не нужен повторный запрос
+        TransferResponse response = transferMapper.toResponse(transfer,
+                cardMapper.toBalanceResponse(fromCard, entries.get(0).getId()),
+                cardMapper.toBalanceResponse(toCard, entries.get(1).getId()));
+        outboxService.record(OutboxEvent.EventType.TRANSFER_COMPLETED, transfer.getId(), response);
+        transferStreamHub.publishAfterCommit(
+                List.of(fromCard.getUser().getId(), toCard.getUser().getId()), response);
 
         LogHelper.logOperationSuccess(log, LogConstants.TRANSFER_CREATE,
                 "transferId", transfer.getId(),
-                "userId", currentUser.getId());
+                "userId", currentUserId);
 
-        return transferMapper.toResponse(transfer);
+        return response;
     }
 
     @Transactional(readOnly = true)
@@ -107,7 +137,7 @@ public class TransferService {
 
         securityHelper.validateCardOwnership(card, currentUser);
 
-        Page<Transfer> transfers = transferRepository.findByCardId(cardId, pageable);
+        Page<TransferView> transfers = transferRepository.findViewsByCardId(cardId, pageable);
 
         LogHelper.logOperationSuccess(log, LogConstants.TRANSFER_HISTORY,
                 "cardId", cardId,
@@ -137,20 +167,7 @@ public class TransferService {
             throw new UnauthorizedException(ErrorMessages.UNAUTHORIZED_VIEW_USER_HISTORY);
         }
 
-        List<Long> cardIds = cardRepository.findByUserId(userId).stream()
-                .map(Card::getId)
-                .collect(Collectors.toList());
-
-        log.debug("{} User has {} cards", LogConstants.TRANSFER_USER_HISTORY, cardIds.size());
-
-        if (cardIds.isEmpty()) {
-            LogHelper.logOperationSuccess(log, LogConstants.TRANSFER_USER_HISTORY,
-                    "userId", userId,
-                    "transfersFound", "0 (no cards)");
-            return Page.empty(pageable);
-        }
-
-        Page<Transfer> transfers = transferRepository.findByCardIds(cardIds, pageable);
+        Page<TransferView> transfers = transferRepository.findViewsByUserId(userId, pageable);
 
         LogHelper.logOperationSuccess(log, LogConstants.TRANSFER_USER_HISTORY,
                 "userId", userId,
@@ -163,28 +180,31 @@ public class TransferService {
     public TransferResponse getTransferById(Long transferId, Authentication authentication) {
         LogHelper.logOperationStart(log, LogConstants.TRANSFER_GET, "transferId", transferId);
 
-        Transfer transfer = transferRepository.findById(transferId)
-                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.TRANSFER_NOT_FOUND));
+        Long currentUserId = securityHelper.getCurrentUserId(authentication);
 
-        Card fromCard = cardRepository.findById(transfer.getFromCardId())
-                .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.SOURCE_CARD_NOT_FOUND));
-
-        User currentUser = securityHelper.getCurrentUser(authentication);
-
-        // Проверка доступа: пользователь может просматривать только свои переводы
-        if (!fromCard.getUser().getId().equals(currentUser.getId())) {
-            Card toCard = cardRepository.findById(transfer.getToCardId())
-                    .orElseThrow(() -> new ResourceNotFoundException(ErrorMessages.DESTINATION_CARD_NOT_FOUND));
-
-            if (!toCard.getUser().getId().equals(currentUser.getId())) {
-                throw new UnauthorizedException(ErrorMessages.UNAUTHORIZED_VIEW_TRANSFER);
-            }
-        }
+        // Проверка доступа в самом запросе: перевод виден, только если одна из карт принадлежит пользователю
+        TransferView transfer = transferRepository.findViewByIdForUser(transferId, currentUserId)
+                .orElseThrow(() -> transferRepository.existsById(transferId)
+                        ? new UnauthorizedException(ErrorMessages.UNAUTHORIZED_VIEW_TRANSFER)
+                        : new ResourceNotFoundException(ErrorMessages.TRANSFER_NOT_FOUND));
 
         LogHelper.logOperationSuccess(log, LogConstants.TRANSFER_GET,
                 "transferId", transferId,
-                "userId", currentUser.getId());
+                "userId", currentUserId);
 
         return transferMapper.toResponse(transfer);
     }
+
+    private Transfer.FailureReason checkCards(TransferRequest request, Long currentUserId) {
+        TransferCardView fromCard = null;
+        TransferCardView toCard = null;
+        for (TransferCardView card : cardRepository.findTransferCards(request.fromCardId(), request.toCardId())) {
+            if (card.id().equals(request.fromCardId())) {
+                fromCard = card;
+            } else {
+                toCard = card;
+            }
+        }
+        return transferValidator.checkCards(fromCard, toCard, currentUserId, request.amount());
+    }
 }
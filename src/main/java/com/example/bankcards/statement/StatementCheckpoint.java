@@ -0,0 +1,117 @@
+package com.example.bankcards.statement;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Append-only record of the card id ranges whose statements are complete for one month.
+ *
+ * <p>The first line holds the partition size the ranges were cut with; each further line is one
+ * finished partition, written only after its statement file has been moved into place. A run that
+ * crashes leaves the finished partitions listed, and the next run over the same month skips them.
+ */
+@Slf4j
+class StatementCheckpoint implements AutoCloseable {
+
+    private static final String HEADER = "partition-size=";
+
+    private final Path path;
+    private final boolean fsync;
+    private final Set<String> completed = new HashSet<>();
+    private FileChannel channel;
+    private BufferedWriter writer;
+
+    StatementCheckpoint(Path path, boolean fsync) {
+        this.path = path;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Reads the finished partitions and opens the checkpoint for appending.
+     *
+     * @throws IllegalStateException if the existing checkpoint was written with another partition size
+     */
+    synchronized void open(long partitionSize) {
+        try {
+            Files.createDirectories(path.getParent());
+            if (Files.exists(path)) {
+                List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+                if (!lines.isEmpty() && !lines.get(0).equals(HEADER + partitionSize)) {
+                    throw new IllegalStateException("Checkpoint " + path + " was written with " + lines.get(0)
+                            + ", remove it or run with the same partition size");
+                }
+                for (String line : lines.subList(Math.min(1, lines.size()), lines.size())) {
+                    if (!line.isBlank()) {
+                        completed.add(line.split(" ", 2)[0]);
+                    }
+                }
+            }
+            boolean created = !Files.exists(path) || Files.size(path) == 0;
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+            if (created) {
+                append(HEADER + partitionSize);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open statement checkpoint " + path, e);
+        }
+    }
+
+    synchronized boolean isDone(Partition partition) {
+        return completed.contains(partition.key());
+    }
+
+    synchronized void markDone(Partition partition, long cards) {
+        append(partition.key() + " " + cards);
+        completed.add(partition.key());
+    }
+
+    @Override
+    public synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("Failed to close statement checkpoint {}: {}", path, e.getMessage());
+        }
+        writer = null;
+        channel = null;
+    }
+
+    private void append(String line) {
+        try {
+            writer.write(line);
+            writer.newLine();
+            writer.flush();
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to statement checkpoint " + path, e);
+        }
+    }
+
+    /**
+     * Card ids {@code [fromId, toId)}.
+     */
+    record Partition(long fromId, long toId) {
+
+        String key() {
+            return fromId + "-" + toId;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.bankcards.statement;
+
+import com.example.bankcards.constants.LogConstants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Generates statements from the command line and exits:
+ *
+ * <pre>
+ * java -jar bank-rest.jar --spring.main.web-application-type=none --generate-statements=2026-09
+ * </pre>
+ *
+ * <p>Without a value the previous month is generated. Rerunning the same month after a crash
+ * resumes from its checkpoint. The exit code is {@code 0} on success and {@code 1} on failure.
+ * Without the option the runner does nothing and the application starts as usual.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class StatementCommandLineRunner implements ApplicationRunner {
+
+    static final String OPTION = "generate-statements";
+
+    private final StatementJob statementJob;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+        int exitCode;
+        try {
+            StatementJob.Run run = statementJob.generate(month(args.getOptionValues(OPTION)));
+            log.info("{} Wrote statements of {} cards for {} to {} - cardsPerSecond={}",
+                    LogConstants.STATEMENT_GENERATE, run.cards(), run.month(),
+                    statementJob.directory(run.month()), Math.round(run.cardsPerSecond()));
+            exitCode = 0;
+        } catch (RuntimeException e) {
+            // Сюда же попадает некорректный месяц в аргументе
+            log.error("{} Statement generation failed: {}", LogConstants.STATEMENT_GENERATE, e.getMessage(), e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    static YearMonth month(List<String> values) {
+        if (values == null || values.isEmpty() || values.get(0).isBlank()) {
+            return YearMonth.now().minusMonths(1);
+        }
+        return YearMonth.parse(values.get(0).trim());
+    }
+}
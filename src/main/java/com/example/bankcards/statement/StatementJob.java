@@ -0,0 +1,376 @@
+package com.example.bankcards.statement;
+
+import com.example.bankcards.constants.LogConstants;
+import com.example.bankcards.helper.LogHelper;
+import com.example.bankcards.service.TransferExportService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Generates monthly card statements: opening balance, every ledger entry of the month with its
+ * counterparty, and closing balance.
+ *
+ * <p>Card ids are cut into ranges of {@code partition-size} aligned to multiples of it, so the same
+ * month always yields the same ranges. The ranges are split recursively on a fork-join pool of
+ * {@code threads} workers; each range is read with one forward-only query and written to its own
+ * file under {@code <output-dir>/<yyyy-MM>/}, first as {@code .tmp} and then atomically renamed.
+ * Only after the rename is the range appended to the month's {@link StatementCheckpoint}, so a run
+ * that crashes or is killed resumes with the missing ranges and never leaves a half-written file
+ * under a final name.
+ *
+ * <p>Runs on the first day of the month for the previous one when {@code statement.enabled} is set,
+ * and on demand through {@link #generate} or {@link StatementCommandLineRunner}.
+ */
+@Component
+@Slf4j
+public class StatementJob {
+
+    static final String CHECKPOINT_FILE = "checkpoint.log";
+
+    private static final String BOUNDS_SQL = "SELECT MIN(id), MAX(id) FROM cards";
+
+    /**
+     * Opening balance is the card's initial balance plus all entries before the month; entries of
+     * the month follow in ledger order, one row each, or a single row with nulls if there are none.
+     */
+    private static final String PARTITION_SQL = "SELECT c.id, c.balance + COALESCE(o.total, 0), " +
+            "e.transfer_id, e.entry_type, e.amount, e.created_at, " +
+            "CASE WHEN e.entry_type = 'DEBIT' THEN t.to_card_id ELSE t.from_card_id END, t.description " +
+            "FROM cards c " +
+            "LEFT JOIN (SELECT card_id, SUM(amount) AS total FROM ledger_entries " +
+            "WHERE card_id >= ? AND card_id < ? AND created_at < ? GROUP BY card_id) o ON o.card_id = c.id " +
+            "LEFT JOIN ledger_entries e ON e.card_id = c.id AND e.created_at >= ? AND e.created_at < ? " +
+            "LEFT JOIN transfers t ON t.id = e.transfer_id " +
+            "WHERE c.id >= ? AND c.id < ? AND c.created_at < ? " +
+            "ORDER BY c.id, e.id";
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JsonFactory jsonFactory;
+    private final boolean enabled;
+    private final Path outputDir;
+    private final TransferExportService.Format format;
+    private final long partitionSize;
+    private final int fetchSize;
+    private final boolean checkpointFsync;
+    private final ForkJoinPool pool;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Counter cardsCounter;
+    private final Timer runTimer;
+
+    public StatementJob(JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry,
+                        @Value("${statement.enabled:false}") boolean enabled,
+                        @Value("${statement.output-dir:./data/statements}") String outputDir,
+                        @Value("${statement.format:csv}") String format,
+                        @Value("${statement.partition-size:1000}") long partitionSize,
+                        @Value("${statement.threads:4}") int threads,
+                        @Value("${statement.fetch-size:1000}") int fetchSize,
+                        @Value("${statement.checkpoint-fsync:true}") boolean checkpointFsync) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.jsonFactory = objectMapper.getFactory();
+        this.enabled = enabled;
+        this.outputDir = Path.of(outputDir);
+        this.format = TransferExportService.Format.parse(format);
+        this.partitionSize = Math.max(1, partitionSize);
+        this.fetchSize = Math.max(1, fetchSize);
+        this.checkpointFsync = checkpointFsync;
+        this.pool = new ForkJoinPool(Math.max(1, threads), forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("statement-worker-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        this.cardsCounter = Counter.builder("statement.cards").register(meterRegistry);
+        this.runTimer = Timer.builder("statement.run")
+                .description("Duration of one statement run over all card ranges")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    @Scheduled(cron = "${statement.cron:0 0 3 1 * *}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            generate(YearMonth.now().minusMonths(1));
+        } catch (RuntimeException e) {
+            log.error("{} Statement run failed: {}", LogConstants.STATEMENT_GENERATE, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes the statements of every card that existed during {@code month}, skipping ranges
+     * already listed in the month's checkpoint.
+     *
+     * @return what the run did and how fast
+     * @throws IllegalStateException if another run is in progress
+     */
+    public Run generate(YearMonth month) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Statement generation is already running");
+        }
+        try {
+            return run(month);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Path directory(YearMonth month) {
+        return outputDir.resolve(month.toString());
+    }
+
+    private Run run(YearMonth month) {
+        LogHelper.logOperationStart(log, LogConstants.STATEMENT_GENERATE,
+                "month", month,
+                "format", format);
+        long start = System.nanoTime();
+
+        List<StatementCheckpoint.Partition> partitions = partitions();
+        Totals totals;
+        try (StatementCheckpoint checkpoint = new StatementCheckpoint(
+                directory(month).resolve(CHECKPOINT_FILE), checkpointFsync)) {
+            checkpoint.open(partitionSize);
+            Pass pass = new Pass(month, directory(month), checkpoint, partitions);
+            totals = partitions.isEmpty() ? Totals.NONE : pool.invoke(new PartitionTask(pass, 0, partitions.size()));
+        }
+
+        long durationNanos = System.nanoTime() - start;
+        runTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+        Run run = new Run(month, partitions.size(), totals.skipped(), totals.cards(), totals.entries(),
+                TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        LogHelper.logOperationSuccess(log, LogConstants.STATEMENT_GENERATE,
+                "month", month,
+                "partitions", run.partitions(),
+                "skipped", run.skippedPartitions(),
+                "cards", run.cards(),
+                "entries", run.entries(),
+                "durationMs", run.durationMs(),
+                "cardsPerSecond", Math.round(run.cardsPerSecond()));
+        return run;
+    }
+
+    private List<StatementCheckpoint.Partition> partitions() {
+        return jdbcTemplate.query(BOUNDS_SQL, resultSet -> {
+            resultSet.next();
+            long min = resultSet.getLong(1);
+            if (resultSet.wasNull()) {
+                return List.of();
+            }
+            long max = resultSet.getLong(2);
+            List<StatementCheckpoint.Partition> partitions = new ArrayList<>();
+            for (long from = Math.floorDiv(min, partitionSize) * partitionSize; from <= max; from += partitionSize) {
+                partitions.add(new StatementCheckpoint.Partition(from, from + partitionSize));
+            }
+            return partitions;
+        });
+    }
+
+    private Totals writePartition(Pass pass, StatementCheckpoint.Partition partition) {
+        if (pass.checkpoint().isDone(partition)) {
+            return Totals.SKIPPED;
+        }
+        Path target = pass.directory().resolve("statements-" + partition.key() + "." + format.extension());
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        PartitionReader reader;
+        try {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    Files.newOutputStream(temporary), StandardCharsets.UTF_8), OUTPUT_BUFFER_SIZE)) {
+                StatementWriter statements = StatementWriter.create(format, writer, jsonFactory, pass.month());
+                statements.start();
+                reader = new PartitionReader(statements);
+                readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+                        connection -> prepare(connection.prepareStatement(
+                                PARTITION_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY),
+                                pass.month(), partition),
+                        reader));
+                reader.finish();
+                statements.finish();
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(temporary);
+            throw new UncheckedIOException("Failed to write statements " + target, e);
+        } catch (RuntimeException e) {
+            deleteQuietly(temporary);
+            throw e;
+        }
+        pass.checkpoint().markDone(partition, reader.cards);
+        cardsCounter.increment(reader.cards);
+        return new Totals(reader.cards, reader.entries, 0);
+    }
+
+    private PreparedStatement prepare(PreparedStatement statement, YearMonth month,
+                                      StatementCheckpoint.Partition partition) throws SQLException {
+        Timestamp monthStart = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp monthEnd = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        statement.setFetchSize(fetchSize);
+        statement.setLong(1, partition.fromId());
+        statement.setLong(2, partition.toId());
+        statement.setTimestamp(3, monthStart);
+        statement.setTimestamp(4, monthStart);
+        statement.setTimestamp(5, monthEnd);
+        statement.setLong(6, partition.fromId());
+        statement.setLong(7, partition.toId());
+        statement.setTimestamp(8, monthEnd);
+        return statement;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("{} Failed to delete {}: {}", LogConstants.STATEMENT_GENERATE, path, e.getMessage());
+        }
+    }
+
+    /**
+     * Splits its slice of ranges in halves until a single range is left, which it writes itself.
+     */
+    private final class PartitionTask extends RecursiveTask<Totals> {
+
+        private final Pass pass;
+        private final int from;
+        private final int to;
+
+        PartitionTask(Pass pass, int from, int to) {
+            this.pass = pass;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from == 1) {
+                return writePartition(pass, pass.partitions().get(from));
+            }
+            int middle = (from + to) >>> 1;
+            PartitionTask left = new PartitionTask(pass, from, middle);
+            left.fork();
+            Totals right = new PartitionTask(pass, middle, to).compute();
+            return left.join().plus(right);
+        }
+    }
+
+    /**
+     * Turns the rows of one range into statements, tracking the running balance of the current card.
+     */
+    private static final class PartitionReader implements RowCallbackHandler {
+
+        private final StatementWriter statements;
+        private Long cardId;
+        private BigDecimal balance;
+        private long cards;
+        private long entries;
+
+        PartitionReader(StatementWriter statements) {
+            this.statements = statements;
+        }
+
+        @Override
+        public void processRow(ResultSet resultSet) throws SQLException {
+            try {
+                long id = resultSet.getLong(1);
+                if (cardId == null || cardId != id) {
+                    if (cardId != null) {
+                        statements.endCard(balance);
+                    }
+                    cardId = id;
+                    balance = resultSet.getBigDecimal(2);
+                    statements.startCard(id, balance);
+                    cards++;
+                }
+                long transferId = resultSet.getLong(3);
+                if (resultSet.wasNull()) {
+                    return;
+                }
+                BigDecimal amount = resultSet.getBigDecimal(5);
+                long counterparty = resultSet.getLong(7);
+                Long counterpartyCardId = resultSet.wasNull() ? null : counterparty;
+                balance = balance.add(amount);
+                statements.entry(transferId, resultSet.getString(4), resultSet.getTimestamp(6).toLocalDateTime(),
+                        counterpartyCardId, amount, resultSet.getString(8));
+                entries++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() throws IOException {
+            if (cardId != null) {
+                statements.endCard(balance);
+            }
+        }
+    }
+
+    private record Pass(YearMonth month,
+                        Path directory,
+                        StatementCheckpoint checkpoint,
+                        List<StatementCheckpoint.Partition> partitions) {}
+
+    private record Totals(long cards, long entries, int skipped) {
+
+        static final Totals NONE = new Totals(0, 0, 0);
+        static final Totals SKIPPED = new Totals(0, 0, 1);
+
+        Totals plus(Totals other) {
+            return new Totals(cards + other.cards, entries + other.entries, skipped + other.skipped);
+        }
+    }
+
+    /**
+     * Outcome of one statement run; {@code cards} counts only the ranges written by this run.
+     */
+    public record Run(YearMonth month, int partitions, int skippedPartitions, long cards, long entries,
+                      long durationMs) {
+
+        public double cardsPerSecond() {
+            return durationMs == 0 ? cards * 1000.0 : cards * 1000.0 / durationMs;
+        }
+    }
+}
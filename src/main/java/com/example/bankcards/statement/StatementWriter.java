@@ -0,0 +1,179 @@
+package com.example.bankcards.statement;
+
+import com.example.bankcards.service.TransferExportService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Writes the statements of consecutive cards to one file, card by card, without holding a card's
+ * transfers in memory: {@link #startCard}, any number of {@link #entry} calls, then {@link #endCard}.
+ */
+abstract class StatementWriter {
+
+    static StatementWriter create(TransferExportService.Format format, Writer writer, JsonFactory jsonFactory,
+                                  YearMonth month) throws IOException {
+        return format == TransferExportService.Format.CSV
+                ? new CsvStatementWriter(writer, month)
+                : new NdjsonStatementWriter(jsonFactory.createGenerator(writer), month);
+    }
+
+    void start() throws IOException {
+    }
+
+    abstract void startCard(long cardId, BigDecimal openingBalance) throws IOException;
+
+    abstract void entry(long transferId, String entryType, LocalDateTime createdAt, Long counterpartyCardId,
+                        BigDecimal amount, String description) throws IOException;
+
+    abstract void endCard(BigDecimal closingBalance) throws IOException;
+
+    abstract void finish() throws IOException;
+
+    /**
+     * One row per record: {@code OPENING}, then {@code DEBIT}/{@code CREDIT} per ledger entry with a
+     * signed amount, then {@code CLOSING}.
+     */
+    private static final class CsvStatementWriter extends StatementWriter {
+
+        private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+        private final Writer writer;
+        private final String month;
+        private long cardId;
+
+        CsvStatementWriter(Writer writer, YearMonth month) {
+            this.writer = writer;
+            this.month = month.toString();
+        }
+
+        @Override
+        void start() throws IOException {
+            writer.write("cardId,month,record,transferId,createdAt,counterpartyCardId,amount,description\n");
+        }
+
+        @Override
+        void startCard(long cardId, BigDecimal openingBalance) throws IOException {
+            this.cardId = cardId;
+            balance("OPENING", openingBalance);
+        }
+
+        @Override
+        void entry(long transferId, String entryType, LocalDateTime createdAt, Long counterpartyCardId,
+                   BigDecimal amount, String description) throws IOException {
+            writer.write(Long.toString(cardId));
+            writer.write(',');
+            writer.write(month);
+            writer.write(',');
+            writer.write(entryType);
+            writer.write(',');
+            writer.write(Long.toString(transferId));
+            writer.write(',');
+            writer.write(createdAt.toString());
+            writer.write(',');
+            if (counterpartyCardId != null) {
+                writer.write(Long.toString(counterpartyCardId));
+            }
+            writer.write(',');
+            writer.write(amount.toPlainString());
+            writer.write(',');
+            if (description != null) {
+                writer.write(escape(description));
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        void endCard(BigDecimal closingBalance) throws IOException {
+            balance("CLOSING", closingBalance);
+        }
+
+        @Override
+        void finish() throws IOException {
+            writer.flush();
+        }
+
+        private void balance(String record, BigDecimal amount) throws IOException {
+            writer.write(Long.toString(cardId));
+            writer.write(',');
+            writer.write(month);
+            writer.write(',');
+            writer.write(record);
+            writer.write(",,,,");
+            writer.write(amount.toPlainString());
+            writer.write(",\n");
+        }
+
+        /**
+         * Quotes values with separators and prefixes values starting with {@code = + - @}, tab or CR
+         * with {@code '}, so spreadsheets do not evaluate them as formulas.
+         */
+        private static String escape(String value) {
+            boolean formula = !value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0;
+            if (!formula && value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + (formula ? "'" : "") + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    /**
+     * One JSON object per card; the transfers array is written as the entries arrive.
+     */
+    private static final class NdjsonStatementWriter extends StatementWriter {
+
+        private final JsonGenerator generator;
+        private final String month;
+
+        NdjsonStatementWriter(JsonGenerator generator, YearMonth month) {
+            this.generator = generator;
+            this.generator.setRootValueSeparator(null);
+            this.month = month.toString();
+        }
+
+        @Override
+        void startCard(long cardId, BigDecimal openingBalance) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("cardId", cardId);
+            generator.writeStringField("month", month);
+            generator.writeNumberField("openingBalance", openingBalance);
+            generator.writeArrayFieldStart("transfers");
+        }
+
+        @Override
+        void entry(long transferId, String entryType, LocalDateTime createdAt, Long counterpartyCardId,
+                   BigDecimal amount, String description) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("transferId", transferId);
+            generator.writeStringField("type", entryType);
+            generator.writeStringField("createdAt", createdAt.toString());
+            if (counterpartyCardId != null) {
+                generator.writeNumberField("counterpartyCardId", counterpartyCardId);
+            } else {
+                generator.writeNullField("counterpartyCardId");
+            }
+            generator.writeNumberField("amount", amount);
+            generator.writeStringField("description", description);
+            generator.writeEndObject();
+        }
+
+        @Override
+        void endCard(BigDecimal closingBalance) throws IOException {
+            generator.writeEndArray();
+            generator.writeNumberField("closingBalance", closingBalance);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        void finish() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.bankcards.stream;
+
+import com.example.bankcards.constants.ErrorMessages;
+import com.example.bankcards.constants.LogConstants;
+import com.example.bankcards.dto.TransferResponse;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.UnauthorizedException;
+import com.example.bankcards.helper.SecurityHelper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process fan-out of committed transfers to Server-Sent Event connections.
+ *
+ * <p>Publishers only offer events to per-connection bounded buffers and never block; a small
+ * dispatcher pool writes the buffers to the sockets, one drain task per connection at a time so
+ * events keep their order. A connection whose buffer overflows is a slow consumer and is closed,
+ * the client reconnects and reloads history. Idle connections cost a buffer and an emitter only;
+ * periodic heartbeats detect dead ones.
+ */
+@Component
+@Slf4j
+public class TransferStreamHub {
+
+    private static final Object HEARTBEAT = new Object();
+    private static final String EVENT_NAME = "transfer";
+
+    private final SecurityHelper securityHelper;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final int maxConnectionsPerUser;
+    private final ExecutorService dispatcher;
+
+    private final Map<Long, Deque<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter deliveredCounter;
+    private final Counter slowConsumerCounter;
+
+    public TransferStreamHub(SecurityHelper securityHelper,
+                             MeterRegistry meterRegistry,
+                             @Value("${transfer.stream.buffer-size:64}") int bufferSize,
+                             @Value("${transfer.stream.timeout-ms:1800000}") long timeoutMs,
+                             @Value("${transfer.stream.max-connections-per-user:5}") int maxConnectionsPerUser,
+                             @Value("${transfer.stream.dispatch-threads:4}") int dispatchThreads) {
+        this.securityHelper = securityHelper;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.timeoutMs = timeoutMs;
+        this.maxConnectionsPerUser = Math.max(1, maxConnectionsPerUser);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(Math.max(1, dispatchThreads), runnable -> {
+            Thread thread = new Thread(runnable, "transfer-stream-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("transfer.stream.connections", connections, AtomicInteger::get)
+                .register(meterRegistry);
+        this.deliveredCounter = Counter.builder("transfer.stream.delivered").register(meterRegistry);
+        this.slowConsumerCounter = Counter.builder("transfer.stream.disconnected.slow").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscriptions.values().forEach(deque -> deque.forEach(Subscription::close));
+        subscriptions.clear();
+    }
+
+    /**
+     * Opens a stream of the transfers of the given user. Only the user themself may subscribe.
+     */
+    public SseEmitter subscribe(Long userId, Authentication authentication) {
+        User currentUser = securityHelper.getCurrentUser(authentication);
+        if (!currentUser.getId().equals(userId)) {
+            throw new UnauthorizedException(ErrorMessages.UNAUTHORIZED_VIEW_USER_HISTORY);
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        register(userId, emitter);
+        log.debug("{} User {} subscribed, connections={}", LogConstants.TRANSFER_STREAM, userId, connections.get());
+        return emitter;
+    }
+
+    /**
+     * Delivers the transfer to the streams of the given users once the current transaction
+     * commits, or immediately when there is no transaction.
+     */
+    public void publishAfterCommit(Collection<Long> userIds, TransferResponse transfer) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(userIds, transfer);
+                }
+            });
+        } else {
+            publish(userIds, transfer);
+        }
+    }
+
+    public void publish(Collection<Long> userIds, TransferResponse transfer) {
+        for (Long userId : new LinkedHashSet<>(userIds)) {
+            Deque<Subscription> userSubscriptions = subscriptions.get(userId);
+            if (userSubscriptions != null) {
+                userSubscriptions.forEach(subscription -> subscription.offer(transfer));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${transfer.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscriptions.values().forEach(deque -> deque.forEach(subscription -> subscription.offer(HEARTBEAT)));
+    }
+
+    public int connectionCount() {
+        return connections.get();
+    }
+
+    void register(Long userId, SseEmitter emitter) {
+        Subscription subscription = new Subscription(userId, emitter);
+        emitter.onCompletion(subscription::remove);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+
+        Deque<Subscription> userSubscriptions = subscriptions.compute(userId, (id, deque) -> {
+            Deque<Subscription> target = deque != null ? deque : new ConcurrentLinkedDeque<>();
+            target.add(subscription);
+            return target;
+        });
+        connections.incrementAndGet();
+        while (userSubscriptions.size() > maxConnectionsPerUser) {
+            Subscription oldest = userSubscriptions.peekFirst();
+            if (oldest == null) {
+                break;
+            }
+            oldest.close();
+        }
+    }
+
+    private final class Subscription {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+
+        private Subscription(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void offer(Object event) {
+            if (removed.get()) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                slowConsumerCounter.increment();
+                log.info("{} Closing slow stream of user {}: {} events buffered",
+                        LogConstants.TRANSFER_STREAM, userId, bufferSize);
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    dispatcher.execute(this::drain);
+                } catch (RuntimeException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Object event;
+                while (!removed.get() && (event = buffer.poll()) != null) {
+                    send(event);
+                }
+            } finally {
+                draining.set(false);
+            }
+            if (!buffer.isEmpty() && !removed.get()) {
+                scheduleDrain();
+            }
+        }
+
+        private void send(Object event) {
+            try {
+                if (event == HEARTBEAT) {
+                    emitter.send(SseEmitter.event().comment("keepalive"));
+                } else {
+                    TransferResponse transfer = (TransferResponse) event;
+                    emitter.send(SseEmitter.event()
+                            .name(EVENT_NAME)
+                            .id(String.valueOf(transfer.id()))
+                            .data(transfer));
+                    deliveredCounter.increment();
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("{} Stream of user {} is gone: {}", LogConstants.TRANSFER_STREAM, userId, e.getMessage());
+                close();
+            }
+        }
+
+        void close() {
+            remove();
+            buffer.clear();
+            try {
+                emitter.complete();
+            } catch (RuntimeException e) {
+                log.debug("{} Failed to complete stream of user {}: {}", LogConstants.TRANSFER_STREAM, userId, e.getMessage());
+            }
+        }
+
+        void remove() {
+            if (!removed.compareAndSet(false, true)) {
+                return;
+            }
+            connections.decrementAndGet();
+            subscriptions.computeIfPresent(userId, (id, deque) -> {
+                deque.remove(this);
+                return deque.isEmpty() ? null : deque;
+            });
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.example.bankcards.validator;
 import com.example.bankcards.constants.BusinessConstants;
 import com.example.bankcards.constants.ErrorMessages;
 import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.fx.FxRateService;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.util.CardEncryptionUtil;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +15,7 @@ public class CardValidator {
 
     private final CardRepository cardRepository;
     private final CardEncryptionUtil cardEncryptionUtil;
+    private final FxRateService fxRateService;
 
     public void validateCardNumber(String cardNumber) {
         if (cardNumber == null || !cardNumber.matches(BusinessConstants.CARD_NUMBER_PATTERN)) {
@@ -27,4 +29,14 @@ public class CardValidator {
             throw new BadRequestException(ErrorMessages.CARD_NUMBER_EXISTS);
         }
     }
+
+    /**
+     * A card can only be opened in a currency there is an exchange rate for; {@code null} means
+     * the default currency.
+     */
+    public void validateCurrency(String currency) {
+        if (currency != null && !fxRateService.supports(currency)) {
+            throw new BadRequestException(ErrorMessages.CURRENCY_NOT_SUPPORTED);
+        }
+    }
 }
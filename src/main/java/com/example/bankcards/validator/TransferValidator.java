@@ -1,50 +1,102 @@
 package com.example.bankcards.validator;
 
-import com.example.bankcards.constants.ErrorMessages;
 import com.example.bankcards.entity.Card;
-import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.Transfer.FailureReason;
 import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.exception.InsufficientBalanceException;
+import com.example.bankcards.exception.ResourceNotFoundException;
 import com.example.bankcards.exception.UnauthorizedException;
+import com.example.bankcards.fx.FxRateService;
+import com.example.bankcards.limit.SpendingLimitService;
+import com.example.bankcards.money.Money;
+import com.example.bankcards.repository.projection.TransferCardView;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-
+/**
+ * Checks a transfer in stages, cheapest first, so most rejections cost no lock and at most one query:
+ * <ol>
+ *   <li>{@link #checkRequest} — the request alone;</li>
+ *   <li>{@link #checkCards} — both cards as read by one query, before they are locked;</li>
+ *   <li>{@link #checkLocked} — the locked cards, then the spending limits.</li>
+ * </ol>
+ * Each stage returns the {@link FailureReason} of a rejection, or {@code null} if the transfer may
+ * proceed; {@link #toException} turns a reason into the exception reported to the client.
+ */
 @Component
+@RequiredArgsConstructor
 public class TransferValidator {
 
-    public void validateTransfer(Card fromCard, Card toCard, BigDecimal amount, User currentUser) {
-        validateNotSameCard(fromCard, toCard);
-        validateCardOwnership(fromCard, currentUser, ErrorMessages.UNAUTHORIZED_TRANSFER_FROM);
-        validateCardOwnership(toCard, currentUser, ErrorMessages.UNAUTHORIZED_TRANSFER_TO);
-        validateCardActive(fromCard, true);
-        validateCardActive(toCard, false);
-        validateSufficientBalance(fromCard, amount);
+    private final SpendingLimitService spendingLimitService;
+    private final FxRateService fxRateService;
+
+    public FailureReason checkRequest(Long fromCardId, Long toCardId) {
+        return fromCardId.equals(toCardId) ? FailureReason.SAME_CARD : null;
     }
 
-    private void validateNotSameCard(Card fromCard, Card toCard) {
-        if (fromCard.getId().equals(toCard.getId())) {
-            throw new BadRequestException(ErrorMessages.TRANSFER_SAME_CARD);
+    /**
+     * @param fromCard the source card, {@code null} if it does not exist
+     * @param toCard the destination card, {@code null} if it does not exist
+     */
+    public FailureReason checkCards(TransferCardView fromCard, TransferCardView toCard, Long userId, Money amount) {
+        if (fromCard == null) {
+            return FailureReason.SOURCE_CARD_NOT_FOUND;
+        }
+        if (toCard == null) {
+            return FailureReason.DESTINATION_CARD_NOT_FOUND;
         }
+        return check(fromCard.ownerId(), fromCard.status(), fromCard.balance(), fromCard.currency(),
+                toCard.ownerId(), toCard.status(), toCard.currency(), userId, amount);
     }
 
-    private void validateCardOwnership(Card card, User user, String errorMessage) {
-        if (!card.getUser().getId().equals(user.getId())) {
-            throw new UnauthorizedException(errorMessage);
-        }
+    /**
+     * Repeats {@link #checkCards} on the locked cards, which may have changed since they were read,
+     * and reserves the amount against the limits of the source card.
+     */
+    public FailureReason checkLocked(Card fromCard, Card toCard, Long userId, Money amount) {
+        // Поля карт передаются напрямую: проверка под блокировкой идёт на каждый перевод и не должна аллоцировать
+        FailureReason reason = check(fromCard.getUser().getId(), fromCard.getStatus(), fromCard.getBalance(),
+                fromCard.getCurrency(), toCard.getUser().getId(), toCard.getStatus(), toCard.getCurrency(),
+                userId, amount);
+        return reason != null ? reason : spendingLimitService.tryReserve(fromCard, amount);
     }
 
-    private void validateCardActive(Card card, boolean isSourceCard) {
-        if (card.getStatus() != Card.CardStatus.ACTIVE) {
-            throw new BadRequestException(
-                isSourceCard ? ErrorMessages.SOURCE_CARD_NOT_ACTIVE : ErrorMessages.DESTINATION_CARD_NOT_ACTIVE
-            );
-        }
+    /**
+     * The exception a rejection is reported with: the same type and message as a failed check always
+     * had, but without a stack trace, since a rejection is an expected outcome.
+     */
+    public static RuntimeException toException(FailureReason reason) {
+        String message = reason.message();
+        return switch (reason) {
+            case SOURCE_CARD_NOT_FOUND, DESTINATION_CARD_NOT_FOUND -> new ResourceNotFoundException(message, false);
+            case NOT_SOURCE_CARD_OWNER, NOT_DESTINATION_CARD_OWNER -> new UnauthorizedException(message, false);
+            case INSUFFICIENT_BALANCE -> new InsufficientBalanceException(message, false);
+            default -> new BadRequestException(message, false);
+        };
     }
 
-    private void validateSufficientBalance(Card card, BigDecimal amount) {
-        if (card.getBalance().compareTo(amount) < 0) {
-            throw new InsufficientBalanceException(ErrorMessages.INSUFFICIENT_BALANCE);
+    private FailureReason check(Long fromOwnerId, Card.CardStatus fromStatus, Money fromBalance, String fromCurrency,
+                                Long toOwnerId, Card.CardStatus toStatus, String toCurrency,
+                                Long userId, Money amount) {
+        if (!fromOwnerId.equals(userId)) {
+            return FailureReason.NOT_SOURCE_CARD_OWNER;
+        }
+        if (!toOwnerId.equals(userId)) {
+            return FailureReason.NOT_DESTINATION_CARD_OWNER;
+        }
+        if (fromStatus != Card.CardStatus.ACTIVE) {
+            return FailureReason.SOURCE_CARD_NOT_ACTIVE;
+        }
+        if (toStatus != Card.CardStatus.ACTIVE) {
+            return FailureReason.DESTINATION_CARD_NOT_ACTIVE;
+        }
+        if (!fromCurrency.equals(toCurrency)
+                && (!fxRateService.supports(fromCurrency) || !fxRateService.supports(toCurrency))) {
+            return FailureReason.FX_RATE_UNAVAILABLE;
+        }
+        if (fromBalance.isLessThan(amount)) {
+            return FailureReason.INSUFFICIENT_BALANCE;
         }
+        return null;
     }
 }
@@ -0,0 +1,76 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.dto.CacheStatsResponse;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheInspectionServiceTest {
+
+    private CaffeineCacheManager cacheManager;
+    private NegativeLookupCache negativeLookupCache;
+    private CacheInspectionService cacheInspectionService;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CaffeineCacheManager("users", "cards");
+        cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(100).recordStats());
+        negativeLookupCache = new NegativeLookupCache(30, 100);
+        cacheInspectionService = new CacheInspectionService(cacheManager, negativeLookupCache);
+    }
+
+    @Test
+    void getAllCacheStats_IncludesSpringAndNegativeCaches() {
+        List<CacheStatsResponse> stats = cacheInspectionService.getAllCacheStats(5);
+
+        assertEquals(Set.of("users", "cards", NegativeLookupCache.MISSING_CARDS, NegativeLookupCache.MISSING_USERNAMES),
+                stats.stream().map(CacheStatsResponse::name).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void getCacheStats_ReportsSizeHitRatioAndTopKeys() {
+        cacheManager.getCache("cards").put(1L, "card");
+        cacheManager.getCache("cards").get(1L);
+        cacheManager.getCache("cards").get(2L);
+
+        CacheStatsResponse stats = cacheInspectionService.getCacheStats("cards", 5);
+
+        assertEquals(1, stats.size());
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+        assertEquals(0.5, stats.hitRatio());
+        assertEquals(List.of("1"), stats.topKeys());
+    }
+
+    @Test
+    void getCacheStats_ZeroTopKeys_ReturnsEmptyKeyList() {
+        cacheManager.getCache("cards").put(1L, "card");
+
+        assertTrue(cacheInspectionService.getCacheStats("cards", 0).topKeys().isEmpty());
+    }
+
+    @Test
+    void clearCache_RemovesAllEntries() {
+        cacheManager.getCache("users").put("testuser", "user");
+        negativeLookupCache.markCardMissing(7L);
+
+        cacheInspectionService.clearCache("users");
+        cacheInspectionService.clearCache(NegativeLookupCache.MISSING_CARDS);
+
+        assertNull(cacheManager.getCache("users").get("testuser"));
+        assertFalse(negativeLookupCache.isCardMissing(7L));
+    }
+
+    @Test
+    void clearCache_UnknownCache_ThrowsNotFound() {
+        assertThrows(ResourceNotFoundException.class, () -> cacheInspectionService.clearCache("unknown"));
+    }
+}
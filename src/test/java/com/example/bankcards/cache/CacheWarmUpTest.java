@@ -0,0 +1,125 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.projection.CardOwnerView;
+import com.example.bankcards.security.CustomUserDetailsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmUpTest {
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @InjectMocks
+    private CacheWarmUp cacheWarmUp;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cacheWarmUp, "enabled", true);
+        ReflectionTestUtils.setField(cacheWarmUp, "recentTransfers", 100);
+        ReflectionTestUtils.setField(cacheWarmUp, "maxUsers", 10);
+        ReflectionTestUtils.setField(cacheWarmUp, "parallelism", 2);
+        ReflectionTestUtils.setField(cacheWarmUp, "timeBudgetMs", 5000L);
+
+        testUser = User.builder()
+                .id(1L)
+                .username("testuser")
+                .build();
+    }
+
+    @Test
+    void warmUp_RecentTransfers_LoadsUserDetailsAndCards() {
+        Transfer transfer = Transfer.builder()
+                .id(10L)
+                .fromCardId(1L)
+                .toCardId(2L)
+                .amount(BigDecimal.TEN)
+                .build();
+        Card card = Card.builder().id(1L).user(testUser).build();
+
+        when(transferRepository.findLatest(any(Pageable.class))).thenReturn(List.of(transfer));
+        when(cardRepository.findOwnersByCardIds(anyCollection())).thenReturn(List.of(owner(1L, testUser)));
+        when(cardRepository.findByUserId(1L)).thenReturn(List.of(card));
+
+        int warmed = cacheWarmUp.warmUp();
+
+        assertEquals(1, warmed);
+        verify(userDetailsService).loadUserByUsername("testuser");
+        verify(cardRepository).findByIdAndUserId(1L, 1L);
+    }
+
+    @Test
+    void warmUp_MaxUsersReached_KeepsMostRecentlyActiveOwners() {
+        ReflectionTestUtils.setField(cacheWarmUp, "maxUsers", 1);
+        User otherUser = User.builder().id(2L).username("otheruser").build();
+        Transfer latest = Transfer.builder().id(11L).fromCardId(3L).toCardId(3L).build();
+        Transfer older = Transfer.builder().id(10L).fromCardId(1L).toCardId(1L).build();
+        when(transferRepository.findLatest(any(Pageable.class))).thenReturn(List.of(latest, older));
+        when(cardRepository.findOwnersByCardIds(anyCollection()))
+                .thenReturn(List.of(owner(1L, testUser), owner(3L, otherUser)));
+
+        assertEquals(1, cacheWarmUp.warmUp());
+        verify(userDetailsService).loadUserByUsername("otheruser");
+        verify(userDetailsService, never()).loadUserByUsername("testuser");
+    }
+
+    @Test
+    void warmUp_NoTransfers_SkipsOwnerLookup() {
+        when(transferRepository.findLatest(any(Pageable.class))).thenReturn(List.of());
+
+        assertEquals(0, cacheWarmUp.warmUp());
+        verify(cardRepository, never()).findOwnersByCardIds(anyCollection());
+    }
+
+    @Test
+    void warmUp_UserLoadFails_IsNotCountedAsWarmed() {
+        Transfer transfer = Transfer.builder().id(10L).fromCardId(1L).toCardId(2L).build();
+        when(transferRepository.findLatest(any(Pageable.class))).thenReturn(List.of(transfer));
+        when(cardRepository.findOwnersByCardIds(anyCollection())).thenReturn(List.of(owner(1L, testUser)));
+        when(userDetailsService.loadUserByUsername("testuser")).thenThrow(new RuntimeException("db down"));
+
+        assertEquals(0, cacheWarmUp.warmUp());
+    }
+
+    @Test
+    void run_Disabled_DoesNothing() {
+        ReflectionTestUtils.setField(cacheWarmUp, "enabled", false);
+
+        cacheWarmUp.run(new DefaultApplicationArguments());
+
+        verifyNoInteractions(transferRepository, cardRepository, userDetailsService);
+    }
+
+    private static CardOwnerView owner(Long cardId, User user) {
+        return new CardOwnerView(cardId, user.getId(), user.getUsername());
+    }
+}
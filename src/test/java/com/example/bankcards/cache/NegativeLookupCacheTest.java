@@ -0,0 +1,97 @@
+package com.example.bankcards.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NegativeLookupCacheTest {
+
+    private NegativeLookupCache negativeLookupCache;
+
+    @BeforeEach
+    void setUp() {
+        negativeLookupCache = new NegativeLookupCache(30, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void markCardMissing_ThenIsCardMissing_ReturnsTrue() {
+        assertFalse(negativeLookupCache.isCardMissing(1L));
+
+        negativeLookupCache.markCardMissing(1L);
+
+        assertTrue(negativeLookupCache.isCardMissing(1L));
+        assertFalse(negativeLookupCache.isCardMissing(2L));
+    }
+
+    @Test
+    void evictCard_RemovesMissingMarker() {
+        negativeLookupCache.markCardMissing(1L);
+
+        negativeLookupCache.evictCard(1L);
+
+        assertFalse(negativeLookupCache.isCardMissing(1L));
+    }
+
+    @Test
+    void evictCard_InTransaction_EvictsAgainAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        negativeLookupCache.evictCard(1L);
+        negativeLookupCache.markCardMissing(1L);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertFalse(negativeLookupCache.isCardMissing(1L));
+    }
+
+    @Test
+    void markUsernameMissing_ThenEvict_ReturnsFalse() {
+        negativeLookupCache.markUsernameMissing("ghost");
+        assertTrue(negativeLookupCache.isUsernameMissing("ghost"));
+
+        negativeLookupCache.evictUsername("ghost");
+
+        assertFalse(negativeLookupCache.isUsernameMissing("ghost"));
+    }
+
+    @Test
+    void nullKeys_AreIgnored() {
+        negativeLookupCache.markCardMissing(null);
+        negativeLookupCache.markUsernameMissing(null);
+
+        assertFalse(negativeLookupCache.isCardMissing(null));
+        assertFalse(negativeLookupCache.isUsernameMissing(null));
+    }
+
+    @Test
+    void stats_ReportsHitsAndEstimatedMemory() {
+        negativeLookupCache.markCardMissing(1L);
+        negativeLookupCache.isCardMissing(1L);
+        negativeLookupCache.isCardMissing(2L);
+
+        List<NegativeLookupCache.Stats> stats = negativeLookupCache.stats();
+        NegativeLookupCache.Stats cardStats = stats.stream()
+                .filter(s -> s.name().equals(NegativeLookupCache.MISSING_CARDS))
+                .findFirst()
+                .orElseThrow();
+
+        assertEquals(1, cardStats.entries());
+        assertEquals(1, cardStats.hits());
+        assertEquals(1, cardStats.misses());
+        assertEquals(0.5, cardStats.hitRate());
+        assertTrue(cardStats.estimatedMemoryBytes() > 0);
+        assertEquals(30, cardStats.staleWindowSeconds());
+    }
+}
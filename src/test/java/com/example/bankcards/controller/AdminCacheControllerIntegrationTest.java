@@ -0,0 +1,128 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.RoleRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class AdminCacheControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String adminToken;
+    private String userToken;
+
+    @BeforeEach
+    void setUp() {
+        Role adminRole = roleRepository.findByName(Role.RoleName.ROLE_ADMIN)
+                .orElseGet(() -> roleRepository.save(Role.builder().name(Role.RoleName.ROLE_ADMIN).build()));
+        Role userRole = roleRepository.findByName(Role.RoleName.ROLE_USER)
+                .orElseGet(() -> roleRepository.save(Role.builder().name(Role.RoleName.ROLE_USER).build()));
+
+        adminToken = tokenFor(saveUser("cacheadmin", adminRole), "ROLE_ADMIN");
+        userToken = tokenFor(saveUser("cacheuser", userRole), "ROLE_USER");
+    }
+
+    @Test
+    void getCaches_AsAdmin_ReturnsAllCaches() throws Exception {
+        mockMvc.perform(get("/api/admin/caches")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.name == 'users')]").exists())
+                .andExpect(jsonPath("$[?(@.name == 'missingCards')]").exists());
+    }
+
+    @Test
+    void getCaches_AsUser_Forbidden() throws Exception {
+        mockMvc.perform(get("/api/admin/caches")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void clearCache_AsAdmin_NoContent() throws Exception {
+        mockMvc.perform(delete("/api/admin/caches/{cacheName}", "cards")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void clearCache_UnknownCache_NotFound() throws Exception {
+        mockMvc.perform(delete("/api/admin/caches/{cacheName}", "unknown")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getCaches_WithoutAuth_Unauthorized() throws Exception {
+        mockMvc.perform(get("/api/admin/caches"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void cacheMetrics_AreRegisteredInMeterRegistry() {
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", "users").functionCounter());
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", "missingCards").functionCounter());
+    }
+
+    private User saveUser(String username, Role role) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password(passwordEncoder.encode("password"))
+                .fullName("Cache Test User")
+                .roles(Set.of(role))
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private String tokenFor(User user, String authority) {
+        return jwtUtil.generateToken(
+                org.springframework.security.core.userdetails.User.builder()
+                        .username(user.getUsername())
+                        .password(user.getPassword())
+                        .authorities(authority)
+                        .build()
+        );
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.bankcards.controller;
 
 import com.example.bankcards.dto.AuthResponse;
+import com.example.bankcards.dto.CardBalanceSlotsRequest;
+import com.example.bankcards.dto.CardLimitsRequest;
 import com.example.bankcards.dto.CardRequest;
 import com.example.bankcards.dto.RegisterRequest;
 import com.example.bankcards.entity.Role;
@@ -22,6 +24,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Set;
@@ -101,7 +104,7 @@ class CardControllerIntegrationTest {
 
     @Test
     void createCard_ValidRequest_ReturnsCreatedCard() throws Exception {
-        CardRequest request = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId);
+        CardRequest request = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId, null);
 
         mockMvc.perform(post("/api/cards")
                         .header("Authorization", "Bearer " + userToken)
@@ -115,7 +118,7 @@ class CardControllerIntegrationTest {
 
     @Test
     void createCard_InvalidCardNumber_ReturnsBadRequest() throws Exception {
-        CardRequest request = new CardRequest("123", LocalDate.now().plusYears(2), userId);
+        CardRequest request = new CardRequest("123", LocalDate.now().plusYears(2), userId, null);
 
         mockMvc.perform(post("/api/cards")
                         .header("Authorization", "Bearer " + userToken)
@@ -126,7 +129,7 @@ class CardControllerIntegrationTest {
 
     @Test
     void createCard_NoAuth_ReturnsUnauthorized() throws Exception {
-        CardRequest request = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId);
+        CardRequest request = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId, null);
 
         mockMvc.perform(post("/api/cards")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -136,7 +139,7 @@ class CardControllerIntegrationTest {
 
     @Test
     void getCardById_ExistingCard_ReturnsCard() throws Exception {
-        CardRequest request = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId);
+        CardRequest request = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId, null);
 
         MvcResult createResult = mockMvc.perform(post("/api/cards")
                         .header("Authorization", "Bearer " + userToken)
@@ -161,16 +164,43 @@ class CardControllerIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getCardBalance_NewCard_ReturnsOpeningBalanceAndVersionZero() throws Exception {
+        CardRequest request = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId, null);
+
+        MvcResult createResult = mockMvc.perform(post("/api/cards")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andReturn();
+        Long cardId = objectMapper.readTree(createResult.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(get("/api/cards/" + cardId + "/balance")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cardId").value(cardId))
+                .andExpect(jsonPath("$.balance").value(0.00))
+                .andExpect(jsonPath("$.currency").value("RUB"))
+                .andExpect(jsonPath("$.version").value(0));
+    }
+
+    @Test
+    void getCardBalance_NonExistingCard_ReturnsNotFound() throws Exception {
+        mockMvc.perform(get("/api/cards/999999/balance")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void getUserCards_ReturnsUserCards() throws Exception {
-        CardRequest request1 = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId);
+        CardRequest request1 = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId, null);
 
         mockMvc.perform(post("/api/cards")
                 .header("Authorization", "Bearer " + userToken)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request1)));
 
-        CardRequest request2 = new CardRequest("9876543210987654", LocalDate.now().plusYears(3), userId);
+        CardRequest request2 = new CardRequest("9876543210987654", LocalDate.now().plusYears(3), userId, null);
 
         mockMvc.perform(post("/api/cards")
                 .header("Authorization", "Bearer " + userToken)
@@ -186,7 +216,7 @@ class CardControllerIntegrationTest {
 
     @Test
     void blockCard_ExistingCard_ReturnsSuccess() throws Exception {
-        CardRequest request = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId);
+        CardRequest request = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId, null);
 
         MvcResult createResult = mockMvc.perform(post("/api/cards")
                         .header("Authorization", "Bearer " + userToken)
@@ -216,7 +246,7 @@ class CardControllerIntegrationTest {
 
     @Test
     void activateCard_AsAdmin_Success() throws Exception {
-        CardRequest request = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId);
+        CardRequest request = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId, null);
 
         MvcResult createResult = mockMvc.perform(post("/api/cards")
                         .header("Authorization", "Bearer " + userToken)
@@ -243,7 +273,7 @@ class CardControllerIntegrationTest {
 
     @Test
     void activateCard_AsRegularUser_Forbidden() throws Exception {
-        CardRequest request = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId);
+        CardRequest request = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId, null);
 
         MvcResult createResult = mockMvc.perform(post("/api/cards")
                         .header("Authorization", "Bearer " + userToken)
@@ -266,9 +296,66 @@ class CardControllerIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void updateCardLimits_AsAdmin_Success() throws Exception {
+        CardRequest request = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId, null);
+        MvcResult createResult = mockMvc.perform(post("/api/cards")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andReturn();
+        Long cardId = objectMapper.readTree(createResult.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(put("/api/cards/" + cardId + "/limits")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CardLimitsRequest(new BigDecimal("500.00"), null))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dailyLimit").value(500.00))
+                .andExpect(jsonPath("$.transactionLimit").doesNotExist())
+                .andExpect(jsonPath("$.spentLast24h").value(0));
+
+        mockMvc.perform(get("/api/cards/" + cardId + "/limits")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dailyLimit").value(500.00));
+    }
+
+    @Test
+    void updateBalanceSlots_AsAdmin_Success() throws Exception {
+        CardRequest request = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId, null);
+        MvcResult createResult = mockMvc.perform(post("/api/cards")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andReturn();
+        Long cardId = objectMapper.readTree(createResult.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(put("/api/cards/" + cardId + "/balance-slots")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CardBalanceSlotsRequest(8))))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(put("/api/cards/" + cardId + "/balance-slots")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CardBalanceSlotsRequest(0))))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(put("/api/cards/" + cardId + "/balance-slots")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CardBalanceSlotsRequest(8))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cardId").value(cardId))
+                .andExpect(jsonPath("$.slots").value(8));
+    }
+
     @Test
     void deleteCard_AsAdmin_Success() throws Exception {
-        CardRequest request = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId);
+        CardRequest request = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId, null);
 
         MvcResult createResult = mockMvc.perform(post("/api/cards")
                         .header("Authorization", "Bearer " + userToken)
@@ -290,7 +377,7 @@ class CardControllerIntegrationTest {
 
     @Test
     void deleteCard_AsRegularUser_Forbidden() throws Exception {
-        CardRequest request = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId);
+        CardRequest request = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId, null);
 
         MvcResult createResult = mockMvc.perform(post("/api/cards")
                         .header("Authorization", "Bearer " + userToken)
@@ -1,14 +1,25 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.constants.ErrorMessages;
 import com.example.bankcards.dto.AuthResponse;
 import com.example.bankcards.dto.CardRequest;
+import com.example.bankcards.dto.RecurringTransferRequest;
 import com.example.bankcards.dto.RegisterRequest;
+import com.example.bankcards.dto.ScheduledTransferRequest;
 import com.example.bankcards.dto.TransferRequest;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.FxRate;
+import com.example.bankcards.entity.LedgerEntry;
+import com.example.bankcards.entity.RecurringTransferRule;
 import com.example.bankcards.entity.Role;
+import com.example.bankcards.fx.FxRateService;
+import com.example.bankcards.money.Money;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.FxRateRepository;
+import com.example.bankcards.repository.LedgerEntryRepository;
 import com.example.bankcards.repository.RoleRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,10 +34,20 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -48,6 +69,18 @@ class TransferControllerIntegrationTest {
     @Autowired
     private CardRepository cardRepository;
 
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private FxRateRepository fxRateRepository;
+
+    @Autowired
+    private FxRateService fxRateService;
+
+    @Autowired
+    private EntityManager entityManager;
+
     private String userToken;
     private Long userId;
     private Long fromCardId;
@@ -83,7 +116,7 @@ class TransferControllerIntegrationTest {
         userToken = authResponse.token();
         userId = authResponse.id();
 
-        CardRequest card1Request = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId);
+        CardRequest card1Request = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), userId, null);
 
         MvcResult card1Result = mockMvc.perform(post("/api/cards")
                         .header("Authorization", "Bearer " + userToken)
@@ -94,7 +127,7 @@ class TransferControllerIntegrationTest {
         fromCardId = objectMapper.readTree(card1Result.getResponse().getContentAsString())
                 .get("id").asLong();
 
-        CardRequest card2Request = new CardRequest("9876543210987654", LocalDate.now().plusYears(2), userId);
+        CardRequest card2Request = new CardRequest("9876543210987654", LocalDate.now().plusYears(2), userId, null);
 
         MvcResult card2Result = mockMvc.perform(post("/api/cards")
                         .header("Authorization", "Bearer " + userToken)
@@ -106,17 +139,19 @@ class TransferControllerIntegrationTest {
                 .get("id").asLong();
 
         Card fromCard = cardRepository.findById(fromCardId).orElseThrow();
-        fromCard.setBalance(new BigDecimal("1000.00"));
-        cardRepository.save(fromCard);
+        fromCard.setOpeningBalance(new BigDecimal("1000.00"));
+        cardRepository.saveAndFlush(fromCard);
+        entityManager.refresh(fromCard);
 
         Card toCard = cardRepository.findById(toCardId).orElseThrow();
-        toCard.setBalance(new BigDecimal("1000.00"));
-        cardRepository.save(toCard);
+        toCard.setOpeningBalance(new BigDecimal("1000.00"));
+        cardRepository.saveAndFlush(toCard);
+        entityManager.refresh(toCard);
     }
 
     @Test
     void transfer_ValidRequest_ReturnsSuccess() throws Exception {
-        TransferRequest request = new TransferRequest(fromCardId, toCardId, new BigDecimal("100.00"), "Test transfer");
+        TransferRequest request = new TransferRequest(fromCardId, toCardId, Money.parse("100.00"), "Test transfer");
 
         mockMvc.perform(post("/api/transfers")
                         .header("Authorization", "Bearer " + userToken)
@@ -130,9 +165,130 @@ class TransferControllerIntegrationTest {
                 .andExpect(jsonPath("$.status").value("SUCCESS"));
     }
 
+    @Test
+    void transfer_PostsBalancedLedgerEntries() throws Exception {
+        TransferRequest request = new TransferRequest(fromCardId, toCardId, Money.parse("100.00"), "Ledger transfer");
+
+        MvcResult result = mockMvc.perform(post("/api/transfers")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long transferId = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+
+        List<LedgerEntry> entries = ledgerEntryRepository.findByTransferId(transferId);
+        assertEquals(2, entries.size());
+        assertEquals(0, entries.stream().map(LedgerEntry::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add).signum());
+        assertEquals(2, ledgerEntryRepository.findCardIdsNeedingSnapshot(1, 10).size());
+
+        entityManager.flush();
+        entityManager.clear();
+
+        mockMvc.perform(get("/api/cards/" + fromCardId)
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(900.00));
+        mockMvc.perform(get("/api/cards/" + toCardId)
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(1100.00));
+    }
+
+    @Test
+    void transfer_ReturnsBalancesMatchingBalanceEndpoint() throws Exception {
+        TransferRequest request = new TransferRequest(fromCardId, toCardId, Money.parse("100.00"), "Balance transfer");
+
+        MvcResult result = mockMvc.perform(post("/api/transfers")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.fromCardBalance.cardId").value(fromCardId))
+                .andExpect(jsonPath("$.fromCardBalance.balance").value(900.00))
+                .andExpect(jsonPath("$.toCardBalance.cardId").value(toCardId))
+                .andExpect(jsonPath("$.toCardBalance.balance").value(1100.00))
+                .andReturn();
+        long fromVersion = objectMapper.readTree(result.getResponse().getContentAsString())
+                .get("fromCardBalance").get("version").asLong();
+        long toVersion = objectMapper.readTree(result.getResponse().getContentAsString())
+                .get("toCardBalance").get("version").asLong();
+
+        entityManager.flush();
+        entityManager.clear();
+
+        mockMvc.perform(get("/api/cards/" + fromCardId + "/balance")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(900.00))
+                .andExpect(jsonPath("$.currency").value("RUB"))
+                .andExpect(jsonPath("$.version").value(fromVersion));
+        mockMvc.perform(get("/api/cards/" + toCardId + "/balance")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(1100.00))
+                .andExpect(jsonPath("$.version").value(toVersion));
+    }
+
+    @Test
+    void transfer_CrossCurrency_CreditsConvertedAmountAndRecordsRate() throws Exception {
+        Card toCard = cardRepository.findById(toCardId).orElseThrow();
+        toCard.setCurrency("USD");
+        cardRepository.saveAndFlush(toCard);
+        fxRateRepository.saveAndFlush(FxRate.builder()
+                .currency("USD")
+                .rateToBase(new BigDecimal("90.00000000"))
+                .updatedAt(LocalDateTime.now())
+                .build());
+        fxRateService.refresh();
+        TransferRequest request = new TransferRequest(fromCardId, toCardId, Money.parse("900.00"), "To dollars");
+
+        MvcResult result = mockMvc.perform(post("/api/transfers")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.amount").value(900.00))
+                .andExpect(jsonPath("$.fxRate").value(0.01111111))
+                .andExpect(jsonPath("$.creditedAmount").value(10.00))
+                .andReturn();
+        Long transferId = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+
+        List<LedgerEntry> entries = ledgerEntryRepository.findByTransferId(transferId);
+        assertEquals(List.of(new BigDecimal("-900.00"), new BigDecimal("10.00")), entries.stream()
+                .map(LedgerEntry::getAmount)
+                .sorted()
+                .toList());
+
+        entityManager.flush();
+        entityManager.clear();
+
+        mockMvc.perform(get("/api/cards/" + toCardId)
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.currency").value("USD"))
+                .andExpect(jsonPath("$.balance").value(1010.00));
+    }
+
+    @Test
+    void transfer_CrossCurrencyWithoutRate_ReturnsBadRequest() throws Exception {
+        Card toCard = cardRepository.findById(toCardId).orElseThrow();
+        toCard.setCurrency("EUR");
+        cardRepository.saveAndFlush(toCard);
+        TransferRequest request = new TransferRequest(fromCardId, toCardId, Money.parse("100.00"), "No rate");
+
+        mockMvc.perform(post("/api/transfers")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessages.FX_RATE_UNAVAILABLE));
+    }
+
     @Test
     void transfer_SameCard_ReturnsBadRequest() throws Exception {
-        TransferRequest request = new TransferRequest(fromCardId, fromCardId, new BigDecimal("100.00"), "Invalid transfer");
+        TransferRequest request = new TransferRequest(fromCardId, fromCardId, Money.parse("100.00"), "Invalid transfer");
 
         mockMvc.perform(post("/api/transfers")
                         .header("Authorization", "Bearer " + userToken)
@@ -143,7 +299,7 @@ class TransferControllerIntegrationTest {
 
     @Test
     void transfer_InsufficientBalance_ReturnsBadRequest() throws Exception {
-        TransferRequest request = new TransferRequest(fromCardId, toCardId, new BigDecimal("100000.00"), "Too much money");
+        TransferRequest request = new TransferRequest(fromCardId, toCardId, Money.parse("100000.00"), "Too much money");
 
         mockMvc.perform(post("/api/transfers")
                         .header("Authorization", "Bearer " + userToken)
@@ -154,7 +310,7 @@ class TransferControllerIntegrationTest {
 
     @Test
     void transfer_NegativeAmount_ReturnsBadRequest() throws Exception {
-        TransferRequest request = new TransferRequest(fromCardId, toCardId, new BigDecimal("-100.00"), "Negative amount");
+        TransferRequest request = new TransferRequest(fromCardId, toCardId, Money.parse("-100.00"), "Negative amount");
 
         mockMvc.perform(post("/api/transfers")
                         .header("Authorization", "Bearer " + userToken)
@@ -163,9 +319,21 @@ class TransferControllerIntegrationTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void transfer_SubMinorAmount_ReturnsBadRequest() throws Exception {
+        for (String amount : new String[] {"0.005", "1000000.004"}) {
+            mockMvc.perform(post("/api/transfers")
+                            .header("Authorization", "Bearer " + userToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"fromCardId\":" + fromCardId + ",\"toCardId\":" + toCardId
+                                    + ",\"amount\":" + amount + "}"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     @Test
     void transfer_NoAuth_ReturnsUnauthorized() throws Exception {
-        TransferRequest request = new TransferRequest(fromCardId, toCardId, new BigDecimal("100.00"), "Unauthorized transfer");
+        TransferRequest request = new TransferRequest(fromCardId, toCardId, Money.parse("100.00"), "Unauthorized transfer");
 
         mockMvc.perform(post("/api/transfers")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -175,14 +343,14 @@ class TransferControllerIntegrationTest {
 
     @Test
     void getCardTransferHistory_ReturnsTransfers() throws Exception {
-        TransferRequest request = new TransferRequest(fromCardId, toCardId, new BigDecimal("50.00"), "First transfer");
+        TransferRequest request = new TransferRequest(fromCardId, toCardId, Money.parse("50.00"), "First transfer");
 
         mockMvc.perform(post("/api/transfers")
                 .header("Authorization", "Bearer " + userToken)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)));
 
-        TransferRequest request2 = new TransferRequest(fromCardId, toCardId, new BigDecimal("30.00"), "Second transfer");
+        TransferRequest request2 = new TransferRequest(fromCardId, toCardId, Money.parse("30.00"), "Second transfer");
 
         mockMvc.perform(post("/api/transfers")
                 .header("Authorization", "Bearer " + userToken)
@@ -198,7 +366,7 @@ class TransferControllerIntegrationTest {
 
     @Test
     void getUserTransferHistory_ReturnsTransfers() throws Exception {
-        TransferRequest request = new TransferRequest(fromCardId, toCardId, new BigDecimal("25.00"), "User transfer");
+        TransferRequest request = new TransferRequest(fromCardId, toCardId, Money.parse("25.00"), "User transfer");
 
         mockMvc.perform(post("/api/transfers")
                 .header("Authorization", "Bearer " + userToken)
@@ -212,6 +380,317 @@ class TransferControllerIntegrationTest {
                 .andExpect(jsonPath("$.content.length()").value(1));
     }
 
+    @Test
+    void getCardStats_ReadsDailyTotalsMaintainedByTransfers() throws Exception {
+        for (String amount : new String[]{"50.00", "30.00"}) {
+            mockMvc.perform(post("/api/transfers")
+                            .header("Authorization", "Bearer " + userToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    new TransferRequest(fromCardId, toCardId, Money.parse(amount), "Stats transfer"))))
+                    .andExpect(status().isCreated());
+        }
+        String today = LocalDate.now().toString();
+
+        mockMvc.perform(get("/api/cards/" + fromCardId + "/stats")
+                        .param("from", today)
+                        .param("to", today)
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalSent").value(80.00))
+                .andExpect(jsonPath("$.totalReceived").value(0))
+                .andExpect(jsonPath("$.sentCount").value(2))
+                .andExpect(jsonPath("$.days.length()").value(1));
+        mockMvc.perform(get("/api/cards/" + toCardId + "/stats")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalReceived").value(80.00))
+                .andExpect(jsonPath("$.receivedCount").value(2));
+    }
+
+    @Test
+    void getCardStats_RangeTooLong_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/cards/" + fromCardId + "/stats")
+                        .param("from", "2020-01-01")
+                        .param("to", "2022-01-01")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void transfer_SpendingLimits_RejectsTransfersOverLimit() throws Exception {
+        Card fromCard = cardRepository.findById(fromCardId).orElseThrow();
+        fromCard.setDailyLimit(new BigDecimal("100.00"));
+        fromCard.setTransactionLimit(new BigDecimal("80.00"));
+        cardRepository.saveAndFlush(fromCard);
+
+        mockMvc.perform(post("/api/transfers")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TransferRequest(fromCardId, toCardId, Money.parse("90.00"), "Too large"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessages.TRANSACTION_LIMIT_EXCEEDED));
+        mockMvc.perform(post("/api/transfers")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TransferRequest(fromCardId, toCardId, Money.parse("70.00"), "Within limit"))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/transfers")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new TransferRequest(fromCardId, toCardId, Money.parse("40.00"), "Over daily limit"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessages.DAILY_LIMIT_EXCEEDED));
+
+        mockMvc.perform(get("/api/cards/" + fromCardId + "/limits")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dailyLimit").value(100.00))
+                .andExpect(jsonPath("$.transactionLimit").value(80.00))
+                .andExpect(jsonPath("$.spentLast24h").value(70.00));
+    }
+
+    @Test
+    void updateCardLimits_AsRegularUser_Forbidden() throws Exception {
+        mockMvc.perform(put("/api/cards/" + fromCardId + "/limits")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"dailyLimit\": 1000000}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void getTransferById_OwnerSeesTransfer_OtherUserDoesNot() throws Exception {
+        TransferRequest request = new TransferRequest(fromCardId, toCardId, Money.parse("25.00"), "Lookup");
+        MvcResult created = mockMvc.perform(post("/api/transfers")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long transferId = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(get("/api/transfers/" + transferId)
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(transferId))
+                .andExpect(jsonPath("$.amount").value(25.00))
+                .andExpect(jsonPath("$.description").value("Lookup"));
+
+        RegisterRequest otherRequest = new RegisterRequest("otheruser", "otheruser@example.com", "password123", "Other User");
+        MvcResult other = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(otherRequest)))
+                .andReturn();
+        String otherToken = objectMapper.readValue(other.getResponse().getContentAsString(), AuthResponse.class).token();
+
+        mockMvc.perform(get("/api/transfers/" + transferId)
+                        .header("Authorization", "Bearer " + otherToken))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/transfers/999999")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void streamUserTransfers_OwnUser_StartsEventStream() throws Exception {
+        mockMvc.perform(get("/api/transfers/user/" + userId + "/stream")
+                        .header("Authorization", "Bearer " + userToken)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void streamUserTransfers_OtherUser_ReturnsUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/transfers/user/" + (userId + 1) + "/stream")
+                        .header("Authorization", "Bearer " + userToken)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void scheduleTransfer_ListAndCancel() throws Exception {
+        ScheduledTransferRequest request = new ScheduledTransferRequest(
+                fromCardId, toCardId, new BigDecimal("25.00"), "Rent", LocalDateTime.now().plusDays(1));
+
+        MvcResult result = mockMvc.perform(post("/api/transfers/scheduled")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andExpect(jsonPath("$.amount").value(25.00))
+                .andReturn();
+        long id = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(get("/api/transfers/scheduled")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(id));
+
+        mockMvc.perform(delete("/api/transfers/scheduled/" + id)
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/transfers/scheduled/" + id)
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+
+        mockMvc.perform(delete("/api/transfers/scheduled/" + id)
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessages.SCHEDULED_TRANSFER_NOT_CANCELLABLE));
+    }
+
+    @Test
+    void scheduleTransfer_PastExecutionTime_ReturnsBadRequest() throws Exception {
+        ScheduledTransferRequest request = new ScheduledTransferRequest(
+                fromCardId, toCardId, new BigDecimal("25.00"), null, LocalDateTime.now().minusMinutes(1));
+
+        mockMvc.perform(post("/api/transfers/scheduled")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getScheduledTransfer_NonExisting_ReturnsNotFound() throws Exception {
+        mockMvc.perform(get("/api/transfers/scheduled/999999")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void recurringTransfer_CreateListAndCancel() throws Exception {
+        LocalDateTime firstRunAt = LocalDateTime.now().plusDays(1).withNano(0);
+        RecurringTransferRequest request = new RecurringTransferRequest(fromCardId, toCardId, new BigDecimal("50.00"),
+                "Savings", RecurringTransferRule.Frequency.MONTHLY, firstRunAt, null);
+
+        MvcResult result = mockMvc.perform(post("/api/transfers/recurring")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("ACTIVE"))
+                .andExpect(jsonPath("$.frequency").value("MONTHLY"))
+                .andExpect(jsonPath("$.nextRunAt").value(firstRunAt.toString()))
+                .andReturn();
+        long id = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(get("/api/transfers/recurring")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(id));
+
+        mockMvc.perform(delete("/api/transfers/recurring/" + id)
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/transfers/recurring/" + id)
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+
+        mockMvc.perform(delete("/api/transfers/recurring/" + id)
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessages.RECURRING_TRANSFER_NOT_CANCELLABLE));
+    }
+
+    @Test
+    void recurringTransfer_EndBeforeStart_ReturnsBadRequest() throws Exception {
+        LocalDateTime firstRunAt = LocalDateTime.now().plusDays(7);
+        RecurringTransferRequest request = new RecurringTransferRequest(fromCardId, toCardId, new BigDecimal("50.00"),
+                null, RecurringTransferRule.Frequency.WEEKLY, firstRunAt, firstRunAt.minusDays(1));
+
+        mockMvc.perform(post("/api/transfers/recurring")
+                        .header("Authorization", "Bearer " + userToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessages.RECURRING_TRANSFER_END_BEFORE_START));
+    }
+
+    @Test
+    void exportCardTransferHistory_Csv_StreamsAttachment() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/transfers/card/" + fromCardId + "/export")
+                        .param("format", "csv")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"card-" + fromCardId + "-transfers.csv\""))
+                .andExpect(content().string(startsWith("id,fromCardId,toCardId,amount,fxRate,creditedAmount,status,createdAt,description\n")));
+    }
+
+    @Test
+    void exportCardTransferHistory_UnsupportedFormat_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/transfers/card/" + fromCardId + "/export")
+                        .param("format", "xml")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessages.UNSUPPORTED_EXPORT_FORMAT));
+    }
+
+    @Test
+    void exportCardTransferHistory_NonExistingCard_ReturnsNotFound() throws Exception {
+        mockMvc.perform(get("/api/transfers/card/999999/export")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void searchTransfers_FiltersByAmountAndDescription() throws Exception {
+        for (String amount : new String[] {"10.00", "20.00", "30.00"}) {
+            mockMvc.perform(post("/api/transfers")
+                            .header("Authorization", "Bearer " + userToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    new TransferRequest(fromCardId, toCardId, Money.parse(amount), "Rent " + amount))))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/api/transfers/search")
+                        .param("cardId", fromCardId.toString())
+                        .param("minAmount", "15")
+                        .param("description", "rent")
+                        .param("size", "1")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].amount").value(30.00))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+    }
+
+    @Test
+    void searchTransfers_InvalidCursor_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/transfers/search")
+                        .param("cursor", "not-a-cursor")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessages.INVALID_SEARCH_CURSOR));
+    }
+
+    @Test
+    void searchTransfers_AmountRangeInverted_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/transfers/search")
+                        .param("minAmount", "50")
+                        .param("maxAmount", "10")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ErrorMessages.SEARCH_AMOUNT_RANGE_INVALID));
+    }
+
     @Test
     void getCardTransferHistory_NonExistingCard_ReturnsNotFound() throws Exception {
         mockMvc.perform(get("/api/transfers/card/999999")
@@ -0,0 +1,169 @@
+package com.example.bankcards.fx;
+
+import com.example.bankcards.entity.FxRate;
+import com.example.bankcards.money.Money;
+import com.example.bankcards.repository.FxRateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures what currency conversion adds to a transfer: the same stream of amounts is credited
+ * once between cards of one currency, once across currencies through {@link FxRateService} and
+ * once dividing the two rates to the base currency on every transfer, as a conversion without a
+ * precomputed snapshot would. The snapshot path is measured a second time while another thread
+ * keeps reloading the rates, to show that swaps do not block or disturb conversions. Both
+ * conversions must agree, also while reloading; the {@code benchmark} measurement also logs
+ * nanoseconds and bytes allocated per transfer and checks that the snapshot path allocates less.
+ */
+@Slf4j(topic = "benchmark")
+class FxConversionBenchmarkTest {
+
+    private static final int AMOUNTS = 1024;
+    private static final int WARM_UP = 200_000;
+    private static final int ROUNDS = 2_000_000;
+    private static final BigDecimal USD_TO_BASE = new BigDecimal("90.00000000");
+    private static final Map<String, BigDecimal> RATES_TO_BASE = Map.of("RUB", BigDecimal.ONE, "USD", USD_TO_BASE);
+
+    private final Money[] amounts = new Money[AMOUNTS];
+
+    private FxRateService fxRateService;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < AMOUNTS; i++) {
+            amounts[i] = Money.parse((i % 900 + 1) + "." + (i % 10) + (i % 7));
+        }
+        FxRateRepository repository = mock(FxRateRepository.class);
+        when(repository.findAll()).thenReturn(List.of(FxRate.builder()
+                .currency("USD")
+                .rateToBase(USD_TO_BASE)
+                .updatedAt(LocalDateTime.now())
+                .build()));
+        fxRateService = new FxRateService(repository, new SimpleMeterRegistry(), false);
+        fxRateService.refresh();
+    }
+
+    @Test
+    void crossCurrencyTransfer_SnapshotMatchesPerTransferConversion() throws Exception {
+        for (int i = 0; i < AMOUNTS; i++) {
+            assertEquals(convertDecimal("RUB", "USD", amounts[i]),
+                    fxRateService.quote("RUB", "USD").convert(amounts[i]).minorUnits());
+        }
+
+        long expected = 0;
+        for (int i = 0; i < AMOUNTS * 16; i++) {
+            expected += convertDecimal("RUB", "USD", amounts[i % AMOUNTS]);
+        }
+        long[] converted = new long[1];
+        long refreshes = whileReloading(() -> {
+            for (int i = 0; i < AMOUNTS * 16; i++) {
+                converted[0] += fxRateService.quote("RUB", "USD").convert(amounts[i % AMOUNTS]).minorUnits();
+            }
+        });
+
+        assertEquals(expected, converted[0]);
+        assertTrue(refreshes > 0, "the snapshot was never reloaded while converting");
+    }
+
+    @Test
+    @Tag("benchmark")
+    void crossCurrencyTransfer_SnapshotConversionOverhead() throws Exception {
+        Result sameCurrency = measure(amount -> {
+            FxRateSnapshot.Rate rate = fxRateService.quote("RUB", "RUB");
+            return rate == null ? amount.minorUnits() : rate.convert(amount).minorUnits();
+        });
+
+        Result snapshot = measure(amount -> fxRateService.quote("RUB", "USD").convert(amount).minorUnits());
+
+        Result[] reloading = new Result[1];
+        long refreshes = whileReloading(() ->
+                reloading[0] = measure(amount -> fxRateService.quote("RUB", "USD").convert(amount).minorUnits()));
+
+        Result perTransfer = measure(amount -> convertDecimal("RUB", "USD", amount));
+
+        log.info("same currency: {} ns/transfer, {} bytes/transfer", sameCurrency.nanosPerOp(), sameCurrency.bytesPerOp());
+        log.info("snapshot: {} ns/transfer, {} bytes/transfer", snapshot.nanosPerOp(), snapshot.bytesPerOp());
+        log.info("snapshot, reloading: {} ns/transfer, {} bytes/transfer", reloading[0].nanosPerOp(), reloading[0].bytesPerOp());
+        log.info("BigDecimal per transfer: {} ns/transfer, {} bytes/transfer", perTransfer.nanosPerOp(), perTransfer.bytesPerOp());
+        log.info("snapshot reloads during measurement: {}", refreshes);
+
+        assertEquals(snapshot.checksum(), perTransfer.checksum());
+        assertEquals(reloading[0].checksum(), perTransfer.checksum());
+        assertTrue(snapshot.bytesPerOp() < perTransfer.bytesPerOp(),
+                "snapshot allocated " + snapshot.bytesPerOp() + " bytes per transfer vs " + perTransfer.bytesPerOp());
+    }
+
+    /**
+     * Runs the conversions while another thread keeps reloading the rates and returns how many
+     * times they were reloaded meanwhile.
+     */
+    private long whileReloading(Runnable conversions) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong refreshes = new AtomicLong();
+        Thread refresher = new Thread(() -> {
+            while (running.get()) {
+                fxRateService.refresh();
+                refreshes.incrementAndGet();
+            }
+        }, "fx-benchmark-refresher");
+        refresher.setDaemon(true);
+        refresher.start();
+        try {
+            // Ждём первой перезагрузки, чтобы конвертации точно шли вперемешку с заменой снимка
+            while (refreshes.get() == 0) {
+                Thread.onSpinWait();
+            }
+            conversions.run();
+        } finally {
+            running.set(false);
+            refresher.join();
+        }
+        return refreshes.get();
+    }
+
+    /**
+     * Cross rate divided out of the rates to the base currency for every transfer.
+     */
+    private static long convertDecimal(String fromCurrency, String toCurrency, Money amount) {
+        BigDecimal rate = RATES_TO_BASE.get(fromCurrency)
+                .divide(RATES_TO_BASE.get(toCurrency), FxRateSnapshot.RATE_SCALE, RoundingMode.HALF_UP);
+        return Money.of(amount.toBigDecimal().multiply(rate)).minorUnits();
+    }
+
+    private Result measure(ToLongFunction<Money> conversion) {
+        long checksum = 0;
+        for (int i = 0; i < WARM_UP; i++) {
+            checksum += conversion.applyAsLong(amounts[i % AMOUNTS]);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        checksum = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            checksum += conversion.applyAsLong(amounts[i % AMOUNTS]);
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Result((double) nanos / ROUNDS, (double) allocated / ROUNDS, checksum);
+    }
+
+    private record Result(double nanosPerOp, double bytesPerOp, long checksum) {}
+}
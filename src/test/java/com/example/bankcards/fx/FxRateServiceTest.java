@@ -0,0 +1,86 @@
+package com.example.bankcards.fx;
+
+import com.example.bankcards.constants.ErrorMessages;
+import com.example.bankcards.entity.FxRate;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.repository.FxRateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FxRateServiceTest {
+
+    @Mock
+    private FxRateRepository fxRateRepository;
+
+    private FxRateService fxRateService;
+
+    @BeforeEach
+    void setUp() {
+        fxRateService = new FxRateService(fxRateRepository, new SimpleMeterRegistry(), true);
+    }
+
+    @Test
+    void beforeFirstLoad_OnlyBaseCurrencyIsSupported() {
+        assertTrue(fxRateService.supports("RUB"));
+        assertFalse(fxRateService.supports("USD"));
+        assertNull(fxRateService.quote("RUB", "RUB"));
+    }
+
+    @Test
+    void refresh_SwapsInNewSnapshot() {
+        FxRateSnapshot initial = fxRateService.snapshot();
+        when(fxRateRepository.findAll()).thenReturn(List.of(rate("USD", "90.00000000")));
+
+        FxRateSnapshot loaded = fxRateService.refresh();
+
+        assertSame(loaded, fxRateService.snapshot());
+        assertFalse(initial.supports("USD"));
+        assertEquals(new BigDecimal("90.00000000"), fxRateService.quote("USD", "RUB").value());
+    }
+
+    @Test
+    void quote_NoRate_ThrowsBadRequest() {
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> fxRateService.quote("USD", "RUB"));
+
+        assertEquals(ErrorMessages.FX_RATE_UNAVAILABLE, exception.getMessage());
+    }
+
+    @Test
+    void scheduledRefresh_LoadFails_KeepsPreviousSnapshot() {
+        when(fxRateRepository.findAll())
+                .thenReturn(List.of(rate("USD", "90.00000000")))
+                .thenThrow(new IllegalStateException("Database is down"));
+        fxRateService.refresh();
+        FxRateSnapshot loaded = fxRateService.snapshot();
+
+        fxRateService.scheduledRefresh();
+
+        assertSame(loaded, fxRateService.snapshot());
+    }
+
+    private static FxRate rate(String currency, String rateToBase) {
+        return FxRate.builder()
+                .currency(currency)
+                .rateToBase(new BigDecimal(rateToBase))
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
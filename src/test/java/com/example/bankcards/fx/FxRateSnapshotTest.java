@@ -0,0 +1,62 @@
+package com.example.bankcards.fx;
+
+import com.example.bankcards.money.Money;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FxRateSnapshotTest {
+
+    private final FxRateSnapshot snapshot = FxRateSnapshot.of("RUB", Map.of(
+            "USD", new BigDecimal("90.00000000"),
+            "EUR", new BigDecimal("99.00000000"),
+            "XXX", BigDecimal.ZERO), LocalDateTime.now());
+
+    @Test
+    void of_BuildsCrossRatesAndAlwaysContainsBase() {
+        assertEquals(Set.of("RUB", "USD", "EUR"), snapshot.currencies());
+        assertEquals(new BigDecimal("90.00000000"), snapshot.rate("USD", "RUB").value());
+        assertEquals(new BigDecimal("0.01111111"), snapshot.rate("RUB", "USD").value());
+        assertEquals(new BigDecimal("1.10000000"), snapshot.rate("EUR", "USD").value());
+        assertEquals(110_000_000L, snapshot.rate("EUR", "USD").scaled());
+        assertTrue(FxRateSnapshot.of("RUB", Map.of(), LocalDateTime.now()).supports("RUB"));
+    }
+
+    @Test
+    void rate_SameOrUnknownCurrency_IsNull() {
+        assertNull(snapshot.rate("USD", "USD"));
+        assertNull(snapshot.rate("USD", "GBP"));
+        assertNull(snapshot.rate("GBP", "USD"));
+        assertFalse(snapshot.supports("XXX"));
+    }
+
+    @Test
+    void convert_RoundsHalfUpToMinorUnits() {
+        FxRateSnapshot.Rate toDollars = snapshot.rate("RUB", "USD");
+
+        assertEquals(Money.parse("10.00"), toDollars.convert(Money.parse("900.00")));
+        assertEquals(Money.parse("0.01"), toDollars.convert(Money.parse("0.46")));
+        assertEquals(Money.ZERO, toDollars.convert(Money.parse("0.44")));
+        assertEquals(Money.parse("-0.01"), toDollars.convert(Money.parse("-0.46")));
+        assertEquals(Money.parse("0.06"), snapshot.rate("EUR", "USD").convert(Money.parse("0.05")));
+        assertEquals(Money.parse("-0.06"), snapshot.rate("EUR", "USD").convert(Money.parse("-0.05")));
+        assertEquals(Money.parse("9000.00"), snapshot.rate("USD", "RUB").convert(Money.parse("100.00")));
+    }
+
+    @Test
+    void convert_ProductBeyondLong_MatchesBigDecimal() {
+        FxRateSnapshot.Rate rate = snapshot.rate("USD", "RUB");
+        Money amount = Money.ofMinor(5_000_000_000_000L);
+
+        assertEquals(Money.of(amount.toBigDecimal().multiply(rate.value())), rate.convert(amount));
+        assertEquals(Money.parse("4500000000000.00"), rate.convert(amount));
+    }
+}
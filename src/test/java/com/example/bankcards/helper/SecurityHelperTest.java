@@ -6,6 +6,7 @@ import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.ResourceNotFoundException;
 import com.example.bankcards.exception.UnauthorizedException;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.AuthenticatedUser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -22,6 +23,7 @@ import java.util.HashSet;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -92,6 +94,24 @@ class SecurityHelperTest {
         assertEquals(ErrorMessages.CURRENT_USER_NOT_FOUND, exception.getMessage());
     }
 
+    @Test
+    void getCurrentUserId_AuthenticatedUserPrincipal_SkipsRepository() {
+        when(authentication.getPrincipal()).thenReturn(
+                new AuthenticatedUser(1L, "testuser", "password", Collections.emptyList()));
+
+        assertEquals(1L, securityHelper.getCurrentUserId(authentication));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getCurrentUserId_OtherPrincipal_LooksUpUser() {
+        when(authentication.getPrincipal()).thenReturn("testuser");
+        when(authentication.getName()).thenReturn("testuser");
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        assertEquals(testUser.getId(), securityHelper.getCurrentUserId(authentication));
+    }
+
     @Test
     void validateCardOwnership_Success() {
         assertDoesNotThrow(() ->
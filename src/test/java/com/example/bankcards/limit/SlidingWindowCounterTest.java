@@ -0,0 +1,130 @@
+package com.example.bankcards.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowCounterTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+    private static final long START = 1_700_000_000_000L / DAY * DAY;
+
+    @Test
+    void sum_CountsAmountsInsideWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(DAY, 96, 4);
+
+        counter.add(1_000, START);
+        counter.add(2_500, START + 5 * HOUR);
+
+        assertEquals(3_500, counter.sum(START + 6 * HOUR));
+    }
+
+    @Test
+    void sum_ExpiresBucketsOlderThanWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(DAY, 96, 4);
+
+        counter.add(1_000, START);
+        counter.add(2_000, START + 12 * HOUR);
+
+        assertEquals(2_000, counter.sum(START + DAY + HOUR));
+        assertEquals(0, counter.sum(START + 2 * DAY));
+    }
+
+    @Test
+    void add_ReusedBucketStartsFromZero() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(DAY, 24, 1);
+
+        counter.add(1_000, START);
+        counter.add(300, START + DAY);
+
+        assertEquals(300, counter.sum(START + DAY));
+    }
+
+    @Test
+    void release_TakesBackReservedAmount() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(DAY, 96, 4);
+
+        counter.add(1_000, START);
+        counter.add(500, START);
+        counter.release(1_000, START);
+
+        assertEquals(500, counter.sum(START));
+    }
+
+    @Test
+    void release_ExpiredBucketIsIgnored() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(DAY, 24, 1);
+
+        counter.add(1_000, START);
+        counter.add(700, START + DAY);
+        counter.release(1_000, START);
+
+        assertEquals(700, counter.sum(START + DAY));
+    }
+
+    @Test
+    void add_StaleAmountDoesNotOverwriteNewerBucket() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(DAY, 24, 1);
+
+        counter.add(700, START + DAY);
+        counter.add(1_000, START);
+
+        assertEquals(700, counter.sum(START + DAY));
+    }
+
+    @Test
+    void add_ConcurrentWritersOnOneCounterLoseNothing() throws InterruptedException {
+        SlidingWindowCounter counter = new SlidingWindowCounter(DAY, 96, 4);
+        int threads = 8;
+        int perThread = 50_000;
+
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                for (int j = 0; j < perThread; j++) {
+                    counter.add(1, START);
+                }
+            });
+            workers[i].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals((long) threads * perThread, counter.sum(START));
+    }
+
+    /**
+     * Contention on the limit check hot path: many threads checking and reserving against a single
+     * card's counter. No reservation is lost.
+     */
+    @Test
+    void tryReserve_SingleCardContention_LosesNoReservation() throws InterruptedException {
+        SlidingWindowCounter counter = new SlidingWindowCounter(DAY, 96, 4);
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        int perThread = 200_000;
+        long limit = 1L << 40;
+
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                for (int j = 0; j < perThread; j++) {
+                    long now = START + j;
+                    if (counter.sum(now) + 100 <= limit) {
+                        counter.add(100, now);
+                    }
+                }
+            });
+            workers[i].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        long operations = (long) threads * perThread;
+        assertEquals(operations * 100, counter.sum(START + perThread));
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.bankcards.limit;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.helper.SecurityHelper;
+import com.example.bankcards.money.Money;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SpendingLimitServiceTest {
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private SecurityHelper securityHelper;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SpendingLimitService spendingLimitService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        spendingLimitService = new SpendingLimitService(transferRepository, cardRepository, securityHelper,
+                meterRegistry, 96, 4, 0.8, false, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void tryReserve_NoLimits_SkipsDatabase() {
+        Card card = card(null, null);
+
+        assertNull(spendingLimitService.tryReserve(card, Money.parse("5000.00")));
+
+        verifyNoInteractions(transferRepository);
+    }
+
+    @Test
+    void tryReserve_AboveTransactionLimit_Rejects() {
+        Card card = card(null, new BigDecimal("100.00"));
+
+        assertEquals(Transfer.FailureReason.TRANSACTION_LIMIT_EXCEEDED,
+                spendingLimitService.tryReserve(card, Money.parse("100.01")));
+        assertEquals(1.0, meterRegistry.counter("limits.rejected").count());
+    }
+
+    @Test
+    void tryReserve_FarBelowLimit_UsesCounterOnly() {
+        Card card = card(new BigDecimal("1000.00"), null);
+        when(transferRepository.findSentSince(eq(1L), any())).thenReturn(List.of());
+
+        for (int i = 0; i < 7; i++) {
+            assertNull(spendingLimitService.tryReserve(card, Money.parse("100.00")));
+        }
+
+        verify(transferRepository, times(1)).findSentSince(eq(1L), any());
+        verify(transferRepository, never()).sumSentSince(any(), any());
+    }
+
+    @Test
+    void tryReserve_NearLimit_DecidesFromDatabase() {
+        Card card = card(new BigDecimal("1000.00"), null);
+        when(transferRepository.findSentSince(eq(1L), any())).thenReturn(List.of(
+                sent(new BigDecimal("700.00"), LocalDateTime.now().minusHours(2))));
+        when(transferRepository.sumSentSince(eq(1L), any())).thenReturn(new BigDecimal("950.00"));
+
+        assertEquals(Transfer.FailureReason.DAILY_LIMIT_EXCEEDED,
+                spendingLimitService.tryReserve(card, Money.parse("100.00")));
+        assertEquals(1.0, meterRegistry.counter("limits.db.checks").count());
+    }
+
+    @Test
+    void tryReserve_DatabaseBelowCounter_Allows() {
+        Card card = card(new BigDecimal("1000.00"), null);
+        when(transferRepository.findSentSince(eq(1L), any())).thenReturn(List.of(
+                sent(new BigDecimal("900.00"), LocalDateTime.now().minusHours(1))));
+        when(transferRepository.sumSentSince(eq(1L), any())).thenReturn(new BigDecimal("400.00"));
+
+        assertNull(spendingLimitService.tryReserve(card, Money.parse("200.00")));
+    }
+
+    @Test
+    void tryReserve_RolledBackTransaction_ReleasesReservation() {
+        Card card = card(new BigDecimal("1000.00"), null);
+        when(transferRepository.findSentSince(eq(1L), any())).thenReturn(List.of());
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertNull(spendingLimitService.tryReserve(card, Money.parse("700.00")));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertNull(spendingLimitService.tryReserve(card, Money.parse("700.00")));
+
+        verify(transferRepository, never()).sumSentSince(any(), any());
+    }
+
+    @Test
+    void reconcile_RebuildsCountersFromDatabase() {
+        Card card = card(new BigDecimal("1000.00"), null);
+        when(transferRepository.findSentSinceFromLimitedCards(any())).thenReturn(List.of(
+                sent(new BigDecimal("300.00"), LocalDateTime.now().minusHours(3)),
+                sent(new BigDecimal("300.00"), LocalDateTime.now().minusMinutes(5))));
+        when(transferRepository.sumSentSince(eq(1L), any())).thenReturn(new BigDecimal("600.00"));
+
+        assertEquals(1, spendingLimitService.reconcile());
+        assertEquals(Transfer.FailureReason.DAILY_LIMIT_EXCEEDED,
+                spendingLimitService.tryReserve(card, Money.parse("500.00")));
+
+        verify(transferRepository, never()).findSentSince(any(), any());
+    }
+
+    @Test
+    void reconcile_ReservationCommittedWhileReading_IsKept() {
+        Card card = card(new BigDecimal("1000.00"), null);
+        when(transferRepository.findSentSince(eq(1L), any())).thenReturn(List.of());
+        List<TransactionSynchronization> synchronizations = reserveInTransaction(card, "700.00");
+        when(transferRepository.findSentSinceFromLimitedCards(any())).thenAnswer(invocation -> {
+            synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            return List.of(sent(new BigDecimal("100.00"), LocalDateTime.now().minusHours(1)));
+        });
+        when(transferRepository.sumSentSince(eq(1L), any())).thenReturn(new BigDecimal("800.00"));
+
+        spendingLimitService.reconcile();
+
+        assertEquals(Transfer.FailureReason.DAILY_LIMIT_EXCEEDED,
+                spendingLimitService.tryReserve(card, Money.parse("300.00")));
+        verify(transferRepository).sumSentSince(eq(1L), any());
+    }
+
+    @Test
+    void reconcile_OpenReservation_IsKeptAndReleasedOnRollback() {
+        Card card = card(new BigDecimal("1000.00"), null);
+        when(transferRepository.findSentSince(eq(1L), any())).thenReturn(List.of());
+        List<TransactionSynchronization> synchronizations = reserveInTransaction(card, "700.00");
+        when(transferRepository.findSentSinceFromLimitedCards(any())).thenReturn(List.of(
+                sent(new BigDecimal("100.00"), LocalDateTime.now().minusHours(1))));
+        when(transferRepository.sumSentSince(eq(1L), any())).thenReturn(new BigDecimal("100.00"));
+
+        spendingLimitService.reconcile();
+
+        assertNull(spendingLimitService.tryReserve(card, Money.parse("100.00")));
+        verify(transferRepository).sumSentSince(eq(1L), any());
+
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertNull(spendingLimitService.tryReserve(card, Money.parse("100.00")));
+        verify(transferRepository).sumSentSince(eq(1L), any());
+    }
+
+    private List<TransactionSynchronization> reserveInTransaction(Card card, String amount) {
+        TransactionSynchronizationManager.initSynchronization();
+        assertNull(spendingLimitService.tryReserve(card, Money.parse(amount)));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        return synchronizations;
+    }
+
+    private static Card card(BigDecimal dailyLimit, BigDecimal transactionLimit) {
+        return Card.builder()
+                .id(1L)
+                .status(Card.CardStatus.ACTIVE)
+                .dailyLimit(dailyLimit)
+                .transactionLimit(transactionLimit)
+                .build();
+    }
+
+    private static Transfer sent(BigDecimal amount, LocalDateTime createdAt) {
+        return Transfer.builder()
+                .fromCardId(1L)
+                .toCardId(2L)
+                .amount(amount)
+                .createdAt(createdAt)
+                .build();
+    }
+}
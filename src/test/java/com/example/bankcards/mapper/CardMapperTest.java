@@ -1,10 +1,14 @@
 package com.example.bankcards.mapper;
 
 import com.example.bankcards.constants.BusinessConstants;
+import com.example.bankcards.dto.CardBalanceResponse;
 import com.example.bankcards.dto.CardRequest;
 import com.example.bankcards.dto.CardResponse;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.money.Money;
+import com.example.bankcards.repository.projection.CardBalanceView;
+import com.example.bankcards.repository.projection.CardView;
 import com.example.bankcards.util.CardEncryptionUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,7 +17,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -51,7 +54,7 @@ class CardMapperTest {
                 .cardNumber("encrypted1234567890123456")
                 .expiryDate(LocalDate.of(2025, 12, 31))
                 .status(Card.CardStatus.ACTIVE)
-                .balance(BigDecimal.valueOf(1000.50))
+                .balance(Money.parse("1000.50"))
                 .user(testUser)
                 .createdAt(LocalDateTime.now())
                 .build();
@@ -67,7 +70,7 @@ class CardMapperTest {
         assertEquals("John Doe", response.ownerFullName());
         assertEquals(LocalDate.of(2025, 12, 31), response.expiryDate());
         assertEquals("ACTIVE", response.status());
-        assertEquals(BigDecimal.valueOf(1000.50), response.balance());
+        assertEquals(Money.parse("1000.50"), response.balance());
     }
 
     @Test
@@ -77,7 +80,7 @@ class CardMapperTest {
                 .cardNumber("encrypted9876543210987654")
                 .expiryDate(LocalDate.of(2026, 6, 30))
                 .status(Card.CardStatus.BLOCKED)
-                .balance(BigDecimal.ZERO)
+                .balance(Money.ZERO)
                 .user(testUser)
                 .createdAt(LocalDateTime.now())
                 .build();
@@ -94,14 +97,57 @@ class CardMapperTest {
 
     @Test
     void toResponse_WithNullCard() {
-        CardResponse response = cardMapper.toResponse(null);
+        CardResponse response = cardMapper.toResponse((Card) null);
 
         assertNull(response);
     }
 
+    @Test
+    void toResponse_FromView_MasksNumberAndUsesJoinedOwnerName() {
+        CardView view = new CardView(3L, "encrypted1111222233334444", "Projected Owner",
+                LocalDate.of(2027, 3, 31), Card.CardStatus.ACTIVE, Money.parse("42.10"), "RUB");
+
+        when(cardEncryptionUtil.decrypt("encrypted1111222233334444"))
+                .thenReturn("1111222233334444");
+
+        CardResponse response = cardMapper.toResponse(view);
+
+        assertEquals(3L, response.id());
+        assertEquals("**** **** **** 4444", response.cardNumber());
+        assertEquals("Projected Owner", response.ownerFullName());
+        assertEquals(LocalDate.of(2027, 3, 31), response.expiryDate());
+        assertEquals("ACTIVE", response.status());
+        assertEquals(Money.parse("42.10"), response.balance());
+    }
+
+    @Test
+    void toBalanceResponse_FromView() {
+        CardBalanceView view = new CardBalanceView(3L, 1L, Money.parse("42.10"), "USD", 17L);
+
+        CardBalanceResponse response = cardMapper.toBalanceResponse(view);
+
+        assertEquals(new CardBalanceResponse(3L, Money.parse("42.10"), "USD", 17L), response);
+        assertNull(cardMapper.toBalanceResponse((CardBalanceView) null));
+    }
+
+    @Test
+    void toBalanceResponse_FromCardUsesInMemoryBalance() {
+        Card card = Card.builder()
+                .id(4L)
+                .status(Card.CardStatus.ACTIVE)
+                .balance(Money.parse("900.00"))
+                .user(testUser)
+                .build();
+
+        CardBalanceResponse response = cardMapper.toBalanceResponse(card, 21L);
+
+        assertEquals(new CardBalanceResponse(4L, Money.parse("900.00"), BusinessConstants.DEFAULT_CURRENCY, 21L),
+                response);
+    }
+
     @Test
     void toEntity_Success() {
-        CardRequest request = new CardRequest("1234567890123456", LocalDate.of(2025, 12, 31), 1L);
+        CardRequest request = new CardRequest("1234567890123456", LocalDate.of(2025, 12, 31), 1L, null);
 
         when(cardEncryptionUtil.encrypt("1234567890123456"))
                 .thenReturn("encrypted1234567890123456");
@@ -114,7 +160,7 @@ class CardMapperTest {
         assertEquals("encrypted1234567890123456", card.getCardNumber());
         assertEquals(LocalDate.of(2025, 12, 31), card.getExpiryDate());
         assertEquals(Card.CardStatus.ACTIVE, card.getStatus());
-        assertEquals(BusinessConstants.INITIAL_CARD_BALANCE, card.getBalance());
+        assertEquals(Money.of(BusinessConstants.INITIAL_CARD_BALANCE), card.getBalance());
         assertEquals(testUser, card.getUser());
         assertNotNull(card.getCreatedAt());
         assertTrue(card.getCreatedAt().isAfter(beforeCreation));
@@ -123,7 +169,7 @@ class CardMapperTest {
 
     @Test
     void toEntity_SetsDefaultActiveStatus() {
-        CardRequest request = new CardRequest("1234567890123456", LocalDate.of(2025, 12, 31), 1L);
+        CardRequest request = new CardRequest("1234567890123456", LocalDate.of(2025, 12, 31), 1L, null);
 
         when(cardEncryptionUtil.encrypt(anyString()))
                 .thenReturn("encrypted");
@@ -136,7 +182,7 @@ class CardMapperTest {
 
     @Test
     void toEntity_SetsInitialBalanceToZero() {
-        CardRequest request = new CardRequest("1234567890123456", LocalDate.of(2025, 12, 31), 1L);
+        CardRequest request = new CardRequest("1234567890123456", LocalDate.of(2025, 12, 31), 1L, null);
 
         when(cardEncryptionUtil.encrypt(anyString()))
                 .thenReturn("encrypted");
@@ -144,7 +190,7 @@ class CardMapperTest {
         Card card = cardMapper.toEntity(request, testUser);
 
         assertNotNull(card);
-        assertEquals(BigDecimal.ZERO, card.getBalance());
+        assertEquals(Money.ZERO, card.getBalance());
     }
 
     @Test
@@ -156,7 +202,7 @@ class CardMapperTest {
 
     @Test
     void toEntity_EncryptsCardNumber() {
-        CardRequest request = new CardRequest("9876543210123456", LocalDate.of(2025, 12, 31), 1L);
+        CardRequest request = new CardRequest("9876543210123456", LocalDate.of(2025, 12, 31), 1L, null);
 
         when(cardEncryptionUtil.encrypt("9876543210123456"))
                 .thenReturn("super_encrypted_9876543210123456");
@@ -1,8 +1,12 @@
 package com.example.bankcards.mapper;
 
+import com.example.bankcards.dto.CardBalanceResponse;
 import com.example.bankcards.dto.TransferRequest;
 import com.example.bankcards.dto.TransferResponse;
 import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.fx.FxRateSnapshot;
+import com.example.bankcards.money.Money;
+import com.example.bankcards.repository.projection.TransferView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -42,6 +46,27 @@ class TransferMapperTest {
         assertEquals("SUCCESS", response.status());
         assertEquals(LocalDateTime.of(2024, 1, 1, 12, 0), response.createdAt());
         assertEquals("Test transfer", response.description());
+        assertNull(response.fromCardBalance());
+        assertNull(response.toCardBalance());
+    }
+
+    @Test
+    void toResponse_WithBalances() {
+        Transfer transfer = Transfer.builder()
+                .id(1L)
+                .fromCardId(100L)
+                .toCardId(200L)
+                .amount(BigDecimal.valueOf(100))
+                .status(Transfer.TransferStatus.SUCCESS)
+                .createdAt(LocalDateTime.now())
+                .build();
+        CardBalanceResponse fromBalance = new CardBalanceResponse(100L, Money.parse("900"), "RUB", 11L);
+        CardBalanceResponse toBalance = new CardBalanceResponse(200L, Money.parse("600"), "RUB", 12L);
+
+        TransferResponse response = transferMapper.toResponse(transfer, fromBalance, toBalance);
+
+        assertEquals(fromBalance, response.fromCardBalance());
+        assertEquals(toBalance, response.toCardBalance());
     }
 
     @Test
@@ -64,14 +89,27 @@ class TransferMapperTest {
 
     @Test
     void toResponse_WithNullTransfer() {
-        TransferResponse response = transferMapper.toResponse(null);
+        TransferResponse response = transferMapper.toResponse((Transfer) null);
 
         assertNull(response);
     }
 
+    @Test
+    void toResponse_FromView() {
+        TransferView view = new TransferView(7L, 100L, 200L, new BigDecimal("12.34"),
+                Transfer.TransferStatus.FAILED, LocalDateTime.of(2024, 2, 1, 9, 30), "Declined",
+                Transfer.FailureReason.INSUFFICIENT_BALANCE, null, null);
+
+        TransferResponse response = transferMapper.toResponse(view);
+
+        assertEquals(new TransferResponse(7L, 100L, 200L, new BigDecimal("12.34"), "FAILED",
+                LocalDateTime.of(2024, 2, 1, 9, 30), "Declined", "INSUFFICIENT_BALANCE", null, null,
+                null, null), response);
+    }
+
     @Test
     void toEntity_Success() {
-        TransferRequest request = new TransferRequest(100L, 200L, BigDecimal.valueOf(250.75), "Payment for services");
+        TransferRequest request = new TransferRequest(100L, 200L, Money.parse("250.75"), "Payment for services");
 
         Transfer transfer = transferMapper.toEntity(request);
 
@@ -84,9 +122,31 @@ class TransferMapperTest {
         assertEquals("Payment for services", transfer.getDescription());
     }
 
+    @Test
+    void toEntity_WithRate_RecordsRateAndCreditedAmount() {
+        TransferRequest request = new TransferRequest(100L, 200L, Money.parse("250.75"), null);
+        FxRateSnapshot.Rate rate = new FxRateSnapshot.Rate(new BigDecimal("0.01111111"), 1_111_111L);
+
+        Transfer transfer = transferMapper.toEntity(request, rate);
+
+        assertEquals(new BigDecimal("250.75"), transfer.getAmount());
+        assertEquals(new BigDecimal("0.01111111"), transfer.getFxRate());
+        assertEquals(new BigDecimal("2.79"), transfer.getCreditedAmount());
+        assertEquals(new BigDecimal("2.79"), transfer.destinationAmount());
+    }
+
+    @Test
+    void toEntity_WithoutRate_LeavesConversionEmpty() {
+        Transfer transfer = transferMapper.toEntity(new TransferRequest(100L, 200L, Money.parse("100"), null), null);
+
+        assertNull(transfer.getFxRate());
+        assertNull(transfer.getCreditedAmount());
+        assertEquals(new BigDecimal("100.00"), transfer.destinationAmount());
+    }
+
     @Test
     void toEntity_WithNullDescription() {
-        TransferRequest request = new TransferRequest(100L, 200L, BigDecimal.valueOf(100), null);
+        TransferRequest request = new TransferRequest(100L, 200L, Money.parse("100"), null);
 
         Transfer transfer = transferMapper.toEntity(request);
 
@@ -104,7 +164,7 @@ class TransferMapperTest {
 
     @Test
     void toEntity_SetsDefaultStatus() {
-        TransferRequest request = new TransferRequest(100L, 200L, BigDecimal.valueOf(100), null);
+        TransferRequest request = new TransferRequest(100L, 200L, Money.parse("100"), null);
 
         Transfer transfer = transferMapper.toEntity(request);
 
@@ -114,7 +174,7 @@ class TransferMapperTest {
 
     @Test
     void toEntity_SetsCreatedAtToCurrentTime() {
-        TransferRequest request = new TransferRequest(100L, 200L, BigDecimal.valueOf(100), null);
+        TransferRequest request = new TransferRequest(100L, 200L, Money.parse("100"), null);
 
         LocalDateTime beforeCreation = LocalDateTime.now().minusSeconds(1);
         Transfer transfer = transferMapper.toEntity(request);
@@ -0,0 +1,149 @@
+package com.example.bankcards.money;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.InsufficientBalanceException;
+import com.example.bankcards.fx.FxRateService;
+import com.example.bankcards.limit.SpendingLimitService;
+import com.example.bankcards.validator.TransferValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the validate-and-apply step of a transfer (balance check, then debit and credit of the two
+ * in-memory balances) over the same stream of amounts, once on {@link BigDecimal} as the validator
+ * and ledger did before and once through {@link TransferValidator} on {@link Money}. Amounts
+ * start out as request payloads would after deserialization. Both must end with the same
+ * balances; the {@code benchmark} measurement also logs bytes allocated and operations per
+ * second for both and checks that {@link Money} allocates less.
+ */
+@Slf4j(topic = "benchmark")
+class MoneyBenchmarkTest {
+
+    private static final int AMOUNTS = 1024;
+    private static final int WARM_UP = 200_000;
+    private static final int ROUNDS = 2_000_000;
+    private static final String OPENING = "10000000000.00";
+
+    private final BigDecimal[] decimalAmounts = new BigDecimal[AMOUNTS];
+    private final Money[] moneyAmounts = new Money[AMOUNTS];
+
+    private BigDecimal decimalFrom;
+    private BigDecimal decimalTo;
+    private User user;
+    private Card from;
+    private Card to;
+    private TransferValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < AMOUNTS; i++) {
+            String amount = (i % 900 + 1) + "." + (i % 10) + (i % 7);
+            decimalAmounts[i] = new BigDecimal(amount);
+            moneyAmounts[i] = Money.parse(amount);
+        }
+        user = User.builder().id(1L).build();
+        from = card(1L, user);
+        to = card(2L, user);
+        validator = new TransferValidator(new SpendingLimitService(null, null, null,
+                new SimpleMeterRegistry(), 96, 4, 0.8, false, false),
+                new FxRateService(null, new SimpleMeterRegistry(), false));
+        decimalFrom = new BigDecimal(OPENING);
+        decimalTo = new BigDecimal(OPENING);
+    }
+
+    @Test
+    void validateAndApply_MoneyMatchesBigDecimal() {
+        for (int i = 0; i < AMOUNTS * 4; i++) {
+            applyDecimal(decimalAmounts[i % AMOUNTS]);
+            applyMoney(validator, from, to, moneyAmounts[i % AMOUNTS], user);
+        }
+
+        assertEquals(Money.of(decimalFrom), from.getBalance());
+        assertEquals(Money.of(decimalTo), to.getBalance());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void validateAndApply_MoneyAllocatesLessThanBigDecimal() {
+        Result decimals = measure(() -> {
+            for (int i = 0; i < WARM_UP; i++) {
+                applyDecimal(decimalAmounts[i % AMOUNTS]);
+            }
+        }, () -> {
+            for (int i = 0; i < ROUNDS; i++) {
+                applyDecimal(decimalAmounts[i % AMOUNTS]);
+            }
+        });
+        Result money = measure(() -> {
+            for (int i = 0; i < WARM_UP; i++) {
+                applyMoney(validator, from, to, moneyAmounts[i % AMOUNTS], user);
+            }
+        }, () -> {
+            for (int i = 0; i < ROUNDS; i++) {
+                applyMoney(validator, from, to, moneyAmounts[i % AMOUNTS], user);
+            }
+        });
+
+        log.info("BigDecimal: {} bytes/transfer, {} transfers/s", decimals.bytesPerOp(), Math.round(decimals.opsPerSecond()));
+        log.info("Money: {} bytes/transfer, {} transfers/s", money.bytesPerOp(), Math.round(money.opsPerSecond()));
+
+        assertEquals(Money.of(decimalFrom), from.getBalance());
+        assertEquals(Money.of(decimalTo), to.getBalance());
+        assertTrue(money.bytesPerOp() < decimals.bytesPerOp(),
+                "Money allocated " + money.bytesPerOp() + " bytes per transfer vs " + decimals.bytesPerOp());
+    }
+
+    /**
+     * The former path: {@code compareTo} in the validator, {@code subtract} and {@code add} in the
+     * ledger posting.
+     */
+    private void applyDecimal(BigDecimal amount) {
+        if (decimalFrom.compareTo(amount) < 0) {
+            throw new InsufficientBalanceException("Insufficient balance");
+        }
+        decimalFrom = decimalFrom.subtract(amount);
+        decimalTo = decimalTo.add(amount);
+    }
+
+    private static void applyMoney(TransferValidator validator, Card from, Card to, Money amount, User user) {
+        Transfer.FailureReason reason = validator.checkLocked(from, to, user.getId(), amount);
+        if (reason != null) {
+            throw TransferValidator.toException(reason);
+        }
+        from.setBalance(from.getBalance().minus(amount));
+        to.setBalance(to.getBalance().plus(amount));
+    }
+
+    private static Result measure(Runnable warmUp, Runnable rounds) {
+        warmUp.run();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        rounds.run();
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Result((double) allocated / ROUNDS, ROUNDS * 1_000_000_000.0 / nanos);
+    }
+
+    private static Card card(Long id, User user) {
+        return Card.builder()
+                .id(id)
+                .user(user)
+                .status(Card.CardStatus.ACTIVE)
+                .balance(Money.parse(OPENING))
+                .build();
+    }
+
+    private record Result(double bytesPerOp, double opsPerSecond) {}
+}
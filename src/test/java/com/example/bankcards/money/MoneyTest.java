@@ -0,0 +1,95 @@
+package com.example.bankcards.money;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void parse_PlainDecimals_ReadsMinorUnits() {
+        assertEquals(100_000, Money.parse("1000").minorUnits());
+        assertEquals(100_050, Money.parse("1000.5").minorUnits());
+        assertEquals(100_025, Money.parse("1000.25").minorUnits());
+        assertEquals(-5, Money.parse("-0.05").minorUnits());
+        assertEquals(50, Money.parse(".5").minorUnits());
+        assertEquals(1, Money.parse("+0.01").minorUnits());
+    }
+
+    @Test
+    void parse_MoreDecimalsOrExponent_KeepsExactAmounts() {
+        assertEquals(Money.parse("0.12"), Money.parse("0.1200"));
+        assertEquals(Money.parse("1500.00"), Money.parse("1.5E3"));
+    }
+
+    @Test
+    void parse_SubMinorPrecision_Throws() {
+        assertThrows(ArithmeticException.class, () -> Money.parse("0.005"));
+        assertThrows(ArithmeticException.class, () -> Money.parse("1000000.004"));
+        assertThrows(ArithmeticException.class, () -> Money.parse("1.5E-3"));
+    }
+
+    @Test
+    void parse_NotANumber_Throws() {
+        assertThrows(NumberFormatException.class, () -> Money.parse("-"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("12a"));
+        assertThrows(NumberFormatException.class, () -> Money.parse(""));
+    }
+
+    @Test
+    void of_BigDecimal_MatchesParseAndConvertsBack() {
+        assertEquals(Money.parse("1000.50"), Money.of(BigDecimal.valueOf(1000.5)));
+        assertEquals(new BigDecimal("1000.50"), Money.parse("1000.5").toBigDecimal());
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1E30")));
+    }
+
+    @Test
+    void arithmetic_WorksOnMinorUnitsAndDetectsOverflow() {
+        Money balance = Money.parse("100.00");
+
+        assertEquals(Money.parse("99.99"), balance.minus(Money.parse("0.01")));
+        assertEquals(Money.parse("100.10"), balance.plus(Money.parse("0.10")));
+        assertEquals(Money.parse("-100.00"), balance.negate());
+        assertTrue(balance.isLessThan(Money.parse("100.01")));
+        assertTrue(balance.isGreaterThan(Money.ZERO));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)));
+    }
+
+    @Test
+    void toString_AlwaysTwoDecimals() {
+        assertEquals("1000.00", Money.parse("1000").toString());
+        assertEquals("0.05", Money.ofMinor(5).toString());
+        assertEquals("-0.05", Money.ofMinor(-5).toString());
+        assertEquals("-12.30", Money.parse("-12.3").toString());
+    }
+
+    @Test
+    void json_WritesBareNumberAndReadsNumbersAndStrings() throws Exception {
+        assertEquals("{\"balance\":1000.00}", objectMapper.writeValueAsString(Map.of("balance", Money.parse("1000"))));
+        assertEquals(Money.parse("1000.25"), objectMapper.readValue("1000.25", Money.class));
+        assertEquals(Money.parse("7.00"), objectMapper.readValue("7", Money.class));
+        assertEquals(Money.parse("7.10"), objectMapper.readValue("\"7.1\"", Money.class));
+        assertNull(objectMapper.readValue("null", Money.class));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("\"seven\"", Money.class));
+    }
+
+    @Test
+    void converter_MapsToTwoDecimalColumn() {
+        MoneyConverter converter = new MoneyConverter();
+
+        assertEquals(new BigDecimal("42.10"), converter.convertToDatabaseColumn(Money.parse("42.1")));
+        assertEquals(Money.parse("42.10"), converter.convertToEntityAttribute(new BigDecimal("42.1")));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.bankcards.outbox;
+
+import com.example.bankcards.entity.OutboxEvent;
+import com.example.bankcards.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OutboxRelayIntegrationTest {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryOutboxPublisher publisher;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        publisher.clear();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void relayPending_PublishesCommittedEventsOnce() {
+        recordEvents(3);
+
+        assertEquals(3, outboxRelay.relayPending());
+        assertEquals(0, outboxRelay.relayPending());
+
+        assertEquals(3, publisher.getPublished().size());
+        assertTrue(outboxEventRepository.findAll().stream().allMatch(event -> event.getPublishedAt() != null));
+        assertEquals(0.0, meterRegistry.get("outbox.relay.pending").gauge().value());
+    }
+
+    @Test
+    void relayPending_DeadLetteredEvent_IsLeftOutOfLag() {
+        recordEvents(1);
+        jdbcTemplate.update("UPDATE outbox SET attempts = 10, created_at = ?", LocalDateTime.now().minusHours(1));
+
+        assertEquals(0, outboxRelay.relayPending());
+
+        assertTrue(publisher.getPublished().isEmpty());
+        assertEquals(0.0, meterRegistry.get("outbox.relay.lag.seconds").gauge().value());
+        assertEquals(0.0, meterRegistry.get("outbox.relay.pending").gauge().value());
+        assertEquals(1.0, meterRegistry.get("outbox.relay.dead").gauge().value());
+    }
+
+    @Test
+    void relayPending_RolledBackTransaction_LeavesNoEvent() {
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            outboxService.record(OutboxEvent.EventType.CARD_BLOCKED, 1L,
+                    new CardStatusChangedEvent(1L, 1L, "BLOCKED", null));
+            throw new IllegalStateException("rollback");
+        }));
+
+        assertEquals(0, outboxRelay.relayPending());
+        assertTrue(publisher.getPublished().isEmpty());
+    }
+
+    @Test
+    void relayPending_ConcurrentRelays_PublishEachEventExactlyOnce() throws Exception {
+        recordEvents(450);
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Callable<Integer>> relays = List.of(
+                    outboxRelay::relayPending, outboxRelay::relayPending, outboxRelay::relayPending);
+            int published = 0;
+            for (Future<Integer> future : executor.invokeAll(relays)) {
+                published += future.get();
+            }
+            published += outboxRelay.relayPending();
+
+            assertEquals(450, published);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Map<Long, Long> publishCounts = publisher.getPublished().stream()
+                .collect(Collectors.groupingBy(OutboxEvent::getId, Collectors.counting()));
+        assertEquals(450, publishCounts.size());
+        assertTrue(publishCounts.values().stream().allMatch(count -> count == 1));
+    }
+
+    @Test
+    void record_WithoutTransaction_ThrowsException() {
+        assertThrows(Exception.class, () -> outboxService.record(OutboxEvent.EventType.CARD_ACTIVATED, 1L,
+                new CardStatusChangedEvent(1L, 1L, "ACTIVE", null)));
+    }
+
+    private void recordEvents(int count) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (long i = 1; i <= count; i++) {
+                outboxService.record(OutboxEvent.EventType.CARD_BLOCKED, i,
+                        new CardStatusChangedEvent(i, 1L, "BLOCKED", null));
+            }
+        });
+    }
+}
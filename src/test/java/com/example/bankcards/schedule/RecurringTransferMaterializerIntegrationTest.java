@@ -0,0 +1,167 @@
+package com.example.bankcards.schedule;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.RecurringTransferRule;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.RecurringTransferRuleRepository;
+import com.example.bankcards.repository.ScheduledTransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class RecurringTransferMaterializerIntegrationTest {
+
+    @Autowired
+    private RecurringTransferMaterializer materializer;
+
+    @Autowired
+    private RecurringTransferRuleRepository ruleRepository;
+
+    @Autowired
+    private ScheduledTransferRepository scheduledTransferRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Card fromCard;
+    private Card toCard;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        user = userRepository.save(User.builder()
+                .username("recurring-" + suffix)
+                .email("recurring-" + suffix + "@example.com")
+                .password("password")
+                .fullName("Recurring User")
+                .createdAt(LocalDateTime.now())
+                .build());
+        fromCard = cardRepository.save(card("recurring-" + suffix + "-from"));
+        toCard = cardRepository.save(card("recurring-" + suffix + "-to"));
+    }
+
+    @Test
+    void materialize_ManyDueRules_CreatesOneOccurrenceEachAndAdvancesRules() {
+        int count = 20_000;
+        LocalDateTime firstRunAt = LocalDateTime.now().withNano(0).minusMinutes(1);
+        insertRules(count, firstRunAt);
+
+        RecurringTransferMaterializer.Run run = materializer.materialize();
+
+        assertEquals(count, run.rules());
+        assertEquals(count, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM scheduled_transfers WHERE rule_id IS NOT NULL AND execute_at = ?",
+                Long.class, Timestamp.valueOf(firstRunAt)));
+        assertEquals(count / 2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM recurring_transfer_rules WHERE next_occurrence = 1 AND next_run_at = ?",
+                Long.class, Timestamp.valueOf(firstRunAt.plusWeeks(1))));
+        assertEquals(count / 2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM recurring_transfer_rules WHERE next_occurrence = 1 AND next_run_at = ?",
+                Long.class, Timestamp.valueOf(firstRunAt.plusMonths(1))));
+
+        assertEquals(0, materializer.materialize().rules());
+    }
+
+    @Test
+    void materialize_RuleEndedAfterOccurrence_IsCompleted() {
+        RecurringTransferRule rule = ruleRepository.save(RecurringTransferRule.builder()
+                .userId(user.getId())
+                .fromCardId(fromCard.getId())
+                .toCardId(toCard.getId())
+                .amount(new BigDecimal("10.00"))
+                .frequency(RecurringTransferRule.Frequency.WEEKLY)
+                .firstRunAt(LocalDateTime.now().minusMinutes(1))
+                .endAt(LocalDateTime.now().plusDays(1))
+                .nextRunAt(LocalDateTime.now().minusMinutes(1))
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        materializer.materialize();
+
+        RecurringTransferRule updated = ruleRepository.findById(rule.getId()).orElseThrow();
+        assertEquals(RecurringTransferRule.Status.COMPLETED, updated.getStatus());
+        assertEquals(1, scheduledTransferRepository.countByRuleId(rule.getId()));
+    }
+
+    @Test
+    void next_MonthlyFromMonthEnd_DoesNotDrift() {
+        RecurringTransferRule rule = rule(RecurringTransferRule.Frequency.MONTHLY, LocalDateTime.of(2025, 1, 31, 9, 0));
+
+        RecurringTransferMaterializer.Next february = RecurringTransferMaterializer.next(rule, LocalDateTime.of(2025, 1, 31, 9, 0));
+        rule.setNextOccurrence(february.occurrence());
+        RecurringTransferMaterializer.Next march = RecurringTransferMaterializer.next(rule, LocalDateTime.of(2025, 2, 28, 9, 0));
+
+        assertEquals(LocalDateTime.of(2025, 2, 28, 9, 0), february.runAt());
+        assertEquals(LocalDateTime.of(2025, 3, 31, 9, 0), march.runAt());
+        assertEquals(2, march.occurrence());
+    }
+
+    @Test
+    void next_MissedOccurrences_SkipsToFirstFutureOccurrence() {
+        RecurringTransferRule rule = rule(RecurringTransferRule.Frequency.WEEKLY, LocalDateTime.of(2025, 1, 1, 9, 0));
+
+        RecurringTransferMaterializer.Next next = RecurringTransferMaterializer.next(rule, LocalDateTime.of(2025, 2, 1, 0, 0));
+
+        assertEquals(LocalDateTime.of(2025, 2, 5, 9, 0), next.runAt());
+        assertEquals(5, next.occurrence());
+        assertEquals(RecurringTransferRule.Status.ACTIVE, next.status());
+    }
+
+    private void insertRules(int count, LocalDateTime firstRunAt) {
+        Timestamp first = Timestamp.valueOf(firstRunAt);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String frequency = i % 2 == 0 ? "WEEKLY" : "MONTHLY";
+            rows.add(new Object[] {user.getId(), fromCard.getId(), toCard.getId(), new BigDecimal("1.00"),
+                    frequency, first, first, 0, "ACTIVE", first});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO recurring_transfer_rules (user_id, from_card_id, to_card_id, amount, " +
+                "frequency, first_run_at, next_run_at, next_occurrence, status, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private static RecurringTransferRule rule(RecurringTransferRule.Frequency frequency, LocalDateTime firstRunAt) {
+        return RecurringTransferRule.builder()
+                .frequency(frequency)
+                .firstRunAt(firstRunAt)
+                .nextRunAt(firstRunAt)
+                .build();
+    }
+
+    private Card card(String number) {
+        return Card.builder()
+                .cardNumber(number)
+                .expiryDate(LocalDate.now().plusYears(2))
+                .status(Card.CardStatus.ACTIVE)
+                .openingBalance(new BigDecimal("1000.00"))
+                .user(user)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.bankcards.schedule;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.ScheduledTransfer;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import com.example.bankcards.repository.ScheduledTransferRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.LedgerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest(properties = {
+        "transfer.scheduled.enabled=true",
+        // фоновый опрос не срабатывает, тесты забирают переводы через claimDue() сами
+        "transfer.scheduled.poll-interval-ms=3600000",
+        "transfer.scheduled.tick-ms=20",
+        "transfer.scheduled.execute-batch-size=25"
+})
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ScheduledTransferDispatcherIntegrationTest {
+
+    private static final int CARD_PAIRS = 8;
+
+    @Autowired
+    private ScheduledTransferRepository scheduledTransferRepository;
+
+    @Autowired
+    private ScheduledTransferDispatcher dispatcher;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @MockitoSpyBean
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+    private List<Card> cards;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        user = userRepository.save(User.builder()
+                .username("sched-" + suffix)
+                .email("sched-" + suffix + "@example.com")
+                .password("password")
+                .fullName("Scheduled User")
+                .createdAt(LocalDateTime.now())
+                .build());
+        cards = new ArrayList<>();
+        for (int i = 0; i < CARD_PAIRS * 2; i++) {
+            cards.add(cardRepository.save(Card.builder()
+                    .cardNumber("sched-" + suffix + "-" + i)
+                    .expiryDate(LocalDate.now().plusYears(2))
+                    .status(Card.CardStatus.ACTIVE)
+                    .openingBalance(new BigDecimal("10000.00"))
+                    .user(user)
+                    .createdAt(LocalDateTime.now())
+                    .build()));
+        }
+    }
+
+    /**
+     * Transfers scheduled for the same instant are executed exactly once and never early.
+     */
+    @Test
+    void dispatcher_ManyTransfersDueAtSameTime_ExecutesEachOnceOnTime() throws InterruptedException {
+        int count = 1_000;
+        LocalDateTime executeAt = LocalDateTime.now().plusSeconds(2);
+        List<ScheduledTransfer> scheduled = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            scheduled.add(scheduledTransfer(cards.get(i % CARD_PAIRS), cards.get(CARD_PAIRS + i % CARD_PAIRS), executeAt));
+        }
+        List<Long> ids = scheduledTransferRepository.saveAll(scheduled).stream().map(ScheduledTransfer::getId).toList();
+
+        assertEquals(count, dispatcher.claimDue());
+        List<ScheduledTransfer> done = awaitFinished(ids, Duration.ofSeconds(60));
+
+        for (ScheduledTransfer transfer : done) {
+            assertEquals(ScheduledTransfer.Status.COMPLETED, transfer.getStatus(), transfer.getFailureReason());
+            assertNotNull(transfer.getTransferId());
+            assertFalse(transfer.getExecutedAt().isBefore(transfer.getExecuteAt()), "executed early");
+        }
+
+        assertEquals(count, done.stream().map(ScheduledTransfer::getTransferId).distinct().count());
+        BigDecimal perSource = new BigDecimal(count / CARD_PAIRS).setScale(2);
+        assertEquals(new BigDecimal("10000.00").subtract(perSource), ledgerService.getBalance(cards.get(0).getId()));
+        assertEquals(new BigDecimal("10000.00").add(perSource), ledgerService.getBalance(cards.get(CARD_PAIRS).getId()));
+    }
+
+    @Test
+    void dispatcher_CancelledAfterClaim_IsNotExecuted() throws InterruptedException {
+        ScheduledTransfer scheduled = scheduledTransferRepository.save(
+                scheduledTransfer(cards.get(0), cards.get(1), LocalDateTime.now().plusSeconds(2)));
+        long transfersBefore = transferRepository.count();
+
+        assertEquals(1, dispatcher.claimDue());
+        assertEquals(ScheduledTransfer.Status.CLAIMED,
+                scheduledTransferRepository.findById(scheduled.getId()).orElseThrow().getStatus());
+        new TransactionTemplate(transactionManager).execute(
+                status -> scheduledTransferRepository.cancel(scheduled.getId()));
+        Thread.sleep(3_000);
+
+        assertEquals(ScheduledTransfer.Status.CANCELLED,
+                scheduledTransferRepository.findById(scheduled.getId()).orElseThrow().getStatus());
+        assertEquals(transfersBefore, transferRepository.count());
+        assertEquals(0, dispatcher.inFlight());
+    }
+
+    @Test
+    void dispatcher_InsufficientBalance_RecordsFailure() throws InterruptedException {
+        ScheduledTransfer scheduled = scheduledTransfer(cards.get(0), cards.get(1), LocalDateTime.now().plusSeconds(1));
+        scheduled.setAmount(new BigDecimal("999999.00"));
+        Long id = scheduledTransferRepository.save(scheduled).getId();
+
+        assertEquals(1, dispatcher.claimDue());
+        ScheduledTransfer done = awaitFinished(List.of(id), Duration.ofSeconds(15)).get(0);
+
+        assertEquals(ScheduledTransfer.Status.FAILED, done.getStatus());
+        assertNotNull(done.getFailureReason());
+        assertNull(done.getTransferId());
+        assertTrue(ledgerEntryRepository.findAll().stream().noneMatch(e -> e.getCardId().equals(cards.get(0).getId())));
+    }
+
+    @Test
+    void dispatcher_DatabaseError_ReleasesClaimAndRetriesOnNextPoll() throws InterruptedException {
+        Long id = scheduledTransferRepository.save(
+                scheduledTransfer(cards.get(0), cards.get(1), LocalDateTime.now().plusSeconds(1))).getId();
+        CountDownLatch attempted = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            attempted.countDown();
+            throw new QueryTimeoutException("lock timeout");
+        }).when(transferRepository).save(any(Transfer.class));
+
+        assertEquals(1, dispatcher.claimDue());
+        assertTrue(attempted.await(15, TimeUnit.SECONDS));
+        reset(transferRepository);
+        awaitStatus(id, ScheduledTransfer.Status.PENDING);
+        assertEquals(0, dispatcher.inFlight());
+
+        assertEquals(1, dispatcher.claimDue());
+        ScheduledTransfer done = awaitFinished(List.of(id), Duration.ofSeconds(15)).get(0);
+
+        assertEquals(ScheduledTransfer.Status.COMPLETED, done.getStatus(), done.getFailureReason());
+        assertNotNull(done.getTransferId());
+    }
+
+    private ScheduledTransfer scheduledTransfer(Card from, Card to, LocalDateTime executeAt) {
+        return ScheduledTransfer.builder()
+                .userId(user.getId())
+                .fromCardId(from.getId())
+                .toCardId(to.getId())
+                .amount(new BigDecimal("1.00"))
+                .description("Scheduled")
+                .executeAt(executeAt)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private void awaitStatus(Long id, ScheduledTransfer.Status expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        while (scheduledTransferRepository.findById(id).orElseThrow().getStatus() != expected
+                || dispatcher.inFlight() > 0) {
+            if (System.nanoTime() > deadline) {
+                fail("Scheduled transfer " + id + " did not become " + expected);
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private List<ScheduledTransfer> awaitFinished(List<Long> ids, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            List<ScheduledTransfer> rows = scheduledTransferRepository.findAllById(ids);
+            if (rows.stream().allMatch(row -> row.getExecutedAt() != null)) {
+                return rows;
+            }
+            Thread.sleep(100);
+        }
+        fail("Scheduled transfers did not finish within " + timeout);
+        return List.of();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.bankcards.schedule;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j(topic = "benchmark")
+class TimingWheelTest {
+
+    private static final long START = 1_700_000_000_000L;
+    private static final long TICK = 100;
+    private static final int DUE_IN_SAME_MINUTE = 100_000;
+
+    @Test
+    void add_AlreadyDue_ReturnsFalse() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, START);
+
+        assertFalse(wheel.add("late", START - 1));
+        assertTrue(wheel.add("now", START));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void advance_FiresItemsOnlyAfterTheirTickEnds() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, START);
+        wheel.add("a", START + 250);
+
+        assertTrue(wheel.advance(START + 250).isEmpty());
+        assertTrue(wheel.advance(START + 299).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(START + 300));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_CascadesItemsBeyondFirstLevel() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, START);
+        wheel.add("level0", START + 25);
+        wheel.add("level1", START + 135);
+        wheel.add("level2", START + 555);
+        wheel.add("level4", START + 5_000);
+
+        List<Long> firedAt = new ArrayList<>();
+        List<String> fired = new ArrayList<>();
+        for (long now = START; now <= START + 6_000; now += 10) {
+            for (String item : wheel.advance(now)) {
+                fired.add(item);
+                firedAt.add(now - START);
+            }
+        }
+
+        assertEquals(List.of("level0", "level1", "level2", "level4"), fired);
+        assertEquals(List.of(30L, 140L, 560L, 5_010L), firedAt);
+    }
+
+    @Test
+    void advance_SkippingManyTicks_FiresEverythingDue() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(100, 16, START);
+        for (int i = 0; i < 1_000; i++) {
+            wheel.add(i, START + i * 997L);
+        }
+
+        assertEquals(1_000, wheel.advance(START + TimeUnit.HOURS.toMillis(1)).size());
+        assertEquals(0, wheel.size());
+    }
+
+    /**
+     * 100k transfers due in the same minute, parked a minute ahead as the dispatcher does with its
+     * default lookahead, then released tick by tick. Time here is the wheel's own, so none fires
+     * early and none later than one tick after it is due.
+     */
+    @Test
+    void advance_HundredThousandDueInSameMinute_DispatchLagWithinOneTick() {
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, 512, START);
+
+        park(wheel);
+        long maxLag = 0;
+        for (Long lag : fire(wheel)) {
+            assertTrue(lag >= 0, "fired before due");
+            maxLag = Math.max(maxLag, lag);
+        }
+
+        assertTrue(maxLag <= TICK);
+        assertEquals(0, wheel.size());
+    }
+
+    /**
+     * Wall-clock cost of parking and firing the same 100k transfers.
+     */
+    @Test
+    @Tag("benchmark")
+    void advance_HundredThousandDueInSameMinute_ParkAndFireCost() {
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, 512, START);
+
+        long parkStart = System.nanoTime();
+        park(wheel);
+        long parkNanos = System.nanoTime() - parkStart;
+        long fireStart = System.nanoTime();
+        List<Long> lags = fire(wheel);
+        long fireNanos = System.nanoTime() - fireStart;
+
+        log.info("Timing wheel: {} items, park {} ms, fire {} ms, lag avg {} ms",
+                lags.size(), parkNanos / 1e6, fireNanos / 1e6,
+                lags.stream().mapToLong(Long::longValue).average().orElse(0));
+        assertEquals(DUE_IN_SAME_MINUTE, lags.size());
+    }
+
+    private static void park(TimingWheel<Long> wheel) {
+        long minute = START + TimeUnit.MINUTES.toMillis(1);
+        for (int i = 0; i < DUE_IN_SAME_MINUTE; i++) {
+            long due = minute + (i * 7919L) % TimeUnit.MINUTES.toMillis(1);
+            assertTrue(wheel.add(due, due));
+        }
+    }
+
+    /**
+     * Advances the wheel tick by tick until everything parked has fired and returns the lag of
+     * each item behind its due time.
+     */
+    private static List<Long> fire(TimingWheel<Long> wheel) {
+        List<Long> lags = new ArrayList<>(DUE_IN_SAME_MINUTE);
+        for (long now = START; lags.size() < DUE_IN_SAME_MINUTE; now += TICK) {
+            for (Long due : wheel.advance(now)) {
+                lags.add(now - due);
+            }
+        }
+        return lags;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.bankcards.security;
 
+import com.example.bankcards.cache.NegativeLookupCache;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.repository.UserRepository;
@@ -19,6 +20,7 @@ import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +29,9 @@ class CustomUserDetailsServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private NegativeLookupCache negativeLookupCache;
+
     @InjectMocks
     private CustomUserDetailsService customUserDetailsService;
 
@@ -71,6 +76,7 @@ class CustomUserDetailsServiceTest {
         assertEquals("encodedPassword123", userDetails.getPassword());
         assertTrue(userDetails.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_USER")));
         assertEquals(1, userDetails.getAuthorities().size());
+        assertEquals(1L, assertInstanceOf(AuthenticatedUser.class, userDetails).getId());
         verify(userRepository, times(1)).findByUsername("testuser");
     }
 
@@ -111,6 +117,18 @@ class CustomUserDetailsServiceTest {
 
         assertEquals("User not found: nonexistent", exception.getMessage());
         verify(userRepository, times(1)).findByUsername("nonexistent");
+        verify(negativeLookupCache).markUsernameMissing("nonexistent");
+    }
+
+    @Test
+    void loadUserByUsername_KnownMissingUser_SkipsRepository() {
+        when(negativeLookupCache.isUsernameMissing("nonexistent")).thenReturn(true);
+
+        assertThrows(UsernameNotFoundException.class, () -> {
+            customUserDetailsService.loadUserByUsername("nonexistent");
+        });
+
+        verify(userRepository, never()).findByUsername(anyString());
     }
 
     @Test
@@ -0,0 +1,102 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.dto.AuthResponse;
+import com.example.bankcards.dto.LoginRequest;
+import com.example.bankcards.dto.RegisterRequest;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.repository.RoleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "rate-limit.enabled=true",
+        "rate-limit.auth.capacity=3",
+        "rate-limit.auth.refill-per-second=0.01",
+        "rate-limit.user.capacity=2",
+        "rate-limit.user.refill-per-second=0.01"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class RateLimitFilterIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @BeforeEach
+    void setUp() {
+        if (roleRepository.findByName(Role.RoleName.ROLE_USER).isEmpty()) {
+            roleRepository.save(Role.builder().name(Role.RoleName.ROLE_USER).build());
+        }
+    }
+
+    @Test
+    void login_TooManyAttemptsFromOneAddress_ReturnsTooManyRequests() throws Exception {
+        String body = objectMapper.writeValueAsString(new LoginRequest("nobody", "wrongpassword"));
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.status").value(429));
+
+        mockMvc.perform(post("/api/auth/login")
+                        .with(request -> {
+                            request.setRemoteAddr("10.0.0.2");
+                            return request;
+                        })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void authenticatedRequests_OverUserBudget_ReturnsTooManyRequests() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new RegisterRequest("limiteduser", "limited@example.com", "password123", "Limited User"))))
+                .andExpect(status().isOk())
+                .andReturn();
+        AuthResponse auth = objectMapper.readValue(result.getResponse().getContentAsString(), AuthResponse.class);
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/cards/user/" + auth.id())
+                            .header("Authorization", "Bearer " + auth.token()))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/api/cards/user/" + auth.id())
+                        .header("Authorization", "Bearer " + auth.token()))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "100"));
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.bankcards.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j(topic = "benchmark")
+class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    @Test
+    void tryAcquire_AllowsBurstUpToCapacity() {
+        RateLimiter limiter = new RateLimiter(5, 1, 1000, Duration.ofMinutes(10), clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("alice"));
+        }
+        assertTrue(limiter.tryAcquire("alice") > 0);
+    }
+
+    @Test
+    void tryAcquire_ReportsTimeUntilNextToken() {
+        RateLimiter limiter = new RateLimiter(1, 2, 1000, Duration.ofMinutes(10), clock::get);
+
+        assertEquals(0, limiter.tryAcquire("alice"));
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), limiter.tryAcquire("alice"));
+    }
+
+    @Test
+    void tryAcquire_RefillsOverTime() {
+        RateLimiter limiter = new RateLimiter(2, 10, 1000, Duration.ofMinutes(10), clock::get);
+        limiter.tryAcquire("alice");
+        limiter.tryAcquire("alice");
+        assertTrue(limiter.tryAcquire("alice") > 0);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertEquals(0, limiter.tryAcquire("alice"));
+        assertTrue(limiter.tryAcquire("alice") > 0);
+    }
+
+    @Test
+    void tryAcquire_RefillNeverExceedsCapacity() {
+        RateLimiter limiter = new RateLimiter(3, 10, 1000, Duration.ofMinutes(10), clock::get);
+        limiter.tryAcquire("alice");
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(5));
+
+        int allowed = 0;
+        while (limiter.tryAcquire("alice") == 0) {
+            allowed++;
+        }
+        assertEquals(3, allowed);
+    }
+
+    @Test
+    void tryAcquire_TenThousandUsers_ThrottledFairly() throws InterruptedException {
+        int users = 10_000;
+        int capacity = 20;
+        RateLimiter limiter = new RateLimiter(capacity, 1, 50_000, Duration.ofMinutes(10), clock::get);
+        int[] allowed = new int[users];
+
+        Thread hog = new Thread(() -> {
+            for (int i = 0; i < 1_000_000; i++) {
+                limiter.tryAcquire("hog");
+            }
+        });
+        hog.start();
+        Thread[] workers = new Thread[4];
+        for (int w = 0; w < workers.length; w++) {
+            int offset = w;
+            workers[w] = new Thread(() -> {
+                for (int round = 0; round < capacity * 3; round++) {
+                    for (int user = offset; user < users; user += workers.length) {
+                        if (limiter.tryAcquire("user-" + user) == 0) {
+                            allowed[user]++;
+                        }
+                    }
+                }
+            });
+            workers[w].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        hog.join();
+
+        for (int user = 0; user < users; user++) {
+            assertEquals(capacity, allowed[user], "user-" + user);
+        }
+        assertTrue(limiter.trackedClients() >= users);
+    }
+
+    /**
+     * Overhead of the per-request check for an existing client: one cache lookup and one CAS.
+     */
+    @Test
+    @Tag("benchmark")
+    void tryAcquire_PerRequestOverhead() {
+        RateLimiter limiter = new RateLimiter(Long.MAX_VALUE / TimeUnit.SECONDS.toNanos(1), 1e9, 100_000,
+                Duration.ofMinutes(10));
+        String[] keys = new String[1024];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "user-" + i;
+        }
+        int iterations = 5_000_000;
+        for (int i = 0; i < iterations; i++) {
+            limiter.tryAcquire(keys[i & 1023]);
+        }
+
+        long start = System.nanoTime();
+        long rejected = 0;
+        for (int i = 0; i < iterations; i++) {
+            rejected += limiter.tryAcquire(keys[i & 1023]) > 0 ? 1 : 0;
+        }
+        double nanosPerCheck = (System.nanoTime() - start) / (double) iterations;
+
+        log.info("Rate limit check: {} ns/op", nanosPerCheck);
+        assertEquals(0, rejected);
+    }
+}
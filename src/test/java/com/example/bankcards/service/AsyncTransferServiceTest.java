@@ -0,0 +1,230 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.AsyncTransferResponse;
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.exception.ServiceUnavailableException;
+import com.example.bankcards.helper.SecurityHelper;
+import com.example.bankcards.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.security.core.Authentication;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AsyncTransferServiceTest {
+
+    @Mock
+    private AsyncTransferWriter writer;
+
+    @Mock
+    private SecurityHelper securityHelper;
+
+    @Mock
+    private Authentication authentication;
+
+    @TempDir
+    Path tempDir;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AsyncTransferService asyncTransferService;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        testUser = User.builder().id(1L).username("testuser").build();
+        when(securityHelper.getCurrentUser(authentication)).thenReturn(testUser);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (asyncTransferService != null) {
+            asyncTransferService.stop();
+        }
+    }
+
+    @Test
+    void submit_Disabled_ThrowsBadRequest() {
+        asyncTransferService = newService(false, 10, null);
+
+        assertThrows(BadRequestException.class, () ->
+                asyncTransferService.submit(request(1L), authentication));
+    }
+
+    @Test
+    void submit_AppliesTransferAndExposesCompletedStatus() throws Exception {
+        CountDownLatch applied = new CountDownLatch(1);
+        when(writer.applyBatch(anyList())).thenAnswer(invocation -> {
+            List<QueuedTransfer> batch = invocation.getArgument(0);
+            applied.countDown();
+            return batch.stream()
+                    .map(item -> new AsyncTransferResponse(item.requestId(), AsyncTransferService.STATUS_COMPLETED, 42L, null))
+                    .toList();
+        });
+        asyncTransferService = newService(true, 10, tempDir.resolve("journal.log").toString());
+        asyncTransferService.start();
+
+        AsyncTransferResponse response = asyncTransferService.submit(request(1L), authentication);
+
+        assertEquals(AsyncTransferService.STATUS_PENDING, response.status());
+        assertTrue(applied.await(5, TimeUnit.SECONDS));
+        AsyncTransferResponse status = awaitStatus(response.requestId(), AsyncTransferService.STATUS_COMPLETED);
+        assertEquals(42L, status.transferId());
+        assertEquals(1.0, meterRegistry.get("transfer.async.completed").counter().count());
+    }
+
+    @Test
+    void submit_SameSourceCard_AppliedInSubmissionOrder() throws Exception {
+        List<String> appliedOrder = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch allApplied = new CountDownLatch(20);
+        when(writer.applyBatch(anyList())).thenAnswer(invocation -> {
+            List<QueuedTransfer> batch = invocation.getArgument(0);
+            List<AsyncTransferResponse> results = new ArrayList<>();
+            for (QueuedTransfer item : batch) {
+                appliedOrder.add(item.requestId());
+                results.add(new AsyncTransferResponse(item.requestId(), AsyncTransferService.STATUS_COMPLETED, 1L, null));
+                allApplied.countDown();
+            }
+            return results;
+        });
+        asyncTransferService = newService(true, 100, null);
+        asyncTransferService.start();
+
+        List<String> submitted = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            submitted.add(asyncTransferService.submit(request(7L), authentication).requestId());
+        }
+
+        assertTrue(allApplied.await(5, TimeUnit.SECONDS));
+        assertEquals(submitted, appliedOrder);
+    }
+
+    @Test
+    void submit_QueueFull_ThrowsServiceUnavailable() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        when(writer.applyBatch(anyList())).thenAnswer(invocation -> {
+            writerBusy.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            List<QueuedTransfer> batch = invocation.getArgument(0);
+            return batch.stream()
+                    .map(item -> new AsyncTransferResponse(item.requestId(), AsyncTransferService.STATUS_COMPLETED, 1L, null))
+                    .toList();
+        });
+        asyncTransferService = newService(true, 1, null);
+        asyncTransferService.start();
+
+        asyncTransferService.submit(request(1L), authentication);
+        assertTrue(writerBusy.await(5, TimeUnit.SECONDS));
+        asyncTransferService.submit(request(1L), authentication);
+
+        assertThrows(ServiceUnavailableException.class, () ->
+                asyncTransferService.submit(request(1L), authentication));
+        release.countDown();
+    }
+
+    @Test
+    void getStatus_OtherUser_ThrowsNotFound() {
+        asyncTransferService = newService(true, 10, null);
+        asyncTransferService.start();
+        AsyncTransferResponse response = asyncTransferService.submit(request(1L), authentication);
+
+        when(securityHelper.getCurrentUser(authentication)).thenReturn(User.builder().id(2L).build());
+
+        assertThrows(ResourceNotFoundException.class, () ->
+                asyncTransferService.getStatus(response.requestId(), authentication));
+    }
+
+    @Test
+    void submit_DatabaseErrors_RetriesUntilApplied() throws Exception {
+        when(writer.applyBatch(anyList()))
+                .thenThrow(new IllegalStateException("connection refused"))
+                .thenAnswer(invocation -> results(invocation.getArgument(0), AsyncTransferService.STATUS_PENDING, null))
+                .thenAnswer(invocation -> results(invocation.getArgument(0), AsyncTransferService.STATUS_COMPLETED, 7L));
+        Path journalPath = tempDir.resolve("journal.log");
+        asyncTransferService = newService(true, 10, journalPath.toString());
+        asyncTransferService.start();
+
+        AsyncTransferResponse response = asyncTransferService.submit(request(1L), authentication);
+
+        assertEquals(7L, awaitStatus(response.requestId(), AsyncTransferService.STATUS_COMPLETED).transferId());
+        verify(writer, times(3)).applyBatch(anyList());
+        assertEquals(0.0, meterRegistry.get("transfer.async.failed").counter().count());
+        asyncTransferService.stop();
+        try (TransferJournal journal = new TransferJournal(journalPath, false)) {
+            assertTrue(journal.recover().isEmpty());
+        }
+    }
+
+    @Test
+    void start_ReplaysPendingJournalEntries() throws Exception {
+        Path journalPath = tempDir.resolve("journal.log");
+        try (TransferJournal journal = new TransferJournal(journalPath, false)) {
+            journal.recover();
+            journal.appendEnqueued(new QueuedTransfer("pending-1", 1L, 1L, 2L, BigDecimal.TEN, null));
+        }
+        CountDownLatch applied = new CountDownLatch(1);
+        when(writer.applyBatch(anyList())).thenAnswer(invocation -> {
+            List<QueuedTransfer> batch = invocation.getArgument(0);
+            applied.countDown();
+            return batch.stream()
+                    .map(item -> new AsyncTransferResponse(item.requestId(), AsyncTransferService.STATUS_COMPLETED, 5L, null))
+                    .toList();
+        });
+
+        asyncTransferService = newService(true, 10, journalPath.toString());
+        asyncTransferService.start();
+
+        assertTrue(applied.await(5, TimeUnit.SECONDS));
+        assertEquals(5L, awaitStatus("pending-1", AsyncTransferService.STATUS_COMPLETED).transferId());
+    }
+
+    private static List<AsyncTransferResponse> results(List<QueuedTransfer> batch, String status, Long transferId) {
+        return batch.stream()
+                .map(item -> new AsyncTransferResponse(item.requestId(), status, transferId, null))
+                .toList();
+    }
+
+    private AsyncTransferService newService(boolean enabled, int queueCapacity, String journalPath) {
+        return new AsyncTransferService(writer, securityHelper, meterRegistry,
+                enabled, 2, queueCapacity, 10, journalPath, false, 60, 5, 10);
+    }
+
+    private AsyncTransferResponse awaitStatus(String requestId, String expectedStatus) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        AsyncTransferResponse status = asyncTransferService.getStatus(requestId, authentication);
+        while (!expectedStatus.equals(status.status()) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            status = asyncTransferService.getStatus(requestId, authentication);
+        }
+        assertEquals(expectedStatus, status.status());
+        return status;
+    }
+
+    private static TransferRequest request(Long fromCardId) {
+        return new TransferRequest(fromCardId, 99L, Money.parse("10.00"), "Async transfer");
+    }
+}
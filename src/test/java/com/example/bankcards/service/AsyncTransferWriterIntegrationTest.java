@@ -0,0 +1,124 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.AsyncTransferResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AsyncTransferWriterIntegrationTest {
+
+    @Autowired
+    private AsyncTransferWriter writer;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @MockitoSpyBean
+    private TransferRepository transferRepository;
+
+    private User user;
+    private List<Card> cards;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        user = userRepository.save(User.builder()
+                .username("async-" + suffix)
+                .email("async-" + suffix + "@example.com")
+                .password("password")
+                .fullName("Async User")
+                .createdAt(LocalDateTime.now())
+                .build());
+        cards = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            cards.add(cardRepository.save(Card.builder()
+                    .cardNumber("async-" + suffix + "-" + i)
+                    .expiryDate(LocalDate.now().plusYears(2))
+                    .status(Card.CardStatus.ACTIVE)
+                    .openingBalance(new BigDecimal("1000.00"))
+                    .user(user)
+                    .createdAt(LocalDateTime.now())
+                    .build()));
+        }
+    }
+
+    @Test
+    void applyBatch_ReplayedRequest_IsNotAppliedTwice() {
+        QueuedTransfer item = queued(cards.get(0), cards.get(1), "100.00");
+
+        AsyncTransferResponse first = writer.applyBatch(List.of(item)).get(0);
+        AsyncTransferResponse replayed = writer.applyBatch(List.of(item)).get(0);
+
+        assertEquals(AsyncTransferService.STATUS_COMPLETED, first.status());
+        assertEquals(AsyncTransferService.STATUS_COMPLETED, replayed.status());
+        assertEquals(first.transferId(), replayed.transferId());
+        assertEquals(1, transferRepository.findByRequestIdIn(List.of(item.requestId())).size());
+        assertEquals(0, new BigDecimal("900.00").compareTo(ledgerService.getBalance(cards.get(0).getId())));
+        assertEquals(0, new BigDecimal("1100.00").compareTo(ledgerService.getBalance(cards.get(1).getId())));
+    }
+
+    @Test
+    void applyBatch_DatabaseErrorOnce_LeavesItemPendingAndAppliesItOnRetry() {
+        QueuedTransfer item = queued(cards.get(0), cards.get(1), "100.00");
+        doThrow(new QueryTimeoutException("lock timeout")).when(transferRepository).save(any(Transfer.class));
+
+        AsyncTransferResponse failed = writer.applyBatch(List.of(item)).get(0);
+        reset(transferRepository);
+        AsyncTransferResponse retried = writer.applyBatch(List.of(item)).get(0);
+
+        assertEquals(AsyncTransferService.STATUS_PENDING, failed.status());
+        assertEquals(AsyncTransferService.STATUS_COMPLETED, retried.status());
+        assertEquals(0, new BigDecimal("900.00").compareTo(ledgerService.getBalance(cards.get(0).getId())));
+    }
+
+    @Test
+    void applyBatch_ItemsInDescendingCardOrder_AppliesAll() {
+        List<QueuedTransfer> batch = List.of(
+                queued(cards.get(3), cards.get(0), "100.00"),
+                queued(cards.get(2), cards.get(1), "50.00"),
+                queued(cards.get(1), cards.get(3), "25.00"));
+
+        List<AsyncTransferResponse> results = writer.applyBatch(batch);
+
+        assertTrue(results.stream().allMatch(r -> AsyncTransferService.STATUS_COMPLETED.equals(r.status())));
+        assertEquals(0, new BigDecimal("1100.00").compareTo(ledgerService.getBalance(cards.get(0).getId())));
+        assertEquals(0, new BigDecimal("1025.00").compareTo(ledgerService.getBalance(cards.get(1).getId())));
+        assertEquals(0, new BigDecimal("950.00").compareTo(ledgerService.getBalance(cards.get(2).getId())));
+        assertEquals(0, new BigDecimal("925.00").compareTo(ledgerService.getBalance(cards.get(3).getId())));
+    }
+
+    private QueuedTransfer queued(Card from, Card to, String amount) {
+        return new QueuedTransfer(UUID.randomUUID().toString(), user.getId(), from.getId(), to.getId(),
+                new BigDecimal(amount), null);
+    }
+}
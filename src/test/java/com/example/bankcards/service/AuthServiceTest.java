@@ -54,6 +54,9 @@ class AuthServiceTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private com.example.bankcards.cache.NegativeLookupCache negativeLookupCache;
+
     @InjectMocks
     private AuthService authService;
 
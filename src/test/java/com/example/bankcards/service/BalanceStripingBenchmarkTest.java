@@ -0,0 +1,250 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardStatsResponse;
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.money.Money;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Credits one card from many threads, each sending from its own source card, with the card's
+ * balance spread over several slots, and checks that nothing is lost: the card balance, its
+ * snapshot and its daily totals all add up.
+ *
+ * <p>The throughput comparison over 1, 4 and 16 slots is tagged {@code benchmark} and only runs
+ * with {@code -Pbenchmark}. Against in-memory H2 a transaction commits in microseconds, so the
+ * time locks are held is pure CPU and there is nothing to overlap. Every credit therefore waits
+ * {@link #COMMIT_LATENCY_MS} inside its transaction before committing, standing in for the
+ * network round trips and commit flush of a real database during which the destination lock
+ * stays held.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Slf4j(topic = "benchmark")
+class BalanceStripingBenchmarkTest {
+
+    private static final int THREADS = 16;
+    private static final int CREDITS_PER_THREAD = 40;
+    private static final int[] SLOT_COUNTS = {1, 4, 16};
+    private static final BigDecimal AMOUNT = new BigDecimal("1.25");
+    private static final long SNAPSHOT_INTERVAL_MS = 50;
+    private static final int WARM_UP_PER_THREAD = 5;
+    private static final long COMMIT_LATENCY_MS = 20;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private CardStatsService cardStatsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void credits_ToStripedCard_AddUp() throws Exception {
+        Merchant merchant = merchant(8);
+        ledgerService.updateBalanceSlots(merchant.hotCardId(), 4);
+
+        runCredits(merchant, 10, 0);
+
+        assertCreditsAddUp(merchant, 8 * 10);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void credits_ToOneCard_ThroughputBySlotCount() throws Exception {
+        Merchant merchant = merchant(THREADS);
+
+        // Прогрев: JIT и пул соединений не должны попасть в первый замер
+        runCredits(merchant, WARM_UP_PER_THREAD, COMMIT_LATENCY_MS);
+
+        Map<Integer, Double> throughput = new LinkedHashMap<>();
+        for (int slots : SLOT_COUNTS) {
+            ledgerService.updateBalanceSlots(merchant.hotCardId(), slots);
+            long start = System.nanoTime();
+            runCredits(merchant, CREDITS_PER_THREAD, COMMIT_LATENCY_MS);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            throughput.put(slots, THREADS * CREDITS_PER_THREAD / seconds);
+        }
+        throughput.forEach((slots, perSecond) -> log.info(
+                "Credits to one card with {} slot(s): {} credits/s ({}x)",
+                slots, Math.round(perSecond), String.format("%.2f", perSecond / throughput.get(1))));
+
+        assertCreditsAddUp(merchant, (long) THREADS * (WARM_UP_PER_THREAD + CREDITS_PER_THREAD * SLOT_COUNTS.length));
+    }
+
+    /**
+     * Balance before and after a snapshot, the stats and the raw daily total rows of the hot card
+     * all account for exactly {@code credits} credits; each source card sent all of its own.
+     */
+    private void assertCreditsAddUp(Merchant merchant, long credits) {
+        Long hotCardId = merchant.hotCardId();
+        BigDecimal expected = AMOUNT.multiply(BigDecimal.valueOf(credits));
+        assertEquals(0, expected.compareTo(ledgerService.getBalance(hotCardId)));
+        assertEquals(0, expected.compareTo(cardRepository.findById(hotCardId).orElseThrow().getBalance().toBigDecimal()));
+
+        ledgerService.snapshot(hotCardId);
+        assertEquals(0, expected.compareTo(ledgerService.getBalance(hotCardId)));
+
+        CardStatsResponse stats = cardStatsService.getCardStats(hotCardId, LocalDate.now(), LocalDate.now(),
+                merchant.authentication());
+        assertEquals(credits, stats.receivedCount());
+        assertEquals(1, stats.days().size());
+
+        Map<String, Object> totals = jdbcTemplate.queryForMap(
+                "SELECT COUNT(*) AS slot_rows, SUM(received_amount) AS received, SUM(received_count) AS received_count " +
+                        "FROM card_daily_totals WHERE card_id = ?", hotCardId);
+        assertTrue(((Number) totals.get("slot_rows")).intValue() > 1,
+                "striped credits should be spread over several daily total rows");
+        assertEquals(0, expected.compareTo((BigDecimal) totals.get("received")));
+        assertEquals(credits, ((Number) totals.get("received_count")).longValue());
+
+        long perSource = credits / merchant.sources().size();
+        for (Long source : merchant.sources()) {
+            Long sent = jdbcTemplate.queryForObject(
+                    "SELECT SUM(sent_count) FROM card_daily_totals WHERE card_id = ? AND slot = 0", Long.class, source);
+            assertEquals(perSource, sent);
+        }
+    }
+
+    private Merchant merchant(int sourceCount) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = userRepository.save(User.builder()
+                .username("merchant-" + suffix)
+                .email("merchant-" + suffix + "@example.com")
+                .password("password")
+                .fullName("Merchant")
+                .createdAt(LocalDateTime.now())
+                .build());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(user.getUsername(), null, List.of());
+        Long hotCardId = cardRepository.save(card(user, "hot-" + suffix, BigDecimal.ZERO)).getId();
+        List<Long> sources = new ArrayList<>(sourceCount);
+        for (int i = 0; i < sourceCount; i++) {
+            sources.add(cardRepository.save(card(user, "src-" + suffix + "-" + i, new BigDecimal("1000000.00"))).getId());
+        }
+        return new Merchant(authentication, hotCardId, sources);
+    }
+
+    /**
+     * Runs the credits while snapshotting the involved cards every {@link #SNAPSHOT_INTERVAL_MS},
+     * as the snapshot job does in production, so balance reads stay bounded during the run.
+     */
+    private void runCredits(Merchant merchant, int perThread, long commitLatencyMs) throws Exception {
+        Long hotCardId = merchant.hotCardId();
+        List<Long> sources = merchant.sources();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread snapshotter = new Thread(() -> {
+            while (running.get()) {
+                ledgerService.snapshot(hotCardId);
+                sources.forEach(ledgerService::snapshot);
+                try {
+                    Thread.sleep(SNAPSHOT_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        snapshotter.start();
+        try {
+            credit(merchant.authentication(), sources, hotCardId, perThread, commitLatencyMs);
+        } finally {
+            running.set(false);
+            snapshotter.join();
+        }
+    }
+
+    private void credit(Authentication authentication, List<Long> sources, Long hotCardId, int perThread,
+                        long commitLatencyMs) throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ExecutorService pool = Executors.newFixedThreadPool(sources.size());
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long source : sources) {
+            futures.add(pool.submit(() -> {
+                go.await();
+                for (int i = 0; i < perThread; i++) {
+                    transaction.executeWithoutResult(status -> {
+                        transferService.transfer(new TransferRequest(source, hotCardId, Money.of(AMOUNT), null), authentication);
+                        sleep(commitLatencyMs);
+                    });
+                }
+                return null;
+            }));
+        }
+        go.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+    }
+
+    private static void sleep(long millis) {
+        if (millis == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Card card(User user, String number, BigDecimal openingBalance) {
+        return Card.builder()
+                .cardNumber(number)
+                .expiryDate(LocalDate.now().plusYears(2))
+                .status(Card.CardStatus.ACTIVE)
+                .openingBalance(openingBalance)
+                .user(user)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private record Merchant(Authentication authentication, Long hotCardId, List<Long> sources) {}
+}
@@ -1,5 +1,6 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.CardBalanceResponse;
 import com.example.bankcards.dto.CardRequest;
 import com.example.bankcards.dto.CardResponse;
 import com.example.bankcards.entity.Card;
@@ -7,8 +8,11 @@ import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.exception.ResourceNotFoundException;
 import com.example.bankcards.exception.UnauthorizedException;
+import com.example.bankcards.money.Money;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.repository.projection.CardBalanceView;
+import com.example.bankcards.repository.projection.CardView;
 import com.example.bankcards.util.CardEncryptionUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,7 +26,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -59,6 +62,12 @@ class CardServiceTest {
     @Mock
     private com.example.bankcards.mapper.CardMapper cardMapper;
 
+    @Mock
+    private com.example.bankcards.cache.NegativeLookupCache negativeLookupCache;
+
+    @Mock
+    private com.example.bankcards.outbox.OutboxService outboxService;
+
     @InjectMocks
     private CardService cardService;
 
@@ -81,12 +90,12 @@ class CardServiceTest {
                 .cardNumber("encrypted123")
                 .expiryDate(LocalDate.now().plusYears(2))
                 .status(Card.CardStatus.ACTIVE)
-                .balance(BigDecimal.valueOf(1000))
+                .balance(Money.parse("1000"))
                 .user(testUser)
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        cardRequest = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), 1L);
+        cardRequest = new CardRequest("1234567890123456", LocalDate.now().plusYears(2), 1L, null);
     }
 
     @Test
@@ -97,7 +106,8 @@ class CardServiceTest {
                 "Test User",
                 LocalDate.now().plusYears(2),
                 "ACTIVE",
-                BigDecimal.ZERO
+                Money.ZERO,
+                "RUB"
         );
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
@@ -146,6 +156,7 @@ class CardServiceTest {
         cardService.blockCard(1L, authentication);
 
         verify(cardRepository, times(1)).save(any(Card.class));
+        verify(outboxService, times(1)).record(eq(com.example.bankcards.entity.OutboxEvent.EventType.CARD_BLOCKED), eq(1L), any());
     }
 
     @Test
@@ -156,7 +167,8 @@ class CardServiceTest {
                 "Test User",
                 LocalDate.now().plusYears(2),
                 "ACTIVE",
-                BigDecimal.valueOf(1000)
+                Money.parse("1000"),
+                "RUB"
         );
 
         when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
@@ -176,6 +188,53 @@ class CardServiceTest {
         assertThrows(ResourceNotFoundException.class, () ->
                 cardService.getCardById(1L, authentication)
         );
+        verify(negativeLookupCache).markCardMissing(1L);
+    }
+
+    @Test
+    void getCardById_KnownMissingCard_SkipsRepository() {
+        when(negativeLookupCache.isCardMissing(1L)).thenReturn(true);
+
+        assertThrows(ResourceNotFoundException.class, () ->
+                cardService.getCardById(1L, authentication)
+        );
+        verify(cardRepository, never()).findById(any());
+    }
+
+    @Test
+    void getCardBalance_ReadsNarrowViewOnly() {
+        CardBalanceView view = new CardBalanceView(1L, 1L, Money.parse("1000"), "RUB", 5L);
+        CardBalanceResponse expectedResponse = new CardBalanceResponse(1L, Money.parse("1000"), "RUB", 5L);
+
+        when(cardRepository.findBalanceView(1L)).thenReturn(Optional.of(view));
+        when(cardMapper.toBalanceResponse(view)).thenReturn(expectedResponse);
+
+        assertEquals(expectedResponse, cardService.getCardBalance(1L, authentication));
+        verify(securityHelper).validateUserAccess(authentication, 1L);
+        verify(cardRepository, never()).findById(any());
+    }
+
+    @Test
+    void getCardBalance_CardNotFound_ThrowsException() {
+        when(cardRepository.findBalanceView(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () ->
+                cardService.getCardBalance(1L, authentication)
+        );
+        verify(negativeLookupCache).markCardMissing(1L);
+    }
+
+    @Test
+    void getCardBalance_UnauthorizedUser_ThrowsException() {
+        when(cardRepository.findBalanceView(1L))
+                .thenReturn(Optional.of(new CardBalanceView(1L, 2L, Money.parse("1000"), "RUB", 5L)));
+        doThrow(new UnauthorizedException("Unauthorized"))
+                .when(securityHelper).validateUserAccess(authentication, 2L);
+
+        assertThrows(UnauthorizedException.class, () ->
+                cardService.getCardBalance(1L, authentication)
+        );
+        verify(cardMapper, never()).toBalanceResponse(any(CardBalanceView.class));
     }
 
     @Test
@@ -229,6 +288,7 @@ class CardServiceTest {
         cardService.activateCard(1L, authentication);
 
         verify(cardRepository, times(1)).save(any(Card.class));
+        verify(outboxService, times(1)).record(eq(com.example.bankcards.entity.OutboxEvent.EventType.CARD_ACTIVATED), eq(1L), any());
     }
 
     @Test
@@ -281,26 +341,27 @@ class CardServiceTest {
 
     @Test
     void getUserCards_Success() {
-        Page<Card> cardPage = new PageImpl<>(Collections.singletonList(testCard));
+        Page<CardView> cardPage = new PageImpl<>(Collections.singletonList(testCardView()));
         CardResponse cardResponse = new CardResponse(
                 1L,
                 "1234****3456",
                 "Test User",
                 LocalDate.now().plusYears(2),
                 "ACTIVE",
-                BigDecimal.valueOf(1000)
+                Money.parse("1000"),
+                "RUB"
         );
 
         doNothing().when(securityHelper).validateUserAccess(authentication, 1L);
-        when(cardRepository.findByUserId(eq(1L), any(Pageable.class)))
+        when(cardRepository.findViewsByUserId(eq(1L), any(Pageable.class)))
                 .thenReturn(cardPage);
-        when(cardMapper.toResponse(any(Card.class))).thenReturn(cardResponse);
+        when(cardMapper.toResponse(any(CardView.class))).thenReturn(cardResponse);
 
         Page<CardResponse> result = cardService.getUserCards(1L, null, Pageable.unpaged(), authentication);
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        verify(cardRepository, times(1)).findByUserId(eq(1L), any(Pageable.class));
+        verify(cardRepository, times(1)).findViewsByUserId(eq(1L), any(Pageable.class));
     }
 
     @Test
@@ -316,38 +377,39 @@ class CardServiceTest {
     @Test
     void getUserCards_AdminCanAccessAnyUser() {
         doNothing().when(securityHelper).validateUserAccess(authentication, 1L);
-        when(cardRepository.findByUserId(eq(1L), any(Pageable.class)))
+        when(cardRepository.findViewsByUserId(eq(1L), any(Pageable.class)))
                 .thenReturn(Page.empty());
 
         Page<CardResponse> result = cardService.getUserCards(1L, null, Pageable.unpaged(), authentication);
 
         assertNotNull(result);
-        verify(cardRepository, times(1)).findByUserId(eq(1L), any(Pageable.class));
+        verify(cardRepository, times(1)).findViewsByUserId(eq(1L), any(Pageable.class));
     }
 
     @Test
     void getUserCards_WithValidStatus_FiltersCards() {
-        Page<Card> cardPage = new PageImpl<>(Collections.singletonList(testCard));
+        Page<CardView> cardPage = new PageImpl<>(Collections.singletonList(testCardView()));
         CardResponse cardResponse = new CardResponse(
                 1L,
                 "1234****3456",
                 "Test User",
                 LocalDate.now().plusYears(2),
                 "ACTIVE",
-                BigDecimal.valueOf(1000)
+                Money.parse("1000"),
+                "RUB"
         );
 
         doNothing().when(securityHelper).validateUserAccess(authentication, 1L);
-        when(cardRepository.findByUserIdAndStatus(eq(1L), eq(Card.CardStatus.ACTIVE), any(Pageable.class)))
+        when(cardRepository.findViewsByUserIdAndStatus(eq(1L), eq(Card.CardStatus.ACTIVE), any(Pageable.class)))
                 .thenReturn(cardPage);
-        when(cardMapper.toResponse(any(Card.class))).thenReturn(cardResponse);
+        when(cardMapper.toResponse(any(CardView.class))).thenReturn(cardResponse);
 
         Page<CardResponse> result = cardService.getUserCards(1L, "ACTIVE", Pageable.unpaged(), authentication);
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        verify(cardRepository, times(1)).findByUserIdAndStatus(eq(1L), eq(Card.CardStatus.ACTIVE), any(Pageable.class));
-        verify(cardRepository, never()).findByUserId(any(), any());
+        verify(cardRepository, times(1)).findViewsByUserIdAndStatus(eq(1L), eq(Card.CardStatus.ACTIVE), any(Pageable.class));
+        verify(cardRepository, never()).findViewsByUserId(any(), any());
     }
 
     @Test
@@ -361,26 +423,32 @@ class CardServiceTest {
 
     @Test
     void getUserCards_WithEmptyStatus_ReturnsAllCards() {
-        Page<Card> cardPage = new PageImpl<>(Collections.singletonList(testCard));
+        Page<CardView> cardPage = new PageImpl<>(Collections.singletonList(testCardView()));
         CardResponse cardResponse = new CardResponse(
                 1L,
                 "1234****3456",
                 "Test User",
                 LocalDate.now().plusYears(2),
                 "ACTIVE",
-                BigDecimal.valueOf(1000)
+                Money.parse("1000"),
+                "RUB"
         );
 
         doNothing().when(securityHelper).validateUserAccess(authentication, 1L);
-        when(cardRepository.findByUserId(eq(1L), any(Pageable.class)))
+        when(cardRepository.findViewsByUserId(eq(1L), any(Pageable.class)))
                 .thenReturn(cardPage);
-        when(cardMapper.toResponse(any(Card.class))).thenReturn(cardResponse);
+        when(cardMapper.toResponse(any(CardView.class))).thenReturn(cardResponse);
 
         Page<CardResponse> result = cardService.getUserCards(1L, "", Pageable.unpaged(), authentication);
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        verify(cardRepository, times(1)).findByUserId(eq(1L), any(Pageable.class));
-        verify(cardRepository, never()).findByUserIdAndStatus(any(), any(), any());
+        verify(cardRepository, times(1)).findViewsByUserId(eq(1L), any(Pageable.class));
+        verify(cardRepository, never()).findViewsByUserIdAndStatus(any(), any(), any());
+    }
+
+    private CardView testCardView() {
+        return new CardView(testCard.getId(), testCard.getCardNumber(), testUser.getFullName(),
+                testCard.getExpiryDate(), testCard.getStatus(), testCard.getBalance(), "RUB");
     }
 }
@@ -0,0 +1,191 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.cache.NegativeLookupCache;
+import com.example.bankcards.dto.CardStatsResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardDailyTotal;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.exception.UnauthorizedException;
+import com.example.bankcards.helper.SecurityHelper;
+import com.example.bankcards.repository.CardDailyTotalRepository;
+import com.example.bankcards.repository.CardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardStatsServiceTest {
+
+    @Mock
+    private CardDailyTotalRepository cardDailyTotalRepository;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private SecurityHelper securityHelper;
+
+    @Mock
+    private NegativeLookupCache negativeLookupCache;
+
+    @Mock
+    private Authentication authentication;
+
+    @InjectMocks
+    private CardStatsService cardStatsService;
+
+    private Card card;
+
+    @BeforeEach
+    void setUp() {
+        card = Card.builder().id(1L).user(User.builder().id(5L).build()).build();
+    }
+
+    @Test
+    void recordTransfer_UpsertsTotalsForTransferDate() {
+        Transfer transfer = Transfer.builder()
+                .fromCardId(1L)
+                .toCardId(2L)
+                .amount(new BigDecimal("10.00"))
+                .createdAt(LocalDateTime.of(2024, 3, 15, 23, 59))
+                .build();
+
+        cardStatsService.recordTransfer(transfer, 3);
+
+        verify(cardDailyTotalRepository).addTransfer(1L, 2L, 3, LocalDate.of(2024, 3, 15),
+                new BigDecimal("10.00"), new BigDecimal("10.00"));
+    }
+
+    @Test
+    void recordTransfer_CrossCurrency_CountsCreditedAmountAsReceived() {
+        Transfer transfer = Transfer.builder()
+                .fromCardId(1L)
+                .toCardId(2L)
+                .amount(new BigDecimal("10.00"))
+                .fxRate(new BigDecimal("0.01100000"))
+                .creditedAmount(new BigDecimal("0.11"))
+                .createdAt(LocalDateTime.of(2024, 3, 15, 12, 0))
+                .build();
+
+        cardStatsService.recordTransfer(transfer, 0);
+
+        verify(cardDailyTotalRepository).addTransfer(1L, 2L, 0, LocalDate.of(2024, 3, 15),
+                new BigDecimal("10.00"), new BigDecimal("0.11"));
+    }
+
+    @Test
+    void getCardStats_SumsDailyTotals() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 12, 31);
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+        when(cardDailyTotalRepository.findByCardIdAndDateRange(1L, from, to)).thenReturn(List.of(
+                total(LocalDate.of(2024, 2, 1), "100.00", "5.00", 2, 1),
+                total(LocalDate.of(2024, 6, 1), "50.50", "0.00", 1, 0)));
+
+        CardStatsResponse stats = cardStatsService.getCardStats(1L, from, to, authentication);
+
+        assertEquals(new BigDecimal("150.50"), stats.totalSent());
+        assertEquals(new BigDecimal("5.00"), stats.totalReceived());
+        assertEquals(3, stats.sentCount());
+        assertEquals(1, stats.receivedCount());
+        assertEquals(2, stats.days().size());
+        verify(securityHelper).validateUserAccess(authentication, 5L);
+    }
+
+    @Test
+    void getCardStats_MergesSlotRowsOfSameDay() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 12, 31);
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+        when(cardDailyTotalRepository.findByCardIdAndDateRange(1L, from, to)).thenReturn(List.of(
+                total(LocalDate.of(2024, 2, 1), 0, "100.00", "5.00", 2, 1),
+                total(LocalDate.of(2024, 2, 1), 1, "0.00", "7.00", 0, 1),
+                total(LocalDate.of(2024, 2, 1), 2, "0.00", "8.00", 0, 2),
+                total(LocalDate.of(2024, 2, 2), 1, "0.00", "1.00", 0, 1)));
+
+        CardStatsResponse stats = cardStatsService.getCardStats(1L, from, to, authentication);
+
+        assertEquals(new BigDecimal("21.00"), stats.totalReceived());
+        assertEquals(5, stats.receivedCount());
+        assertEquals(2, stats.days().size());
+        assertEquals(new BigDecimal("20.00"), stats.days().get(0).received());
+        assertEquals(4, stats.days().get(0).receivedCount());
+        assertEquals(new BigDecimal("100.00"), stats.days().get(0).sent());
+    }
+
+    @Test
+    void getCardStats_DefaultsToCurrentMonth() {
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+
+        CardStatsResponse stats = cardStatsService.getCardStats(1L, null, null, authentication);
+
+        assertEquals(LocalDate.now(), stats.to());
+        assertEquals(LocalDate.now().withDayOfMonth(1), stats.from());
+        assertEquals(BigDecimal.ZERO, stats.totalSent());
+    }
+
+    @Test
+    void getCardStats_FromAfterTo_ThrowsException() {
+        assertThrows(BadRequestException.class, () -> cardStatsService.getCardStats(
+                1L, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), authentication));
+        verifyNoInteractions(cardDailyTotalRepository);
+    }
+
+    @Test
+    void getCardStats_RangeLongerThanYear_ThrowsException() {
+        assertThrows(BadRequestException.class, () -> cardStatsService.getCardStats(
+                1L, LocalDate.of(2023, 1, 1), LocalDate.of(2024, 6, 1), authentication));
+    }
+
+    @Test
+    void getCardStats_CardNotFound_ThrowsException() {
+        when(cardRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () ->
+                cardStatsService.getCardStats(1L, null, null, authentication));
+        verify(negativeLookupCache).markCardMissing(1L);
+    }
+
+    @Test
+    void getCardStats_OtherUsersCard_ThrowsException() {
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+        doThrow(new UnauthorizedException("Access denied"))
+                .when(securityHelper).validateUserAccess(authentication, 5L);
+
+        assertThrows(UnauthorizedException.class, () ->
+                cardStatsService.getCardStats(1L, null, null, authentication));
+        verify(cardDailyTotalRepository, never()).findByCardIdAndDateRange(any(), any(), any());
+    }
+
+    private static CardDailyTotal total(LocalDate date, String sent, String received, long sentCount, long receivedCount) {
+        return total(date, 0, sent, received, sentCount, receivedCount);
+    }
+
+    private static CardDailyTotal total(LocalDate date, int slot, String sent, String received,
+                                        long sentCount, long receivedCount) {
+        return CardDailyTotal.builder()
+                .id(new CardDailyTotal.Key(1L, date, slot))
+                .sentAmount(new BigDecimal(sent))
+                .receivedAmount(new BigDecimal(received))
+                .sentCount(sentCount)
+                .receivedCount(receivedCount)
+                .build();
+    }
+}
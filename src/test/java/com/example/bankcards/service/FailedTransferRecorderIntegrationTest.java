@@ -0,0 +1,61 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.repository.TransferRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "transfer.failures.enabled=true",
+        "transfer.failures.batch-size=50"
+})
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class FailedTransferRecorderIntegrationTest {
+
+    @Autowired
+    private FailedTransferRecorder failedTransferRecorder;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Test
+    void record_WritesFailedTransfersWithReason() throws InterruptedException {
+        for (int i = 0; i < 120; i++) {
+            assertTrue(failedTransferRecorder.record(1_000_001L, 1_000_002L, new BigDecimal("25.00"), "attempt " + i,
+                    Transfer.FailureReason.DAILY_LIMIT_EXCEEDED));
+        }
+
+        List<Transfer> failed = List.of();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            failed = transferRepository.findByCardId(1_000_001L, Pageable.unpaged()).getContent();
+            if (failed.size() == 120) {
+                break;
+            }
+            Thread.sleep(20);
+        }
+
+        assertEquals(120, failed.size());
+        for (Transfer transfer : failed) {
+            assertEquals(Transfer.TransferStatus.FAILED, transfer.getStatus());
+            assertEquals(Transfer.FailureReason.DAILY_LIMIT_EXCEEDED, transfer.getFailureReason());
+            assertEquals(0, new BigDecimal("25.00").compareTo(transfer.getAmount()));
+            assertNotNull(transfer.getCreatedAt());
+        }
+        assertEquals(BigDecimal.ZERO.compareTo(transferRepository.sumSentSince(1_000_001L,
+                failed.get(0).getCreatedAt().minusMinutes(1))), 0);
+        assertEquals(0, transferRepository.findViewsByCardId(1_000_001L, Pageable.unpaged()).getTotalElements());
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.constants.ErrorMessages;
+import com.example.bankcards.entity.Transfer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@Slf4j(topic = "benchmark")
+class FailedTransferRecorderTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private FailedTransferRecorder recorder;
+
+    @AfterEach
+    void tearDown() {
+        if (recorder != null) {
+            recorder.stop();
+        }
+    }
+
+    /**
+     * Floods a small queue while the database write is stuck: every attempt is either queued or
+     * counted as dropped, and the queued ones are written once the database recovers.
+     */
+    @Test
+    void record_FloodWhileWriterIsStuck_DropsOverflow() throws Exception {
+        flood(1_000, 100);
+    }
+
+    /**
+     * The same flood, logging the slowest {@code record()} call: callers must never wait for the
+     * stuck writer.
+     */
+    @Test
+    @Tag("benchmark")
+    void record_FloodWhileWriterIsStuck_NeverBlocks() throws Exception {
+        long slowestNanos = flood(1_000, 100);
+
+        log.info("slowest record() while flooded: {} us", TimeUnit.NANOSECONDS.toMicros(slowestNanos));
+        assertTrue(slowestNanos < TimeUnit.MILLISECONDS.toNanos(500), "record() blocked for " + slowestNanos + "ns");
+    }
+
+    @Test
+    void record_WritesReasonOfEachAttempt() throws Exception {
+        List<Object[]> rows = new ArrayList<>();
+        CountDownLatch flushed = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            Collection<Object> batch = invocation.getArgument(1);
+            ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+            for (Object attempt : batch) {
+                PreparedStatement statement = mock(PreparedStatement.class);
+                Object[] values = new Object[6];
+                doAnswer(set -> values[set.<Integer>getArgument(0) - 1] = set.getArgument(1))
+                        .when(statement).setString(anyInt(), any());
+                doAnswer(set -> values[set.<Integer>getArgument(0) - 1] = set.getArgument(1))
+                        .when(statement).setLong(anyInt(), any(Long.class));
+                setter.setValues(statement, attempt);
+                synchronized (rows) {
+                    rows.add(values);
+                }
+                flushed.countDown();
+            }
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(eq(FailedTransferRecorder.INSERT_SQL), anyCollection(), anyInt(), anySetter());
+
+        recorder = newRecorder(true, 10, 10);
+        recorder.start();
+        recorder.record(1L, 2L, BigDecimal.TEN, "rent", Transfer.FailureReason.INSUFFICIENT_BALANCE);
+        recorder.record(3L, 4L, BigDecimal.ONE, null, Transfer.FailureReason.NOT_DESTINATION_CARD_OWNER);
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        assertEquals(1L, rows.get(0)[0]);
+        assertEquals("rent", rows.get(0)[4]);
+        assertEquals(Transfer.FailureReason.INSUFFICIENT_BALANCE.name(), rows.get(0)[5]);
+        assertEquals(Transfer.FailureReason.NOT_DESTINATION_CARD_OWNER.name(), rows.get(1)[5]);
+    }
+
+    @Test
+    void record_DeclinedBeforeSourceOwnerCheck_IsNotQueued() {
+        recorder = newRecorder(true, 10, 10);
+
+        for (Transfer.FailureReason reason : List.of(Transfer.FailureReason.SAME_CARD,
+                Transfer.FailureReason.SOURCE_CARD_NOT_FOUND, Transfer.FailureReason.DESTINATION_CARD_NOT_FOUND,
+                Transfer.FailureReason.NOT_SOURCE_CARD_OWNER, Transfer.FailureReason.OTHER)) {
+            assertFalse(recorder.record(1L, 2L, BigDecimal.TEN, null, reason), reason.name());
+        }
+        assertEquals(0, recorder.queueDepth());
+        assertEquals(0.0, meterRegistry.get("transfer.failures.dropped").counter().count());
+    }
+
+    @Test
+    void record_Disabled_NeitherQueuesNorCountsDrops() {
+        recorder = newRecorder(false, 10, 10);
+        recorder.start();
+
+        assertFalse(recorder.record(1L, 2L, BigDecimal.TEN, null, Transfer.FailureReason.INSUFFICIENT_BALANCE));
+        assertEquals(0, recorder.queueDepth());
+        assertEquals(0.0, meterRegistry.get("transfer.failures.dropped").counter().count());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void fromMessage_MapsValidatorMessages() {
+        assertEquals(Transfer.FailureReason.SAME_CARD,
+                Transfer.FailureReason.fromMessage(ErrorMessages.TRANSFER_SAME_CARD));
+        assertEquals(Transfer.FailureReason.NOT_DESTINATION_CARD_OWNER,
+                Transfer.FailureReason.fromMessage(ErrorMessages.UNAUTHORIZED_TRANSFER_TO));
+        assertEquals(Transfer.FailureReason.DAILY_LIMIT_EXCEEDED,
+                Transfer.FailureReason.fromMessage(ErrorMessages.DAILY_LIMIT_EXCEEDED));
+        assertEquals(Transfer.FailureReason.OTHER, Transfer.FailureReason.fromMessage(null));
+    }
+
+    /**
+     * Blocks the writer on its first batch, floods the queue from several threads, then releases
+     * the writer and waits for everything queued to be written.
+     *
+     * @return the slowest {@code record()} call in nanoseconds
+     */
+    private long flood(int capacity, int batchSize) throws Exception {
+        int threads = 8;
+        int perThread = 50_000;
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch releaseWriter = new CountDownLatch(1);
+        AtomicLong written = new AtomicLong();
+        doAnswer(invocation -> {
+            writerBlocked.countDown();
+            releaseWriter.await();
+            written.addAndGet(invocation.<Collection<?>>getArgument(1).size());
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(eq(FailedTransferRecorder.INSERT_SQL), anyCollection(), anyInt(), anySetter());
+
+        recorder = newRecorder(true, capacity, batchSize);
+        recorder.start();
+        recorder.record(1L, 2L, BigDecimal.TEN, null, Transfer.FailureReason.INSUFFICIENT_BALANCE);
+        assertTrue(writerBlocked.await(5, TimeUnit.SECONDS));
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(pool.submit(() -> {
+                long accepted = 0;
+                long slowest = 0;
+                for (int i = 0; i < perThread; i++) {
+                    long start = System.nanoTime();
+                    if (recorder.record(1L, 2L, BigDecimal.TEN, null, Transfer.FailureReason.DAILY_LIMIT_EXCEEDED)) {
+                        accepted++;
+                    }
+                    slowest = Math.max(slowest, System.nanoTime() - start);
+                }
+                return new long[]{accepted, slowest};
+            }));
+        }
+        long accepted = 1;
+        long slowestNanos = 0;
+        for (Future<long[]> result : results) {
+            long[] value = result.get(30, TimeUnit.SECONDS);
+            accepted += value[0];
+            slowestNanos = Math.max(slowestNanos, value[1]);
+        }
+        pool.shutdown();
+
+        long total = 1L + (long) threads * perThread;
+        double dropped = meterRegistry.get("transfer.failures.dropped").counter().count();
+        assertEquals(capacity + 1, accepted);
+        assertEquals(total - accepted, (long) dropped);
+
+        releaseWriter.countDown();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (written.get() < accepted && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(accepted, written.get());
+        assertEquals(0, recorder.queueDepth());
+        assertEquals(accepted, (long) meterRegistry.get("transfer.failures.recorded").counter().count());
+        return slowestNanos;
+    }
+
+    private static ParameterizedPreparedStatementSetter<Object> anySetter() {
+        return any();
+    }
+
+    private FailedTransferRecorder newRecorder(boolean enabled, int capacity, int batchSize) {
+        return new FailedTransferRecorder(jdbcTemplate, meterRegistry, enabled, capacity, batchSize);
+    }
+}
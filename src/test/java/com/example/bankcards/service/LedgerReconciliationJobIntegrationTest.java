@@ -0,0 +1,180 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.BalanceMismatch;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.ReconciliationState;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.BalanceMismatchRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.ReconciliationStateRepository;
+import com.example.bankcards.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class LedgerReconciliationJobIntegrationTest {
+
+    private static final int BULK_TRANSFERS = 100_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private ReconciliationStateRepository stateRepository;
+
+    @Autowired
+    private BalanceMismatchRepository mismatchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Seeds a bulk of consistent transfers plus one with a missing credit, one credited ten times
+     * over and one failed transfer without entries, then checks that only the two broken cards are
+     * reported, that later runs only look at new transfers, and that a repeated range does not
+     * duplicate mismatches.
+     */
+    @Test
+    void reconcile_RecordsMismatchesAndOnlyScansNewTransfers() {
+        List<Long> cards = cards(4);
+        LocalDateTime createdAt = LocalDateTime.now().minusMinutes(1);
+        Long start = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM transfers", Long.class);
+        stateRepository.save(state(start));
+
+        jdbcTemplate.update("INSERT INTO transfers (from_card_id, to_card_id, amount, status, created_at) " +
+                "SELECT ?, ?, 1.00, 'SUCCESS', ? FROM SYSTEM_RANGE(1, ?)",
+                cards.get(0), cards.get(1), Timestamp.valueOf(createdAt), BULK_TRANSFERS);
+        jdbcTemplate.update("INSERT INTO ledger_entries (transfer_id, card_id, entry_type, amount, created_at) " +
+                "SELECT id, from_card_id, 'DEBIT', -amount, created_at FROM transfers WHERE id > ?", start);
+        jdbcTemplate.update("INSERT INTO ledger_entries (transfer_id, card_id, entry_type, amount, created_at) " +
+                "SELECT id, to_card_id, 'CREDIT', amount, created_at FROM transfers WHERE id > ?", start);
+        transfer(cards.get(1), cards.get(2), new BigDecimal("5.00"), "SUCCESS", createdAt, false, false);
+        transfer(cards.get(2), cards.get(3), new BigDecimal("7.00"), "SUCCESS", createdAt, true, true);
+        transfer(cards.get(0), cards.get(3), new BigDecimal("9.00"), "FAILED", createdAt, false, false);
+
+        LedgerReconciliationJob job = job();
+        LedgerReconciliationJob.Run first = job.reconcile();
+
+        assertEquals(start, first.fromTransferId());
+        assertEquals(start + BULK_TRANSFERS + 3, first.toTransferId());
+        List<BalanceMismatch> mismatches = mismatchRepository.findByCardIdInOrderByCardId(cards);
+        assertEquals(List.of(cards.get(2), cards.get(3)), mismatches.stream().map(BalanceMismatch::getCardId).toList());
+        assertEquals(0, new BigDecimal("-2.00").compareTo(mismatches.get(0).getExpectedDelta()));
+        assertEquals(0, new BigDecimal("-7.00").compareTo(mismatches.get(0).getPostedDelta()));
+        assertEquals(0, new BigDecimal("7.00").compareTo(mismatches.get(1).getExpectedDelta()));
+        assertEquals(0, new BigDecimal("70.00").compareTo(mismatches.get(1).getPostedDelta()));
+
+        LedgerReconciliationJob.Run idle = job.reconcile();
+        assertEquals(first.toTransferId(), idle.fromTransferId());
+        assertEquals(first.toTransferId(), idle.toTransferId());
+        assertEquals(0, idle.chunks());
+
+        long next = transfer(cards.get(0), cards.get(1), new BigDecimal("3.00"), "SUCCESS", createdAt, true, false);
+        LedgerReconciliationJob.Run incremental = job.reconcile();
+        assertEquals(first.toTransferId(), incremental.fromTransferId());
+        assertEquals(next, incremental.toTransferId());
+        assertEquals(1, incremental.chunks());
+        assertEquals(0, incremental.mismatches());
+
+        // Повтор уже проверенного диапазона, как после сбоя до сдвига отметки
+        stateRepository.save(state(start));
+        job.reconcile();
+        assertEquals(2, mismatchRepository.findByCardIdInOrderByCardId(cards).size());
+        assertEquals(next, stateRepository.findById(LedgerReconciliationJob.STATE_NAME).orElseThrow().getHighWaterMark());
+    }
+
+    private LedgerReconciliationJob job() {
+        return new LedgerReconciliationJob(stateRepository, jdbcTemplate, transactionManager,
+                new SimpleMeterRegistry(), false, 10_000, 4, 0);
+    }
+
+    private static ReconciliationState state(long highWaterMark) {
+        return ReconciliationState.builder()
+                .name(LedgerReconciliationJob.STATE_NAME)
+                .highWaterMark(highWaterMark)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Inserts a transfer with its debit entry and, if {@code credit} is set, its credit entry,
+     * posted ten times too large if {@code inflateCredit} is set.
+     */
+    private long transfer(Long from, Long to, BigDecimal amount, String status, LocalDateTime createdAt,
+                          boolean credit, boolean inflateCredit) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO transfers (from_card_id, to_card_id, amount, status, created_at) VALUES (?, ?, ?, ?, ?)",
+                    new String[]{"id"});
+            statement.setLong(1, from);
+            statement.setLong(2, to);
+            statement.setBigDecimal(3, amount);
+            statement.setString(4, status);
+            statement.setTimestamp(5, timestamp);
+            return statement;
+        }, keyHolder);
+        long transferId = keyHolder.getKey().longValue();
+        if (!"SUCCESS".equals(status)) {
+            return transferId;
+        }
+        String entrySql = "INSERT INTO ledger_entries (transfer_id, card_id, entry_type, amount, created_at) VALUES (?, ?, ?, ?, ?)";
+        jdbcTemplate.update(entrySql, transferId, from, "DEBIT", amount.negate(), timestamp);
+        if (credit) {
+            jdbcTemplate.update(entrySql, transferId, to, "CREDIT",
+                    inflateCredit ? amount.multiply(BigDecimal.TEN) : amount, timestamp);
+        }
+        return transferId;
+    }
+
+    private List<Long> cards(int count) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = userRepository.save(User.builder()
+                .username("reconcile-" + suffix)
+                .email("reconcile-" + suffix + "@example.com")
+                .password("password")
+                .fullName("Reconcile Owner")
+                .createdAt(LocalDateTime.now())
+                .build());
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(cardRepository.save(Card.builder()
+                    .cardNumber("reconcile-" + suffix + "-" + i)
+                    .expiryDate(LocalDate.now().plusYears(2))
+                    .status(Card.CardStatus.ACTIVE)
+                    .openingBalance(new BigDecimal("1000000.00"))
+                    .user(user)
+                    .createdAt(LocalDateTime.now())
+                    .build()).getId());
+        }
+        return ids;
+    }
+}
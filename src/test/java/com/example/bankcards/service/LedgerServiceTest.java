@@ -0,0 +1,268 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardBalanceSnapshot;
+import com.example.bankcards.entity.LedgerEntry;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.dto.CardBalanceSlotsResponse;
+import com.example.bankcards.entity.CardBalanceSlot;
+import com.example.bankcards.money.Money;
+import com.example.bankcards.repository.CardBalanceSlotRepository;
+import com.example.bankcards.repository.CardBalanceSnapshotRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Mock
+    private CardBalanceSnapshotRepository snapshotRepository;
+
+    @Mock
+    private CardStatsService cardStatsService;
+
+    @Mock
+    private CardBalanceSlotRepository balanceSlotRepository;
+
+    @InjectMocks
+    private LedgerService ledgerService;
+
+    private Card fromCard;
+    private Card toCard;
+
+    @BeforeEach
+    void setUp() {
+        fromCard = Card.builder().id(1L).openingBalance(new BigDecimal("1000.00")).balance(Money.parse("1000.00")).build();
+        toCard = Card.builder().id(2L).openingBalance(new BigDecimal("500.00")).balance(Money.parse("500.00")).build();
+        lenient().when(ledgerEntryRepository.sumAmounts(any(), any(), any())).thenReturn(BigDecimal.ZERO);
+    }
+
+    @Test
+    void lockForPosting_LocksCardsInAscendingIdOrder() {
+        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(toCard));
+
+        LedgerService.PostingCards cards = ledgerService.lockForPosting(2L, 1L);
+
+        assertSame(toCard, cards.fromCard());
+        assertSame(fromCard, cards.toCard());
+        InOrder inOrder = inOrder(cardRepository);
+        inOrder.verify(cardRepository).findByIdForUpdate(1L);
+        inOrder.verify(cardRepository).findByIdForUpdate(2L);
+    }
+
+    @Test
+    void lockCards_LocksBatchInAscendingIdOrder() {
+        ledgerService.lockCards(List.of(3L, 1L, 2L, 1L));
+
+        InOrder inOrder = inOrder(cardRepository);
+        inOrder.verify(cardRepository).findByIdForUpdate(1L);
+        inOrder.verify(cardRepository).findByIdForUpdate(2L);
+        inOrder.verify(cardRepository).findByIdForUpdate(3L);
+        verify(cardRepository, times(3)).findByIdForUpdate(any());
+    }
+
+    @Test
+    void lockForPosting_RereadsBalanceAfterLock() {
+        fromCard.setBalance(Money.parse("1000.00"));
+        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(toCard));
+        when(snapshotRepository.findFirstByCardIdOrderByLastEntryIdDesc(1L)).thenReturn(Optional.of(
+                CardBalanceSnapshot.builder().cardId(1L).lastEntryId(7L).balance(new BigDecimal("300.00")).build()));
+        when(ledgerEntryRepository.sumAmounts(1L, 7L, Long.MAX_VALUE)).thenReturn(new BigDecimal("-250.00"));
+
+        LedgerService.PostingCards cards = ledgerService.lockForPosting(1L, 2L);
+
+        assertEquals(Money.parse("50.00"), cards.fromCard().getBalance());
+        assertEquals(Money.parse("500.00"), cards.toCard().getBalance());
+    }
+
+    @Test
+    void lockForPosting_MissingDestination_ThrowsException() {
+        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findByIdForUpdate(2L)).thenReturn(Optional.empty());
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () ->
+                ledgerService.lockForPosting(1L, 2L));
+
+        assertEquals("Destination card not found", exception.getMessage());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void post_WritesBalancedDebitAndCredit() {
+        Transfer transfer = Transfer.builder().id(10L).fromCardId(1L).toCardId(2L).amount(new BigDecimal("100.00")).build();
+        when(ledgerEntryRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ledgerService.post(transfer, new LedgerService.PostingCards(fromCard, toCard, 3));
+
+        ArgumentCaptor<List<LedgerEntry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(ledgerEntryRepository).saveAll(captor.capture());
+        List<LedgerEntry> entries = captor.getValue();
+        assertEquals(2, entries.size());
+        assertEquals(LedgerEntry.EntryType.DEBIT, entries.get(0).getEntryType());
+        assertEquals(1L, entries.get(0).getCardId());
+        assertEquals(new BigDecimal("-100.00"), entries.get(0).getAmount());
+        assertEquals(LedgerEntry.EntryType.CREDIT, entries.get(1).getEntryType());
+        assertEquals(2L, entries.get(1).getCardId());
+        assertEquals(new BigDecimal("100.00"), entries.get(1).getAmount());
+        assertEquals(Money.parse("900.00"), fromCard.getBalance());
+        assertEquals(Money.parse("600.00"), toCard.getBalance());
+        verify(cardRepository, never()).save(any());
+        verify(cardStatsService).recordTransfer(transfer, 3);
+    }
+
+    @Test
+    void lockForPosting_StripedDestination_LocksSlotInsteadOfCard() {
+        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findBalanceSlots(2L)).thenReturn(4);
+        when(balanceSlotRepository.findForUpdate(eq(2L), anyInt()))
+                .thenAnswer(invocation -> Optional.of(new CardBalanceSlot(
+                        new CardBalanceSlot.Key(2L, invocation.getArgument(1)))));
+        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
+
+        LedgerService.PostingCards cards = ledgerService.lockForPosting(1L, 2L);
+
+        assertSame(fromCard, cards.fromCard());
+        assertSame(toCard, cards.toCard());
+        assertTrue(cards.toSlot() >= 1 && cards.toSlot() <= 4, "slot 0 of the totals belongs to the card row lock");
+        verify(balanceSlotRepository).findForUpdate(2L, cards.toSlot() - 1);
+        verify(cardRepository, never()).findByIdForUpdate(2L);
+    }
+
+    @Test
+    void lockForPosting_StripedDestinationSlotRemoved_FallsBackToCardLock() {
+        when(cardRepository.findBalanceSlots(2L)).thenReturn(4);
+        when(balanceSlotRepository.findForUpdate(eq(2L), anyInt())).thenReturn(Optional.empty());
+        when(cardRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(toCard));
+        when(cardRepository.findByIdForUpdate(3L)).thenReturn(Optional.of(fromCard));
+
+        LedgerService.PostingCards cards = ledgerService.lockForPosting(3L, 2L);
+
+        assertSame(toCard, cards.toCard());
+        assertEquals(0, cards.toSlot());
+        InOrder inOrder = inOrder(cardRepository);
+        inOrder.verify(cardRepository).findByIdForUpdate(2L);
+        inOrder.verify(cardRepository).findByIdForUpdate(3L);
+    }
+
+    @Test
+    void updateBalanceSlots_AddsMissingSlots() {
+        when(cardRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(toCard));
+        when(balanceSlotRepository.lockAll(2L)).thenReturn(List.of(new CardBalanceSlot(new CardBalanceSlot.Key(2L, 0))));
+
+        CardBalanceSlotsResponse response = ledgerService.updateBalanceSlots(2L, 3);
+
+        assertEquals(3, response.slots());
+        assertEquals(3, toCard.getBalanceSlots());
+        verify(balanceSlotRepository).saveAll(List.of(
+                new CardBalanceSlot(new CardBalanceSlot.Key(2L, 1)),
+                new CardBalanceSlot(new CardBalanceSlot.Key(2L, 2))));
+        verify(balanceSlotRepository, never()).deleteFromSlot(any(), anyInt());
+    }
+
+    @Test
+    void updateBalanceSlots_OneSlot_RemovesAllSlots() {
+        toCard.setBalanceSlots(4);
+        List<CardBalanceSlot> existing = List.of(
+                new CardBalanceSlot(new CardBalanceSlot.Key(2L, 0)), new CardBalanceSlot(new CardBalanceSlot.Key(2L, 1)),
+                new CardBalanceSlot(new CardBalanceSlot.Key(2L, 2)), new CardBalanceSlot(new CardBalanceSlot.Key(2L, 3)));
+        when(cardRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(toCard));
+        when(balanceSlotRepository.lockAll(2L)).thenReturn(existing);
+
+        ledgerService.updateBalanceSlots(2L, 1);
+
+        assertEquals(1, toCard.getBalanceSlots());
+        verify(balanceSlotRepository).deleteFromSlot(2L, 0);
+    }
+
+    @Test
+    void getBalance_NoSnapshot_AddsEntriesToOpeningBalance() {
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
+        when(snapshotRepository.findFirstByCardIdOrderByLastEntryIdDesc(1L)).thenReturn(Optional.empty());
+        when(ledgerEntryRepository.findLastEntryId(1L)).thenReturn(7L);
+        when(ledgerEntryRepository.sumAmounts(1L, 0L, 7L)).thenReturn(new BigDecimal("-250.00"));
+
+        assertEquals(new BigDecimal("750.00"), ledgerService.getBalance(1L));
+    }
+
+    @Test
+    void getBalance_WithSnapshot_AddsOnlyEntriesAfterSnapshot() {
+        CardBalanceSnapshot snapshot = CardBalanceSnapshot.builder()
+                .cardId(1L).lastEntryId(5L).balance(new BigDecimal("300.00")).build();
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
+        when(snapshotRepository.findFirstByCardIdOrderByLastEntryIdDesc(1L)).thenReturn(Optional.of(snapshot));
+        when(ledgerEntryRepository.findLastEntryId(1L)).thenReturn(9L);
+        when(ledgerEntryRepository.sumAmounts(1L, 5L, 9L)).thenReturn(new BigDecimal("20.00"));
+
+        assertEquals(new BigDecimal("320.00"), ledgerService.getBalance(1L));
+    }
+
+    @Test
+    void snapshot_FoldsEntriesSinceLatestSnapshot() {
+        CardBalanceSnapshot latest = CardBalanceSnapshot.builder()
+                .cardId(1L).lastEntryId(5L).balance(new BigDecimal("300.00")).build();
+        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(fromCard));
+        when(snapshotRepository.findFirstByCardIdOrderByLastEntryIdDesc(1L)).thenReturn(Optional.of(latest));
+        when(ledgerEntryRepository.findLastEntryId(1L)).thenReturn(12L);
+        when(ledgerEntryRepository.sumAmounts(1L, 5L, 12L)).thenReturn(new BigDecimal("-50.00"));
+        when(snapshotRepository.save(any(CardBalanceSnapshot.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CardBalanceSnapshot snapshot = ledgerService.snapshot(1L).orElseThrow();
+
+        assertEquals(12L, snapshot.getLastEntryId());
+        assertEquals(new BigDecimal("250.00"), snapshot.getBalance());
+    }
+
+    @Test
+    void snapshot_NothingPostedSinceLatest_ReturnsEmpty() {
+        CardBalanceSnapshot latest = CardBalanceSnapshot.builder()
+                .cardId(1L).lastEntryId(5L).balance(new BigDecimal("300.00")).build();
+        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(fromCard));
+        when(snapshotRepository.findFirstByCardIdOrderByLastEntryIdDesc(1L)).thenReturn(Optional.of(latest));
+        when(ledgerEntryRepository.findLastEntryId(1L)).thenReturn(5L);
+
+        assertTrue(ledgerService.snapshot(1L).isEmpty());
+        verify(snapshotRepository, never()).save(any());
+        verify(balanceSlotRepository, never()).lockAll(any());
+    }
+
+    @Test
+    void snapshot_StripedCard_LocksAllSlots() {
+        toCard.setBalanceSlots(4);
+        when(cardRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(toCard));
+        when(snapshotRepository.findFirstByCardIdOrderByLastEntryIdDesc(2L)).thenReturn(Optional.empty());
+
+        ledgerService.snapshot(2L);
+
+        InOrder inOrder = inOrder(cardRepository, balanceSlotRepository, ledgerEntryRepository);
+        inOrder.verify(cardRepository).findByIdForUpdate(2L);
+        inOrder.verify(balanceSlotRepository).lockAll(2L);
+        inOrder.verify(ledgerEntryRepository).findLastEntryId(2L);
+    }
+}
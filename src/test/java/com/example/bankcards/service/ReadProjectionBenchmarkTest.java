@@ -0,0 +1,215 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardResponse;
+import com.example.bankcards.dto.TransferResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.mapper.TransferMapper;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.CardEncryptionUtil;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reads 100-row pages of a card's transfers and of a user's cards once as managed entities, the
+ * way {@code getTransferHistory} and {@code getUserCards} did before, and once through the record
+ * projections they use now. The responses must be identical; the {@code benchmark} measurement
+ * also logs bytes allocated and time per page for both and checks that the projections allocate
+ * less.
+ */
+@Slf4j(topic = "benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ReadProjectionBenchmarkTest {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int TRANSFERS = 5_000;
+    private static final int CARDS = PAGE_SIZE;
+    private static final int WARM_UP = 30;
+    private static final int ROUNDS = 100;
+    private static final Pageable TRANSFER_PAGE = PageRequest.of(3, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt"));
+    private static final Pageable CARD_PAGE = PageRequest.of(0, PAGE_SIZE, Sort.by("id"));
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private CardMapper cardMapper;
+
+    @Autowired
+    private TransferMapper transferMapper;
+
+    @Autowired
+    private CardEncryptionUtil cardEncryptionUtil;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+    private Long userId;
+    private Long cardId;
+
+    @BeforeEach
+    void seed() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = userRepository.save(User.builder()
+                .username("projection-" + suffix)
+                .email("projection-" + suffix + "@example.com")
+                .password("password")
+                .fullName("Projection User")
+                .createdAt(LocalDateTime.now())
+                .build());
+        userId = user.getId();
+        List<Long> cards = new ArrayList<>();
+        for (int i = 0; i < CARDS; i++) {
+            cards.add(cardRepository.save(Card.builder()
+                    .cardNumber(cardEncryptionUtil.encrypt(String.format("4000%04d%08d", i, Math.abs(suffix.hashCode()) % 100_000_000)))
+                    .expiryDate(LocalDate.now().plusYears(3))
+                    .status(Card.CardStatus.ACTIVE)
+                    .openingBalance(new BigDecimal("1000.00"))
+                    .user(user)
+                    .createdAt(LocalDateTime.now())
+                    .build()).getId());
+        }
+        cardId = cards.get(0);
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        List<Object[]> batch = new ArrayList<>(TRANSFERS);
+        for (int i = 0; i < TRANSFERS; i++) {
+            batch.add(new Object[] {
+                    cardId, cards.get(1 + i % (CARDS - 1)), BigDecimal.valueOf(i % 500 + 1, 2),
+                    Timestamp.valueOf(start.plusSeconds(i * 60L)), "Payment " + i
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO transfers (from_card_id, to_card_id, amount, status, created_at, description) " +
+                "VALUES (?, ?, ?, 'SUCCESS', ?, ?)", batch);
+    }
+
+    @Test
+    void projections_MatchEntityPages() {
+        assertEquals(inTransaction(transfersBefore()), inTransaction(transfersAfter()));
+        assertEquals(PAGE_SIZE, inTransaction(transfersAfter()).size());
+        assertEquals(inTransaction(cardsBefore()), inTransaction(cardsAfter()));
+        assertEquals(CARDS, inTransaction(cardsAfter()).size());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void projections_AllocateLessPerPageThanEntities() {
+        Measurement transferEntities = measure(transfersBefore());
+        Measurement transferViews = measure(transfersAfter());
+        Measurement cardEntities = measure(cardsBefore());
+        Measurement cardViews = measure(cardsAfter());
+
+        log.info("transfer history, entities: {}", transferEntities);
+        log.info("transfer history, projection: {}", transferViews);
+        log.info("user cards, entities: {}", cardEntities);
+        log.info("user cards, projection: {}", cardViews);
+
+        assertTrue(transferViews.bytesPerPage() < transferEntities.bytesPerPage(),
+                "transfer projection allocated " + transferViews + " vs entities " + transferEntities);
+        assertTrue(cardViews.bytesPerPage() < cardEntities.bytesPerPage(),
+                "card projection allocated " + cardViews + " vs entities " + cardEntities);
+    }
+
+    private Supplier<List<TransferResponse>> transfersBefore() {
+        return () -> transferRepository.findByCardId(cardId, TRANSFER_PAGE)
+                .map(transferMapper::toResponse).getContent();
+    }
+
+    private Supplier<List<TransferResponse>> transfersAfter() {
+        return () -> transferRepository.findViewsByCardId(cardId, TRANSFER_PAGE)
+                .map(transferMapper::toResponse).getContent();
+    }
+
+    private Supplier<List<CardResponse>> cardsBefore() {
+        return () -> entityCardPage(CARD_PAGE);
+    }
+
+    private Supplier<List<CardResponse>> cardsAfter() {
+        return () -> cardRepository.findViewsByUserId(userId, CARD_PAGE)
+                .map(cardMapper::toResponse).getContent();
+    }
+
+    /**
+     * The former {@code findByUserId(userId, pageable)}: cards with their owner fetched by the
+     * entity graph, plus the count query of the page.
+     */
+    private List<CardResponse> entityCardPage(Pageable pageable) {
+        List<Card> cards = entityManager.createQuery(
+                        "SELECT c FROM Card c JOIN FETCH c.user WHERE c.user.id = :userId ORDER BY c.id", Card.class)
+                .setParameter("userId", userId)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        Long total = entityManager.createQuery("SELECT COUNT(c) FROM Card c WHERE c.user.id = :userId", Long.class)
+                .setParameter("userId", userId)
+                .getSingleResult();
+        return new PageImpl<>(cards, pageable, total).map(cardMapper::toResponse).getContent();
+    }
+
+    private <T> T inTransaction(Supplier<T> read) {
+        return readOnly.execute(status -> read.get());
+    }
+
+    private Measurement measure(Supplier<?> read) {
+        for (int i = 0; i < WARM_UP; i++) {
+            inTransaction(read);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            inTransaction(read);
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Measurement(allocated / ROUNDS, nanos / ROUNDS / 1_000);
+    }
+
+    private record Measurement(long bytesPerPage, long microsPerPage) {}
+}
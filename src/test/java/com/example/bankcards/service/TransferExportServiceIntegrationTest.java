@@ -0,0 +1,254 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.TooManyRequestsException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "transfer.export.max-concurrent=" + TransferExportServiceIntegrationTest.MAX_CONCURRENT_EXPORTS)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class TransferExportServiceIntegrationTest {
+
+    static final int MAX_CONCURRENT_EXPORTS = 2;
+    private static final int ROWS = 300_000;
+
+    @Autowired
+    private TransferExportService transferExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long cardId;
+    private Long otherCardId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = userRepository.save(User.builder()
+                .username("export-" + suffix)
+                .email("export-" + suffix + "@example.com")
+                .password("password")
+                .fullName("Export User")
+                .createdAt(LocalDateTime.now())
+                .build());
+        cardId = cardRepository.save(card(user, "export-" + suffix + "-a")).getId();
+        otherCardId = cardRepository.save(card(user, "export-" + suffix + "-b")).getId();
+    }
+
+    /**
+     * Streams a large history through a sink that keeps only a running check of the output.
+     */
+    @Test
+    void write_LargeHistoryAsCsv_StreamsEveryRowInOrder() throws IOException {
+        insertTransfers(ROWS);
+        CsvCheckingSink sink = new CsvCheckingSink();
+
+        long written = transferExportService.write(cardId, TransferExportService.Format.CSV, sink);
+
+        assertEquals(ROWS, written);
+        assertEquals(ROWS, sink.rows);
+        assertEquals("id,fromCardId,toCardId,amount,fxRate,creditedAmount,status,createdAt,description", sink.header);
+    }
+
+    @Test
+    void write_Ndjson_WritesOneObjectPerLine() throws IOException {
+        insertTransfers(3);
+        jdbcTemplate.update("UPDATE transfers SET description = ? WHERE to_card_id = ? AND amount = 2.00",
+                "rent, \"march\"\nline two", cardId);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = transferExportService.write(cardId, TransferExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, written);
+        assertEquals(3, lines.length);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals(cardId.longValue(), second.get("toCardId").asLong());
+        assertTrue(lines[1].contains("\"amount\":2.00"), lines[1]);
+        assertEquals("rent, \"march\"\nline two", second.get("description").asText());
+        assertEquals("SUCCESS", second.get("status").asText());
+        assertTrue(second.get("fxRate").isNull());
+        assertTrue(lines[1].contains("\"creditedAmount\":2.00"), lines[1]);
+    }
+
+    @Test
+    void write_CrossCurrencyTransfer_ExportsRateAndCreditedAmount() throws IOException {
+        jdbcTemplate.update("INSERT INTO transfers (from_card_id, to_card_id, amount, fx_rate, credited_amount, status, " +
+                        "created_at, description) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                otherCardId, cardId, new BigDecimal("100.00"), new BigDecimal("0.92000000"), new BigDecimal("92.00"),
+                "SUCCESS", Timestamp.valueOf(LocalDateTime.now()), "fx");
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+
+        transferExportService.write(cardId, TransferExportService.Format.CSV, csv);
+        transferExportService.write(cardId, TransferExportService.Format.NDJSON, ndjson);
+
+        String[] columns = csv.toString(StandardCharsets.UTF_8).split("\n")[1].split(",", -1);
+        assertEquals("100.00", columns[3]);
+        assertEquals("0.92000000", columns[4]);
+        assertEquals("92.00", columns[5]);
+        JsonNode row = objectMapper.readTree(ndjson.toString(StandardCharsets.UTF_8));
+        assertEquals(0, new BigDecimal("100.00").compareTo(row.get("amount").decimalValue()));
+        assertEquals(0, new BigDecimal("0.92").compareTo(row.get("fxRate").decimalValue()));
+        assertEquals(0, new BigDecimal("92.00").compareTo(row.get("creditedAmount").decimalValue()));
+    }
+
+    @Test
+    void write_Csv_QuotesDescriptionsWithSeparators() throws IOException {
+        insertTransfers(1);
+        jdbcTemplate.update("UPDATE transfers SET description = ? WHERE from_card_id = ?", "a, \"b\"", cardId);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        transferExportService.write(cardId, TransferExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertTrue(lines[1].endsWith(",\"a, \"\"b\"\"\""), lines[1]);
+    }
+
+    @Test
+    void write_Csv_NeutralisesFormulaDescriptions() throws IOException {
+        insertTransfers(4);
+        String[] descriptions = {"=HYPERLINK(\"http://x\")", "+1", "-2", "@SUM(A1)"};
+        for (int i = 0; i < descriptions.length; i++) {
+            jdbcTemplate.update("UPDATE transfers SET description = ? WHERE description = ? AND (from_card_id = ? OR to_card_id = ?)",
+                    descriptions[i], "Transfer " + i, cardId, cardId);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        transferExportService.write(cardId, TransferExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertTrue(lines[1].endsWith(",\"'=HYPERLINK(\"\"http://x\"\")\""), lines[1]);
+        assertTrue(lines[2].endsWith(",\"'+1\""), lines[2]);
+        assertTrue(lines[3].endsWith(",\"'-2\""), lines[3]);
+        assertTrue(lines[4].endsWith(",\"'@SUM(A1)\""), lines[4]);
+    }
+
+    @Test
+    void export_AllSlotsTaken_RejectsUntilOneIsReleased() throws IOException {
+        insertTransfers(1);
+        Authentication admin = new UsernamePasswordAuthenticationToken("admin", null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        List<StreamingResponseBody> running = new ArrayList<>();
+        for (int i = 0; i < MAX_CONCURRENT_EXPORTS; i++) {
+            running.add(transferExportService.export(cardId, TransferExportService.Format.CSV, admin));
+        }
+
+        assertThrows(TooManyRequestsException.class,
+                () -> transferExportService.export(cardId, TransferExportService.Format.CSV, admin));
+
+        running.remove(0).writeTo(new ByteArrayOutputStream());
+        running.add(transferExportService.export(cardId, TransferExportService.Format.CSV, admin));
+        for (StreamingResponseBody body : running) {
+            body.writeTo(new ByteArrayOutputStream());
+        }
+    }
+
+    /**
+     * Card {@code cardId} sends the even rows and receives the odd ones, so both sides of the
+     * history are exported.
+     */
+    private void insertTransfers(int count) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < count; i++) {
+            boolean sent = i % 2 == 0;
+            batch.add(new Object[] {sent ? cardId : otherCardId, sent ? otherCardId : cardId,
+                    new BigDecimal(i % 100 + 1).setScale(2), "SUCCESS", createdAt, "Transfer " + i});
+            if (batch.size() == 10_000 || i == count - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO transfers (from_card_id, to_card_id, amount, status, created_at, " +
+                        "description) VALUES (?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private static Card card(User user, String number) {
+        return Card.builder()
+                .cardNumber(number)
+                .expiryDate(LocalDate.now().plusYears(2))
+                .status(Card.CardStatus.ACTIVE)
+                .openingBalance(BigDecimal.ZERO)
+                .user(user)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Checks each CSV line as it arrives (ids strictly increasing, nine columns) without keeping
+     * the output.
+     */
+    private static final class CsvCheckingSink extends OutputStream {
+
+        private final StringBuilder line = new StringBuilder();
+        private String header;
+        private long rows;
+        private long lastId;
+
+        @Override
+        public void write(int b) {
+            if (b != '\n') {
+                line.append((char) b);
+                return;
+            }
+            if (header == null) {
+                header = line.toString();
+            } else {
+                String[] columns = line.toString().split(",", -1);
+                assertEquals(9, columns.length, line.toString());
+                long id = Long.parseLong(columns[0]);
+                assertTrue(id > lastId, "ids out of order");
+                lastId = id;
+                rows++;
+            }
+            line.setLength(0);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                write(buffer[i]);
+            }
+        }
+    }
+}
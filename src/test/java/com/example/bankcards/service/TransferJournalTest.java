@@ -0,0 +1,77 @@
+package com.example.bankcards.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recover_ReturnsOnlyTransfersWithoutDoneMarker() {
+        Path path = tempDir.resolve("journal.log");
+        QueuedTransfer first = new QueuedTransfer("r1", 1L, 10L, 20L, new BigDecimal("10.50"), "rent | june");
+        QueuedTransfer second = new QueuedTransfer("r2", 1L, 10L, 20L, new BigDecimal("5.00"), null);
+
+        try (TransferJournal journal = new TransferJournal(path, false)) {
+            assertTrue(journal.recover().isEmpty());
+            journal.appendEnqueued(first);
+            journal.appendEnqueued(second);
+            journal.appendDone(List.of("r1"));
+        }
+
+        try (TransferJournal journal = new TransferJournal(path, false)) {
+            List<QueuedTransfer> pending = journal.recover();
+
+            assertEquals(List.of(second), pending);
+        }
+    }
+
+    @Test
+    void recover_CompactsJournalToPendingEntries() throws Exception {
+        Path path = tempDir.resolve("journal.log");
+        QueuedTransfer transfer = new QueuedTransfer("r1", 1L, 10L, 20L, BigDecimal.ONE, "description");
+
+        try (TransferJournal journal = new TransferJournal(path, true)) {
+            journal.recover();
+            journal.appendEnqueued(transfer);
+        }
+        try (TransferJournal journal = new TransferJournal(path, false)) {
+            assertEquals(List.of(transfer), journal.recover());
+            journal.appendDone(List.of("r1"));
+        }
+        try (TransferJournal journal = new TransferJournal(path, false)) {
+            assertTrue(journal.recover().isEmpty());
+        }
+
+        assertTrue(Files.readAllLines(path).isEmpty());
+    }
+
+    @Test
+    void recover_SkipsMalformedLines() throws Exception {
+        Path path = tempDir.resolve("journal.log");
+        Files.writeString(path, "garbage\nE|r1|1|10|20|1.00|\n");
+
+        try (TransferJournal journal = new TransferJournal(path, false)) {
+            List<QueuedTransfer> pending = journal.recover();
+
+            assertEquals(1, pending.size());
+            assertNull(pending.get(0).description());
+        }
+    }
+
+    @Test
+    void append_BeforeRecover_ThrowsException() {
+        TransferJournal journal = new TransferJournal(tempDir.resolve("journal.log"), false);
+
+        assertThrows(IllegalStateException.class, () -> journal.appendDone(List.of("r1")));
+    }
+}
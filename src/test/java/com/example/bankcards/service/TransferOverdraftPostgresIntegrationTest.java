@@ -0,0 +1,135 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.InsufficientBalanceException;
+import com.example.bankcards.money.Money;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Two transfers from the same card that together exceed its balance, the second one queued on the
+ * card lock while the first is still uncommitted. Needs the READ COMMITTED semantics of the
+ * {@code postgres} profile's database, where the locking statement reads a snapshot taken before
+ * it waited: only the second statement after the lock sees the first transfer. Runs with
+ * {@code mvn test -Ppostgres} against the database from {@code docker-compose.yml}.
+ */
+@Tag("postgres")
+@SpringBootTest(properties = {
+        "transfer.scheduled.enabled=false",
+        "transfer.recurring.enabled=false",
+        "statement.enabled=false",
+        "ledger.snapshot.enabled=false",
+        "ledger.reconcile.enabled=false",
+        "outbox.relay.enabled=false",
+        "limits.reconcile.enabled=false",
+        "rate-limit.enabled=false"
+})
+@ActiveProfiles("postgres")
+class TransferOverdraftPostgresIntegrationTest {
+
+    private static final BigDecimal OPENING = new BigDecimal("100.00");
+    private static final Money AMOUNT = Money.parse("70.00");
+    private static final long HOLD_LOCK_MS = 500;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void transfer_QueuedOnCardLock_SeesBalanceCommittedByHolder() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = userRepository.save(User.builder()
+                .username("overdraft-" + suffix)
+                .email("overdraft-" + suffix + "@example.com")
+                .password("password")
+                .fullName("Overdraft User")
+                .createdAt(LocalDateTime.now())
+                .build());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(user.getUsername(), null, List.of());
+        Long fromCardId = cardRepository.save(card(user, "overdraft-" + suffix + "-from", OPENING)).getId();
+        Long toCardId = cardRepository.save(card(user, "overdraft-" + suffix + "-to", BigDecimal.ZERO)).getId();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch firstPosted = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = pool.submit(() -> transaction.executeWithoutResult(status -> {
+                transferService.transfer(new TransferRequest(fromCardId, toCardId, AMOUNT, null), authentication);
+                firstPosted.countDown();
+                // Держим блокировку карты, пока второй перевод не встанет за ней в очередь
+                sleep(HOLD_LOCK_MS);
+            }));
+            Future<?> second = pool.submit(() -> {
+                firstPosted.await();
+                return transaction.execute(status ->
+                        transferService.transfer(new TransferRequest(fromCardId, toCardId, AMOUNT, null), authentication));
+            });
+
+            first.get(1, TimeUnit.MINUTES);
+            ExecutionException rejected = assertThrows(ExecutionException.class, () -> second.get(1, TimeUnit.MINUTES));
+            assertInstanceOf(InsufficientBalanceException.class, rejected.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(0, new BigDecimal("30.00").compareTo(ledgerService.getBalance(fromCardId)));
+        assertEquals(0, new BigDecimal("70.00").compareTo(ledgerService.getBalance(toCardId)));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Card card(User user, String number, BigDecimal openingBalance) {
+        return Card.builder()
+                .cardNumber(number)
+                .expiryDate(LocalDate.now().plusYears(2))
+                .status(Card.CardStatus.ACTIVE)
+                .openingBalance(openingBalance)
+                .user(user)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferResponse;
+import com.example.bankcards.dto.TransferSearchRequest;
+import com.example.bankcards.dto.TransferSearchResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Seeds a transfer table and runs every combination of search filters, for a single card and for
+ * all cards of a user. Each result is checked against the seeded data, where declined attempts
+ * are visible only to the owner of their source card, and the H2 plan of every
+ * transfer query issued is checked to be an index range scan rather than a table scan.
+ *
+ * <p>Criteria values are rendered inline so the captured SQL can be explained as is.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline")
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TransferSearchIntegrationTest {
+
+    private static final int TRANSFERS = 100_000;
+    private static final int USER_CARDS = 4;
+    private static final int OTHER_CARDS = 60;
+    private static final int PAGE_SIZE = 50;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final String[] DESCRIPTIONS = {"Rent payment", "Groceries", "Salary", "Savings top-up", "Gym", null};
+    private static final List<String> CAPTURED_SQL = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private TransferSearchService transferSearchService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Transfer> seeded = new ArrayList<>(TRANSFERS);
+    private Authentication authentication;
+    private Authentication otherAuthentication;
+    private List<Long> userCardIds;
+
+    @TestConfiguration
+    static class CaptureSql {
+
+        @Bean
+        HibernatePropertiesCustomizer statementCapture() {
+            StatementInspector inspector = sql -> {
+                CAPTURED_SQL.add(sql);
+                return sql;
+            };
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+
+    @BeforeAll
+    void seed() {
+        User user = userRepository.save(user("search-user"));
+        User other = userRepository.save(user("search-other"));
+        List<Long> cardIds = new ArrayList<>();
+        for (int i = 0; i < USER_CARDS + OTHER_CARDS; i++) {
+            cardIds.add(cardRepository.save(Card.builder()
+                    .cardNumber("search-card-" + i)
+                    .expiryDate(LocalDate.now().plusYears(2))
+                    .status(Card.CardStatus.ACTIVE)
+                    .openingBalance(BigDecimal.ZERO)
+                    .user(i < USER_CARDS ? user : other)
+                    .createdAt(LocalDateTime.now())
+                    .build()).getId());
+        }
+        userCardIds = cardIds.subList(0, USER_CARDS);
+        authentication = authentication(user);
+        otherAuthentication = authentication(other);
+
+        Random random = new Random(42);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < TRANSFERS; i++) {
+            long from = cardIds.get(random.nextInt(cardIds.size()));
+            long to = cardIds.get(random.nextInt(cardIds.size()));
+            Transfer transfer = Transfer.builder()
+                    .id((long) i + 1)
+                    .fromCardId(from)
+                    .toCardId(to == from ? cardIds.get((cardIds.indexOf(from) + 1) % cardIds.size()) : to)
+                    .amount(BigDecimal.valueOf(random.nextInt(100_000) + 1, 2))
+                    .status(random.nextInt(10) == 0 ? Transfer.TransferStatus.FAILED : Transfer.TransferStatus.SUCCESS)
+                    .createdAt(EPOCH.plusMinutes(random.nextInt(365 * 24 * 60)))
+                    .description(DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)])
+                    .build();
+            seeded.add(transfer);
+            batch.add(new Object[] {transfer.getId(), transfer.getFromCardId(), transfer.getToCardId(), transfer.getAmount(),
+                    transfer.getStatus().name(), Timestamp.valueOf(transfer.getCreatedAt()), transfer.getDescription()});
+            if (batch.size() == 10_000) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+    }
+
+    @Test
+    void search_EveryFilterCombination_MatchesSeededDataAndUsesCardIndexes() {
+        for (boolean byCard : new boolean[] {true, false}) {
+            for (int mask = 0; mask < 16; mask++) {
+                TransferSearchRequest request = request(byCard, mask, null);
+
+                CAPTURED_SQL.clear();
+                TransferSearchResponse response = transferSearchService.search(request, authentication);
+
+                List<Long> expected = expected(request).stream().limit(PAGE_SIZE).map(Transfer::getId).toList();
+                assertEquals(expected, response.content().stream().map(TransferResponse::id).toList(), describe(byCard, mask));
+
+                List<String> transferQueries = CAPTURED_SQL.stream().filter(sql -> sql.contains(" from transfers ")).toList();
+                assertEquals(2, transferQueries.size(), describe(byCard, mask));
+                for (String sql : transferQueries) {
+                    String plan = explain(sql);
+                    assertFalse(plan.contains("TRANSFERS.tableScan"), describe(byCard, mask) + "\n" + plan);
+                    assertTrue(plan.contains("IDX_TRANSFERS_FROM_CARD_CREATED") || plan.contains("IDX_TRANSFERS_TO_CARD_CREATED"),
+                            describe(byCard, mask) + "\n" + plan);
+                }
+            }
+        }
+    }
+
+    @Test
+    void search_FollowingCursors_ReturnsEveryMatchOnce() {
+        TransferSearchRequest first = request(false, 0b0101, null);
+        List<Long> expected = expected(first).stream().map(Transfer::getId).toList();
+
+        List<Long> actual = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransferSearchResponse page = transferSearchService.search(request(false, 0b0101, cursor), authentication);
+            page.content().forEach(transfer -> actual.add(transfer.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(expected, actual);
+        assertTrue(actual.size() > PAGE_SIZE);
+        assertNull(transferSearchService.search(request(true, 0b1111, null), authentication).nextCursor());
+    }
+
+    @Test
+    void search_FailedStatus_OnlySourceOwnerSeesDeclinedAttempt() {
+        TransferSearchRequest failed = new TransferSearchRequest(null, null, null, null, null, null,
+                Transfer.TransferStatus.FAILED, null, null, PAGE_SIZE);
+
+        List<TransferResponse> own = transferSearchService.search(failed, authentication).content();
+        List<TransferResponse> others = transferSearchService.search(failed, otherAuthentication).content();
+
+        assertFalse(own.isEmpty());
+        assertEquals(expected(failed).stream().limit(PAGE_SIZE).map(Transfer::getId).toList(),
+                own.stream().map(TransferResponse::id).toList());
+        assertTrue(own.stream().allMatch(transfer -> userCardIds.contains(transfer.fromCardId())));
+        assertFalse(others.isEmpty());
+        assertTrue(others.stream().noneMatch(transfer -> userCardIds.contains(transfer.fromCardId())));
+    }
+
+    /**
+     * Bit 0 amount range, bit 1 date range, bit 2 status, bit 3 description.
+     */
+    private TransferSearchRequest request(boolean byCard, int mask, String cursor) {
+        return new TransferSearchRequest(
+                byCard ? userCardIds.get(0) : null,
+                null,
+                (mask & 1) != 0 ? new BigDecimal("100.00") : null,
+                (mask & 1) != 0 ? new BigDecimal("400.00") : null,
+                (mask & 2) != 0 ? EPOCH.plusMonths(3) : null,
+                (mask & 2) != 0 ? EPOCH.plusMonths(5) : null,
+                (mask & 4) != 0 ? Transfer.TransferStatus.SUCCESS : null,
+                (mask & 8) != 0 ? "RENT" : null,
+                cursor,
+                PAGE_SIZE);
+    }
+
+    private List<Transfer> expected(TransferSearchRequest request) {
+        Set<Long> cards = request.cardId() != null ? Set.of(request.cardId()) : Set.copyOf(userCardIds);
+        Predicate<Transfer> matches = t -> (cards.contains(t.getFromCardId()) || cards.contains(t.getToCardId()))
+                && (t.getStatus() == Transfer.TransferStatus.SUCCESS || userCardIds.contains(t.getFromCardId()));
+        if (request.minAmount() != null) {
+            matches = matches.and(t -> t.getAmount().compareTo(request.minAmount()) >= 0
+                    && t.getAmount().compareTo(request.maxAmount()) <= 0);
+        }
+        if (request.from() != null) {
+            matches = matches.and(t -> !t.getCreatedAt().isBefore(request.from()) && t.getCreatedAt().isBefore(request.to()));
+        }
+        if (request.status() != null) {
+            matches = matches.and(t -> t.getStatus() == request.status());
+        }
+        if (request.description() != null) {
+            String text = request.description().toLowerCase(Locale.ROOT);
+            matches = matches.and(t -> t.getDescription() != null && t.getDescription().toLowerCase(Locale.ROOT).contains(text));
+        }
+        return seeded.stream()
+                .filter(matches)
+                .sorted(Comparator.comparing(Transfer::getCreatedAt).thenComparing(Transfer::getId).reversed())
+                .collect(Collectors.toList());
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql.replace("?", String.valueOf(PAGE_SIZE + 1)), String.class));
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO transfers (id, from_card_id, to_card_id, amount, status, created_at, description) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    private static String describe(boolean byCard, int mask) {
+        List<String> filters = new ArrayList<>();
+        filters.add(byCard ? "card" : "user");
+        if ((mask & 1) != 0) {
+            filters.add("amount");
+        }
+        if ((mask & 2) != 0) {
+            filters.add("date");
+        }
+        if ((mask & 4) != 0) {
+            filters.add("status");
+        }
+        if ((mask & 8) != 0) {
+            filters.add("description");
+        }
+        return String.join(" + ", filters);
+    }
+
+    private static Authentication authentication(User user) {
+        return new UsernamePasswordAuthenticationToken(user.getUsername(), null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    private static User user(String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("password")
+                .fullName("Search User")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -1,17 +1,25 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.constants.ErrorMessages;
+import com.example.bankcards.dto.CardBalanceResponse;
 import com.example.bankcards.dto.TransferRequest;
 import com.example.bankcards.dto.TransferResponse;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.LedgerEntry;
 import com.example.bankcards.entity.Transfer;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.exception.InsufficientBalanceException;
 import com.example.bankcards.exception.ResourceNotFoundException;
 import com.example.bankcards.exception.UnauthorizedException;
+import com.example.bankcards.fx.FxRateService;
+import com.example.bankcards.fx.FxRateSnapshot;
+import com.example.bankcards.money.Money;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.TransferRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.repository.projection.TransferCardView;
+import com.example.bankcards.repository.projection.TransferView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -33,7 +41,6 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -61,6 +68,24 @@ class TransferServiceTest {
     @Mock
     private com.example.bankcards.mapper.TransferMapper transferMapper;
 
+    @Mock
+    private com.example.bankcards.mapper.CardMapper cardMapper;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private com.example.bankcards.outbox.OutboxService outboxService;
+
+    @Mock
+    private com.example.bankcards.stream.TransferStreamHub transferStreamHub;
+
+    @Mock
+    private FailedTransferRecorder failedTransferRecorder;
+
+    @Mock
+    private FxRateService fxRateService;
+
     @InjectMocks
     private TransferService transferService;
 
@@ -84,7 +109,7 @@ class TransferServiceTest {
                 .cardNumber("encrypted123")
                 .expiryDate(LocalDate.now().plusYears(2))
                 .status(Card.CardStatus.ACTIVE)
-                .balance(BigDecimal.valueOf(1000))
+                .balance(Money.parse("1000"))
                 .user(testUser)
                 .createdAt(LocalDateTime.now())
                 .build();
@@ -94,12 +119,12 @@ class TransferServiceTest {
                 .cardNumber("encrypted456")
                 .expiryDate(LocalDate.now().plusYears(2))
                 .status(Card.CardStatus.ACTIVE)
-                .balance(BigDecimal.valueOf(500))
+                .balance(Money.parse("500"))
                 .user(testUser)
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        transferRequest = new TransferRequest(1L, 2L, BigDecimal.valueOf(100), "Test transfer");
+        transferRequest = new TransferRequest(1L, 2L, Money.parse("100"), "Test transfer");
     }
 
     @Test
@@ -112,183 +137,222 @@ class TransferServiceTest {
                 BigDecimal.valueOf(100),
                 "SUCCESS",
                 LocalDateTime.now(),
-                "Test transfer"
+                "Test transfer",
+                null,
+                null,
+                null,
+                null,
+                null
         );
 
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
-        when(securityHelper.getCurrentUser(authentication)).thenReturn(testUser);
-        doNothing().when(transferValidator).validateTransfer(eq(fromCard), eq(toCard), any(BigDecimal.class), eq(testUser));
-        when(transferMapper.toEntity(transferRequest)).thenReturn(savedTransfer);
+        when(securityHelper.getCurrentUserId(authentication)).thenReturn(1L);
+        when(cardRepository.findTransferCards(1L, 2L))
+                .thenReturn(List.of(TransferCardView.of(fromCard), TransferCardView.of(toCard)));
+        when(ledgerService.lockForPosting(1L, 2L)).thenReturn(new LedgerService.PostingCards(fromCard, toCard));
+        when(transferMapper.toEntity(transferRequest, null)).thenReturn(savedTransfer);
         when(transferRepository.save(savedTransfer)).thenReturn(savedTransfer);
-        when(transferMapper.toResponse(savedTransfer)).thenReturn(expectedResponse);
+        when(ledgerService.post(savedTransfer, new LedgerService.PostingCards(fromCard, toCard)))
+                .thenReturn(List.of(LedgerEntry.builder().id(11L).build(), LedgerEntry.builder().id(12L).build()));
+        CardBalanceResponse fromBalance = new CardBalanceResponse(1L, Money.parse("900"), "RUB", 11L);
+        CardBalanceResponse toBalance = new CardBalanceResponse(2L, Money.parse("600"), "RUB", 12L);
+        when(cardMapper.toBalanceResponse(fromCard, 11L)).thenReturn(fromBalance);
+        when(cardMapper.toBalanceResponse(toCard, 12L)).thenReturn(toBalance);
+        when(transferMapper.toResponse(savedTransfer, fromBalance, toBalance)).thenReturn(expectedResponse);
 
         TransferResponse response = transferService.transfer(transferRequest, authentication);
 
         assertNotNull(response);
-        verify(cardRepository, times(2)).save(any(Card.class));
+        verify(transferValidator).checkCards(TransferCardView.of(fromCard), TransferCardView.of(toCard), 1L,
+                transferRequest.amount());
+        verify(transferValidator).checkLocked(fromCard, toCard, 1L, transferRequest.amount());
+        verify(cardRepository, never()).save(any(Card.class));
         verify(transferRepository, times(1)).save(savedTransfer);
-        verify(transferMapper, times(1)).toResponse(savedTransfer);
+        verify(ledgerService, times(1)).post(savedTransfer, new LedgerService.PostingCards(fromCard, toCard));
+        verify(outboxService, times(1)).record(com.example.bankcards.entity.OutboxEvent.EventType.TRANSFER_COMPLETED, null, expectedResponse);
+        verify(transferStreamHub, times(1)).publishAfterCommit(List.of(1L, 1L), expectedResponse);
+        verify(transferMapper, times(1)).toResponse(savedTransfer, fromBalance, toBalance);
     }
 
     @Test
-    void transfer_SameCard_ThrowsException() {
+    void transfer_SameCard_RejectedBeforeAnyQuery() {
         TransferRequest modifiedRequest = new TransferRequest(
             transferRequest.fromCardId(),
             1L,
             transferRequest.amount(),
             transferRequest.description()
         );
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
-        when(securityHelper.getCurrentUser(authentication)).thenReturn(testUser);
-        doThrow(new BadRequestException("Cannot transfer to the same card"))
-                .when(transferValidator).validateTransfer(eq(fromCard), eq(fromCard), any(BigDecimal.class), eq(testUser));
+        when(securityHelper.getCurrentUserId(authentication)).thenReturn(1L);
+        when(transferValidator.checkRequest(1L, 1L)).thenReturn(Transfer.FailureReason.SAME_CARD);
 
-        assertThrows(BadRequestException.class, () ->
+        BadRequestException exception = assertThrows(BadRequestException.class, () ->
                 transferService.transfer(modifiedRequest, authentication)
         );
+
+        assertEquals(ErrorMessages.TRANSFER_SAME_CARD, exception.getMessage());
+        verify(failedTransferRecorder).record(1L, 1L, new BigDecimal("100.00"), modifiedRequest.description(),
+                Transfer.FailureReason.SAME_CARD);
+        verifyNoInteractions(cardRepository, ledgerService, transferRepository);
     }
 
     @Test
-    void transfer_InsufficientBalance_ThrowsException() {
+    void transfer_InsufficientBalance_RejectedBeforeLocking() {
         TransferRequest modifiedRequest = new TransferRequest(
             transferRequest.fromCardId(),
             transferRequest.toCardId(),
-            BigDecimal.valueOf(2000),
+            Money.parse("2000"),
             transferRequest.description()
         );
 
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
-        when(securityHelper.getCurrentUser(authentication)).thenReturn(testUser);
-        doThrow(new InsufficientBalanceException("Insufficient balance"))
-                .when(transferValidator).validateTransfer(eq(fromCard), eq(toCard), any(BigDecimal.class), eq(testUser));
+        when(securityHelper.getCurrentUserId(authentication)).thenReturn(1L);
+        when(cardRepository.findTransferCards(1L, 2L))
+                .thenReturn(List.of(TransferCardView.of(toCard), TransferCardView.of(fromCard)));
+        when(transferValidator.checkCards(TransferCardView.of(fromCard), TransferCardView.of(toCard), 1L,
+                modifiedRequest.amount())).thenReturn(Transfer.FailureReason.INSUFFICIENT_BALANCE);
 
-        assertThrows(InsufficientBalanceException.class, () ->
+        InsufficientBalanceException exception = assertThrows(InsufficientBalanceException.class, () ->
                 transferService.transfer(modifiedRequest, authentication)
         );
+
+        assertEquals(0, exception.getStackTrace().length);
+        verify(failedTransferRecorder).record(1L, 2L, new BigDecimal("2000.00"), modifiedRequest.description(),
+                Transfer.FailureReason.INSUFFICIENT_BALANCE);
+        verifyNoInteractions(ledgerService);
+        verify(transferRepository, never()).save(any());
     }
 
     @Test
-    void transfer_SourceCardNotFound_ThrowsException() {
-        when(cardRepository.findById(1L)).thenReturn(Optional.empty());
+    void transfer_RejectedAfterLocking_RecordsReason() {
+        when(securityHelper.getCurrentUserId(authentication)).thenReturn(1L);
+        when(ledgerService.lockForPosting(1L, 2L)).thenReturn(new LedgerService.PostingCards(fromCard, toCard));
+        when(transferValidator.checkLocked(fromCard, toCard, 1L, transferRequest.amount()))
+                .thenReturn(Transfer.FailureReason.DAILY_LIMIT_EXCEEDED);
 
-        assertThrows(ResourceNotFoundException.class, () ->
+        BadRequestException exception = assertThrows(BadRequestException.class, () ->
                 transferService.transfer(transferRequest, authentication)
         );
+
+        assertEquals(ErrorMessages.DAILY_LIMIT_EXCEEDED, exception.getMessage());
+        verify(failedTransferRecorder).record(1L, 2L, new BigDecimal("100.00"), transferRequest.description(),
+                Transfer.FailureReason.DAILY_LIMIT_EXCEEDED);
+        verify(ledgerService, never()).post(any(), any());
     }
 
     @Test
-    void transfer_BlockedCard_ThrowsException() {
-        fromCard.setStatus(Card.CardStatus.BLOCKED);
+    void transfer_CrossCurrency_RecordsRateFromSnapshot() {
+        fromCard.setCurrency("USD");
+        FxRateSnapshot.Rate rate = new FxRateSnapshot.Rate(new BigDecimal("90.00000000"), 9_000_000_000L);
+        Transfer savedTransfer = new Transfer();
 
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
-        when(securityHelper.getCurrentUser(authentication)).thenReturn(testUser);
-        doThrow(new BadRequestException("Card is blocked"))
-                .when(transferValidator).validateTransfer(eq(fromCard), eq(toCard), any(BigDecimal.class), eq(testUser));
+        when(securityHelper.getCurrentUserId(authentication)).thenReturn(1L);
+        when(ledgerService.lockForPosting(1L, 2L)).thenReturn(new LedgerService.PostingCards(fromCard, toCard));
+        when(fxRateService.quote("USD", "RUB")).thenReturn(rate);
+        when(transferMapper.toEntity(transferRequest, rate)).thenReturn(savedTransfer);
+        when(ledgerService.post(savedTransfer, new LedgerService.PostingCards(fromCard, toCard)))
+                .thenReturn(List.of(LedgerEntry.builder().id(11L).build(), LedgerEntry.builder().id(12L).build()));
+
+        transferService.transfer(transferRequest, authentication);
+
+        verify(transferRepository).save(savedTransfer);
+        verify(cardMapper).toBalanceResponse(toCard, 12L);
+    }
+
+    @Test
+    void transfer_NoRateForCurrencies_RecordsRejection() {
+        when(securityHelper.getCurrentUserId(authentication)).thenReturn(1L);
+        when(transferValidator.checkCards(any(), any(), eq(1L), any(Money.class)))
+                .thenReturn(Transfer.FailureReason.FX_RATE_UNAVAILABLE);
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> transferService.transfer(transferRequest, authentication));
+
+        assertEquals(ErrorMessages.FX_RATE_UNAVAILABLE, exception.getMessage());
+        verify(failedTransferRecorder).record(1L, 2L, new BigDecimal("100.00"), transferRequest.description(),
+                Transfer.FailureReason.FX_RATE_UNAVAILABLE);
+        verify(transferRepository, never()).save(any());
+    }
+
+    @Test
+    void transfer_SourceCardNotFound_ThrowsException() {
+        when(securityHelper.getCurrentUserId(authentication)).thenReturn(1L);
+        when(cardRepository.findTransferCards(1L, 2L)).thenReturn(List.of(TransferCardView.of(toCard)));
+        when(transferValidator.checkCards(null, TransferCardView.of(toCard), 1L, transferRequest.amount()))
+                .thenReturn(Transfer.FailureReason.SOURCE_CARD_NOT_FOUND);
 
-        assertThrows(BadRequestException.class, () ->
+        assertThrows(ResourceNotFoundException.class, () ->
                 transferService.transfer(transferRequest, authentication)
         );
+        verifyNoInteractions(ledgerService);
     }
 
     @Test
-    void transfer_DestinationCardNotFound_ThrowsException() {
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findById(2L)).thenReturn(Optional.empty());
+    void transfer_DestinationCardDeletedBeforeLock_RecordsRejection() {
+        when(securityHelper.getCurrentUserId(authentication)).thenReturn(1L);
+        when(ledgerService.lockForPosting(1L, 2L))
+                .thenThrow(new ResourceNotFoundException(ErrorMessages.DESTINATION_CARD_NOT_FOUND));
 
         assertThrows(ResourceNotFoundException.class, () ->
                 transferService.transfer(transferRequest, authentication)
         );
+        verify(failedTransferRecorder).record(1L, 2L, new BigDecimal("100.00"), transferRequest.description(),
+                Transfer.FailureReason.DESTINATION_CARD_NOT_FOUND);
     }
 
     @Test
     void transfer_CurrentUserNotFound_ThrowsException() {
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
-        when(securityHelper.getCurrentUser(authentication))
+        when(securityHelper.getCurrentUserId(authentication))
                 .thenThrow(new ResourceNotFoundException("User not found"));
 
         assertThrows(ResourceNotFoundException.class, () ->
                 transferService.transfer(transferRequest, authentication)
         );
+        verifyNoInteractions(cardRepository, ledgerService);
     }
 
     @Test
     void transfer_UnauthorizedFromCard_ThrowsException() {
-        User otherUser = User.builder()
-                .id(2L)
-                .username("otheruser")
-                .email("other@example.com")
-                .fullName("Other User")
-                .roles(new HashSet<>())
-                .build();
-
-        fromCard.setUser(otherUser);
+        when(securityHelper.getCurrentUserId(authentication)).thenReturn(1L);
+        when(transferValidator.checkCards(any(), any(), eq(1L), any(Money.class)))
+                .thenReturn(Transfer.FailureReason.NOT_SOURCE_CARD_OWNER);
 
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
-        when(securityHelper.getCurrentUser(authentication)).thenReturn(testUser);
-        doThrow(new UnauthorizedException("Unauthorized"))
-                .when(transferValidator).validateTransfer(eq(fromCard), eq(toCard), any(BigDecimal.class), eq(testUser));
-
-        assertThrows(UnauthorizedException.class, () ->
+        UnauthorizedException exception = assertThrows(UnauthorizedException.class, () ->
                 transferService.transfer(transferRequest, authentication)
         );
+
+        assertEquals(ErrorMessages.UNAUTHORIZED_TRANSFER_FROM, exception.getMessage());
     }
 
     @Test
     void transfer_UnauthorizedToCard_ThrowsException() {
-        User otherUser = User.builder()
-                .id(2L)
-                .username("otheruser")
-                .email("other@example.com")
-                .fullName("Other User")
-                .roles(new HashSet<>())
-                .build();
-
-        toCard.setUser(otherUser);
-
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
-        when(securityHelper.getCurrentUser(authentication)).thenReturn(testUser);
-        doThrow(new UnauthorizedException("Unauthorized"))
-                .when(transferValidator).validateTransfer(eq(fromCard), eq(toCard), any(BigDecimal.class), eq(testUser));
+        when(securityHelper.getCurrentUserId(authentication)).thenReturn(1L);
+        when(transferValidator.checkCards(any(), any(), eq(1L), any(Money.class)))
+                .thenReturn(Transfer.FailureReason.NOT_DESTINATION_CARD_OWNER);
 
-        assertThrows(UnauthorizedException.class, () ->
+        UnauthorizedException exception = assertThrows(UnauthorizedException.class, () ->
                 transferService.transfer(transferRequest, authentication)
         );
+
+        assertEquals(ErrorMessages.UNAUTHORIZED_TRANSFER_TO, exception.getMessage());
     }
 
     @Test
     void transfer_DestinationCardBlocked_ThrowsException() {
-        toCard.setStatus(Card.CardStatus.BLOCKED);
-
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findById(2L)).thenReturn(Optional.of(toCard));
-        when(securityHelper.getCurrentUser(authentication)).thenReturn(testUser);
-        doThrow(new BadRequestException("Destination card is blocked"))
-                .when(transferValidator).validateTransfer(eq(fromCard), eq(toCard), any(BigDecimal.class), eq(testUser));
+        when(securityHelper.getCurrentUserId(authentication)).thenReturn(1L);
+        when(transferValidator.checkCards(any(), any(), eq(1L), any(Money.class)))
+                .thenReturn(Transfer.FailureReason.DESTINATION_CARD_NOT_ACTIVE);
 
-        assertThrows(BadRequestException.class, () ->
+        BadRequestException exception = assertThrows(BadRequestException.class, () ->
                 transferService.transfer(transferRequest, authentication)
         );
+
+        assertEquals(ErrorMessages.DESTINATION_CARD_NOT_ACTIVE, exception.getMessage());
     }
 
     @Test
     void getTransferHistory_Success() {
-        Transfer transfer = Transfer.builder()
-                .id(1L)
-                .fromCardId(1L)
-                .toCardId(2L)
-                .amount(BigDecimal.valueOf(100))
-                .status(Transfer.TransferStatus.SUCCESS)
-                .createdAt(LocalDateTime.now())
-                .description("Test transfer")
-                .build();
+        TransferView transfer = new TransferView(1L, 1L, 2L, BigDecimal.valueOf(100),
+                Transfer.TransferStatus.SUCCESS, LocalDateTime.now(), "Test transfer", null, null, null);
 
-        Page<Transfer> transferPage = new PageImpl<>(Collections.singletonList(transfer));
+        Page<TransferView> transferPage = new PageImpl<>(Collections.singletonList(transfer));
         TransferResponse transferResponse = new TransferResponse(
                 1L,
                 1L,
@@ -296,20 +360,69 @@ class TransferServiceTest {
                 BigDecimal.valueOf(100),
                 "SUCCESS",
                 LocalDateTime.now(),
-                "Test transfer"
+                "Test transfer",
+                null,
+                null,
+                null,
+                null,
+                null
         );
 
         when(cardRepository.findById(1L)).thenReturn(Optional.of(fromCard));
         when(securityHelper.getCurrentUser(authentication)).thenReturn(testUser);
         doNothing().when(securityHelper).validateCardOwnership(fromCard, testUser);
-        when(transferRepository.findByCardId(eq(1L), any(Pageable.class))).thenReturn(transferPage);
-        when(transferMapper.toResponse(any(Transfer.class))).thenReturn(transferResponse);
+        when(transferRepository.findViewsByCardId(eq(1L), any(Pageable.class))).thenReturn(transferPage);
+        when(transferMapper.toResponse(any(TransferView.class))).thenReturn(transferResponse);
 
         Page<TransferResponse> result = transferService.getTransferHistory(1L, Pageable.unpaged(), authentication);
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        verify(transferRepository, times(1)).findByCardId(eq(1L), any(Pageable.class));
+        verify(transferRepository, times(1)).findViewsByCardId(eq(1L), any(Pageable.class));
+    }
+
+    @Test
+    void getTransferById_OwnTransfer_ReturnsItFromSingleQuery() {
+        TransferView transfer = new TransferView(5L, 1L, 2L, BigDecimal.valueOf(100),
+                Transfer.TransferStatus.SUCCESS, LocalDateTime.now(), "Test transfer", null, null, null);
+        TransferResponse transferResponse = new TransferResponse(5L, 1L, 2L, BigDecimal.valueOf(100),
+                "SUCCESS", transfer.createdAt(), "Test transfer", null, null, null, null, null);
+
+        when(securityHelper.getCurrentUserId(authentication)).thenReturn(1L);
+        when(transferRepository.findViewByIdForUser(5L, 1L)).thenReturn(Optional.of(transfer));
+        when(transferMapper.toResponse(transfer)).thenReturn(transferResponse);
+
+        TransferResponse result = transferService.getTransferById(5L, authentication);
+
+        assertEquals(transferResponse, result);
+        verify(transferRepository, never()).existsById(any());
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    void getTransferById_OtherUsersTransfer_ThrowsUnauthorized() {
+        when(securityHelper.getCurrentUserId(authentication)).thenReturn(1L);
+        when(transferRepository.findViewByIdForUser(5L, 1L)).thenReturn(Optional.empty());
+        when(transferRepository.existsById(5L)).thenReturn(true);
+
+        UnauthorizedException exception = assertThrows(UnauthorizedException.class, () ->
+                transferService.getTransferById(5L, authentication)
+        );
+
+        assertEquals(ErrorMessages.UNAUTHORIZED_VIEW_TRANSFER, exception.getMessage());
+    }
+
+    @Test
+    void getTransferById_Missing_ThrowsNotFound() {
+        when(securityHelper.getCurrentUserId(authentication)).thenReturn(1L);
+        when(transferRepository.findViewByIdForUser(5L, 1L)).thenReturn(Optional.empty());
+        when(transferRepository.existsById(5L)).thenReturn(false);
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () ->
+                transferService.getTransferById(5L, authentication)
+        );
+
+        assertEquals(ErrorMessages.TRANSFER_NOT_FOUND, exception.getMessage());
     }
 
     @Test
@@ -356,17 +469,10 @@ class TransferServiceTest {
 
     @Test
     void getUserTransferHistory_Success() {
-        Transfer transfer = Transfer.builder()
-                .id(1L)
-                .fromCardId(1L)
-                .toCardId(2L)
-                .amount(BigDecimal.valueOf(100))
-                .status(Transfer.TransferStatus.SUCCESS)
-                .createdAt(LocalDateTime.now())
-                .description("Test transfer")
-                .build();
+        TransferView transfer = new TransferView(1L, 1L, 2L, BigDecimal.valueOf(100),
+                Transfer.TransferStatus.SUCCESS, LocalDateTime.now(), "Test transfer", null, null, null);
 
-        Page<Transfer> transferPage = new PageImpl<>(Collections.singletonList(transfer));
+        Page<TransferView> transferPage = new PageImpl<>(Collections.singletonList(transfer));
         TransferResponse transferResponse = new TransferResponse(
                 1L,
                 1L,
@@ -374,20 +480,25 @@ class TransferServiceTest {
                 BigDecimal.valueOf(100),
                 "SUCCESS",
                 LocalDateTime.now(),
-                "Test transfer"
+                "Test transfer",
+                null,
+                null,
+                null,
+                null,
+                null
         );
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(securityHelper.getCurrentUser(authentication)).thenReturn(testUser);
-        when(cardRepository.findByUserId(1L)).thenReturn(List.of(fromCard, toCard));
-        when(transferRepository.findByCardIds(anyList(), any(Pageable.class))).thenReturn(transferPage);
-        when(transferMapper.toResponse(any(Transfer.class))).thenReturn(transferResponse);
+        when(transferRepository.findViewsByUserId(eq(1L), any(Pageable.class))).thenReturn(transferPage);
+        when(transferMapper.toResponse(any(TransferView.class))).thenReturn(transferResponse);
 
         Page<TransferResponse> result = transferService.getUserTransferHistory(1L, Pageable.unpaged(), authentication);
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        verify(transferRepository, times(1)).findByCardIds(anyList(), any(Pageable.class));
+        verify(transferRepository, times(1)).findViewsByUserId(eq(1L), any(Pageable.class));
+        verify(cardRepository, never()).findByUserId(any());
     }
 
     @Test
@@ -429,15 +540,15 @@ class TransferServiceTest {
     }
 
     @Test
-    void getUserTransferHistory_EmptyCardList_ReturnsEmptyPage() {
+    void getUserTransferHistory_NoCards_ReturnsEmptyPage() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(securityHelper.getCurrentUser(authentication)).thenReturn(testUser);
-        when(cardRepository.findByUserId(1L)).thenReturn(Collections.emptyList());
+        when(transferRepository.findViewsByUserId(eq(1L), any(Pageable.class))).thenReturn(Page.empty());
 
         Page<TransferResponse> result = transferService.getUserTransferHistory(1L, Pageable.unpaged(), authentication);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(transferRepository, never()).findByCardIds(anyList(), any(Pageable.class));
+        verifyNoInteractions(cardRepository);
     }
 }
@@ -0,0 +1,182 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.mapper.TransferMapper;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reads the first page of a user's transfer history for users holding 1, 50 and 5000 cards, once
+ * the way {@code getUserTransferHistory} did before (load the user's cards, then query transfers
+ * with their ids in an {@code IN} list) and once through the semi-join on {@code cards.user_id}.
+ * Logs the time per page for both and checks that they return the same page.
+ */
+@Slf4j(topic = "benchmark")
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class UserTransferHistoryBenchmarkTest {
+
+    private static final int[] CARD_COUNTS = {1, 50, 5_000};
+    private static final int TRANSFERS_PER_USER = 2_000;
+    private static final int PAGE_SIZE = 50;
+    private static final int WARM_UP = 5;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private TransferMapper transferMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void ownerSemiJoin_ReturnsSamePageAsCardIdList() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Long outsideCardId = cards(user("outside"), 1).get(0);
+        Pageable page = PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+        for (int cardCount : CARD_COUNTS) {
+            Long userId = user("history-" + cardCount);
+            seedTransfers(cards(userId, cardCount), outsideCardId);
+
+            Supplier<List<TransferResponse>> before = () -> cardIdListPage(userId, page);
+            Supplier<List<TransferResponse>> after = () -> transferRepository.findViewsByUserId(userId, page)
+                    .map(transferMapper::toResponse).getContent();
+
+            List<TransferResponse> expected = readOnly.execute(status -> before.get());
+            assertEquals(PAGE_SIZE, expected.size());
+            assertEquals(expected, readOnly.execute(status -> after.get()));
+            Long total = readOnly.execute(status -> transferRepository.findViewsByUserId(userId, page).getTotalElements());
+            assertEquals(TRANSFERS_PER_USER, total);
+
+            long beforeMicros = measure(readOnly, before);
+            long afterMicros = measure(readOnly, after);
+            log.info("{} cards: id list {} us, semi-join {} us per page", cardCount, beforeMicros, afterMicros);
+        }
+    }
+
+    /**
+     * The former path: every card of the user loaded through the {@code userCards} cache, which
+     * each transfer clears, and their ids passed to the transfer query.
+     */
+    private List<TransferResponse> cardIdListPage(Long userId, Pageable pageable) {
+        cacheManager.getCache("userCards").evict(userId);
+        List<Long> cardIds = cardRepository.findByUserId(userId).stream().map(Card::getId).toList();
+        List<Transfer> transfers = entityManager.createQuery(
+                        "SELECT t FROM Transfer t WHERE t.fromCardId IN :cardIds OR t.toCardId IN :cardIds " +
+                                "ORDER BY t.createdAt DESC", Transfer.class)
+                .setParameter("cardIds", cardIds)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        entityManager.createQuery(
+                        "SELECT COUNT(t) FROM Transfer t WHERE t.fromCardId IN :cardIds OR t.toCardId IN :cardIds", Long.class)
+                .setParameter("cardIds", cardIds)
+                .getSingleResult();
+        return transfers.stream().map(transferMapper::toResponse).toList();
+    }
+
+    private static long measure(TransactionTemplate readOnly, Supplier<?> read) {
+        for (int i = 0; i < WARM_UP; i++) {
+            readOnly.execute(status -> read.get());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            readOnly.execute(status -> read.get());
+        }
+        return (System.nanoTime() - start) / ROUNDS / 1_000;
+    }
+
+    /**
+     * Transfers alternate between leaving the user's cards and arriving on them from the outside
+     * card; every tenth one moves money between two of the user's own cards.
+     */
+    private void seedTransfers(List<Long> cardIds, Long outsideCardId) {
+        LocalDateTime start = LocalDateTime.now().minusDays(60);
+        List<Object[]> batch = new ArrayList<>(TRANSFERS_PER_USER);
+        for (int i = 0; i < TRANSFERS_PER_USER; i++) {
+            Long own = cardIds.get(i % cardIds.size());
+            Long from = i % 2 == 0 ? own : outsideCardId;
+            Long to = i % 10 == 0 && cardIds.size() > 1 ? cardIds.get((i + 1) % cardIds.size())
+                    : i % 2 == 0 ? outsideCardId : own;
+            batch.add(new Object[] {
+                    from, to, BigDecimal.valueOf(i % 900 + 1, 2), Timestamp.valueOf(start.plusSeconds(i * 60L)), "History " + i
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO transfers (from_card_id, to_card_id, amount, status, created_at, description) " +
+                "VALUES (?, ?, ?, 'SUCCESS', ?, ?)", batch);
+    }
+
+    private Long user(String prefix) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(User.builder()
+                .username(prefix + "-" + suffix)
+                .email(prefix + "-" + suffix + "@example.com")
+                .password("password")
+                .fullName("History User")
+                .createdAt(LocalDateTime.now())
+                .build()).getId();
+    }
+
+    private List<Long> cards(Long userId, int count) {
+        String prefix = "history-" + userId + "-";
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            batch.add(new Object[] {prefix + i, java.sql.Date.valueOf(LocalDate.now().plusYears(3)), userId, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO cards (card_number, expiry_date, status, balance, balance_slots, currency, user_id, created_at) " +
+                "VALUES (?, ?, 'ACTIVE', 1000.00, 1, 'RUB', ?, ?)", batch);
+        return jdbcTemplate.queryForList("SELECT id FROM cards WHERE user_id = ? ORDER BY id", Long.class, userId);
+    }
+}
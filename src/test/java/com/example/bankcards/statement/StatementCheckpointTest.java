@@ -0,0 +1,50 @@
+package com.example.bankcards.statement;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCheckpointTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void open_ReturnsPartitionsMarkedByPreviousRun() throws Exception {
+        Path path = tempDir.resolve("2026-09").resolve("checkpoint.log");
+        StatementCheckpoint.Partition first = new StatementCheckpoint.Partition(0, 100);
+        StatementCheckpoint.Partition second = new StatementCheckpoint.Partition(100, 200);
+
+        try (StatementCheckpoint checkpoint = new StatementCheckpoint(path, true)) {
+            checkpoint.open(100);
+            assertFalse(checkpoint.isDone(first));
+            checkpoint.markDone(first, 42);
+        }
+
+        try (StatementCheckpoint checkpoint = new StatementCheckpoint(path, false)) {
+            checkpoint.open(100);
+            assertTrue(checkpoint.isDone(first));
+            assertFalse(checkpoint.isDone(second));
+            checkpoint.markDone(second, 7);
+        }
+        assertEquals(List.of("partition-size=100", "0-100 42", "100-200 7"), Files.readAllLines(path));
+    }
+
+    @Test
+    void open_OtherPartitionSize_Fails() {
+        Path path = tempDir.resolve("checkpoint.log");
+        try (StatementCheckpoint checkpoint = new StatementCheckpoint(path, false)) {
+            checkpoint.open(100);
+            checkpoint.markDone(new StatementCheckpoint.Partition(0, 100), 1);
+        }
+
+        try (StatementCheckpoint checkpoint = new StatementCheckpoint(path, false)) {
+            assertThrows(IllegalStateException.class, () -> checkpoint.open(50));
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.bankcards.statement;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class StatementJobIntegrationTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2020, 3);
+    private static final int CARDS = 30;
+    private static final BigDecimal OPENING = new BigDecimal("100.00");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TempDir
+    Path outputDir;
+
+    private final List<Long> cardIds = new ArrayList<>();
+    private final Map<Long, BigDecimal> expectedOpening = new HashMap<>();
+    private final Map<Long, BigDecimal> expectedClosing = new HashMap<>();
+    private Long lateCardId;
+
+    /**
+     * A ring of cards, each sending {@code i + 1} to the next one in February, March and April, so
+     * every card has a different opening and closing balance for March. One more card is created
+     * after March and must not get a statement.
+     */
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = userRepository.save(User.builder()
+                .username("statement-" + suffix)
+                .email("statement-" + suffix + "@example.com")
+                .password("password")
+                .fullName("Statement Owner")
+                .createdAt(LocalDateTime.now())
+                .build());
+        for (int i = 0; i < CARDS; i++) {
+            cardIds.add(cardRepository.save(card(user, suffix + "-" + i, LocalDateTime.of(2020, 1, 15, 12, 0))).getId());
+        }
+        lateCardId = cardRepository.save(card(user, suffix + "-late", LocalDateTime.of(2020, 5, 1, 0, 0))).getId();
+
+        for (int i = 0; i < CARDS; i++) {
+            Long from = cardIds.get(i);
+            Long to = cardIds.get((i + 1) % CARDS);
+            BigDecimal amount = BigDecimal.valueOf(i + 1).setScale(2);
+            transfer(from, to, amount, LocalDateTime.of(2020, 2, 10, 9, 0));
+            transfer(from, to, amount, LocalDateTime.of(2020, 3, 5, 9, 0));
+            transfer(from, to, amount, LocalDateTime.of(2020, 4, 2, 9, 0));
+        }
+        for (int i = 0; i < CARDS; i++) {
+            BigDecimal delta = BigDecimal.valueOf((i + CARDS - 1) % CARDS + 1).subtract(BigDecimal.valueOf(i + 1));
+            expectedOpening.put(cardIds.get(i), OPENING.add(delta));
+            expectedClosing.put(cardIds.get(i), OPENING.add(delta).add(delta));
+        }
+    }
+
+    @Test
+    void generate_WritesOpeningEntriesAndClosingPerCard() throws IOException {
+        StatementJob job = job("csv");
+
+        StatementJob.Run run = job.generate(MONTH);
+
+        assertEquals(0, run.skippedPartitions());
+        assertEquals(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM ledger_entries e JOIN cards c ON c.id = e.card_id " +
+                        "WHERE e.created_at >= ? AND e.created_at < ? AND c.created_at < ?", Long.class,
+                Timestamp.valueOf(MONTH.atDay(1).atStartOfDay()),
+                Timestamp.valueOf(MONTH.plusMonths(1).atDay(1).atStartOfDay()),
+                Timestamp.valueOf(MONTH.plusMonths(1).atDay(1).atStartOfDay())), run.entries());
+        Map<Long, List<String[]>> rows = csvRows(job.directory(MONTH));
+        assertFalse(rows.containsKey(lateCardId));
+        for (Long cardId : cardIds) {
+            List<String[]> card = rows.get(cardId);
+            assertEquals(4, card.size(), "opening, debit, credit and closing for card " + cardId);
+            assertEquals("OPENING", card.get(0)[2]);
+            assertEquals(0, expectedOpening.get(cardId).compareTo(new BigDecimal(card.get(0)[6])));
+            assertEquals(Stream.of("DEBIT", "CREDIT").sorted().toList(),
+                    Stream.of(card.get(1)[2], card.get(2)[2]).sorted().toList());
+            assertEquals("CLOSING", card.get(3)[2]);
+            assertEquals(0, expectedClosing.get(cardId).compareTo(new BigDecimal(card.get(3)[6])));
+        }
+        try (Stream<Path> files = Files.list(job.directory(MONTH))) {
+            assertTrue(files.noneMatch(file -> file.toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    void generate_Ndjson_WritesOneObjectPerCard() throws IOException {
+        StatementJob job = job("ndjson");
+
+        job.generate(MONTH);
+
+        Map<Long, JsonNode> statements = new HashMap<>();
+        for (Path file : statementFiles(job.directory(MONTH))) {
+            for (String line : Files.readAllLines(file)) {
+                JsonNode statement = objectMapper.readTree(line);
+                statements.put(statement.get("cardId").asLong(), statement);
+            }
+        }
+        for (Long cardId : cardIds) {
+            JsonNode statement = statements.get(cardId);
+            assertEquals(MONTH.toString(), statement.get("month").asText());
+            assertEquals(0, expectedOpening.get(cardId).compareTo(statement.get("openingBalance").decimalValue()));
+            assertEquals(2, statement.get("transfers").size());
+            assertEquals(0, expectedClosing.get(cardId).compareTo(statement.get("closingBalance").decimalValue()));
+        }
+    }
+
+    /**
+     * Simulates a run killed halfway: only the first ranges made it into the checkpoint and the
+     * files of the others are gone. The next run writes just the missing ranges, with the same
+     * content as a full run.
+     */
+    @Test
+    void generate_AfterCrash_ResumesFromCheckpoint() throws IOException {
+        StatementJob job = job("csv");
+        StatementJob.Run first = job.generate(MONTH);
+        Path directory = job.directory(MONTH);
+        Map<Path, String> complete = new TreeMap<>();
+        for (Path file : statementFiles(directory)) {
+            complete.put(file.getFileName(), Files.readString(file));
+        }
+
+        Path checkpoint = directory.resolve(StatementJob.CHECKPOINT_FILE);
+        List<String> lines = Files.readAllLines(checkpoint);
+        int kept = (lines.size() - 1) / 2;
+        Files.write(checkpoint, lines.subList(0, 1 + kept));
+        for (String line : lines.subList(1 + kept, lines.size())) {
+            Files.delete(directory.resolve("statements-" + line.split(" ")[0] + ".csv"));
+        }
+        Files.writeString(directory.resolve("statements-leftover.csv.tmp"), "half a file");
+
+        StatementJob.Run resumed = job("csv").generate(MONTH);
+
+        assertEquals(first.partitions(), resumed.partitions());
+        assertEquals(kept, resumed.skippedPartitions());
+        for (Map.Entry<Path, String> file : complete.entrySet()) {
+            assertEquals(file.getValue(), Files.readString(directory.resolve(file.getKey())));
+        }
+        assertEquals(first.partitions() + 1, Files.readAllLines(checkpoint).size());
+
+        StatementJob.Run again = job("csv").generate(MONTH);
+        assertEquals(first.partitions(), again.skippedPartitions());
+        assertEquals(0, again.cards());
+    }
+
+    private StatementJob job(String format) {
+        return new StatementJob(jdbcTemplate, transactionManager, objectMapper, new SimpleMeterRegistry(),
+                false, outputDir.toString(), format, 8, 3, 16, false);
+    }
+
+    private Map<Long, List<String[]>> csvRows(Path directory) throws IOException {
+        Map<Long, List<String[]>> rows = new HashMap<>();
+        for (Path file : statementFiles(directory)) {
+            List<String> lines = Files.readAllLines(file);
+            assertEquals("cardId,month,record,transferId,createdAt,counterpartyCardId,amount,description", lines.get(0));
+            for (String line : lines.subList(1, lines.size())) {
+                String[] columns = line.split(",", -1);
+                assertEquals(MONTH.toString(), columns[1]);
+                rows.computeIfAbsent(Long.parseLong(columns[0]), id -> new ArrayList<>()).add(columns);
+            }
+        }
+        return rows;
+    }
+
+    private static List<Path> statementFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("statements-"))
+                    .filter(file -> !file.toString().endsWith(".tmp"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private void transfer(Long from, Long to, BigDecimal amount, LocalDateTime createdAt) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO transfers (from_card_id, to_card_id, amount, status, created_at, description) " +
+                            "VALUES (?, ?, ?, 'SUCCESS', ?, ?)", new String[]{"id"});
+            statement.setLong(1, from);
+            statement.setLong(2, to);
+            statement.setBigDecimal(3, amount);
+            statement.setTimestamp(4, timestamp);
+            statement.setString(5, "ring, " + createdAt.getMonth());
+            return statement;
+        }, keyHolder);
+        long transferId = keyHolder.getKey().longValue();
+        String entrySql = "INSERT INTO ledger_entries (transfer_id, card_id, entry_type, amount, created_at) VALUES (?, ?, ?, ?, ?)";
+        jdbcTemplate.update(entrySql, transferId, from, "DEBIT", amount.negate(), timestamp);
+        jdbcTemplate.update(entrySql, transferId, to, "CREDIT", amount, timestamp);
+    }
+
+    private static Card card(User user, String number, LocalDateTime createdAt) {
+        return Card.builder()
+                .cardNumber(number)
+                .expiryDate(LocalDate.now().plusYears(2))
+                .status(Card.CardStatus.ACTIVE)
+                .openingBalance(OPENING)
+                .user(user)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.bankcards.stream;
+
+import com.example.bankcards.dto.TransferResponse;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.UnauthorizedException;
+import com.example.bankcards.helper.SecurityHelper;
+import com.sun.management.ThreadMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransferStreamHubTest {
+
+    @Mock
+    private SecurityHelper securityHelper;
+
+    @Mock
+    private Authentication authentication;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TransferStreamHub hub;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hub = new TransferStreamHub(securityHelper, meterRegistry, 2, 0L, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void subscribe_OtherUser_ThrowsException() {
+        when(securityHelper.getCurrentUser(authentication)).thenReturn(User.builder().id(1L).build());
+
+        assertThrows(UnauthorizedException.class, () -> hub.subscribe(2L, authentication));
+        assertEquals(0, hub.connectionCount());
+    }
+
+    @Test
+    void publish_DeliversOnlyToSubscribersOfThatUser() throws Exception {
+        RecordingEmitter user1 = new RecordingEmitter(1);
+        RecordingEmitter user2 = new RecordingEmitter(1);
+        hub.register(1L, user1);
+        hub.register(2L, user2);
+
+        hub.publish(List.of(1L), transfer(10L));
+
+        assertTrue(user1.delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(1, user1.events.size());
+        assertTrue(user2.events.isEmpty());
+    }
+
+    @Test
+    void publishAfterCommit_DeliversOnlyAfterCommit() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter(1);
+        hub.register(1L, emitter);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            hub.publishAfterCommit(List.of(1L), transfer(10L));
+            assertFalse(emitter.delivered.await(100, TimeUnit.MILLISECONDS));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(emitter.delivered.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void publish_SlowConsumer_IsDisconnected() throws Exception {
+        BlockingEmitter slow = new BlockingEmitter();
+        hub.register(1L, slow);
+
+        hub.publish(List.of(1L), transfer(1L));
+        assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+        hub.publish(List.of(1L), transfer(2L));
+        hub.publish(List.of(1L), transfer(3L));
+        hub.publish(List.of(1L), transfer(4L));
+
+        assertEquals(0, hub.connectionCount());
+        assertEquals(1.0, meterRegistry.get("transfer.stream.disconnected.slow").counter().count());
+        slow.release.countDown();
+    }
+
+    @Test
+    void register_OverConnectionLimit_ClosesOldest() {
+        hub.register(1L, new SseEmitter(0L));
+        hub.register(1L, new SseEmitter(0L));
+        hub.register(1L, new SseEmitter(0L));
+
+        assertEquals(2, hub.connectionCount());
+        assertEquals(2.0, meterRegistry.get("transfer.stream.connections").gauge().value());
+    }
+
+    @Test
+    void register_ThousandsOfIdleConnections_StayCheap() {
+        TransferStreamHub idleHub = new TransferStreamHub(securityHelper, new SimpleMeterRegistry(), 64, 0L, 1, 2);
+        int connections = 5_000;
+        List<SseEmitter> emitters = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            emitters.add(new SseEmitter(0L));
+        }
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        try {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < connections; i++) {
+                idleHub.register((long) i + 1, emitters.get(i));
+            }
+            long perConnection = (threads.getThreadAllocatedBytes(threadId) - before) / connections;
+
+            assertEquals(connections, idleHub.connectionCount());
+            assertTrue(perConnection < 4 * 1024, "hub heap per idle connection: " + perConnection);
+        } finally {
+            idleHub.shutdown();
+        }
+    }
+
+    private static TransferResponse transfer(Long id) {
+        return new TransferResponse(id, 1L, 2L, BigDecimal.TEN, "SUCCESS", LocalDateTime.now(), null, null, null, null,
+                null, null);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<SseEventBuilder> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch delivered;
+
+        RecordingEmitter(int expected) {
+            super(0L);
+            this.delivered = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            events.add(builder);
+            delivered.countDown();
+        }
+    }
+
+    private static class BlockingEmitter extends SseEmitter {
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        BlockingEmitter() {
+            super(0L);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
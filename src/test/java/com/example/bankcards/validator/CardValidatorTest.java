@@ -2,6 +2,7 @@ package com.example.bankcards.validator;
 
 import com.example.bankcards.constants.ErrorMessages;
 import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.fx.FxRateService;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.util.CardEncryptionUtil;
 import org.junit.jupiter.api.Test;
@@ -23,6 +24,9 @@ class CardValidatorTest {
     @Mock
     private CardEncryptionUtil cardEncryptionUtil;
 
+    @Mock
+    private FxRateService fxRateService;
+
     @InjectMocks
     private CardValidator cardValidator;
 
@@ -120,4 +124,23 @@ class CardValidatorTest {
 
         assertEquals("Invalid card number format", exception.getMessage());
     }
+
+    @Test
+    void validateCurrency_KnownOrDefault_Success() {
+        when(fxRateService.supports("USD")).thenReturn(true);
+
+        assertDoesNotThrow(() -> cardValidator.validateCurrency("USD"));
+        assertDoesNotThrow(() -> cardValidator.validateCurrency(null));
+    }
+
+    @Test
+    void validateCurrency_NoRate_ThrowsException() {
+        when(fxRateService.supports("GBP")).thenReturn(false);
+
+        BadRequestException exception = assertThrows(BadRequestException.class, () ->
+                cardValidator.validateCurrency("GBP")
+        );
+
+        assertEquals(ErrorMessages.CURRENCY_NOT_SUPPORTED, exception.getMessage());
+    }
 }
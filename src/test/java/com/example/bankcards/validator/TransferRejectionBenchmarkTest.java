@@ -0,0 +1,154 @@
+package com.example.bankcards.validator;
+
+import com.example.bankcards.constants.ErrorMessages;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer.FailureReason;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.InsufficientBalanceException;
+import com.example.bankcards.exception.UnauthorizedException;
+import com.example.bankcards.fx.FxRateService;
+import com.example.bankcards.limit.SpendingLimitService;
+import com.example.bankcards.money.Money;
+import com.example.bankcards.repository.projection.TransferCardView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the cost of declining a transfer. The same stream of rejected requests (same card,
+ * foreign card, blocked card, insufficient balance) is checked once the way the validator did
+ * before, throwing an exception with a stack trace on the first failed check and classifying it
+ * by message, and once through {@link TransferValidator}, which returns a {@link FailureReason}
+ * and builds the stackless exception for the client only at the end. Both paths must give the
+ * same reasons; the {@code benchmark} measurement also logs nanoseconds and bytes allocated per
+ * rejection and checks that result codes allocate less. The stack here is only as deep as the test runner's; under a web request it is
+ * several times deeper, so the old path costs more in production than measured.
+ */
+@Slf4j(topic = "benchmark")
+class TransferRejectionBenchmarkTest {
+
+    private static final int WARM_UP = 200_000;
+    private static final int ROUNDS = 1_000_000;
+    private static final Long USER_ID = 1L;
+    private static final Money AMOUNT = Money.parse("100.00");
+
+    private final TransferValidator validator = new TransferValidator(
+            new SpendingLimitService(null, null, null, new SimpleMeterRegistry(), 96, 4, 0.8, false, false),
+            new FxRateService(null, new SimpleMeterRegistry(), false));
+
+    private final Rejected[] requests = {
+            new Rejected(card(1L, USER_ID, Card.CardStatus.ACTIVE, "1000.00"),
+                    card(1L, USER_ID, Card.CardStatus.ACTIVE, "1000.00")),
+            new Rejected(card(1L, USER_ID, Card.CardStatus.ACTIVE, "1000.00"),
+                    card(2L, 2L, Card.CardStatus.ACTIVE, "0.00")),
+            new Rejected(card(1L, USER_ID, Card.CardStatus.BLOCKED, "1000.00"),
+                    card(2L, USER_ID, Card.CardStatus.ACTIVE, "0.00")),
+            new Rejected(card(1L, USER_ID, Card.CardStatus.ACTIVE, "50.00"),
+                    card(2L, USER_ID, Card.CardStatus.ACTIVE, "0.00")),
+    };
+
+    @Test
+    void rejection_ResultCodesMatchExceptions() {
+        for (Rejected request : requests) {
+            int reason = rejectWithResultCode(request);
+
+            assertTrue(reason >= 0);
+            assertEquals(rejectWithException(request), reason);
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void rejection_ResultCodesAllocateLessThanExceptions() {
+        Result exceptions = measure(this::rejectWithException);
+        Result resultCodes = measure(this::rejectWithResultCode);
+
+        log.info("exceptions: {} ns/rejection, {} bytes/rejection", exceptions.nanosPerOp(), exceptions.bytesPerOp());
+        log.info("result codes: {} ns/rejection, {} bytes/rejection", resultCodes.nanosPerOp(), resultCodes.bytesPerOp());
+
+        assertEquals(exceptions.checksum(), resultCodes.checksum());
+        assertTrue(resultCodes.bytesPerOp() < exceptions.bytesPerOp(),
+                "result codes allocated " + resultCodes.bytesPerOp() + " bytes per rejection vs " + exceptions.bytesPerOp());
+    }
+
+    /**
+     * The former path: the first failed check throws, the caller records the reason taken from the
+     * message and rethrows to the exception handler.
+     */
+    private int rejectWithException(Rejected request) {
+        try {
+            validateTransfer(request.from(), request.to());
+            return -1;
+        } catch (RuntimeException e) {
+            return FailureReason.fromMessage(e.getMessage()).ordinal();
+        }
+    }
+
+    private static void validateTransfer(TransferCardView from, TransferCardView to) {
+        if (from.id().equals(to.id())) {
+            throw new BadRequestException(ErrorMessages.TRANSFER_SAME_CARD);
+        }
+        if (!from.ownerId().equals(USER_ID)) {
+            throw new UnauthorizedException(ErrorMessages.UNAUTHORIZED_TRANSFER_FROM);
+        }
+        if (!to.ownerId().equals(USER_ID)) {
+            throw new UnauthorizedException(ErrorMessages.UNAUTHORIZED_TRANSFER_TO);
+        }
+        if (from.status() != Card.CardStatus.ACTIVE) {
+            throw new BadRequestException(ErrorMessages.SOURCE_CARD_NOT_ACTIVE);
+        }
+        if (to.status() != Card.CardStatus.ACTIVE) {
+            throw new BadRequestException(ErrorMessages.DESTINATION_CARD_NOT_ACTIVE);
+        }
+        if (from.balance().isLessThan(AMOUNT)) {
+            throw new InsufficientBalanceException(ErrorMessages.INSUFFICIENT_BALANCE);
+        }
+    }
+
+    private int rejectWithResultCode(Rejected request) {
+        FailureReason reason = validator.checkRequest(request.from().id(), request.to().id());
+        if (reason == null) {
+            reason = validator.checkCards(request.from(), request.to(), USER_ID, AMOUNT);
+        }
+        if (reason == null) {
+            return -1;
+        }
+        try {
+            throw TransferValidator.toException(reason);
+        } catch (RuntimeException e) {
+            return reason.ordinal();
+        }
+    }
+
+    private Result measure(ToIntFunction<Rejected> rejection) {
+        long checksum = 0;
+        for (int i = 0; i < WARM_UP; i++) {
+            checksum += rejection.applyAsInt(requests[i % requests.length]);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        checksum = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            checksum += rejection.applyAsInt(requests[i % requests.length]);
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Result((double) nanos / ROUNDS, (double) allocated / ROUNDS, checksum);
+    }
+
+    private static TransferCardView card(Long id, Long ownerId, Card.CardStatus status, String balance) {
+        return new TransferCardView(id, ownerId, status, Money.parse(balance), "RUB");
+    }
+
+    private record Rejected(TransferCardView from, TransferCardView to) {}
+
+    private record Result(double nanosPerOp, double bytesPerOp, long checksum) {}
+}
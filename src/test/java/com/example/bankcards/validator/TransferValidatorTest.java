@@ -2,22 +2,34 @@ package com.example.bankcards.validator;
 
 import com.example.bankcards.constants.ErrorMessages;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer.FailureReason;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.exception.InsufficientBalanceException;
+import com.example.bankcards.exception.ResourceNotFoundException;
 import com.example.bankcards.exception.UnauthorizedException;
+import com.example.bankcards.fx.FxRateService;
+import com.example.bankcards.limit.SpendingLimitService;
+import com.example.bankcards.money.Money;
+import com.example.bankcards.repository.projection.TransferCardView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.HashSet;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 class TransferValidatorTest {
 
     private TransferValidator transferValidator;
+    private SpendingLimitService spendingLimitService;
+    private FxRateService fxRateService;
     private User testUser;
     private User otherUser;
     private Card activeCardWithBalance;
@@ -26,7 +38,9 @@ class TransferValidatorTest {
 
     @BeforeEach
     void setUp() {
-        transferValidator = new TransferValidator();
+        spendingLimitService = mock(SpendingLimitService.class);
+        fxRateService = mock(FxRateService.class);
+        transferValidator = new TransferValidator(spendingLimitService, fxRateService);
 
         testUser = User.builder()
                 .id(1L)
@@ -47,7 +61,7 @@ class TransferValidatorTest {
                 .cardNumber("encrypted123")
                 .expiryDate(LocalDate.now().plusYears(2))
                 .status(Card.CardStatus.ACTIVE)
-                .balance(BigDecimal.valueOf(1000))
+                .balance(Money.parse("1000"))
                 .user(testUser)
                 .build();
 
@@ -56,7 +70,7 @@ class TransferValidatorTest {
                 .cardNumber("encrypted456")
                 .expiryDate(LocalDate.now().plusYears(2))
                 .status(Card.CardStatus.ACTIVE)
-                .balance(BigDecimal.ZERO)
+                .balance(Money.ZERO)
                 .user(testUser)
                 .build();
 
@@ -65,143 +79,152 @@ class TransferValidatorTest {
                 .cardNumber("encrypted789")
                 .expiryDate(LocalDate.now().plusYears(2))
                 .status(Card.CardStatus.BLOCKED)
-                .balance(BigDecimal.valueOf(500))
+                .balance(Money.parse("500"))
                 .user(testUser)
                 .build();
     }
 
     @Test
-    void validateTransfer_Success() {
-        Card toCard = Card.builder()
-                .id(4L)
-                .cardNumber("encrypted000")
-                .expiryDate(LocalDate.now().plusYears(2))
-                .status(Card.CardStatus.ACTIVE)
-                .balance(BigDecimal.valueOf(500))
-                .user(testUser)
-                .build();
-
-        assertDoesNotThrow(() ->
-                transferValidator.validateTransfer(
-                        activeCardWithBalance,
-                        toCard,
-                        BigDecimal.valueOf(100),
-                        testUser
-                )
-        );
+    void checkRequest_DifferentCards_Passes() {
+        assertNull(transferValidator.checkRequest(1L, 2L));
     }
 
     @Test
-    void validateTransfer_SameCard_ThrowsException() {
-        BadRequestException exception = assertThrows(BadRequestException.class, () ->
-                transferValidator.validateTransfer(
-                        activeCardWithBalance,
-                        activeCardWithBalance,
-                        BigDecimal.valueOf(100),
-                        testUser
-                )
-        );
+    void checkRequest_SameCard_Rejects() {
+        assertEquals(FailureReason.SAME_CARD, transferValidator.checkRequest(1L, 1L));
+    }
 
-        assertEquals(ErrorMessages.TRANSFER_SAME_CARD, exception.getMessage());
+    @Test
+    void checkCards_Success() {
+        assertNull(check(activeCardWithBalance, activeCardWithoutBalance, "100"));
     }
 
     @Test
-    void validateTransfer_FromCardNotOwnedByUser_ThrowsException() {
-        Card otherUserCard = Card.builder()
-                .id(5L)
-                .cardNumber("encrypted999")
-                .expiryDate(LocalDate.now().plusYears(2))
-                .status(Card.CardStatus.ACTIVE)
-                .balance(BigDecimal.valueOf(1000))
-                .user(otherUser)
-                .build();
+    void checkCards_MissingCards_Rejects() {
+        TransferCardView card = TransferCardView.of(activeCardWithBalance);
 
-        UnauthorizedException exception = assertThrows(UnauthorizedException.class, () ->
-                transferValidator.validateTransfer(
-                        otherUserCard,
-                        activeCardWithBalance,
-                        BigDecimal.valueOf(100),
-                        testUser
-                )
-        );
+        assertEquals(FailureReason.SOURCE_CARD_NOT_FOUND,
+                transferValidator.checkCards(null, card, testUser.getId(), Money.parse("100")));
+        assertEquals(FailureReason.DESTINATION_CARD_NOT_FOUND,
+                transferValidator.checkCards(card, null, testUser.getId(), Money.parse("100")));
+    }
 
-        assertEquals(ErrorMessages.UNAUTHORIZED_TRANSFER_FROM, exception.getMessage());
+    @Test
+    void checkCards_FromCardNotOwnedByUser_Rejects() {
+        assertEquals(FailureReason.NOT_SOURCE_CARD_OWNER,
+                check(otherUserCard(), activeCardWithBalance, "100"));
     }
 
     @Test
-    void validateTransfer_ToCardNotOwnedByUser_ThrowsException() {
-        Card otherUserCard = Card.builder()
-                .id(5L)
-                .cardNumber("encrypted999")
-                .expiryDate(LocalDate.now().plusYears(2))
-                .status(Card.CardStatus.ACTIVE)
-                .balance(BigDecimal.valueOf(1000))
-                .user(otherUser)
-                .build();
+    void checkCards_ToCardNotOwnedByUser_Rejects() {
+        assertEquals(FailureReason.NOT_DESTINATION_CARD_OWNER,
+                check(activeCardWithBalance, otherUserCard(), "100"));
+    }
+
+    @Test
+    void checkCards_OwnershipCheckedBeforeStatusAndBalance() {
+        Card otherUserBlockedCard = otherUserCard();
+        otherUserBlockedCard.setStatus(Card.CardStatus.BLOCKED);
+
+        assertEquals(FailureReason.NOT_SOURCE_CARD_OWNER,
+                check(otherUserBlockedCard, activeCardWithBalance, "5000"));
+    }
 
-        UnauthorizedException exception = assertThrows(UnauthorizedException.class, () ->
-                transferValidator.validateTransfer(
-                        activeCardWithBalance,
-                        otherUserCard,
-                        BigDecimal.valueOf(100),
-                        testUser
-                )
-        );
+    @Test
+    void checkCards_SourceCardBlocked_Rejects() {
+        assertEquals(FailureReason.SOURCE_CARD_NOT_ACTIVE,
+                check(blockedCard, activeCardWithBalance, "100"));
+    }
 
-        assertEquals(ErrorMessages.UNAUTHORIZED_TRANSFER_TO, exception.getMessage());
+    @Test
+    void checkCards_DestinationCardBlocked_Rejects() {
+        assertEquals(FailureReason.DESTINATION_CARD_NOT_ACTIVE,
+                check(activeCardWithBalance, blockedCard, "100"));
     }
 
     @Test
-    void validateTransfer_SourceCardBlocked_ThrowsException() {
-        BadRequestException exception = assertThrows(BadRequestException.class, () ->
-                transferValidator.validateTransfer(
-                        blockedCard,
-                        activeCardWithBalance,
-                        BigDecimal.valueOf(100),
-                        testUser
-                )
-        );
+    void checkCards_InsufficientBalance_Rejects() {
+        assertEquals(FailureReason.INSUFFICIENT_BALANCE,
+                check(activeCardWithBalance, activeCardWithoutBalance, "2000"));
+    }
 
-        assertEquals(ErrorMessages.SOURCE_CARD_NOT_ACTIVE, exception.getMessage());
+    @Test
+    void checkCards_ExactBalance_Success() {
+        assertNull(check(activeCardWithBalance, activeCardWithoutBalance, "1000"));
     }
 
     @Test
-    void validateTransfer_DestinationCardBlocked_ThrowsException() {
-        BadRequestException exception = assertThrows(BadRequestException.class, () ->
-                transferValidator.validateTransfer(
-                        activeCardWithBalance,
-                        blockedCard,
-                        BigDecimal.valueOf(100),
-                        testUser
-                )
-        );
+    void checkCards_UnsupportedCurrency_Rejects() {
+        activeCardWithoutBalance.setCurrency("USD");
+        when(fxRateService.supports("RUB")).thenReturn(true);
+
+        assertEquals(FailureReason.FX_RATE_UNAVAILABLE,
+                check(activeCardWithBalance, activeCardWithoutBalance, "100"));
 
-        assertEquals(ErrorMessages.DESTINATION_CARD_NOT_ACTIVE, exception.getMessage());
+        when(fxRateService.supports("USD")).thenReturn(true);
+        assertNull(check(activeCardWithBalance, activeCardWithoutBalance, "100"));
     }
 
     @Test
-    void validateTransfer_InsufficientBalance_ThrowsException() {
-        InsufficientBalanceException exception = assertThrows(InsufficientBalanceException.class, () ->
-                transferValidator.validateTransfer(
-                        activeCardWithBalance,
-                        activeCardWithoutBalance,
-                        BigDecimal.valueOf(2000),
-                        testUser
-                )
-        );
+    void checkLocked_ChecksSpendingLimitsLast() {
+        assertEquals(FailureReason.INSUFFICIENT_BALANCE, transferValidator.checkLocked(
+                activeCardWithBalance, activeCardWithoutBalance, testUser.getId(), Money.parse("2000")));
+        verify(spendingLimitService, never()).tryReserve(any(), any());
+
+        assertNull(transferValidator.checkLocked(
+                activeCardWithBalance, activeCardWithoutBalance, testUser.getId(), Money.parse("10")));
+        verify(spendingLimitService).tryReserve(activeCardWithBalance, Money.parse("10"));
+    }
 
-        assertEquals(ErrorMessages.INSUFFICIENT_BALANCE, exception.getMessage());
+    @Test
+    void checkLocked_LimitExceeded_Rejects() {
+        when(spendingLimitService.tryReserve(any(), any())).thenReturn(FailureReason.DAILY_LIMIT_EXCEEDED);
+
+        assertEquals(FailureReason.DAILY_LIMIT_EXCEEDED, transferValidator.checkLocked(
+                activeCardWithBalance, activeCardWithoutBalance, testUser.getId(), Money.parse("10")));
+    }
+
+    @Test
+    void toException_KeepsTypesAndMessagesOfFailedChecks() {
+        assertException(ResourceNotFoundException.class, ErrorMessages.SOURCE_CARD_NOT_FOUND,
+                FailureReason.SOURCE_CARD_NOT_FOUND);
+        assertException(UnauthorizedException.class, ErrorMessages.UNAUTHORIZED_TRANSFER_TO,
+                FailureReason.NOT_DESTINATION_CARD_OWNER);
+        assertException(InsufficientBalanceException.class, ErrorMessages.INSUFFICIENT_BALANCE,
+                FailureReason.INSUFFICIENT_BALANCE);
+        assertException(BadRequestException.class, ErrorMessages.TRANSFER_SAME_CARD,
+                FailureReason.SAME_CARD);
+        assertException(BadRequestException.class, ErrorMessages.DAILY_LIMIT_EXCEEDED,
+                FailureReason.DAILY_LIMIT_EXCEEDED);
     }
 
     @Test
-    void validateTransfer_ExactBalance_Success() {
-        assertDoesNotThrow(() ->
-                transferValidator.validateTransfer(
-                        activeCardWithBalance,
-                        activeCardWithoutBalance,
-                        BigDecimal.valueOf(1000),
-                        testUser
-                )
-        );
+    void toException_HasNoStackTrace() {
+        RuntimeException exception = TransferValidator.toException(FailureReason.INSUFFICIENT_BALANCE);
+
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    private FailureReason check(Card fromCard, Card toCard, String amount) {
+        return transferValidator.checkCards(TransferCardView.of(fromCard), TransferCardView.of(toCard),
+                testUser.getId(), Money.parse(amount));
+    }
+
+    private Card otherUserCard() {
+        return Card.builder()
+                .id(5L)
+                .cardNumber("encrypted999")
+                .expiryDate(LocalDate.now().plusYears(2))
+                .status(Card.CardStatus.ACTIVE)
+                .balance(Money.parse("1000"))
+                .user(otherUser)
+                .build();
+    }
+
+    private static void assertException(Class<? extends RuntimeException> type, String message, FailureReason reason) {
+        RuntimeException exception = TransferValidator.toException(reason);
+
+        assertInstanceOf(type, exception);
+        assertEquals(message, exception.getMessage());
     }
 }